@@ -1,6 +1,7 @@
 plugins {
     id("bson-model3.java-library-conventions")
     id("bson-model3.publish-conventions")
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 dependencies {
@@ -39,6 +40,11 @@ tasks.test {
     jvmArgs = jvmArgs + listOf("-server")
 }
 
+jmh {
+    // the benchmarks use the generated models of the tests
+    includeTests.set(true)
+}
+
 publishing {
     publications {
         create<MavenPublication>("mavenJava") {
@@ -0,0 +1,61 @@
+package com.github.fmjsjx.bson.model3.core;
+
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import org.bson.conversions.Bson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link AbstractMapModel#appendUpdates(List)} with and without
+ * the switching to full updates, see
+ * {@link AbstractMapModel#fullUpdateRatio(double)}.
+ * <p>
+ * Run with {@code ./gradlew :bson-model3-core:jmh}.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapUpdatesBenchmark {
+
+    @Param({"1000"})
+    private int size;
+
+    @Param({"2", "100", "1000"})
+    private int changed;
+
+    @Param({"0", "1.0"})
+    private double fullUpdateRatio;
+
+    private SingleValueMapModel<Integer, Integer> map;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        if (map == null) {
+            map = new Player().getItems().fullUpdateRatio(fullUpdateRatio);
+            for (var i = 0; i < size; i++) {
+                map.put(i, i);
+            }
+        }
+        map.reset();
+        for (var i = 0; i < changed; i++) {
+            map.put(i, map.get(i) + 1);
+        }
+    }
+
+    @Benchmark
+    public List<Bson> appendUpdates() {
+        var updates = new ArrayList<Bson>();
+        map.appendUpdates(updates);
+        return updates;
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.github.fmjsjx.bson.model3.core.snapshot;
+
+import com.github.fmjsjx.bson.model3.core.json.JsonStoreDataCodec;
+import com.github.fmjsjx.bson.model3.core.json.JsonStoreDataCodecs;
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import com.github.fmjsjx.libcommon.json.Fastjson2Library;
+import com.github.fmjsjx.libcommon.json.Jackson3Library;
+import com.github.fmjsjx.libcommon.json.JsonLibrary;
+import com.github.fmjsjx.libcommon.json.JsoniterLibrary;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the snapshots of the root models with the JSON store data, in
+ * both the data binding of the JSON libraries and the direct
+ * {@link JsonStoreDataCodec}s.
+ * <p>
+ * Run with {@code ./gradlew :bson-model3-core:jmh}.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    @Param({"fastjson2", "jackson3", "jsoniter"})
+    private String library;
+
+    private Player player;
+    private byte[] snapshot;
+    private JsonLibrary<?> jsonLibrary;
+    private JsonStoreDataCodec codec;
+    private String json;
+    private byte[] jsonBytes;
+
+    @Setup
+    public void setup() {
+        player = PlayerFixtures.createPlayer();
+        snapshot = player.toSnapshot();
+        switch (library) {
+            case "fastjson2" -> {
+                jsonLibrary = Fastjson2Library.getInstance();
+                codec = JsonStoreDataCodecs.fastjson2();
+            }
+            case "jackson3" -> {
+                jsonLibrary = Jackson3Library.getInstance();
+                codec = JsonStoreDataCodecs.jackson();
+            }
+            case "jsoniter" -> {
+                jsonLibrary = JsoniterLibrary.getInstance();
+                codec = JsonStoreDataCodecs.jsoniter();
+            }
+            default -> throw new IllegalArgumentException("Unknown library " + library);
+        }
+        json = player.jsonMarshal(jsonLibrary);
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] writeSnapshot() {
+        return player.toSnapshot();
+    }
+
+    @Benchmark
+    public Player readSnapshot() {
+        return new Player().readFrom(snapshot);
+    }
+
+    @Benchmark
+    public String writeJsonDataBinding() {
+        return player.jsonMarshal(jsonLibrary);
+    }
+
+    @Benchmark
+    public Player readJsonDataBinding() {
+        return new Player().jsonUnmarshal(jsonLibrary, json);
+    }
+
+    @Benchmark
+    public byte[] writeJsonCodec() {
+        return codec.marshalToBytes(player);
+    }
+
+    @Benchmark
+    public Player readJsonCodec() {
+        var copy = new Player();
+        codec.unmarshal(copy, jsonBytes);
+        return copy;
+    }
+
+}
@@ -181,4 +181,20 @@ public abstract class AbstractBsonModel<T extends BsonValue, Self extends Abstra
      */
     protected abstract void onChildChanged(int index, @Nullable Object key);
 
+    /**
+     * Applies the specified update, whose name at the specified depth is
+     * resolved against this model, without marking anything as changed.
+     * <p>
+     * Returns {@code false} as default, then the parent patches and
+     * reloads this model as a whole.
+     *
+     * @param update the update
+     * @param depth  the depth of the name resolved against this model
+     * @return {@code true} if the update is applied or ignored by this
+     * model, {@code false} if this model must be reloaded as a whole
+     */
+    boolean applyPathUpdate(PathUpdate update, int depth) {
+        return false;
+    }
+
 }
@@ -1,6 +1,13 @@
 package com.github.fmjsjx.bson.model3.core;
 
+import com.github.fmjsjx.bson.model3.core.json.JsonDataReader;
+import com.github.fmjsjx.bson.model3.core.json.JsonDataWriter;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotInput;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotOutput;
+import com.github.fmjsjx.bson.model3.core.util.BsonSizeUtil;
+import com.github.fmjsjx.bson.model3.core.util.CompactMap;
 import com.github.fmjsjx.libcommon.collection.ListSet;
+import com.github.fmjsjx.libcommon.util.SystemPropertyUtil;
 import org.bson.BsonDocument;
 import org.bson.BsonValue;
 import org.bson.conversions.Bson;
@@ -30,7 +37,19 @@ public abstract class AbstractMapModel<K, V, Self extends AbstractMapModel<K, V,
     protected final Function<? super K, ? extends String> keyMapper;
     protected final Function<? super String, ? extends K> keyParser;
     protected final Map<K, @Nullable V> mappings;
-    protected final Set<K> changedKeys = new LinkedHashSet<>();
+    protected final Set<K> changedKeys;
+
+    private static final String FULL_UPDATE_RATIO_KEY = "bson.model3.core.map.fullUpdateRatio";
+    private static final double DEFAULT_FULL_UPDATE_RATIO = 0;
+
+    private static final double defaultFullUpdateRatio = Double.parseDouble(
+            SystemPropertyUtil.get(FULL_UPDATE_RATIO_KEY, String.valueOf(DEFAULT_FULL_UPDATE_RATIO)));
+
+    protected double fullUpdateRatio = defaultFullUpdateRatio;
+
+    private static final int SNAPSHOT_KEY_STRING = 0;
+    private static final int SNAPSHOT_KEY_INTEGER = 1;
+    private static final int SNAPSHOT_KEY_LONG = 2;
 
     /**
      * Constructs a new {@link AbstractMapModel} instance with the
@@ -52,7 +71,37 @@ public abstract class AbstractMapModel<K, V, Self extends AbstractMapModel<K, V,
      */
     protected AbstractMapModel(Function<? super String, ? extends K> keyParser,
                                Function<? super K, ? extends String> keyMapper) {
-        this(keyParser, keyMapper, new LinkedHashMap<>(), false);
+        this(keyParser, keyMapper, false);
+    }
+
+    /**
+     * Constructs a new {@link AbstractMapModel} instance with the
+     * specified keyParser, use {@link CompactMap} if {@code compact} is
+     * {@code true}, otherwise use {@link LinkedHashMap}.
+     *
+     * @param keyParser the function parses keys from {@link String}s
+     * @param compact   {@code true} if use {@link CompactMap}
+     */
+    protected AbstractMapModel(Function<? super String, ? extends K> keyParser, boolean compact) {
+        this(keyParser, Object::toString, compact);
+    }
+
+    /**
+     * Constructs a new {@link AbstractMapModel} instance with the
+     * specified keyParser and the specified keyMapper, use
+     * {@link CompactMap} if {@code compact} is {@code true}, otherwise
+     * use {@link LinkedHashMap}.
+     * <p>
+     * The {@link CompactMap} costs much less memory for small maps, and
+     * will be upgraded to a hash table automatically when it grows.
+     *
+     * @param keyParser the function parses keys from {@link String}s
+     * @param keyMapper the function converts keys to {@link String}s
+     * @param compact   {@code true} if use {@link CompactMap}
+     */
+    protected AbstractMapModel(Function<? super String, ? extends K> keyParser,
+                               Function<? super K, ? extends String> keyMapper, boolean compact) {
+        this(keyParser, keyMapper, compact ? new CompactMap<>() : new LinkedHashMap<>(), false);
     }
 
     /**
@@ -71,6 +120,187 @@ public abstract class AbstractMapModel<K, V, Self extends AbstractMapModel<K, V,
         this.keyMapper = keyMapper;
         this.keyParser = keyParser;
         this.mappings = copy ? new LinkedHashMap<>(mappings) : mappings;
+        this.changedKeys = this.mappings instanceof CompactMap ? CompactMap.newSet() : new LinkedHashSet<>();
+    }
+
+    /**
+     * Returns whether this map model uses the compact representation.
+     *
+     * @return {@code true} if this map model uses the compact
+     * representation, {@code false} otherwise
+     * @see CompactMap
+     */
+    public boolean isCompact() {
+        return mappings instanceof CompactMap;
+    }
+
+    /**
+     * Returns whether this map model uses the sorted representation, a
+     * {@link TreeMap} ordered by the natural ordering of the keys.
+     * <p>
+     * Only sorted map models support the navigation methods, such as
+     * {@link #floorKey(Object)} and {@link #tailMap(Object, boolean)}.
+     *
+     * @return {@code true} if this map model uses the sorted
+     * representation, {@code false} otherwise
+     */
+    public boolean isSorted() {
+        return mappings instanceof NavigableMap;
+    }
+
+    /**
+     * Creates a new empty {@link Map} with the same representation as the
+     * mappings of this model.
+     */
+    Map<K, @Nullable V> newMappings() {
+        if (mappings instanceof CompactMap) {
+            return new CompactMap<>();
+        }
+        if (mappings instanceof NavigableMap) {
+            return new TreeMap<>();
+        }
+        return new LinkedHashMap<>();
+    }
+
+    private NavigableMap<K, @Nullable V> navigableMappings() {
+        if (mappings instanceof NavigableMap<K, @Nullable V> navigableMappings) {
+            return navigableMappings;
+        }
+        throw new UnsupportedOperationException(getClass().getName() + " is not sorted");
+    }
+
+    /**
+     * Returns the lowest key of this sorted map model.
+     *
+     * @return the lowest key, or {@code null} if this map is empty
+     * @throws UnsupportedOperationException if this map model is not
+     *                                       sorted
+     */
+    public @Nullable K firstKey() {
+        var mappings = navigableMappings();
+        return mappings.isEmpty() ? null : mappings.firstKey();
+    }
+
+    /**
+     * Returns the highest key of this sorted map model.
+     *
+     * @return the highest key, or {@code null} if this map is empty
+     * @throws UnsupportedOperationException if this map model is not
+     *                                       sorted
+     */
+    public @Nullable K lastKey() {
+        var mappings = navigableMappings();
+        return mappings.isEmpty() ? null : mappings.lastKey();
+    }
+
+    /**
+     * Returns the greatest key less than or equal to the specified key.
+     *
+     * @param key the key
+     * @return the greatest key less than or equal to {@code key}, or
+     * {@code null} if there is no such key
+     * @throws UnsupportedOperationException if this map model is not
+     *                                       sorted
+     */
+    public @Nullable K floorKey(K key) {
+        return navigableMappings().floorKey(key);
+    }
+
+    /**
+     * Returns the least key greater than or equal to the specified key.
+     *
+     * @param key the key
+     * @return the least key greater than or equal to {@code key}, or
+     * {@code null} if there is no such key
+     * @throws UnsupportedOperationException if this map model is not
+     *                                       sorted
+     */
+    public @Nullable K ceilingKey(K key) {
+        return navigableMappings().ceilingKey(key);
+    }
+
+    /**
+     * Returns the greatest key strictly less than the specified key.
+     *
+     * @param key the key
+     * @return the greatest key less than {@code key}, or {@code null} if
+     * there is no such key
+     * @throws UnsupportedOperationException if this map model is not
+     *                                       sorted
+     */
+    public @Nullable K lowerKey(K key) {
+        return navigableMappings().lowerKey(key);
+    }
+
+    /**
+     * Returns the least key strictly greater than the specified key.
+     *
+     * @param key the key
+     * @return the least key greater than {@code key}, or {@code null} if
+     * there is no such key
+     * @throws UnsupportedOperationException if this map model is not
+     *                                       sorted
+     */
+    public @Nullable K higherKey(K key) {
+        return navigableMappings().higherKey(key);
+    }
+
+    /**
+     * Returns an unmodifiable view of the portion of this sorted map
+     * model whose keys range from {@code fromKey} to {@code toKey}.
+     * <p>
+     * The view is backed by this model, so it reflects all later changes
+     * of this model, and all changes must be made through this model to
+     * be tracked.
+     *
+     * @param fromKey       the low endpoint of the keys
+     * @param fromInclusive {@code true} if the low endpoint is included
+     * @param toKey         the high endpoint of the keys
+     * @param toInclusive   {@code true} if the high endpoint is included
+     * @return an unmodifiable view of the portion of this map
+     * @throws UnsupportedOperationException if this map model is not
+     *                                       sorted
+     * @throws IllegalArgumentException      if {@code fromKey} is greater
+     *                                       than {@code toKey}
+     */
+    public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        return Collections.unmodifiableNavigableMap(navigableMappings().subMap(fromKey, fromInclusive, toKey, toInclusive));
+    }
+
+    /**
+     * Returns an unmodifiable view of the portion of this sorted map
+     * model whose keys are less than (or equal to, if {@code inclusive}
+     * is {@code true}) {@code toKey}.
+     * <p>
+     * The view is backed by this model the same way as
+     * {@link #subMap(Object, boolean, Object, boolean)}.
+     *
+     * @param toKey     the high endpoint of the keys
+     * @param inclusive {@code true} if the high endpoint is included
+     * @return an unmodifiable view of the portion of this map
+     * @throws UnsupportedOperationException if this map model is not
+     *                                       sorted
+     */
+    public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+        return Collections.unmodifiableNavigableMap(navigableMappings().headMap(toKey, inclusive));
+    }
+
+    /**
+     * Returns an unmodifiable view of the portion of this sorted map
+     * model whose keys are greater than (or equal to, if
+     * {@code inclusive} is {@code true}) {@code fromKey}.
+     * <p>
+     * The view is backed by this model the same way as
+     * {@link #subMap(Object, boolean, Object, boolean)}.
+     *
+     * @param fromKey   the low endpoint of the keys
+     * @param inclusive {@code true} if the low endpoint is included
+     * @return an unmodifiable view of the portion of this map
+     * @throws UnsupportedOperationException if this map model is not
+     *                                       sorted
+     */
+    public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+        return Collections.unmodifiableNavigableMap(navigableMappings().tailMap(fromKey, inclusive));
     }
 
     @Override
@@ -120,6 +350,31 @@ public abstract class AbstractMapModel<K, V, Self extends AbstractMapModel<K, V,
         return bsonDocument;
     }
 
+    @Override
+    public int estimateBsonSize() {
+        var elementsSize = 0;
+        for (var entry : mappings.entrySet()) {
+            V value = entry.getValue();
+            if (value != null) {
+                elementsSize += BsonSizeUtil.elementSize(mapKey(entry.getKey()), estimateValueSize(value));
+            }
+        }
+        return BsonSizeUtil.documentSize(elementsSize);
+    }
+
+    /**
+     * Returns the estimated encoded size of the specified value.
+     * <p>
+     * The default implementation computes the size of the result of
+     * {@link #encodeValue(Object)}.
+     *
+     * @param value the value
+     * @return the estimated encoded size
+     */
+    protected int estimateValueSize(V value) {
+        return BsonSizeUtil.sizeOf(encodeValue(value));
+    }
+
     /**
      * Encodes the specified value to a {@link BsonValue}.
      *
@@ -150,6 +405,34 @@ public abstract class AbstractMapModel<K, V, Self extends AbstractMapModel<K, V,
      */
     protected abstract V decodeValue(BsonValue value);
 
+    /**
+     * Resolves the name at the specified depth as a key, the update is
+     * resolved further by the value if it is a model, otherwise the value
+     * is patched and reloaded, without marking the key as changed.
+     */
+    @Override
+    boolean applyPathUpdate(PathUpdate update, int depth) {
+        var name = update.name(depth);
+        K key = parseKey(name);
+        V value = mappings.get(key);
+        if (!update.isLast(depth) && value instanceof AbstractBsonModel<?, ?> model
+                && model.applyPathUpdate(update, depth + 1)) {
+            return true;
+        }
+        var src = new BsonDocument();
+        if (value != null) {
+            src.put(name, encodeValue(value));
+        }
+        update.applyTo(src, depth);
+        var loaded = src.get(name);
+        if (loaded == null || loaded.isNull()) {
+            removeMapping(key);
+        } else {
+            putMapping(key, decodeValue(loaded));
+        }
+        return true;
+    }
+
     /**
      * Associates the specified value with the specified key.
      *
@@ -217,6 +500,222 @@ public abstract class AbstractMapModel<K, V, Self extends AbstractMapModel<K, V,
      */
     protected abstract V decodeStoreValue(Object value);
 
+    @Override
+    public void writeStoreData(JsonDataWriter writer) {
+        writer.writeStartObject();
+        for (var entry : mappings.entrySet()) {
+            V value = entry.getValue();
+            if (value != null) {
+                writer.writeName(mapKey(entry.getKey()));
+                writeStoreValue(writer, value);
+            }
+        }
+        writer.writeEndObject();
+    }
+
+    /**
+     * Writes the store value of the specified value to the specified
+     * {@link JsonDataWriter}.
+     * <p>
+     * Writes the result of {@link #encodeStoreValue(Object)} as default.
+     *
+     * @param writer the {@link JsonDataWriter}
+     * @param value  the value
+     */
+    protected void writeStoreValue(JsonDataWriter writer, V value) {
+        writer.writeValue(encodeStoreValue(value));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Self readStoreData(JsonDataReader reader) {
+        clean();
+        if (reader.readNull()) {
+            return (Self) this;
+        }
+        reader.readStartObject();
+        for (var name = reader.nextName(); name != null; name = reader.nextName()) {
+            K key = parseKey(name);
+            if (!reader.readNull()) {
+                putMapping(key, readStoreValue(reader));
+            }
+        }
+        return (Self) this;
+    }
+
+    /**
+     * Reads the next store value from the specified
+     * {@link JsonDataReader}.
+     * <p>
+     * Decodes the generic value by {@link #decodeStoreValue(Object)} as
+     * default.
+     *
+     * @param reader the {@link JsonDataReader}
+     * @return the value
+     */
+    protected V readStoreValue(JsonDataReader reader) {
+        return decodeStoreValue(Objects.requireNonNull(reader.readValue()));
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput out) {
+        var mappings = this.mappings;
+        var size = 0;
+        for (var value : mappings.values()) {
+            if (value != null) {
+                size++;
+            }
+        }
+        out.writeSize(size);
+        for (var entry : mappings.entrySet()) {
+            V value = entry.getValue();
+            if (value != null) {
+                writeSnapshotKey(out, entry.getKey());
+                writeSnapshotValue(out, value);
+            }
+        }
+    }
+
+    /**
+     * Writes the specified key to the specified {@link SnapshotOutput}.
+     * <p>
+     * {@link Integer} and {@link Long} keys are written as numbers, and
+     * other keys are written as the result of {@link #mapKey(Object)}.
+     *
+     * @param out the {@link SnapshotOutput}
+     * @param key the key
+     */
+    protected void writeSnapshotKey(SnapshotOutput out, K key) {
+        switch (key) {
+            case Integer intKey -> out.writeVarInt(SNAPSHOT_KEY_INTEGER).writeInt(intKey);
+            case Long longKey -> out.writeVarInt(SNAPSHOT_KEY_LONG).writeLong(longKey);
+            default -> out.writeVarInt(SNAPSHOT_KEY_STRING).writeString(mapKey(key));
+        }
+    }
+
+    /**
+     * Writes the specified value to the specified
+     * {@link SnapshotOutput}.
+     *
+     * @param out   the {@link SnapshotOutput}
+     * @param value the value
+     */
+    protected abstract void writeSnapshotValue(SnapshotOutput out, V value);
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Self readSnapshot(SnapshotInput in) {
+        clean();
+        for (var i = in.readSize(); i > 0; i--) {
+            K key = readSnapshotKey(in);
+            putMapping(key, readSnapshotValue(in));
+        }
+        return (Self) this;
+    }
+
+    /**
+     * Reads the next key from the specified {@link SnapshotInput}.
+     *
+     * @param in the {@link SnapshotInput}
+     * @return the key
+     * @see #writeSnapshotKey(SnapshotOutput, Object)
+     */
+    @SuppressWarnings("unchecked")
+    protected K readSnapshotKey(SnapshotInput in) {
+        // number keys can be cast directly, because the schema fingerprint
+        // ensures the snapshot is written by the same type of map model
+        return switch (in.readVarInt()) {
+            case SNAPSHOT_KEY_INTEGER -> (K) Integer.valueOf(in.readInt());
+            case SNAPSHOT_KEY_LONG -> (K) Long.valueOf(in.readLong());
+            default -> parseKey(in.readString());
+        };
+    }
+
+    /**
+     * Reads the next value from the specified {@link SnapshotInput}.
+     *
+     * @param in the {@link SnapshotInput}
+     * @return the value
+     */
+    protected abstract V readSnapshotValue(SnapshotInput in);
+
+    /**
+     * Writes the changes of this model since the last reset to the
+     * specified {@link SnapshotOutput}.
+     * <p>
+     * The whole snapshot is written if this model is in full update mode,
+     * otherwise only the changed keys are written.
+     *
+     * @param out the {@link SnapshotOutput}
+     */
+    @Override
+    public void writeChanges(SnapshotOutput out) {
+        if (isFullUpdate()) {
+            out.writeBoolean(true);
+            writeSnapshot(out);
+            return;
+        }
+        out.writeBoolean(false);
+        var changedKeys = this.changedKeys;
+        out.writeSize(changedKeys.size());
+        var mappings = this.mappings;
+        for (var key : changedKeys) {
+            writeSnapshotKey(out, key);
+            V value = mappings.get(key);
+            if (value == null) {
+                out.writeBoolean(false);
+            } else {
+                out.writeBoolean(true);
+                writeChangesValue(out, value);
+            }
+        }
+    }
+
+    /**
+     * Writes the changes of the specified value to the specified
+     * {@link SnapshotOutput}.
+     * <p>
+     * The default implementation writes the snapshot of the value by
+     * {@link #writeSnapshotValue(SnapshotOutput, Object)}.
+     *
+     * @param out   the {@link SnapshotOutput}
+     * @param value the value
+     */
+    protected void writeChangesValue(SnapshotOutput out, V value) {
+        writeSnapshotValue(out, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Self applyChanges(SnapshotInput in) {
+        if (in.readBoolean()) {
+            return readSnapshot(in).fullUpdate();
+        }
+        for (var i = in.readSize(); i > 0; i--) {
+            K key = readSnapshotKey(in);
+            if (in.readBoolean()) {
+                applyChangesValue(key, in);
+            } else {
+                remove(key);
+            }
+        }
+        return (Self) this;
+    }
+
+    /**
+     * Reads the changes of the value for the specified key from the
+     * specified {@link SnapshotInput} and applies them.
+     * <p>
+     * The default implementation puts the value read by
+     * {@link #readSnapshotValue(SnapshotInput)}.
+     *
+     * @param key the key
+     * @param in  the {@link SnapshotInput}
+     */
+    protected void applyChangesValue(K key, SnapshotInput in) {
+        put(key, readSnapshotValue(in));
+    }
+
     @Override
     public boolean containsKey(K key) {
         return mappings.containsKey(key);
@@ -431,6 +930,30 @@ public abstract class AbstractMapModel<K, V, Self extends AbstractMapModel<K, V,
      */
     protected abstract Object toDisplayValue(V value);
 
+    @Override
+    public void writeDisplayData(JsonDataWriter writer) {
+        writer.writeStartObject();
+        for (var entry : mappings.entrySet()) {
+            V value = entry.getValue();
+            if (value != null) {
+                writer.writeName(mapKey(entry.getKey()));
+                writeDisplayValue(writer, value);
+            }
+        }
+        writer.writeEndObject();
+    }
+
+    /**
+     * Writes the display data of the specified value to the specified
+     * {@link JsonDataWriter}.
+     *
+     * @param writer the {@link JsonDataWriter}
+     * @param value  the value
+     */
+    protected void writeDisplayValue(JsonDataWriter writer, V value) {
+        writer.writeValue(toDisplayValue(value));
+    }
+
     @Override
     public @Nullable Map<?, ?> toUpdated() {
         if (isFullUpdate()) {
@@ -473,6 +996,48 @@ public abstract class AbstractMapModel<K, V, Self extends AbstractMapModel<K, V,
      */
     protected abstract @Nullable Object toUpdatedValue(V value);
 
+    @Override
+    public boolean writeUpdated(JsonDataWriter writer) {
+        if (isFullUpdate()) {
+            writeDisplayData(writer);
+            return true;
+        }
+        var changedKeys = this.changedKeys;
+        if (changedKeys.isEmpty()) {
+            return false;
+        }
+        writer.deferStartObject();
+        var mappings = this.mappings;
+        for (var key : changedKeys) {
+            V value = mappings.get(key);
+            if (value != null) {
+                writer.deferName(mapKey(key));
+                if (!writeUpdatedValue(writer, value)) {
+                    writer.discardDeferredName();
+                }
+            }
+        }
+        return writer.writeEndDeferredObject();
+    }
+
+    /**
+     * Writes the updated data of the specified value to the specified
+     * {@link JsonDataWriter}.
+     *
+     * @param writer the {@link JsonDataWriter}
+     * @param value  the value
+     * @return {@code true} if any data was written, {@code false}
+     * otherwise
+     */
+    protected boolean writeUpdatedValue(JsonDataWriter writer, V value) {
+        var updatedValue = toUpdatedValue(value);
+        if (updatedValue == null) {
+            return false;
+        }
+        writer.writeValue(updatedValue);
+        return true;
+    }
+
     @Override
     public @Nullable Map<? extends Object, ? extends Object> toDeleted() {
         if (isFullUpdate()) {
@@ -511,17 +1076,170 @@ public abstract class AbstractMapModel<K, V, Self extends AbstractMapModel<K, V,
         return null;
     }
 
+    @Override
+    public boolean writeDeleted(JsonDataWriter writer) {
+        if (isFullUpdate()) {
+            return false;
+        }
+        var changedKeys = this.changedKeys;
+        if (changedKeys.isEmpty()) {
+            return false;
+        }
+        writer.deferStartObject();
+        var mappings = this.mappings;
+        for (var key : changedKeys) {
+            V value = mappings.get(key);
+            if (value == null) {
+                writer.writeName(mapKey(key)).writeInt(DELETED_VALUE);
+            } else {
+                writer.deferName(mapKey(key));
+                if (!writeDeletedValue(writer, value)) {
+                    writer.discardDeferredName();
+                }
+            }
+        }
+        return writer.writeEndDeferredObject();
+    }
+
+    /**
+     * Writes the deleted data of the specified value to the specified
+     * {@link JsonDataWriter}.
+     * <p>
+     * Writes nothing as default.
+     *
+     * @param writer the {@link JsonDataWriter}
+     * @param value  the value
+     * @return {@code true} if any data was written, {@code false}
+     * otherwise
+     */
+    protected boolean writeDeletedValue(JsonDataWriter writer, V value) {
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Self applyUpdated(Map<?, ?> data) {
+        for (var entry : data.entrySet()) {
+            applyUpdatedValue(dataKey(entry.getKey()), entry.getValue());
+        }
+        return (Self) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K dataKey(Object key) {
+        return key instanceof String stringKey ? keyParser.apply(stringKey) : (K) key;
+    }
+
+    /**
+     * Applies the specified updated data of the value for the specified
+     * key.
+     *
+     * @param key  the key
+     * @param data the updated data of the value
+     */
+    protected abstract void applyUpdatedValue(K key, Object data);
+
+    /**
+     * Applies the specified deleted data, the keys mapped to
+     * {@link BsonModelConstants#DELETED_VALUE} are removed.
+     *
+     * @param data the deleted data
+     * @return this model
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Self applyDeleted(Map<?, ?> data) {
+        for (var entry : data.entrySet()) {
+            var key = dataKey(entry.getKey());
+            if (entry.getValue() instanceof Map<?, ?> valueData) {
+                applyDeletedValue(key, valueData);
+            } else {
+                remove(key);
+            }
+        }
+        return (Self) this;
+    }
+
+    /**
+     * Applies the specified deleted data of the value for the specified
+     * key.
+     * <p>
+     * Does nothing as default.
+     *
+     * @param key  the key
+     * @param data the deleted data of the value
+     */
+    protected void applyDeletedValue(K key, Map<?, ?> data) {
+        // do nothing as default
+    }
+
+    /**
+     * Returns the ratio used to decide whether to switch to a full update
+     * by {@link #appendUpdates(List)}.
+     *
+     * @return the ratio
+     * @see #fullUpdateRatio(double)
+     */
+    public double fullUpdateRatio() {
+        return fullUpdateRatio;
+    }
+
+    /**
+     * Sets the ratio used to decide whether to switch to a full update
+     * by {@link #appendUpdates(List)}.
+     * <p>
+     * When the total size of the partial updates of the changed keys
+     * exceeds the encoded size of the whole map multiplied by the ratio,
+     * a single {@code $set} of the whole map will be appended instead.
+     * A non-positive ratio disables the switching.
+     * <p>
+     * The switching is disabled by default, because deciding it costs
+     * encoding the partial updates and estimating the size of the whole
+     * map on every update. The default ratio is {@code 0}, and can be
+     * changed by the system property
+     * {@code bson.model3.core.map.fullUpdateRatio}. A ratio around
+     * {@code 1.0} is suggested for maps that are often rewritten in bulk.
+     *
+     * @param fullUpdateRatio the ratio
+     * @return this model
+     */
+    @SuppressWarnings("unchecked")
+    public Self fullUpdateRatio(double fullUpdateRatio) {
+        this.fullUpdateRatio = fullUpdateRatio;
+        return (Self) this;
+    }
+
     @Override
     public int appendUpdates(List<Bson> updates) {
         if (isFullUpdate()) {
             updates.add(set(path().getPath(), toBsonValue()));
             return 1;
         }
-        var changedKeys = this.changedKeys;
         if (changedKeys.isEmpty()) {
             return 0;
         }
         var originalSize = updates.size();
+        appendChangedUpdates(updates);
+        var appended = updates.size() - originalSize;
+        if (appended > 1 && fullUpdateRatio > 0) {
+            var changedUpdates = updates.subList(originalSize, updates.size());
+            var path = path().getPath();
+            if (BsonSizeUtil.updateFieldsSize(changedUpdates) > BsonSizeUtil.elementSize(path, estimateBsonSize()) * fullUpdateRatio) {
+                changedUpdates.clear();
+                updates.add(set(path, toBsonValue()));
+                return 1;
+            }
+        }
+        return appended;
+    }
+
+    /**
+     * Appends the updates of the changed keys within the current context
+     * to the given list.
+     *
+     * @param updates the list of the updates
+     */
+    protected void appendChangedUpdates(List<Bson> updates) {
         var path = path();
         var mappings = this.mappings;
         for (var key : changedKeys) {
@@ -532,7 +1250,6 @@ public abstract class AbstractMapModel<K, V, Self extends AbstractMapModel<K, V,
                     : set(subPath, encodeValue(value));
             updates.add(update);
         }
-        return updates.size() - originalSize;
     }
 
     @Override
@@ -1,5 +1,8 @@
 package com.github.fmjsjx.bson.model3.core;
 
+import com.github.fmjsjx.bson.model3.core.json.JsonDataWriter;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotInput;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotOutput;
 import org.bson.BsonDocument;
 import org.bson.conversions.Bson;
 import org.jspecify.annotations.Nullable;
@@ -85,6 +88,73 @@ public abstract class AbstractObjectModel<Self extends AbstractObjectModel<Self>
      */
     protected abstract Self cleanFields();
 
+    /**
+     * Returns the BSON document contains the values of the fields at the
+     * specified indexes.
+     *
+     * @param fieldIndexes the indexes of the fields
+     * @return the BSON document
+     */
+    protected abstract BsonDocument toBsonValue(BitSet fieldIndexes);
+
+    /**
+     * Loads the fields at the specified indexes from the specified
+     * document, without marking them as changed.
+     *
+     * @param src          the source document
+     * @param fieldIndexes the indexes of the fields
+     */
+    protected abstract void loadFields(BsonDocument src, BitSet fieldIndexes);
+
+    /**
+     * Returns the index of the field with the specified store name.
+     *
+     * @param storeName the store name of the field
+     * @return the index of the field, or {@code -1} if there is no such
+     * field can be loaded
+     */
+    protected abstract int fieldIndex(String storeName);
+
+    /**
+     * Returns the child model of the field at the specified index.
+     * <p>
+     * Returns {@code null} as default.
+     *
+     * @param fieldIndex the index of the field
+     * @return the child model, or {@code null} if the field is not a
+     * child model or is absent
+     */
+    protected @Nullable BsonModel<?, ?> fieldModel(int fieldIndex) {
+        return null;
+    }
+
+    @Override
+    boolean applyPathUpdate(PathUpdate update, int depth) {
+        var fieldIndex = fieldIndex(update.name(depth));
+        if (fieldIndex >= 0) {
+            applyFieldUpdate(fieldIndex, update, depth);
+        }
+        return true;
+    }
+
+    /**
+     * Applies the specified update to the field at the specified index.
+     * <p>
+     * The update is resolved further by the child model of the field if
+     * possible, otherwise the field is patched and reloaded as a whole.
+     */
+    void applyFieldUpdate(int fieldIndex, PathUpdate update, int depth) {
+        if (!update.isLast(depth) && fieldModel(fieldIndex) instanceof AbstractBsonModel<?, ?> model
+                && model.applyPathUpdate(update, depth + 1)) {
+            return;
+        }
+        var fieldIndexes = new BitSet();
+        fieldIndexes.set(fieldIndex);
+        var src = toBsonValue(fieldIndexes);
+        update.applyTo(src, depth);
+        loadFields(src, fieldIndexes);
+    }
+
     @Override
     public boolean anyChanged() {
         return isFullUpdate() || !changedFields.isEmpty();
@@ -112,6 +182,55 @@ public abstract class AbstractObjectModel<Self extends AbstractObjectModel<Self>
      */
     protected abstract void appendFieldUpdates(List<Bson> updates);
 
+    /**
+     * Writes the changes of this model since the last reset to the
+     * specified {@link SnapshotOutput}.
+     * <p>
+     * The whole snapshot is written if this model is in full update mode,
+     * otherwise only the changed fields are written.
+     *
+     * @param out the {@link SnapshotOutput}
+     */
+    @Override
+    public void writeChanges(SnapshotOutput out) {
+        if (isFullUpdate()) {
+            out.writeBoolean(true);
+            writeSnapshot(out);
+        } else {
+            out.writeBoolean(false);
+            if (!changedFields.isEmpty()) {
+                writeChangedFields(out);
+            }
+            out.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the changed fields within the current context to the
+     * specified {@link SnapshotOutput}.
+     *
+     * @param out the {@link SnapshotOutput}
+     */
+    protected abstract void writeChangedFields(SnapshotOutput out);
+
+    @Override
+    public Self applyChanges(SnapshotInput in) {
+        if (in.readBoolean()) {
+            return readSnapshot(in).fullUpdate();
+        }
+        return applyChangedFields(in);
+    }
+
+    /**
+     * Reads the changed fields, written by
+     * {@link #writeChangedFields(SnapshotOutput)}, from the specified
+     * {@link SnapshotInput} and applies them to this model.
+     *
+     * @param in the {@link SnapshotInput}
+     * @return this model
+     */
+    protected abstract Self applyChangedFields(SnapshotInput in);
+
     @Override
     public @Nullable Map<String, ? extends Object> toUpdated() {
         if (isFullUpdate()) {
@@ -133,6 +252,37 @@ public abstract class AbstractObjectModel<Self extends AbstractObjectModel<Self>
      */
     protected abstract void appendUpdatedData(Map<String, ? super Object> data);
 
+    @Override
+    public boolean writeUpdated(JsonDataWriter writer) {
+        if (isFullUpdate()) {
+            writeDisplayData(writer);
+            return true;
+        }
+        if (changedFields.isEmpty()) {
+            return false;
+        }
+        writer.deferStartObject();
+        writeUpdatedFields(writer);
+        return writer.writeEndDeferredObject();
+    }
+
+    /**
+     * Writes the updated data of changed fields within the current
+     * context to the specified {@link JsonDataWriter}.
+     * <p>
+     * The default implementation writes the data appended by
+     * {@link #appendUpdatedData(Map)}.
+     *
+     * @param writer the {@link JsonDataWriter}
+     */
+    protected void writeUpdatedFields(JsonDataWriter writer) {
+        var data = new LinkedHashMap<String, Object>();
+        appendUpdatedData(data);
+        for (var entry : data.entrySet()) {
+            writer.writeName(entry.getKey()).writeValue(entry.getValue());
+        }
+    }
+
     @Override
     public @Nullable Map<String, ? extends Object> toDeleted() {
         if (isFullUpdate() || changedFields.isEmpty()) {
@@ -153,4 +303,31 @@ public abstract class AbstractObjectModel<Self extends AbstractObjectModel<Self>
         // do nothing as default
     }
 
+    @Override
+    public boolean writeDeleted(JsonDataWriter writer) {
+        if (isFullUpdate() || changedFields.isEmpty()) {
+            return false;
+        }
+        writer.deferStartObject();
+        writeDeletedFields(writer);
+        return writer.writeEndDeferredObject();
+    }
+
+    /**
+     * Writes the deleted data of changed fields within the current
+     * context to the specified {@link JsonDataWriter}.
+     * <p>
+     * The default implementation writes the data appended by
+     * {@link #appendDeletedData(Map)}.
+     *
+     * @param writer the {@link JsonDataWriter}
+     */
+    protected void writeDeletedFields(JsonDataWriter writer) {
+        var data = new LinkedHashMap<String, Object>();
+        appendDeletedData(data);
+        for (var entry : data.entrySet()) {
+            writer.writeName(entry.getKey()).writeValue(entry.getValue());
+        }
+    }
+
 }
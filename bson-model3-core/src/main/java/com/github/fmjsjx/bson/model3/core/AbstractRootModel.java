@@ -1,14 +1,38 @@
 package com.github.fmjsjx.bson.model3.core;
 
+import com.github.fmjsjx.bson.model3.core.json.JsonDataReader;
+import com.github.fmjsjx.bson.model3.core.json.JsonStoreDataCodecs;
+import com.github.fmjsjx.bson.model3.core.snapshot.ChangeSetGapException;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotInput;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotOutput;
 import com.github.fmjsjx.libcommon.json.JsonLibrary;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonValue;
 import org.bson.conversions.Bson;
 import org.jspecify.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 /**
  * The abstract base class of all BSON root models.
+ * <p>
+ * A root model can be partially loaded from a document queried with a
+ * projection by {@link #loadPartial(BsonDocument, int...)}. The fields
+ * not included in the projection are absent, they keep the clean values,
+ * can't be changed, and the operations output the whole model, such as
+ * {@link #toBsonValue()} and {@link #toSnapshot()}, will fail until the
+ * absent fields are loaded by {@link #loadAbsent(BsonDocument)}.
  *
  * @param <Self> the type of the super class
  * @author MJ Fang
@@ -18,6 +42,9 @@ import java.util.List;
 public abstract class AbstractRootModel<Self extends AbstractRootModel<Self>>
         extends AbstractObjectModel<Self> implements RootModel<Self> {
 
+    private @Nullable BitSet absentFields;
+    private long changeSequence;
+
     /**
      * Constructs a new {@link AbstractRootModel}.
      */
@@ -73,6 +100,205 @@ public abstract class AbstractRootModel<Self extends AbstractRootModel<Self>>
         return (Self) this;
     }
 
+    /**
+     * Loads the fields at the specified indexes from the specified
+     * document, typically queried with the projection of the same
+     * fields, and marks the other fields as absent.
+     *
+     * @param src          the source document
+     * @param fieldIndexes the indexes of the fields to be loaded
+     * @return this model
+     */
+    @SuppressWarnings("unchecked")
+    public Self loadPartial(BsonDocument src, int... fieldIndexes) {
+        var loadedFields = new BitSet();
+        for (var fieldIndex : fieldIndexes) {
+            loadedFields.set(fieldIndex);
+        }
+        clean();
+        loadFields(src, loadedFields);
+        var absentFields = new BitSet();
+        for (var fieldIndex : projectionFieldIndexes()) {
+            if (!loadedFields.get(fieldIndex)) {
+                absentFields.set(fieldIndex);
+            }
+        }
+        this.absentFields = absentFields.isEmpty() ? null : absentFields;
+        return (Self) this;
+    }
+
+    /**
+     * Loads the absent fields from the specified document, typically
+     * queried with the {@link #absentProjection()}, then this model
+     * becomes complete.
+     * <p>
+     * The changes of the loaded fields are kept.
+     *
+     * @param src the source document
+     * @return this model
+     */
+    @SuppressWarnings("unchecked")
+    public Self loadAbsent(BsonDocument src) {
+        var absentFields = this.absentFields;
+        if (absentFields != null) {
+            loadFields(src, absentFields);
+            this.absentFields = null;
+        }
+        return (Self) this;
+    }
+
+    /**
+     * Applies the specified {@link UpdateDescription} of a change stream
+     * event, typically caused by another process, to this model.
+     * <p>
+     * The dotted paths are resolved down to the fields of the child
+     * models and the keys of the map models, only the values at the paths
+     * are loaded, without marking them as changed. The pending changes
+     * at other paths are kept, and the paths into other values, such as
+     * lists, are applied by reloading the deepest resolved value. The
+     * paths of the unknown fields and the absent fields of a partially
+     * loaded model are ignored.
+     *
+     * @param updateDescription the update description
+     * @return this model
+     */
+    @SuppressWarnings("unchecked")
+    public Self applyUpdateDescription(UpdateDescription updateDescription) {
+        // same as MongoDB, arrays are truncated before the other updates
+        for (var truncatedArray : updateDescription.getTruncatedArrays()) {
+            applyPathUpdate(PathUpdate.truncate(truncatedArray.getField(), truncatedArray.getNewSize()));
+        }
+        var updatedFields = updateDescription.getUpdatedFields();
+        if (updatedFields != null) {
+            updatedFields.forEach((path, value) -> applyPathUpdate(PathUpdate.set(path, value)));
+        }
+        var removedFields = updateDescription.getRemovedFields();
+        if (removedFields != null) {
+            for (var path : removedFields) {
+                applyPathUpdate(PathUpdate.unset(path));
+            }
+        }
+        return (Self) this;
+    }
+
+    private void applyPathUpdate(PathUpdate update) {
+        var fieldIndex = fieldIndex(update.name(0));
+        if (fieldIndex >= 0 && isFieldLoaded(fieldIndex)) {
+            applyFieldUpdate(fieldIndex, update, 0);
+        }
+    }
+
+    /**
+     * Returns whether this model is partially loaded.
+     *
+     * @return {@code true} if this model is partially loaded,
+     * {@code false} otherwise
+     */
+    public boolean isPartial() {
+        return absentFields != null;
+    }
+
+    /**
+     * Returns whether the field at the specified index is loaded.
+     *
+     * @param index the index of the field
+     * @return {@code true} if the field is loaded, {@code false} if it
+     * is absent
+     */
+    public boolean isFieldLoaded(int index) {
+        var absentFields = this.absentFields;
+        return absentFields == null || !absentFields.get(index);
+    }
+
+    /**
+     * Returns the projection of the absent fields of this model.
+     *
+     * @return the projection of the absent fields, or an empty document
+     * if this model is complete
+     */
+    public BsonDocument absentProjection() {
+        var absentFields = this.absentFields;
+        if (absentFields == null) {
+            return new BsonDocument();
+        }
+        return toProjection(absentFields.stream().toArray());
+    }
+
+    /**
+     * Checks that this model is not partially loaded.
+     *
+     * @throws IllegalStateException if this model is partially loaded
+     */
+    protected void checkComplete() {
+        var absentFields = this.absentFields;
+        if (absentFields != null) {
+            throw new IllegalStateException("The model is partially loaded, absent fields: " + absentFields);
+        }
+    }
+
+    private void checkLoaded(int index) {
+        if (!isFieldLoaded(index)) {
+            throw new IllegalStateException("The field at index " + index + " is absent in the partially loaded model");
+        }
+    }
+
+    /**
+     * Returns the projection of the fields at the specified indexes.
+     *
+     * @param fieldIndexes the indexes of the fields
+     * @return the projection document
+     */
+    protected abstract BsonDocument toProjection(int... fieldIndexes);
+
+    /**
+     * Returns the indexes of all fields can be included in projections.
+     *
+     * @return the indexes of the fields
+     */
+    protected abstract int[] projectionFieldIndexes();
+
+    @Override
+    protected Self triggerChange(int index) {
+        checkLoaded(index);
+        return super.triggerChange(index);
+    }
+
+    @Override
+    protected Self fieldsChanged(int... indices) {
+        if (absentFields != null) {
+            for (var index : indices) {
+                checkLoaded(index);
+            }
+        }
+        return super.fieldsChanged(indices);
+    }
+
+    /**
+     * Resets the states of this model, the partially loaded model
+     * becomes complete.
+     *
+     * @return this model
+     */
+    @Override
+    protected Self resetStates() {
+        absentFields = null;
+        return super.resetStates();
+    }
+
+    /**
+     * Resets the states of this model and all its children, but keeps
+     * the absent fields of the partially loaded model.
+     *
+     * @return this model
+     */
+    @Override
+    public Self reset() {
+        var absentFields = this.absentFields;
+        resetChildren().resetStates();
+        this.absentFields = absentFields;
+        return (Self) this;
+    }
+
     @Override
     public final List<Bson> toUpdates() {
         var updates = new ArrayList<Bson>();
@@ -82,24 +308,220 @@ public abstract class AbstractRootModel<Self extends AbstractRootModel<Self>>
 
     @Override
     public final String jsonMarshal(JsonLibrary<?> jsonLibrary) {
+        checkComplete();
+        var codec = JsonStoreDataCodecs.forLibrary(jsonLibrary);
+        if (codec != null) {
+            return codec.marshal(this);
+        }
         return jsonLibrary.dumpsToString(toStoreData());
     }
 
     @Override
     public final byte[] jsonMarshalToBytes(JsonLibrary<?> jsonLibrary) {
+        checkComplete();
+        var codec = JsonStoreDataCodecs.forLibrary(jsonLibrary);
+        if (codec != null) {
+            return codec.marshalToBytes(this);
+        }
         return jsonLibrary.dumpsToBytes(toStoreData());
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public final Self jsonUnmarshal(JsonLibrary<?> jsonLibrary, String json) {
+        var codec = JsonStoreDataCodecs.forLibrary(jsonLibrary);
+        if (codec != null) {
+            codec.unmarshal(this, json);
+            return (Self) this;
+        }
         return loadStoreData(jsonLibrary.loads(json, storeDataType()));
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public final Self jsonUnmarshal(JsonLibrary<?> jsonLibrary, byte[] json) {
+        var codec = JsonStoreDataCodecs.forLibrary(jsonLibrary);
+        if (codec != null) {
+            codec.unmarshal(this, json);
+            return (Self) this;
+        }
         return loadStoreData(jsonLibrary.loads(json, storeDataType()));
     }
 
+    /**
+     * Reads the store data from the specified {@link JsonDataReader} to
+     * this model.
+     * <p>
+     * The default implementation reads the store data object by the data
+     * binding of the underlying JSON library and then loads it by
+     * {@link #loadStoreData(Object)}.
+     *
+     * @param reader the {@link JsonDataReader}
+     * @return this model
+     */
+    @Override
+    public Self readStoreData(JsonDataReader reader) {
+        var data = reader.readValue(storeDataType());
+        if (data == null) {
+            return clean();
+        }
+        return loadStoreData(data);
+    }
+
+    @Override
+    public final byte[] toSnapshot() {
+        return encodeSnapshot().toByteArray();
+    }
+
+    @Override
+    public final void writeTo(OutputStream out) throws IOException {
+        encodeSnapshot().writeTo(out);
+    }
+
+    @Override
+    public final void writeTo(ByteBuffer dst) {
+        encodeSnapshot().writeTo(dst);
+    }
+
+    private SnapshotOutput encodeSnapshot() {
+        checkComplete();
+        var out = new SnapshotOutput().beginSnapshot(snapshotFingerprint());
+        writeSnapshot(out);
+        return out.endSnapshot();
+    }
+
+    @Override
+    public final Self readFrom(byte[] snapshot) {
+        return readFrom(ByteBuffer.wrap(snapshot));
+    }
+
+    @Override
+    public final Self readFrom(ByteBuffer src) {
+        return readSnapshot(SnapshotInput.beginSnapshot(src, snapshotFingerprint()));
+    }
+
+    @Override
+    public final Self readFrom(InputStream in) throws IOException {
+        return readSnapshot(SnapshotInput.beginSnapshot(in, snapshotFingerprint()));
+    }
+
+    @Override
+    public final long changeSequence() {
+        return changeSequence;
+    }
+
+    @Override
+    public final byte[] toChangeSet() {
+        var out = new SnapshotOutput().beginChangeSet(snapshotFingerprint()).writeVarLong(++changeSequence);
+        writeChanges(out);
+        return out.endSnapshot().toByteArray();
+    }
+
+    @Override
+    public final byte[] toFullChangeSet() {
+        checkComplete();
+        var out = new SnapshotOutput().beginChangeSet(snapshotFingerprint()).writeVarLong(changeSequence).writeBoolean(true);
+        writeSnapshot(out);
+        return out.endSnapshot().toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Self applyChangeSet(byte[] changeSet) {
+        var in = SnapshotInput.beginChangeSet(ByteBuffer.wrap(changeSet), snapshotFingerprint());
+        var sequence = in.readVarLong();
+        if (in.readBoolean()) {
+            readSnapshot(in);
+        } else {
+            var expectedSequence = changeSequence + 1;
+            if (sequence < expectedSequence) {
+                // already applied
+                return (Self) this;
+            }
+            if (sequence != expectedSequence) {
+                throw new ChangeSetGapException(expectedSequence, sequence);
+            }
+            applyChangedFields(in);
+        }
+        changeSequence = sequence;
+        return reset();
+    }
+
+    @Override
+    public final @Nullable UpdateOneModel<BsonDocument> toVersionedUpdate() {
+        var versionIndex = requireVersionFieldIndex();
+        if (changedFields.get(versionIndex)) {
+            // the filter requires the version stored in the database
+            throw new IllegalStateException("The version field at index " + versionIndex + " can't be changed directly");
+        }
+        var updates = toUpdates();
+        if (updates.isEmpty()) {
+            return null;
+        }
+        var fieldIndexes = new BitSet();
+        fieldIndexes.set(idFieldIndex());
+        fieldIndexes.set(versionIndex);
+        var filter = toBsonValue(fieldIndexes);
+        updates.add(Updates.inc(toProjection(versionIndex).getFirstKey(), 1));
+        return new UpdateOneModel<>(filter, Updates.combine(updates));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Self versionUpdated() {
+        var fieldIndexes = new BitSet();
+        fieldIndexes.set(requireVersionFieldIndex());
+        var version = toBsonValue(fieldIndexes);
+        var name = version.getFirstKey();
+        var value = version.get(name);
+        if (value.isInt32()) {
+            version.put(name, new BsonInt32(value.asInt32().getValue() + 1));
+        } else {
+            version.put(name, new BsonInt64(value.asInt64().getValue() + 1));
+        }
+        loadFields(version, fieldIndexes);
+        return reset();
+    }
+
+    /**
+     * Returns the index of the field marked as the version of the
+     * document.
+     *
+     * @return the index of the version field, or {@code -1} if this model
+     * doesn't have a version field
+     */
+    protected abstract int versionFieldIndex();
+
+    private int requireVersionFieldIndex() {
+        var index = versionFieldIndex();
+        if (index < 0) {
+            throw new IllegalStateException("Missing version field in model " + getClass().getName());
+        }
+        return index;
+    }
+
+    @Override
+    public final @Nullable BsonValue toBsonId() {
+        var fieldIndexes = new BitSet();
+        fieldIndexes.set(idFieldIndex());
+        return toBsonValue(fieldIndexes).get("_id");
+    }
+
+    private int idFieldIndex() {
+        var index = fieldIndex("_id");
+        if (index < 0) {
+            throw new IllegalStateException("Missing _id field in model " + getClass().getName());
+        }
+        return index;
+    }
+
+    /**
+     * Returns the schema fingerprint of the snapshots of this model.
+     *
+     * @return the schema fingerprint
+     */
+    protected abstract long snapshotFingerprint();
+
     /**
      * Returns the type of the store data of this model.
      *
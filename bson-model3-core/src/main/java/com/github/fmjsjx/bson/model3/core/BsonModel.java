@@ -1,5 +1,10 @@
 package com.github.fmjsjx.bson.model3.core;
 
+import com.github.fmjsjx.bson.model3.core.json.JsonDataReader;
+import com.github.fmjsjx.bson.model3.core.json.JsonDataWriter;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotInput;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotOutput;
+import com.github.fmjsjx.bson.model3.core.util.BsonSizeUtil;
 import org.bson.BsonValue;
 import org.bson.conversions.Bson;
 import org.jspecify.annotations.Nullable;
@@ -25,6 +30,21 @@ public interface BsonModel<T extends BsonValue, Self extends BsonModel<T, Self>>
      */
     T toBsonValue();
 
+    /**
+     * Returns the estimated encoded size of the {@link BsonValue} of this
+     * model, in bytes.
+     * <p>
+     * The default implementation computes the size of the result of
+     * {@link #toBsonValue()} by {@link BsonSizeUtil#sizeOf(BsonValue)},
+     * the value will not be actually encoded.
+     *
+     * @return the estimated encoded size
+     * @see BsonSizeUtil#MAX_DOCUMENT_SIZE
+     */
+    default int estimateBsonSize() {
+        return BsonSizeUtil.sizeOf(toBsonValue());
+    }
+
     /**
      * Loads data from the specified {@link BsonValue} to this model.
      *
@@ -113,6 +133,19 @@ public interface BsonModel<T extends BsonValue, Self extends BsonModel<T, Self>>
      */
     Object toDisplayData();
 
+    /**
+     * Writes the display data of this model to the specified
+     * {@link JsonDataWriter}.
+     * <p>
+     * The default implementation writes the result of
+     * {@link #toDisplayData()}.
+     *
+     * @param writer the {@link JsonDataWriter}
+     */
+    default void writeDisplayData(JsonDataWriter writer) {
+        writer.writeValue(toDisplayData());
+    }
+
     /**
      * Converts this model to store data.
      *
@@ -128,6 +161,64 @@ public interface BsonModel<T extends BsonValue, Self extends BsonModel<T, Self>>
      */
     Self loadStoreData(Object data);
 
+    /**
+     * Writes the store data of this model to the specified
+     * {@link JsonDataWriter}.
+     * <p>
+     * The default implementation writes the result of
+     * {@link #toStoreData()}.
+     *
+     * @param writer the {@link JsonDataWriter}
+     */
+    default void writeStoreData(JsonDataWriter writer) {
+        writer.writeValue(toStoreData());
+    }
+
+    /**
+     * Reads the store data from the specified {@link JsonDataReader} to
+     * this model.
+     *
+     * @param reader the {@link JsonDataReader}
+     * @return this model
+     */
+    Self readStoreData(JsonDataReader reader);
+
+    /**
+     * Writes the compact binary snapshot of this model to the specified
+     * {@link SnapshotOutput}.
+     *
+     * @param out the {@link SnapshotOutput}
+     */
+    void writeSnapshot(SnapshotOutput out);
+
+    /**
+     * Reads the compact binary snapshot from the specified
+     * {@link SnapshotInput} to this model.
+     *
+     * @param in the {@link SnapshotInput}
+     * @return this model
+     */
+    Self readSnapshot(SnapshotInput in);
+
+    /**
+     * Writes the changes of this model since the last reset, in the
+     * compact binary form of snapshots, to the specified
+     * {@link SnapshotOutput}.
+     *
+     * @param out the {@link SnapshotOutput}
+     */
+    void writeChanges(SnapshotOutput out);
+
+    /**
+     * Reads the changes, written by {@link #writeChanges(SnapshotOutput)}
+     * of another model of the same type, from the specified
+     * {@link SnapshotInput} and applies them to this model.
+     *
+     * @param in the {@link SnapshotInput}
+     * @return this model
+     */
+    Self applyChanges(SnapshotInput in);
+
     /**
      * Reset states of this model.
      *
@@ -190,6 +281,108 @@ public interface BsonModel<T extends BsonValue, Self extends BsonModel<T, Self>>
      */
     @Nullable Map<? extends Object, ? extends Object> toDeleted();
 
+    /**
+     * Writes the updated values within the current context to the
+     * specified {@link JsonDataWriter}.
+     * <p>
+     * Nothing will be written if there are no updated values.
+     * <p>
+     * The default implementation writes the result of
+     * {@link #toUpdated()}.
+     *
+     * @param writer the {@link JsonDataWriter}
+     * @return {@code true} if any data was written, {@code false}
+     * otherwise
+     */
+    default boolean writeUpdated(JsonDataWriter writer) {
+        var updated = toUpdated();
+        if (updated == null) {
+            return false;
+        }
+        writer.writeValue(updated);
+        return true;
+    }
+
+    /**
+     * Writes the deleted values within the current context to the
+     * specified {@link JsonDataWriter}.
+     * <p>
+     * Nothing will be written if there are no deleted values.
+     * <p>
+     * The default implementation writes the result of
+     * {@link #toDeleted()}.
+     *
+     * @param writer the {@link JsonDataWriter}
+     * @return {@code true} if any data was written, {@code false}
+     * otherwise
+     */
+    default boolean writeDeleted(JsonDataWriter writer) {
+        var deleted = toDeleted();
+        if (deleted == null) {
+            return false;
+        }
+        writer.writeValue(deleted);
+        return true;
+    }
+
+    /**
+     * Applies the specified updated data, typically created by
+     * {@link #toUpdated()} of another model of the same type, to this
+     * model.
+     *
+     * @param data the updated data
+     * @return this model
+     */
+    Self applyUpdated(Map<?, ?> data);
+
+    /**
+     * Applies the specified deleted data, typically created by
+     * {@link #toDeleted()} of another model of the same type, to this
+     * model.
+     *
+     * @param data the deleted data
+     * @return this model
+     */
+    Self applyDeleted(Map<?, ?> data);
+
+    /**
+     * Reads the updated data, typically written by
+     * {@link #writeUpdated(JsonDataWriter)}, from the specified
+     * {@link JsonDataReader} and applies it to this model.
+     * <p>
+     * The default implementation reads the value and then applies it by
+     * {@link #applyUpdated(Map)}.
+     *
+     * @param reader the {@link JsonDataReader}
+     * @return this model
+     */
+    @SuppressWarnings("unchecked")
+    default Self readUpdated(JsonDataReader reader) {
+        if (reader.readValue() instanceof Map<?, ?> data) {
+            return applyUpdated(data);
+        }
+        return (Self) this;
+    }
+
+    /**
+     * Reads the deleted data, typically written by
+     * {@link #writeDeleted(JsonDataWriter)}, from the specified
+     * {@link JsonDataReader} and applies it to this model.
+     * <p>
+     * The default implementation reads the value and then applies it by
+     * {@link #applyDeleted(Map)}.
+     *
+     * @param reader the {@link JsonDataReader}
+     * @return this model
+     */
+    @SuppressWarnings("unchecked")
+    default Self readDeleted(JsonDataReader reader) {
+        if (reader.readValue() instanceof Map<?, ?> data) {
+            return applyDeleted(data);
+        }
+        return (Self) this;
+    }
+
     /**
      * Returns whether this model is in full update mode or not.
      *
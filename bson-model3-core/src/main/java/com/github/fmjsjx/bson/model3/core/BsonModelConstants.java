@@ -31,6 +31,17 @@ public class BsonModelConstants {
      */
     public static final LocalDateTime EPOCH_DATE_TIME = LocalDate.EPOCH.atStartOfDay();
 
+    /**
+     * The constant value of epoch milliseconds of the epoch date time in
+     * the default time-zone.
+     */
+    public static final long EPOCH_DATE_TIME_MILLIS = DateTimeUtil.toEpochMilli(EPOCH_DATE_TIME);
+
+    /**
+     * The constant value of number of the epoch date, {@code 19700101}.
+     */
+    public static final int EPOCH_DATE_NUMBER = DateTimeUtil.toNumber(LocalDate.EPOCH);
+
     /**
      * The constant value of time formatter.
      */
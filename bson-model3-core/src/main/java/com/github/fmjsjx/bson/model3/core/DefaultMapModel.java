@@ -1,11 +1,24 @@
 package com.github.fmjsjx.bson.model3.core;
 
+import com.github.fmjsjx.bson.model3.core.json.JsonDataReader;
+import com.github.fmjsjx.bson.model3.core.json.JsonDataWriter;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotInput;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotOutput;
+import com.github.fmjsjx.bson.model3.core.util.CompactMap;
+import com.github.fmjsjx.bson.model3.core.util.DisplayDataUtil;
+import org.bson.BsonDocument;
 import org.bson.BsonValue;
 import org.bson.conversions.Bson;
 import org.jspecify.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -30,7 +43,7 @@ public final class DefaultMapModel<K, V extends ObjectModel<V>> extends Abstract
      * @return a new {@link DefaultMapModel}
      */
     public static <V extends ObjectModel<V>> DefaultMapModel<Integer, V> integerKeysMap(Supplier<V> valueFactory) {
-        return new DefaultMapModel<>(Integer::parseInt, valueFactory);
+        return new DefaultMapModel<>(Integer::parseInt, valueFactory, false);
     }
 
     /**
@@ -41,7 +54,7 @@ public final class DefaultMapModel<K, V extends ObjectModel<V>> extends Abstract
      * @return a new {@link DefaultMapModel}
      */
     public static <V extends ObjectModel<V>> DefaultMapModel<Long, V> longKeysMap(Supplier<V> valueFactory) {
-        return new DefaultMapModel<>(Long::parseLong, valueFactory);
+        return new DefaultMapModel<>(Long::parseLong, valueFactory, false);
     }
 
     /**
@@ -52,16 +65,266 @@ public final class DefaultMapModel<K, V extends ObjectModel<V>> extends Abstract
      * @return a new {@link DefaultMapModel}
      */
     public static <V extends ObjectModel<V>> DefaultMapModel<String, V> stringKeysMap(Supplier<V> valueFactory) {
-        return new DefaultMapModel<>(Function.identity(), valueFactory);
+        return new DefaultMapModel<>(Function.identity(), valueFactory, false);
+    }
+
+    /**
+     * Creates a new compact {@link DefaultMapModel} for {@code Integer} keys.
+     *
+     * @param <V>          the type of values
+     * @param valueFactory the factory creates value instances
+     * @return a new compact {@link DefaultMapModel}
+     * @see CompactMap
+     */
+    public static <V extends ObjectModel<V>> DefaultMapModel<Integer, V> compactIntegerKeysMap(Supplier<V> valueFactory) {
+        return new DefaultMapModel<>(Integer::parseInt, valueFactory, true);
+    }
+
+    /**
+     * Creates a new compact {@link DefaultMapModel} for {@code Long} keys.
+     *
+     * @param <V>          the type of values
+     * @param valueFactory the factory creates value instances
+     * @return a new compact {@link DefaultMapModel}
+     * @see CompactMap
+     */
+    public static <V extends ObjectModel<V>> DefaultMapModel<Long, V> compactLongKeysMap(Supplier<V> valueFactory) {
+        return new DefaultMapModel<>(Long::parseLong, valueFactory, true);
+    }
+
+    /**
+     * Creates a new compact {@link DefaultMapModel} for {@code String} keys.
+     *
+     * @param <V>          the type of values
+     * @param valueFactory the factory creates value instances
+     * @return a new compact {@link DefaultMapModel}
+     * @see CompactMap
+     */
+    public static <V extends ObjectModel<V>> DefaultMapModel<String, V> compactStringKeysMap(Supplier<V> valueFactory) {
+        return new DefaultMapModel<>(Function.identity(), valueFactory, true);
+    }
+
+    /**
+     * Creates a new sorted {@link DefaultMapModel} for {@code Integer} keys.
+     *
+     * @param <V>          the type of values
+     * @param valueFactory the factory creates value instances
+     * @return a new sorted {@link DefaultMapModel}
+     * @see #isSorted()
+     */
+    public static <V extends ObjectModel<V>> DefaultMapModel<Integer, V> sortedIntegerKeysMap(Supplier<V> valueFactory) {
+        return new DefaultMapModel<>(Integer::parseInt, valueFactory, new TreeMap<>());
+    }
+
+    /**
+     * Creates a new sorted {@link DefaultMapModel} for {@code Long} keys.
+     *
+     * @param <V>          the type of values
+     * @param valueFactory the factory creates value instances
+     * @return a new sorted {@link DefaultMapModel}
+     * @see #isSorted()
+     */
+    public static <V extends ObjectModel<V>> DefaultMapModel<Long, V> sortedLongKeysMap(Supplier<V> valueFactory) {
+        return new DefaultMapModel<>(Long::parseLong, valueFactory, new TreeMap<>());
+    }
+
+    /**
+     * Creates a new sorted {@link DefaultMapModel} for {@code String} keys.
+     *
+     * @param <V>          the type of values
+     * @param valueFactory the factory creates value instances
+     * @return a new sorted {@link DefaultMapModel}
+     * @see #isSorted()
+     */
+    public static <V extends ObjectModel<V>> DefaultMapModel<String, V> sortedStringKeysMap(Supplier<V> valueFactory) {
+        return new DefaultMapModel<>(Function.identity(), valueFactory, new TreeMap<>());
     }
 
     private final Supplier<V> valueFactory;
+    private @Nullable Recycler<V> recycler;
+    private @Nullable List<MapIndex<?, K, V>> indexes;
+    private @Nullable Set<K> pendingKeys;
+    private boolean indexesStale;
 
-    private DefaultMapModel(Function<? super String, ? extends K> keyParser, Supplier<V> valueFactory) {
-        super(keyParser);
+    private DefaultMapModel(Function<? super String, ? extends K> keyParser, Supplier<V> valueFactory, boolean compact) {
+        this(keyParser, valueFactory, compact ? new CompactMap<>() : new LinkedHashMap<>());
+    }
+
+    private DefaultMapModel(Function<? super String, ? extends K> keyParser, Supplier<V> valueFactory,
+                            Map<K, @Nullable V> mappings) {
+        super(keyParser, Object::toString, mappings, false);
         this.valueFactory = valueFactory;
     }
 
+    /**
+     * Returns the {@link Recycler} of the values.
+     *
+     * @return the {@code Recycler} of the values, may be {@code null}
+     */
+    public @Nullable Recycler<V> recycler() {
+        return recycler;
+    }
+
+    /**
+     * Sets the {@link Recycler} of the values.
+     * <p>
+     * When a {@code Recycler} is set, values will be created through it,
+     * and the values dropped by cleaning, clearing and reloading will be
+     * recycled into it.
+     *
+     * @param recycler the {@code Recycler}, may be {@code null}
+     * @return this model
+     */
+    public DefaultMapModel<K, V> recycler(@Nullable Recycler<V> recycler) {
+        this.recycler = recycler;
+        return this;
+    }
+
+    /**
+     * Creates a new unique {@link MapIndex} over the values of this model.
+     * <p>
+     * The index is built from the current values immediately, and then
+     * maintained by this model until it is discarded along with this
+     * model.
+     *
+     * @param <I>       the type of the index keys
+     * @param extractor the function extracts index keys from values,
+     *                  values with {@code null} index keys are not
+     *                  indexed
+     * @return a new unique {@code MapIndex}
+     * @throws IllegalStateException if any two values have the same index
+     *                               key
+     */
+    public <I> MapIndex.Unique<I, K, V> uniqueIndex(Function<? super V, ? extends @Nullable I> extractor) {
+        return addIndex(new MapIndex.Unique<>(this, extractor));
+    }
+
+    /**
+     * Creates a new multi-valued {@link MapIndex} over the values of this
+     * model.
+     * <p>
+     * The index is built from the current values immediately, and then
+     * maintained by this model until it is discarded along with this
+     * model.
+     *
+     * @param <I>       the type of the index keys
+     * @param extractor the function extracts index keys from values,
+     *                  values with {@code null} index keys are not
+     *                  indexed
+     * @return a new multi-valued {@code MapIndex}
+     */
+    public <I> MapIndex.Multi<I, K, V> multiIndex(Function<? super V, ? extends @Nullable I> extractor) {
+        return addIndex(new MapIndex.Multi<>(this, extractor));
+    }
+
+    private <X extends MapIndex<?, K, V>> X addIndex(X index) {
+        for (var entry : mappings.entrySet()) {
+            V value = entry.getValue();
+            if (value != null) {
+                index.put(entry.getKey(), value);
+                rearm(value);
+            }
+        }
+        var indexes = this.indexes;
+        if (indexes == null) {
+            this.indexes = indexes = new ArrayList<>(2);
+        }
+        indexes.add(index);
+        return index;
+    }
+
+    /**
+     * Makes the specified value notify its next change to this model
+     * again, so that the indexes can follow every change of it.
+     */
+    private static void rearm(ObjectModel<?> value) {
+        if (value instanceof AbstractBsonModel<?, ?> model) {
+            model.changeNotified = false;
+        }
+    }
+
+    /**
+     * Brings the indexes up to date, rebuilds them after reloading or
+     * re-indexes the values changed since the last lookup.
+     * <p>
+     * The changed values are removed from the indexes before any of them
+     * is re-indexed, so that values exchanging their index keys are not
+     * violations. If a violation is found, the indexes are marked stale
+     * and rebuilt on the next lookup, which throws again until the
+     * violation is resolved.
+     */
+    void refreshIndexes() {
+        var indexes = this.indexes;
+        if (indexes == null) {
+            return;
+        }
+        if (indexesStale) {
+            pendingKeys = null;
+            for (var index : indexes) {
+                index.clear();
+            }
+            for (var entry : mappings.entrySet()) {
+                V value = entry.getValue();
+                if (value != null) {
+                    for (var index : indexes) {
+                        index.put(entry.getKey(), value);
+                    }
+                    rearm(value);
+                }
+            }
+            indexesStale = false;
+            return;
+        }
+        var pendingKeys = this.pendingKeys;
+        if (pendingKeys != null && !pendingKeys.isEmpty()) {
+            this.pendingKeys = null;
+            try {
+                for (var key : pendingKeys) {
+                    for (var index : indexes) {
+                        index.remove(key);
+                    }
+                }
+                for (var key : pendingKeys) {
+                    V value = mappings.get(key);
+                    if (value != null) {
+                        rearm(value);
+                        for (var index : indexes) {
+                            index.put(key, value);
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                indexesStale = true;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Returns the indexes to be maintained incrementally, or {@code null}
+     * if there are no indexes or they will be rebuilt on the next lookup.
+     */
+    private @Nullable List<MapIndex<?, K, V>> liveIndexes() {
+        var indexes = this.indexes;
+        if (indexes == null || indexesStale) {
+            return null;
+        }
+        refreshIndexes();
+        return indexes;
+    }
+
+    private void invalidateIndexes() {
+        if (indexes != null) {
+            pendingKeys = null;
+            indexesStale = true;
+        }
+    }
+
+    private V newValue() {
+        var recycler = this.recycler;
+        return recycler == null ? valueFactory.get() : recycler.get();
+    }
+
     @Override
     protected BsonValue encodeValue(V value) {
         return value.toBsonValue();
@@ -69,11 +332,210 @@ public final class DefaultMapModel<K, V extends ObjectModel<V>> extends Abstract
 
     @Override
     protected V decodeValue(BsonValue value) {
-        V v = valueFactory.get();
+        V v = newValue();
         v.load(value.asDocument());
         return v;
     }
 
+    @Override
+    boolean applyPathUpdate(PathUpdate update, int depth) {
+        // the values may be changed in place without notifications
+        invalidateIndexes();
+        return super.applyPathUpdate(update, depth);
+    }
+
+    /**
+     * Loads data from the specified {@link BsonDocument} to this model.
+     * <p>
+     * Unlike other map models, the existing values of the keys present
+     * in the source will be reused and loaded in place, only the values
+     * of new keys will be created and the values of absent keys will be
+     * detached.
+     *
+     * @param src the source {@link BsonDocument}
+     * @return this model
+     */
+    @Override
+    public DefaultMapModel<K, V> load(BsonDocument src) {
+        resetStates();
+        invalidateIndexes();
+        var mappings = this.mappings;
+        var remaining = mappings.size();
+        var staleKeys = staleKeys();
+        for (var entry : src.entrySet()) {
+            K key = parseKey(entry.getKey());
+            var value = entry.getValue();
+            V existing = mappings.remove(key);
+            if (existing != null) {
+                remaining--;
+                removeStaleKey(staleKeys, key);
+            }
+            if (value.isNull()) {
+                drop(existing);
+            } else if (existing == null) {
+                putMapping(key, decodeValue(value));
+            } else {
+                mappings.put(key, existing.load(value.asDocument()));
+            }
+        }
+        return removeStaleMappings(remaining, staleKeys);
+    }
+
+    /**
+     * Loads data from the specified store data to this model.
+     * <p>
+     * The existing values will be reused the same way as
+     * {@link #load(BsonDocument)}.
+     *
+     * @param map the store data
+     * @return this model
+     */
+    @Override
+    public DefaultMapModel<K, V> loadStoreData(Map<?, ?> map) {
+        resetStates();
+        invalidateIndexes();
+        var mappings = this.mappings;
+        var remaining = mappings.size();
+        var staleKeys = staleKeys();
+        for (var entry : map.entrySet()) {
+            K key = parseKey(entry.getKey().toString());
+            var v = entry.getValue();
+            V existing = mappings.remove(key);
+            if (existing != null) {
+                remaining--;
+                removeStaleKey(staleKeys, key);
+            }
+            if (v == null) {
+                drop(existing);
+            } else if (existing == null) {
+                putMapping(key, decodeStoreValue(v));
+            } else {
+                mappings.put(key, existing.loadStoreData(v));
+            }
+        }
+        return removeStaleMappings(remaining, staleKeys);
+    }
+
+    /**
+     * Reads the store data from the specified {@link JsonDataReader} to
+     * this model.
+     * <p>
+     * The existing values will be reused the same way as
+     * {@link #load(BsonDocument)}.
+     *
+     * @param reader the {@link JsonDataReader}
+     * @return this model
+     */
+    @Override
+    public DefaultMapModel<K, V> readStoreData(JsonDataReader reader) {
+        if (reader.readNull()) {
+            return clean();
+        }
+        resetStates();
+        invalidateIndexes();
+        var mappings = this.mappings;
+        var remaining = mappings.size();
+        var staleKeys = staleKeys();
+        reader.readStartObject();
+        for (var name = reader.nextName(); name != null; name = reader.nextName()) {
+            K key = parseKey(name);
+            V existing = mappings.remove(key);
+            if (existing != null) {
+                remaining--;
+                removeStaleKey(staleKeys, key);
+            }
+            if (reader.readNull()) {
+                drop(existing);
+            } else if (existing == null) {
+                putMapping(key, readStoreValue(reader));
+            } else {
+                mappings.put(key, existing.readStoreData(reader));
+            }
+        }
+        return removeStaleMappings(remaining, staleKeys);
+    }
+
+    /**
+     * Reads the compact binary snapshot from the specified
+     * {@link SnapshotInput} to this model.
+     * <p>
+     * The existing values will be reused the same way as
+     * {@link #load(BsonDocument)}.
+     *
+     * @param in the {@link SnapshotInput}
+     * @return this model
+     */
+    @Override
+    public DefaultMapModel<K, V> readSnapshot(SnapshotInput in) {
+        resetStates();
+        invalidateIndexes();
+        var mappings = this.mappings;
+        var remaining = mappings.size();
+        var staleKeys = staleKeys();
+        for (var i = in.readSize(); i > 0; i--) {
+            K key = readSnapshotKey(in);
+            V existing = mappings.remove(key);
+            if (existing == null) {
+                putMapping(key, readSnapshotValue(in));
+            } else {
+                remaining--;
+                removeStaleKey(staleKeys, key);
+                mappings.put(key, existing.readSnapshot(in));
+            }
+        }
+        return removeStaleMappings(remaining, staleKeys);
+    }
+
+    /**
+     * Returns a copy of the current keys if this model is sorted, or
+     * {@code null} otherwise.
+     * <p>
+     * Sorted mappings are not reordered by reinsertion, so the stale
+     * mappings of them are tracked by keys during reloading.
+     */
+    private @Nullable Set<K> staleKeys() {
+        var mappings = this.mappings;
+        return isSorted() && !mappings.isEmpty() ? new HashSet<>(mappings.keySet()) : null;
+    }
+
+    private static <K> void removeStaleKey(@Nullable Set<K> staleKeys, K key) {
+        if (staleKeys != null) {
+            staleKeys.remove(key);
+        }
+    }
+
+    /**
+     * Removes and detaches the stale mappings not present in the
+     * reloaded data, which are the first {@code count} mappings, or the
+     * mappings of the {@code staleKeys} if it is not {@code null}.
+     * <p>
+     * All reused and new mappings are (re)inserted at the end of the
+     * linked mappings during reloading, so the stale mappings always stay
+     * at the head.
+     */
+    private DefaultMapModel<K, V> removeStaleMappings(int count, @Nullable Set<K> staleKeys) {
+        if (count > 0) {
+            var mappings = this.mappings;
+            if (staleKeys != null) {
+                for (var key : staleKeys) {
+                    drop(mappings.remove(key));
+                }
+            } else {
+                Iterator<@Nullable V> iterator = mappings.values().iterator();
+                for (var i = 0; i < count; i++) {
+                    drop(iterator.next());
+                    iterator.remove();
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    protected int estimateValueSize(V value) {
+        return value.estimateBsonSize();
+    }
+
     @Override
     protected Object encodeStoreValue(V value) {
         return value.toStoreData();
@@ -81,11 +543,46 @@ public final class DefaultMapModel<K, V extends ObjectModel<V>> extends Abstract
 
     @Override
     protected V decodeStoreValue(Object value) {
-        V v = valueFactory.get();
+        V v = newValue();
         v.loadStoreData(value);
         return v;
     }
 
+    @Override
+    protected void writeStoreValue(JsonDataWriter writer, V value) {
+        value.writeStoreData(writer);
+    }
+
+    @Override
+    protected V readStoreValue(JsonDataReader reader) {
+        return newValue().readStoreData(reader);
+    }
+
+    @Override
+    protected void writeSnapshotValue(SnapshotOutput out, V value) {
+        value.writeSnapshot(out);
+    }
+
+    @Override
+    protected V readSnapshotValue(SnapshotInput in) {
+        return newValue().readSnapshot(in);
+    }
+
+    @Override
+    protected void writeChangesValue(SnapshotOutput out, V value) {
+        value.writeChanges(out);
+    }
+
+    @Override
+    protected void applyChangesValue(K key, SnapshotInput in) {
+        var value = get(key);
+        if (value == null) {
+            put(key, newValue().applyChanges(in));
+        } else {
+            value.applyChanges(in);
+        }
+    }
+
     @Override
     protected DefaultMapModel<K, V> triggerChange(K key, @Nullable V value) {
         if (value != null) {
@@ -99,15 +596,38 @@ public final class DefaultMapModel<K, V extends ObjectModel<V>> extends Abstract
         return value.toDisplayData();
     }
 
+    @Override
+    protected void writeDisplayValue(JsonDataWriter writer, V value) {
+        value.writeDisplayData(writer);
+    }
+
     @Override
     protected @Nullable Object toUpdatedValue(V value) {
         return value.toUpdated();
     }
 
+    @Override
+    protected boolean writeUpdatedValue(JsonDataWriter writer, V value) {
+        return value.writeUpdated(writer);
+    }
+
     @Override
     protected @Nullable V putMapping(K key, V value) {
+        var indexes = liveIndexes();
+        if (indexes != null) {
+            for (var index : indexes) {
+                index.checkPut(key, value);
+            }
+        }
         value.ensureDetached().parent(this).key(key);
-        return detach(super.putMapping(key, value));
+        var original = detach(super.putMapping(key, value));
+        if (indexes != null) {
+            for (var index : indexes) {
+                index.put(key, value);
+            }
+            rearm(value);
+        }
+        return original;
     }
 
     private @Nullable V detach(@Nullable V value) {
@@ -117,9 +637,33 @@ public final class DefaultMapModel<K, V extends ObjectModel<V>> extends Abstract
         return value;
     }
 
+    /**
+     * Drops the specified value which will never be returned to callers,
+     * recycles it if a recycler is set, or just detaches it otherwise.
+     */
+    private void drop(@Nullable V value) {
+        if (value != null) {
+            var recycler = this.recycler;
+            if (recycler == null) {
+                value.detach();
+            } else {
+                recycler.recycle(value);
+            }
+        }
+    }
+
     @Override
     protected @Nullable V removeMapping(K key) {
-        return detach(super.removeMapping(key));
+        var original = detach(super.removeMapping(key));
+        if (original != null) {
+            var indexes = liveIndexes();
+            if (indexes != null) {
+                for (var index : indexes) {
+                    index.remove(key);
+                }
+            }
+        }
+        return original;
     }
 
     @Override
@@ -127,12 +671,33 @@ public final class DefaultMapModel<K, V extends ObjectModel<V>> extends Abstract
         var mappings = this.mappings;
         if (!mappings.isEmpty()) {
             for (V value : mappings.values()) {
-                detach(value);
+                drop(value);
+            }
+        }
+        var indexes = this.indexes;
+        if (indexes != null) {
+            pendingKeys = null;
+            indexesStale = false;
+            for (var index : indexes) {
+                index.clear();
             }
         }
         return super.clearMappings();
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    protected void onChildChanged(int index, @Nullable Object key) {
+        super.onChildChanged(index, key);
+        if (indexes != null && key != null) {
+            var pendingKeys = this.pendingKeys;
+            if (pendingKeys == null) {
+                this.pendingKeys = pendingKeys = new HashSet<>();
+            }
+            pendingKeys.add((K) key);
+        }
+    }
+
     @Override
     protected DefaultMapModel<K, V> resetChildren() {
         var changedKeys = this.changedKeys;
@@ -205,22 +770,36 @@ public final class DefaultMapModel<K, V extends ObjectModel<V>> extends Abstract
         return count;
     }
 
+    @Override
+    protected void applyUpdatedValue(K key, Object data) {
+        var value = get(key);
+        if (value == null) {
+            put(key, newValue().applyUpdated(DisplayDataUtil.mapValue(data)));
+        } else {
+            value.applyUpdated(DisplayDataUtil.mapValue(data));
+        }
+    }
+
+    @Override
+    protected void applyDeletedValue(K key, Map<?, ?> data) {
+        var value = get(key);
+        if (value != null) {
+            value.applyDeleted(data);
+        }
+    }
+
     @Override
     protected @Nullable Map<String, ? extends Object> toDeletedValue(V value) {
         return value.toDeleted();
     }
 
     @Override
-    public int appendUpdates(List<Bson> updates) {
-        if (isFullUpdate()) {
-            updates.add(set(path().getPath(), toBsonValue()));
-            return 1;
-        }
-        var changedKeys = this.changedKeys;
-        if (changedKeys.isEmpty()) {
-            return 0;
-        }
-        var originalSize = updates.size();
+    protected boolean writeDeletedValue(JsonDataWriter writer, V value) {
+        return value.writeDeleted(writer);
+    }
+
+    @Override
+    protected void appendChangedUpdates(List<Bson> updates) {
         var path = path();
         var mappings = this.mappings;
         for (var key : changedKeys) {
@@ -232,12 +811,11 @@ public final class DefaultMapModel<K, V extends ObjectModel<V>> extends Abstract
                 value.appendUpdates(updates);
             }
         }
-        return updates.size() - originalSize;
     }
 
     @Override
     public DefaultMapModel<K, V> deepCopy() {
-        return new DefaultMapModel<K, V>(keyParser, valueFactory).deepCopyFrom(this);
+        return new DefaultMapModel<K, V>(keyParser, valueFactory, newMappings()).recycler(recycler).deepCopyFrom(this);
     }
 
     @Override
@@ -0,0 +1,513 @@
+package com.github.fmjsjx.bson.model3.core;
+
+import com.github.fmjsjx.bson.model3.core.json.JsonDataWriter;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotInput;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotOutput;
+import com.github.fmjsjx.bson.model3.core.snapshot.Snapshots;
+import com.github.fmjsjx.bson.model3.core.util.BsonSizeUtil;
+import org.bson.*;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.conversions.Bson;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.jspecify.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static com.github.fmjsjx.bson.model3.core.util.CommonsUtil.mapCapacity;
+import static com.mongodb.client.model.Updates.set;
+import static com.mongodb.client.model.Updates.unset;
+
+/**
+ * A schemaless model of an arbitrary BSON document, tracks the changes
+ * per key path and emits minimal updates.
+ * <p>
+ * The values are either nested {@link DynamicObjectModel}s for the
+ * embedded documents, or the other non-null {@link BsonValue}s. The
+ * {@link BsonDocument}s put into this model are converted to nested
+ * models, so the changes of them are tracked by their own keys. The other
+ * values, including {@link BsonArray}s, are treated as immutable, they
+ * should be replaced by {@link #put(String, Object)} when changed.
+ * <p>
+ * The store data and the display data of the values are plain JSON
+ * values. Date times and object IDs, which have no JSON counterparts, are
+ * converted to the Extended JSON wrappers {@code {"$date": millis}} and
+ * {@code {"$oid": hex}}, and restored when loading, so that they can be
+ * round-tripped. The other BSON types without JSON counterparts can't be
+ * converted to plain values and are rejected with an
+ * {@link IllegalArgumentException}. The BSON values and the snapshots keep
+ * the exact BSON types.
+ * <p>
+ * It can be used as the type of object fields in generated models by the
+ * {@code dynamic} field type.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public final class DynamicObjectModel extends AbstractMapModel<String, Object, DynamicObjectModel> {
+
+    /**
+     * The schema fingerprint of the snapshots of dynamic object models.
+     */
+    public static final long SNAPSHOT_FINGERPRINT = Snapshots.fingerprint("dynamic");
+
+    private static final String VALUE_NAME = "v";
+    private static final String DATE_NAME = "$date";
+    private static final String OBJECT_ID_NAME = "$oid";
+
+    /**
+     * Constructs a new empty {@link DynamicObjectModel}.
+     */
+    public DynamicObjectModel() {
+        super(Function.identity());
+    }
+
+    /**
+     * Returns the nested model of the embedded document to which the
+     * specified key is mapped.
+     *
+     * @param key the key
+     * @return the nested model, or {@code null} if the key is absent or
+     * not mapped to an embedded document
+     */
+    public @Nullable DynamicObjectModel getObject(String key) {
+        return mappings.get(key) instanceof DynamicObjectModel object ? object : null;
+    }
+
+    /**
+     * Returns the nested model of the embedded document to which the
+     * specified key is mapped, a new empty nested model will be put if
+     * the key is absent or not mapped to an embedded document.
+     *
+     * @param key the key
+     * @return the nested model
+     */
+    public DynamicObjectModel getOrCreateObject(String key) {
+        var object = getObject(key);
+        if (object == null) {
+            object = new DynamicObjectModel();
+            put(key, object);
+        }
+        return object;
+    }
+
+    /**
+     * Returns the {@link BsonValue} to which the specified key is mapped,
+     * the nested models are encoded to new {@link BsonDocument}s.
+     *
+     * @param key the key
+     * @return the {@code BsonValue}, or {@code null} if the key is absent
+     */
+    public @Nullable BsonValue getBsonValue(String key) {
+        var value = mappings.get(key);
+        return value == null ? null : encodeValue(value);
+    }
+
+    /**
+     * Associates the specified value with the specified key.
+     * <p>
+     * The value must be a {@link BsonValue} or a
+     * {@link DynamicObjectModel}, {@link BsonDocument}s are converted to
+     * nested models, and {@code null}s or {@link BsonNull}s remove the
+     * mapping. Putting a {@code BsonValue} equal to the current one
+     * doesn't change anything.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the previous value associated with the specified key, or
+     * {@code null} if there was no mapping for the key
+     * @throws IllegalArgumentException if the value is not supported
+     */
+    @Override
+    public @Nullable Object put(String key, @Nullable Object value) {
+        if (value == null || value instanceof BsonNull) {
+            return super.put(key, null);
+        }
+        var normalized = normalizeValue(value);
+        if (normalized instanceof BsonValue) {
+            var original = mappings.get(key);
+            if (normalized.equals(original)) {
+                return original;
+            }
+        }
+        return super.put(key, normalized);
+    }
+
+    private static Object normalizeValue(Object value) {
+        return switch (value) {
+            case DynamicObjectModel object -> object;
+            case BsonDocument document -> new DynamicObjectModel().load(document);
+            case BsonValue bsonValue -> bsonValue;
+            default -> throw new IllegalArgumentException("Unsupported dynamic value type " + value.getClass().getName());
+        };
+    }
+
+    @Override
+    protected BsonValue encodeValue(Object value) {
+        return value instanceof DynamicObjectModel object ? object.toBsonValue() : (BsonValue) value;
+    }
+
+    @Override
+    protected Object decodeValue(BsonValue value) {
+        return value.isDocument() ? new DynamicObjectModel().load(value.asDocument()) : value;
+    }
+
+    @Override
+    protected int estimateValueSize(Object value) {
+        return value instanceof DynamicObjectModel object
+                ? object.estimateBsonSize()
+                : BsonSizeUtil.sizeOf((BsonValue) value);
+    }
+
+    @Override
+    public Map<String, Object> toStoreData() {
+        var mappings = this.mappings;
+        var map = new LinkedHashMap<String, Object>(mapCapacity(mappings.size()));
+        for (var entry : mappings.entrySet()) {
+            var value = entry.getValue();
+            if (value != null) {
+                map.put(entry.getKey(), encodeStoreValue(value));
+            }
+        }
+        return map;
+    }
+
+    @Override
+    protected Object encodeStoreValue(Object value) {
+        return value instanceof DynamicObjectModel object ? object.toStoreData() : toPlainValue((BsonValue) value);
+    }
+
+    @Override
+    protected Object decodeStoreValue(Object value) {
+        return value instanceof Map<?, ?> map && !isWrappedValue(map)
+                ? new DynamicObjectModel().loadStoreData(map)
+                : fromPlainValue(value);
+    }
+
+    @Override
+    protected void writeSnapshotValue(SnapshotOutput out, Object value) {
+        if (value instanceof DynamicObjectModel object) {
+            out.writeBoolean(true);
+            object.writeSnapshot(out);
+        } else {
+            out.writeBoolean(false).writeBytes(encodeBytes((BsonValue) value));
+        }
+    }
+
+    @Override
+    protected Object readSnapshotValue(SnapshotInput in) {
+        return in.readBoolean() ? new DynamicObjectModel().readSnapshot(in) : decodeBytes(in.readBytes());
+    }
+
+    @Override
+    protected void writeChangesValue(SnapshotOutput out, Object value) {
+        if (value instanceof DynamicObjectModel object) {
+            out.writeBoolean(true);
+            object.writeChanges(out);
+        } else {
+            out.writeBoolean(false).writeBytes(encodeBytes((BsonValue) value));
+        }
+    }
+
+    @Override
+    protected void applyChangesValue(String key, SnapshotInput in) {
+        if (in.readBoolean()) {
+            var object = getObject(key);
+            if (object == null) {
+                put(key, new DynamicObjectModel().applyChanges(in));
+            } else {
+                object.applyChanges(in);
+            }
+        } else {
+            put(key, decodeBytes(in.readBytes()));
+        }
+    }
+
+    private static byte[] encodeBytes(BsonValue value) {
+        var buffer = new BasicOutputBuffer();
+        new BsonDocumentCodec().encode(new BsonBinaryWriter(buffer), new BsonDocument(VALUE_NAME, value),
+                EncoderContext.builder().build());
+        return buffer.toByteArray();
+    }
+
+    private static BsonValue decodeBytes(byte[] bytes) {
+        return new RawBsonDocument(bytes).decode(new BsonDocumentCodec()).get(VALUE_NAME);
+    }
+
+    @Override
+    protected DynamicObjectModel triggerChange(String key, @Nullable Object value) {
+        if (value instanceof DynamicObjectModel object) {
+            object.fullUpdate();
+        }
+        return triggerChange(key);
+    }
+
+    @Override
+    protected Object toDisplayValue(Object value) {
+        if (value instanceof DynamicObjectModel object) {
+            return object.toDisplayData();
+        }
+        return toPlainValue((BsonValue) value);
+    }
+
+    @Override
+    protected void writeDisplayValue(JsonDataWriter writer, Object value) {
+        if (value instanceof DynamicObjectModel object) {
+            object.writeDisplayData(writer);
+        } else {
+            writer.writeValue(toPlainValue((BsonValue) value));
+        }
+    }
+
+    @Override
+    protected @Nullable Object toUpdatedValue(Object value) {
+        return value instanceof DynamicObjectModel object ? object.toUpdated() : toPlainValue((BsonValue) value);
+    }
+
+    @Override
+    protected boolean writeUpdatedValue(JsonDataWriter writer, Object value) {
+        if (value instanceof DynamicObjectModel object) {
+            return object.writeUpdated(writer);
+        }
+        return super.writeUpdatedValue(writer, value);
+    }
+
+    @Override
+    protected @Nullable Object toDeletedValue(Object value) {
+        return value instanceof DynamicObjectModel object ? object.toDeleted() : null;
+    }
+
+    @Override
+    protected boolean writeDeletedValue(JsonDataWriter writer, Object value) {
+        return value instanceof DynamicObjectModel object && object.writeDeleted(writer);
+    }
+
+    @Override
+    protected void applyUpdatedValue(String key, Object data) {
+        if (data instanceof Map<?, ?> map && !isWrappedValue(map)) {
+            var object = getObject(key);
+            if (object == null) {
+                put(key, new DynamicObjectModel().applyUpdated(map));
+            } else {
+                object.applyUpdated(map);
+            }
+        } else {
+            put(key, fromPlainValue(data));
+        }
+    }
+
+    @Override
+    protected void applyDeletedValue(String key, Map<?, ?> data) {
+        var object = getObject(key);
+        if (object != null) {
+            object.applyDeleted(data);
+        }
+    }
+
+    @Override
+    protected @Nullable Object putMapping(String key, Object value) {
+        if (value instanceof DynamicObjectModel object) {
+            object.ensureDetached().parent(this).key(key);
+        }
+        return detach(super.putMapping(key, value));
+    }
+
+    private static @Nullable Object detach(@Nullable Object value) {
+        if (value instanceof DynamicObjectModel object) {
+            object.detach();
+        }
+        return value;
+    }
+
+    @Override
+    protected @Nullable Object removeMapping(String key) {
+        return detach(super.removeMapping(key));
+    }
+
+    @Override
+    protected DynamicObjectModel clearMappings() {
+        var mappings = this.mappings;
+        if (!mappings.isEmpty()) {
+            for (var value : mappings.values()) {
+                detach(value);
+            }
+        }
+        return super.clearMappings();
+    }
+
+    @Override
+    protected DynamicObjectModel resetChildren() {
+        var changedKeys = this.changedKeys;
+        if (!changedKeys.isEmpty()) {
+            for (var key : changedKeys) {
+                var object = getObject(key);
+                if (object != null) {
+                    object.reset();
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public boolean anyUpdated() {
+        if (isFullUpdate()) {
+            return true;
+        }
+        var mappings = this.mappings;
+        for (var key : changedKeys) {
+            var value = mappings.get(key);
+            if (value != null && (!(value instanceof DynamicObjectModel object) || object.anyUpdated())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean anyDeleted() {
+        return deletedSize() > 0;
+    }
+
+    @Override
+    public int deletedSize() {
+        if (isFullUpdate()) {
+            return 0;
+        }
+        var mappings = this.mappings;
+        var count = 0;
+        for (var key : changedKeys) {
+            var value = mappings.get(key);
+            if (value == null || (value instanceof DynamicObjectModel object && object.anyDeleted())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    protected void appendChangedUpdates(List<Bson> updates) {
+        var path = path();
+        var mappings = this.mappings;
+        for (var key : changedKeys) {
+            var value = mappings.get(key);
+            switch (value) {
+                case null -> updates.add(unset(path.path(key)));
+                case DynamicObjectModel object -> object.appendUpdates(updates);
+                default -> updates.add(set(path.path(key), (BsonValue) value));
+            }
+        }
+    }
+
+    @Override
+    public DynamicObjectModel deepCopy() {
+        return new DynamicObjectModel().fullUpdateRatio(fullUpdateRatio).deepCopyFrom(this);
+    }
+
+    @Override
+    public DynamicObjectModel deepCopyFrom(DynamicObjectModel src) {
+        for (var entry : src.mappings.entrySet()) {
+            var value = entry.getValue();
+            switch (value) {
+                case null -> {
+                }
+                case DynamicObjectModel object -> putMapping(entry.getKey(), object.deepCopy());
+                case BsonArray array -> putMapping(entry.getKey(), array.clone());
+                default -> putMapping(entry.getKey(), value);
+            }
+        }
+        return this;
+    }
+
+    private static Object toPlainValue(BsonValue value) {
+        return switch (value.getBsonType()) {
+            case INT32 -> value.asInt32().getValue();
+            case INT64 -> value.asInt64().getValue();
+            case DOUBLE -> value.asDouble().getValue();
+            case DECIMAL128 -> value.asDecimal128().getValue().bigDecimalValue();
+            case BOOLEAN -> value.asBoolean().getValue();
+            case STRING -> value.asString().getValue();
+            case DATE_TIME -> Map.of(DATE_NAME, value.asDateTime().getValue());
+            case OBJECT_ID -> Map.of(OBJECT_ID_NAME, value.asObjectId().getValue().toHexString());
+            case ARRAY -> {
+                var array = value.asArray();
+                var list = new ArrayList<@Nullable Object>(array.size());
+                for (var element : array) {
+                    list.add(element.isNull() ? null : toPlainValue(element));
+                }
+                yield list;
+            }
+            case DOCUMENT -> {
+                var document = value.asDocument();
+                var map = new LinkedHashMap<String, @Nullable Object>(mapCapacity(document.size()));
+                for (var entry : document.entrySet()) {
+                    var element = entry.getValue();
+                    map.put(entry.getKey(), element.isNull() ? null : toPlainValue(element));
+                }
+                yield map;
+            }
+            default -> throw new IllegalArgumentException("Unsupported dynamic value type " + value.getBsonType()
+                    + ", it can't be converted to a plain value");
+        };
+    }
+
+    /**
+     * Returns whether the specified map is an Extended JSON wrapper of a
+     * date time or an object ID.
+     */
+    private static boolean isWrappedValue(Map<?, ?> map) {
+        if (map.size() != 1) {
+            return false;
+        }
+        var entry = map.entrySet().iterator().next();
+        var name = entry.getKey();
+        return (DATE_NAME.equals(name) && entry.getValue() instanceof Number)
+                || (OBJECT_ID_NAME.equals(name) && entry.getValue() instanceof String);
+    }
+
+    private static BsonValue fromPlainValue(@Nullable Object value) {
+        return switch (value) {
+            case null -> BsonNull.VALUE;
+            case BsonValue bsonValue -> bsonValue;
+            case String string -> new BsonString(string);
+            case Integer i -> new BsonInt32(i);
+            case Short s -> new BsonInt32(s);
+            case Byte b -> new BsonInt32(b);
+            case Long l -> new BsonInt64(l);
+            case Double d -> new BsonDouble(d);
+            case Float f -> new BsonDouble(f);
+            case BigDecimal decimal -> new BsonDecimal128(new Decimal128(decimal));
+            case BigInteger integer -> integer.bitLength() < Long.SIZE
+                    ? new BsonInt64(integer.longValue())
+                    : new BsonDecimal128(new Decimal128(new BigDecimal(integer)));
+            case Boolean bool -> BsonBoolean.valueOf(bool);
+            case Map<?, ?> map when isWrappedValue(map) -> map.containsKey(DATE_NAME)
+                    ? new BsonDateTime(((Number) map.get(DATE_NAME)).longValue())
+                    : new BsonObjectId(new ObjectId((String) map.get(OBJECT_ID_NAME)));
+            case Map<?, ?> map -> {
+                var document = new BsonDocument(mapCapacity(map.size()));
+                for (var entry : map.entrySet()) {
+                    document.put(String.valueOf(entry.getKey()), fromPlainValue(entry.getValue()));
+                }
+                yield document;
+            }
+            case Iterable<?> iterable -> {
+                var array = new BsonArray();
+                for (var element : iterable) {
+                    array.add(fromPlainValue(element));
+                }
+                yield array;
+            }
+            default -> throw new IllegalArgumentException("Unsupported dynamic value type " + value.getClass().getName());
+        };
+    }
+
+}
@@ -0,0 +1,244 @@
+package com.github.fmjsjx.bson.model3.core;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A secondary index over the values of a {@link DefaultMapModel}, keyed
+ * by an extractor function over the fields of the values.
+ * <p>
+ * Indexes are created by {@link DefaultMapModel#uniqueIndex(Function)}
+ * and {@link DefaultMapModel#multiIndex(Function)}, and maintained by
+ * the map incrementally on {@code put} and {@code remove}, rebuilt on
+ * reloading, and updated on the next lookup for the values whose fields
+ * were changed. Values whose extractor returns {@code null} are not
+ * indexed.
+ * <p>
+ * Indexes are not copied by {@link DefaultMapModel#deepCopy()}, and they
+ * are not thread-safe, same as the map models.
+ *
+ * @param <I> the type of the index keys
+ * @param <K> the type of the map keys
+ * @param <V> the type of the map values
+ * @author MJ Fang
+ * @since 3.0
+ */
+public abstract sealed class MapIndex<I, K, V extends ObjectModel<V>> permits MapIndex.Unique, MapIndex.Multi {
+
+    final DefaultMapModel<K, V> map;
+    private final Function<? super V, ? extends @Nullable I> extractor;
+    private final HashMap<K, I> indexKeys = new HashMap<>();
+
+    MapIndex(DefaultMapModel<K, V> map, Function<? super V, ? extends @Nullable I> extractor) {
+        this.map = map;
+        this.extractor = extractor;
+    }
+
+    /**
+     * Returns the number of the indexed values.
+     *
+     * @return the number of the indexed values
+     */
+    public int size() {
+        map.refreshIndexes();
+        return indexKeys.size();
+    }
+
+    @Nullable I indexKey(V value) {
+        return extractor.apply(value);
+    }
+
+    void checkPut(K key, V value) {
+        // only unique indexes can reject values
+    }
+
+    void put(K key, @Nullable V value) {
+        var indexKey = value == null ? null : indexKey(value);
+        var previous = indexKeys.get(key);
+        if (Objects.equals(previous, indexKey)) {
+            return;
+        }
+        remove(key);
+        if (indexKey != null) {
+            add(indexKey, key);
+            indexKeys.put(key, indexKey);
+        }
+    }
+
+    void remove(K key) {
+        var indexKey = indexKeys.remove(key);
+        if (indexKey != null) {
+            remove(indexKey, key);
+        }
+    }
+
+    void clear() {
+        indexKeys.clear();
+        clearEntries();
+    }
+
+    abstract void add(I indexKey, K key);
+
+    abstract void remove(I indexKey, K key);
+
+    abstract void clearEntries();
+
+    /**
+     * A unique {@link MapIndex}, which maps each index key to at most one
+     * map key.
+     * <p>
+     * Putting a value whose index key is already used by another map key
+     * throws an {@link IllegalStateException}, and so does reloading the
+     * map or looking up after changing a value to such an index key.
+     *
+     * @param <I> the type of the index keys
+     * @param <K> the type of the map keys
+     * @param <V> the type of the map values
+     */
+    public static final class Unique<I, K, V extends ObjectModel<V>> extends MapIndex<I, K, V> {
+
+        private final HashMap<I, K> entries = new HashMap<>();
+
+        Unique(DefaultMapModel<K, V> map, Function<? super V, ? extends @Nullable I> extractor) {
+            super(map, extractor);
+        }
+
+        /**
+         * Returns the map key of the value with the specified index key.
+         *
+         * @param indexKey the index key
+         * @return the map key, or {@code null} if no value is indexed by
+         * the index key
+         */
+        public @Nullable K getKey(I indexKey) {
+            map.refreshIndexes();
+            return entries.get(indexKey);
+        }
+
+        /**
+         * Returns the value with the specified index key.
+         *
+         * @param indexKey the index key
+         * @return the value, or {@code null} if no value is indexed by the
+         * index key
+         */
+        public @Nullable V get(I indexKey) {
+            var key = getKey(indexKey);
+            return key == null ? null : map.get(key);
+        }
+
+        @Override
+        void checkPut(K key, V value) {
+            var indexKey = indexKey(value);
+            if (indexKey != null) {
+                var existing = entries.get(indexKey);
+                if (existing != null && !existing.equals(key)) {
+                    throw duplicateIndexKey(indexKey, existing, key);
+                }
+            }
+        }
+
+        @Override
+        void add(I indexKey, K key) {
+            var existing = entries.putIfAbsent(indexKey, key);
+            if (existing != null && !existing.equals(key)) {
+                throw duplicateIndexKey(indexKey, existing, key);
+            }
+        }
+
+        private static IllegalStateException duplicateIndexKey(Object indexKey, Object existing, Object key) {
+            return new IllegalStateException("Duplicate index key " + indexKey + " of map keys " + existing + " and " + key);
+        }
+
+        @Override
+        void remove(I indexKey, K key) {
+            entries.remove(indexKey, key);
+        }
+
+        @Override
+        void clearEntries() {
+            entries.clear();
+        }
+
+    }
+
+    /**
+     * A multi-valued {@link MapIndex}, which maps each index key to any
+     * number of map keys, in the order they were indexed.
+     *
+     * @param <I> the type of the index keys
+     * @param <K> the type of the map keys
+     * @param <V> the type of the map values
+     */
+    public static final class Multi<I, K, V extends ObjectModel<V>> extends MapIndex<I, K, V> {
+
+        private final HashMap<I, LinkedHashSet<K>> entries = new HashMap<>();
+
+        Multi(DefaultMapModel<K, V> map, Function<? super V, ? extends @Nullable I> extractor) {
+            super(map, extractor);
+        }
+
+        /**
+         * Returns the map keys of the values with the specified index
+         * key.
+         *
+         * @param indexKey the index key
+         * @return an unmodifiable view of the map keys, may be empty
+         */
+        public Set<K> getKeys(I indexKey) {
+            map.refreshIndexes();
+            var keys = entries.get(indexKey);
+            return keys == null ? Set.of() : Collections.unmodifiableSet(keys);
+        }
+
+        /**
+         * Returns the values with the specified index key.
+         *
+         * @param indexKey the index key
+         * @return a new list of the values, may be empty
+         */
+        public List<V> get(I indexKey) {
+            var keys = getKeys(indexKey);
+            if (keys.isEmpty()) {
+                return List.of();
+            }
+            var values = new ArrayList<V>(keys.size());
+            for (var key : keys) {
+                values.add(Objects.requireNonNull(map.get(key)));
+            }
+            return values;
+        }
+
+        /**
+         * Returns the number of the values with the specified index key.
+         *
+         * @param indexKey the index key
+         * @return the number of the values
+         */
+        public int count(I indexKey) {
+            return getKeys(indexKey).size();
+        }
+
+        @Override
+        void add(I indexKey, K key) {
+            entries.computeIfAbsent(indexKey, k -> new LinkedHashSet<>()).add(key);
+        }
+
+        @Override
+        void remove(I indexKey, K key) {
+            var keys = entries.get(indexKey);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                entries.remove(indexKey);
+            }
+        }
+
+        @Override
+        void clearEntries() {
+            entries.clear();
+        }
+
+    }
+
+}
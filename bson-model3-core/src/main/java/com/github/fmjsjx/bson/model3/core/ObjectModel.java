@@ -23,6 +23,19 @@ public interface ObjectModel<Self extends ObjectModel<Self>> extends BsonModel<B
      */
     boolean isFieldChanged(int index);
 
+    /**
+     * Recycles this model so that it can be reused as a new instance.
+     * <p>
+     * This model will be detached from its parent, and all fields and
+     * change states will be cleaned.
+     *
+     * @return this model
+     * @see Recycler
+     */
+    default Self recycle() {
+        return detach().clean();
+    }
+
     @Override
     Map<String, ? extends Object> toDisplayData();
 
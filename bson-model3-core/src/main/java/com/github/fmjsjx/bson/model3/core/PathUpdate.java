@@ -0,0 +1,86 @@
+package com.github.fmjsjx.bson.model3.core;
+
+import com.github.fmjsjx.bson.model3.core.util.BsonUpdateUtil;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonValue;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A single update at a dotted path, typically from a change stream
+ * event, to be resolved level by level against the models.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+final class PathUpdate {
+
+    static PathUpdate set(String path, BsonValue value) {
+        return new PathUpdate(path, value, -1);
+    }
+
+    static PathUpdate unset(String path) {
+        return new PathUpdate(path, null, -1);
+    }
+
+    static PathUpdate truncate(String path, int newSize) {
+        return new PathUpdate(path, null, newSize);
+    }
+
+    private final String[] names;
+    private final @Nullable BsonValue value;
+    private final int newSize;
+
+    private PathUpdate(String path, @Nullable BsonValue value, int newSize) {
+        this.names = path.split("\\.");
+        this.value = value;
+        this.newSize = newSize;
+    }
+
+    /**
+     * Returns the name at the specified depth.
+     *
+     * @param depth the depth
+     * @return the name
+     */
+    String name(int depth) {
+        return names[depth];
+    }
+
+    /**
+     * Returns whether the name at the specified depth is the last one of
+     * the path.
+     *
+     * @param depth the depth
+     * @return {@code true} if the name is the last one
+     */
+    boolean isLast(int depth) {
+        return depth == names.length - 1;
+    }
+
+    /**
+     * Applies this update to the specified document which contains the
+     * name at the specified depth.
+     *
+     * @param src   the document
+     * @param depth the depth
+     */
+    void applyTo(BsonDocument src, int depth) {
+        var path = String.join(".", Arrays.asList(names).subList(depth, names.length));
+        if (newSize >= 0) {
+            if (BsonUpdateUtil.get(src, path) instanceof BsonArray array) {
+                while (array.size() > newSize) {
+                    array.remove(array.size() - 1);
+                }
+            }
+        } else if (value == null) {
+            BsonUpdateUtil.applyUpdate(src, new BsonDocument("$unset", new BsonDocument(path, new BsonInt32(1))));
+        } else {
+            BsonUpdateUtil.applyUpdate(src, new BsonDocument("$set", new BsonDocument(path, value)));
+        }
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.github.fmjsjx.bson.model3.core;
+
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
+/**
+ * A thread-local and bounded pool of recycled {@link ObjectModel}
+ * instances.
+ * <p>
+ * A {@link DefaultMapModel} with a {@code Recycler} creates its values
+ * through {@link #get()}, and recycles the values dropped by cleaning,
+ * clearing and reloading through {@link #recycle(ObjectModel)}. Values
+ * removed by {@link MapModel#put(Object, Object)} or
+ * {@link MapModel#remove(Object)} are returned to the caller and will
+ * never be recycled.
+ * <p>
+ * <b>Note:</b> a recycled instance must not be referenced anymore,
+ * because it will be handed out again by {@link #get()}. Do not enable
+ * recycling for maps whose values may be retained after they are dropped.
+ * <p>
+ * Each thread owns its own pool, so the pools are not shared across
+ * threads. It is not recommended to use recyclers on virtual threads.
+ *
+ * @param <V> the type of the models
+ * @author MJ Fang
+ * @since 3.0
+ */
+public final class Recycler<V extends ObjectModel<V>> implements Supplier<V> {
+
+    /**
+     * The default maximum number of pooled instances per thread.
+     */
+    public static final int DEFAULT_MAX_CAPACITY = 256;
+
+    /**
+     * Creates a new {@link Recycler} with the default maximum capacity.
+     *
+     * @param <V>     the type of the models
+     * @param factory the factory creates new instances
+     * @return a new {@code Recycler}
+     */
+    public static <V extends ObjectModel<V>> Recycler<V> of(Supplier<V> factory) {
+        return new Recycler<>(factory, DEFAULT_MAX_CAPACITY);
+    }
+
+    /**
+     * Creates a new {@link Recycler} with the specified maximum
+     * capacity.
+     *
+     * @param <V>         the type of the models
+     * @param factory     the factory creates new instances
+     * @param maxCapacity the maximum number of pooled instances per
+     *                    thread
+     * @return a new {@code Recycler}
+     */
+    public static <V extends ObjectModel<V>> Recycler<V> of(Supplier<V> factory, int maxCapacity) {
+        if (maxCapacity < 0) {
+            throw new IllegalArgumentException("maxCapacity expected >= 0 but was " + maxCapacity);
+        }
+        return new Recycler<>(factory, maxCapacity);
+    }
+
+    private final Supplier<V> factory;
+    private final int maxCapacity;
+    private final ThreadLocal<ArrayDeque<V>> pool;
+
+    private Recycler(Supplier<V> factory, int maxCapacity) {
+        this.factory = factory;
+        this.maxCapacity = maxCapacity;
+        this.pool = ThreadLocal.withInitial(() -> new ArrayDeque<>(Math.min(maxCapacity, 16)));
+    }
+
+    /**
+     * Returns the maximum number of pooled instances per thread.
+     *
+     * @return the maximum number of pooled instances per thread
+     */
+    public int maxCapacity() {
+        return maxCapacity;
+    }
+
+    /**
+     * Returns the number of pooled instances of the current thread.
+     *
+     * @return the number of pooled instances of the current thread
+     */
+    public int size() {
+        return pool.get().size();
+    }
+
+    /**
+     * Returns a pooled instance, or a new instance created by the factory
+     * if the pool of the current thread is empty.
+     *
+     * @return a clean and detached instance
+     */
+    @Override
+    public V get() {
+        var value = pool.get().pollLast();
+        return value == null ? factory.get() : value;
+    }
+
+    /**
+     * Recycles the specified instance into the pool of the current
+     * thread.
+     * <p>
+     * The instance will be {@link ObjectModel#recycle() recycled} first,
+     * and then be discarded if the pool is full.
+     *
+     * @param value the instance
+     * @return {@code true} if the instance was pooled, {@code false}
+     * otherwise
+     */
+    public boolean recycle(V value) {
+        var pool = this.pool.get();
+        if (pool.size() >= maxCapacity) {
+            value.detach();
+            return false;
+        }
+        pool.addLast(value.recycle());
+        return true;
+    }
+
+}
@@ -1,9 +1,16 @@
 package com.github.fmjsjx.bson.model3.core;
 
 import com.github.fmjsjx.libcommon.json.JsonLibrary;
+import com.mongodb.client.model.UpdateOneModel;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
 import org.bson.conversions.Bson;
 import org.jspecify.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
@@ -77,4 +84,156 @@ public interface RootModel<Self extends RootModel<Self>> extends ObjectModel<Sel
      */
     Self jsonUnmarshal(JsonLibrary<?> jsonLibrary, byte[] json);
 
+    /**
+     * Encodes this model to a compact binary snapshot.
+     *
+     * @return the snapshot bytes
+     */
+    byte[] toSnapshot();
+
+    /**
+     * Writes the compact binary snapshot of this model to the specified
+     * {@link OutputStream}.
+     *
+     * @param out the {@code OutputStream}
+     * @throws IOException if any I/O error occurs
+     */
+    void writeTo(OutputStream out) throws IOException;
+
+    /**
+     * Writes the compact binary snapshot of this model to the specified
+     * {@link ByteBuffer}.
+     *
+     * @param dst the {@code ByteBuffer}
+     * @throws java.nio.BufferOverflowException if there is insufficient
+     *                                          space in the buffer
+     */
+    void writeTo(ByteBuffer dst);
+
+    /**
+     * Loads the specified compact binary snapshot into this model.
+     *
+     * @param snapshot the snapshot bytes
+     * @return this model
+     * @throws com.github.fmjsjx.bson.model3.core.snapshot.StaleSnapshotException
+     *         if the snapshot was written by a model with a different
+     *         schema
+     */
+    Self readFrom(byte[] snapshot);
+
+    /**
+     * Reads the compact binary snapshot at the current position of the
+     * specified {@link ByteBuffer} into this model.
+     *
+     * @param src the {@code ByteBuffer}
+     * @return this model
+     * @throws com.github.fmjsjx.bson.model3.core.snapshot.StaleSnapshotException
+     *         if the snapshot was written by a model with a different
+     *         schema
+     */
+    Self readFrom(ByteBuffer src);
+
+    /**
+     * Reads exactly one compact binary snapshot from the specified
+     * {@link InputStream} into this model.
+     *
+     * @param in the {@code InputStream}
+     * @return this model
+     * @throws IOException if any I/O error occurs
+     * @throws com.github.fmjsjx.bson.model3.core.snapshot.StaleSnapshotException
+     *         if the snapshot was written by a model with a different
+     *         schema
+     */
+    Self readFrom(InputStream in) throws IOException;
+
+    /**
+     * Returns the sequence number of the last change set created or
+     * applied by this model.
+     *
+     * @return the sequence number of the last change set
+     */
+    long changeSequence();
+
+    /**
+     * Encodes the changes of this model since the last reset to a compact
+     * binary change set with the next sequence number.
+     * <p>
+     * The change set should be created before {@link #reset()}, and then
+     * be applied by {@link #applyChangeSet(byte[])} of a follower model
+     * of the same type.
+     *
+     * @return the change set bytes
+     */
+    byte[] toChangeSet();
+
+    /**
+     * Encodes the whole model to a compact binary change set with the
+     * current sequence number, to resynchronize a follower model.
+     *
+     * @return the change set bytes
+     */
+    byte[] toFullChangeSet();
+
+    /**
+     * Applies the specified change set to this model, and then resets the
+     * states of this model.
+     * <p>
+     * Change sets with sequence numbers not greater than the current one
+     * are ignored, except the full change sets.
+     *
+     * @param changeSet the change set bytes
+     * @return this model
+     * @throws com.github.fmjsjx.bson.model3.core.snapshot.ChangeSetGapException
+     *         if one or more change sets before the specified one were
+     *         missed
+     * @throws com.github.fmjsjx.bson.model3.core.snapshot.StaleSnapshotException
+     *         if the change set was written by a model with a different
+     *         schema
+     */
+    Self applyChangeSet(byte[] changeSet);
+
+    /**
+     * Returns the BSON value of the {@code _id} field of this model,
+     * without encoding the other fields.
+     *
+     * @return the BSON value of the {@code _id}, or {@code null} if it
+     * is absent
+     * @throws IllegalStateException if this model doesn't have an
+     *                               {@code _id} field
+     */
+    @Nullable BsonValue toBsonId();
+
+    /**
+     * Creates the update model of the optimistic concurrency control,
+     * only supported by models have a version field.
+     * <p>
+     * The filter of the update model matches both the {@code _id} and
+     * the current version of this model, and the update contains all the
+     * updates of this model since the last reset, plus an {@code $inc} of
+     * the version. So the version field should not be changed directly.
+     * <p>
+     * If the update was matched, {@link #versionUpdated()} should be
+     * called, otherwise the document was concurrently updated by others,
+     * and this model should be reloaded, or the changes merged, before
+     * retrying.
+     *
+     * @return the update model, or {@code null} if nothing changed
+     * @throws IllegalStateException if this model doesn't have a version
+     *                               field, or the version field was
+     *                               changed directly
+     * @see com.github.fmjsjx.bson.model3.core.optimistic.OptimisticUpdater
+     */
+    @Nullable UpdateOneModel<BsonDocument> toVersionedUpdate();
+
+    /**
+     * Increases the version of this model by one and resets the states
+     * of this model, should be called after the update model created by
+     * {@link #toVersionedUpdate()} was successfully matched.
+     *
+     * @return this model
+     * @throws IllegalStateException if this model doesn't have a version
+     *                               field
+     */
+    Self versionUpdated();
+
 }
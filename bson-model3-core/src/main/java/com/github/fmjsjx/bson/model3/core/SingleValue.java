@@ -1,7 +1,14 @@
 package com.github.fmjsjx.bson.model3.core;
 
+import com.github.fmjsjx.bson.model3.core.json.JsonDataReader;
+import com.github.fmjsjx.bson.model3.core.json.JsonDataWriter;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotInput;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotOutput;
+import com.github.fmjsjx.bson.model3.core.util.BsonSizeUtil;
 import org.bson.BsonValue;
 
+import java.util.Objects;
+
 /**
  * An interface defines methods for single values.
  *
@@ -69,6 +76,60 @@ public sealed interface SingleValue<T> permits
      */
     T decodeStoreData(Object value);
 
+    /**
+     * Writes the store data of the specified java value to the specified
+     * {@link JsonDataWriter}.
+     *
+     * @param writer the {@link JsonDataWriter}
+     * @param value  the java value to write
+     */
+    default void writeStoreData(JsonDataWriter writer, T value) {
+        writer.writeValue(encodeStoreData(value));
+    }
+
+    /**
+     * Reads the store data of the java type of this single value from
+     * the specified {@link JsonDataReader}.
+     *
+     * @param reader the {@link JsonDataReader}
+     * @return the read java value
+     */
+    default T readStoreData(JsonDataReader reader) {
+        return decodeStoreData(Objects.requireNonNull(reader.readValue()));
+    }
+
+    /**
+     * Returns the encoded size of the {@link BsonValue} of the specified
+     * java value, in bytes.
+     * <p>
+     * The default implementation computes the size of the result of
+     * {@link #toBsonValue(Object)}.
+     *
+     * @param value the java value
+     * @return the encoded size
+     */
+    default int estimateBsonSize(T value) {
+        return BsonSizeUtil.sizeOf(toBsonValue(value));
+    }
+
+    /**
+     * Writes the specified java value to the specified
+     * {@link SnapshotOutput}.
+     *
+     * @param out   the {@link SnapshotOutput}
+     * @param value the java value to write
+     */
+    void writeSnapshot(SnapshotOutput out, T value);
+
+    /**
+     * Reads the java value of this single value from the specified
+     * {@link SnapshotInput}.
+     *
+     * @param in the {@link SnapshotInput}
+     * @return the read java value
+     */
+    T readSnapshot(SnapshotInput in);
+
     /**
      * Converts the specified java value to display data.
      *
@@ -79,4 +140,29 @@ public sealed interface SingleValue<T> permits
         return encodeStoreData(value);
     }
 
+    /**
+     * Writes the display data of the specified java value to the
+     * specified {@link JsonDataWriter}.
+     *
+     * @param writer the {@link JsonDataWriter}
+     * @param value  the java value to write
+     */
+    default void writeDisplayData(JsonDataWriter writer, T value) {
+        writer.writeValue(toDisplayData(value));
+    }
+
+    /**
+     * Converts the specified display data back to the java type of this
+     * single value.
+     * <p>
+     * The default implementation decodes it by
+     * {@link #decodeStoreData(Object)}.
+     *
+     * @param value the display data to convert
+     * @return the converted java value
+     */
+    default T decodeDisplayData(Object value) {
+        return decodeStoreData(value);
+    }
+
 }
@@ -1,7 +1,16 @@
 package com.github.fmjsjx.bson.model3.core;
 
+import com.github.fmjsjx.bson.model3.core.json.JsonDataReader;
+import com.github.fmjsjx.bson.model3.core.json.JsonDataWriter;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotInput;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotOutput;
+import com.github.fmjsjx.bson.model3.core.util.CompactMap;
 import org.bson.BsonValue;
+import org.jspecify.annotations.Nullable;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.function.Function;
 
 /**
@@ -22,7 +31,7 @@ public final class SingleValueMapModel<K, V> extends AbstractMapModel<K, V, Sing
      * @return a new {@link SingleValueMapModel}
      */
     public static <V> SingleValueMapModel<Integer, V> integerKeysMap(SingleValue<V> singleValue) {
-        return new SingleValueMapModel<>(Integer::parseInt, singleValue);
+        return new SingleValueMapModel<>(Integer::parseInt, singleValue, false);
     }
 
     /**
@@ -33,7 +42,7 @@ public final class SingleValueMapModel<K, V> extends AbstractMapModel<K, V, Sing
      * @return a new {@link SingleValueMapModel}
      */
     public static <V> SingleValueMapModel<Long, V> longKeysMap(SingleValue<V> singleValue) {
-        return new SingleValueMapModel<>(Long::parseLong, singleValue);
+        return new SingleValueMapModel<>(Long::parseLong, singleValue, false);
     }
 
     /**
@@ -44,13 +53,91 @@ public final class SingleValueMapModel<K, V> extends AbstractMapModel<K, V, Sing
      * @return a new {@link SingleValueMapModel}
      */
     public static <V> SingleValueMapModel<String, V> stringKeysMap(SingleValue<V> singleValue) {
-        return new SingleValueMapModel<>(Function.identity(), singleValue);
+        return new SingleValueMapModel<>(Function.identity(), singleValue, false);
+    }
+
+    /**
+     * Creates a new compact {@link SingleValueMapModel} for {@code Integer} keys.
+     *
+     * @param <V>         the type of values
+     * @param singleValue the {@link SingleValue} to be used
+     * @return a new compact {@link SingleValueMapModel}
+     * @see CompactMap
+     */
+    public static <V> SingleValueMapModel<Integer, V> compactIntegerKeysMap(SingleValue<V> singleValue) {
+        return new SingleValueMapModel<>(Integer::parseInt, singleValue, true);
+    }
+
+    /**
+     * Creates a new compact {@link SingleValueMapModel} for {@code Long} keys.
+     *
+     * @param <V>         the type of values
+     * @param singleValue the {@link SingleValue} to be used
+     * @return a new compact {@link SingleValueMapModel}
+     * @see CompactMap
+     */
+    public static <V> SingleValueMapModel<Long, V> compactLongKeysMap(SingleValue<V> singleValue) {
+        return new SingleValueMapModel<>(Long::parseLong, singleValue, true);
+    }
+
+    /**
+     * Creates a new compact {@link SingleValueMapModel} for {@code String} keys.
+     *
+     * @param <V>         the type of values
+     * @param singleValue the {@link SingleValue} to be used
+     * @return a new compact {@link SingleValueMapModel}
+     * @see CompactMap
+     */
+    public static <V> SingleValueMapModel<String, V> compactStringKeysMap(SingleValue<V> singleValue) {
+        return new SingleValueMapModel<>(Function.identity(), singleValue, true);
+    }
+
+    /**
+     * Creates a new sorted {@link SingleValueMapModel} for {@code Integer} keys.
+     *
+     * @param <V>         the type of values
+     * @param singleValue the {@link SingleValue} to be used
+     * @return a new sorted {@link SingleValueMapModel}
+     * @see #isSorted()
+     */
+    public static <V> SingleValueMapModel<Integer, V> sortedIntegerKeysMap(SingleValue<V> singleValue) {
+        return new SingleValueMapModel<>(Integer::parseInt, singleValue, new TreeMap<>());
+    }
+
+    /**
+     * Creates a new sorted {@link SingleValueMapModel} for {@code Long} keys.
+     *
+     * @param <V>         the type of values
+     * @param singleValue the {@link SingleValue} to be used
+     * @return a new sorted {@link SingleValueMapModel}
+     * @see #isSorted()
+     */
+    public static <V> SingleValueMapModel<Long, V> sortedLongKeysMap(SingleValue<V> singleValue) {
+        return new SingleValueMapModel<>(Long::parseLong, singleValue, new TreeMap<>());
+    }
+
+    /**
+     * Creates a new sorted {@link SingleValueMapModel} for {@code String} keys.
+     *
+     * @param <V>         the type of values
+     * @param singleValue the {@link SingleValue} to be used
+     * @return a new sorted {@link SingleValueMapModel}
+     * @see #isSorted()
+     */
+    public static <V> SingleValueMapModel<String, V> sortedStringKeysMap(SingleValue<V> singleValue) {
+        return new SingleValueMapModel<>(Function.identity(), singleValue, new TreeMap<>());
     }
 
     private final SingleValue<V> valueHandler;
 
-    private SingleValueMapModel(Function<? super String, ? extends K> keyParser, SingleValue<V> valueHandler) {
-        super(keyParser);
+    private SingleValueMapModel(Function<? super String, ? extends K> keyParser, SingleValue<V> valueHandler,
+                                boolean compact) {
+        this(keyParser, valueHandler, compact ? new CompactMap<>() : new LinkedHashMap<>());
+    }
+
+    private SingleValueMapModel(Function<? super String, ? extends K> keyParser, SingleValue<V> valueHandler,
+                                Map<K, @Nullable V> mappings) {
+        super(keyParser, Object::toString, mappings, false);
         this.valueHandler = valueHandler;
     }
 
@@ -59,6 +146,11 @@ public final class SingleValueMapModel<K, V> extends AbstractMapModel<K, V, Sing
         return valueHandler.toBsonValue(value);
     }
 
+    @Override
+    protected int estimateValueSize(V value) {
+        return valueHandler.estimateBsonSize(value);
+    }
+
     @Override
     protected V decodeValue(BsonValue value) {
         return valueHandler.parse(value);
@@ -74,19 +166,55 @@ public final class SingleValueMapModel<K, V> extends AbstractMapModel<K, V, Sing
         return valueHandler.decodeStoreData(value);
     }
 
+    @Override
+    protected void writeStoreValue(JsonDataWriter writer, V value) {
+        valueHandler.writeStoreData(writer, value);
+    }
+
+    @Override
+    protected V readStoreValue(JsonDataReader reader) {
+        return valueHandler.readStoreData(reader);
+    }
+
+    @Override
+    protected void writeSnapshotValue(SnapshotOutput out, V value) {
+        valueHandler.writeSnapshot(out, value);
+    }
+
+    @Override
+    protected V readSnapshotValue(SnapshotInput in) {
+        return valueHandler.readSnapshot(in);
+    }
+
     @Override
     protected Object toDisplayValue(V value) {
         return valueHandler.toDisplayData(value);
     }
 
+    @Override
+    protected void writeDisplayValue(JsonDataWriter writer, V value) {
+        valueHandler.writeDisplayData(writer, value);
+    }
+
     @Override
     protected Object toUpdatedValue(V value) {
         return valueHandler.toDisplayData(value);
     }
 
+    @Override
+    protected void applyUpdatedValue(K key, Object data) {
+        put(key, valueHandler.decodeDisplayData(data));
+    }
+
+    @Override
+    protected boolean writeUpdatedValue(JsonDataWriter writer, V value) {
+        valueHandler.writeDisplayData(writer, value);
+        return true;
+    }
+
     @Override
     public SingleValueMapModel<K, V> deepCopy() {
-        return new SingleValueMapModel<K, V>(keyParser, valueHandler).deepCopyFrom(this);
+        return new SingleValueMapModel<K, V>(keyParser, valueHandler, newMappings()).deepCopyFrom(this);
     }
 
     @Override
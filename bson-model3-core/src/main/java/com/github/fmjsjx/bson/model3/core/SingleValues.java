@@ -1,5 +1,10 @@
 package com.github.fmjsjx.bson.model3.core;
 
+import com.github.fmjsjx.bson.model3.core.json.JsonDataReader;
+import com.github.fmjsjx.bson.model3.core.json.JsonDataWriter;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotInput;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotOutput;
+import com.github.fmjsjx.bson.model3.core.util.BsonSizeUtil;
 import com.github.fmjsjx.bson.model3.core.util.BsonValueUtil;
 import com.github.fmjsjx.libcommon.util.DateTimeUtil;
 import org.bson.*;
@@ -120,6 +125,36 @@ public class SingleValues {
             };
         }
 
+        @Override
+        public void writeDisplayData(JsonDataWriter writer, Integer value) {
+            writer.writeInt(value);
+        }
+
+        @Override
+        public void writeStoreData(JsonDataWriter writer, Integer value) {
+            writer.writeInt(value);
+        }
+
+        @Override
+        public Integer readStoreData(JsonDataReader reader) {
+            return reader.readInt();
+        }
+
+        @Override
+        public int estimateBsonSize(Integer value) {
+            return 4;
+        }
+
+        @Override
+        public void writeSnapshot(SnapshotOutput out, Integer value) {
+            out.writeInt(value);
+        }
+
+        @Override
+        public Integer readSnapshot(SnapshotInput in) {
+            return in.readInt();
+        }
+
     }
 
     static final class LongValue implements SingleValue<Long> {
@@ -160,6 +195,36 @@ public class SingleValues {
             };
         }
 
+        @Override
+        public void writeDisplayData(JsonDataWriter writer, Long value) {
+            writer.writeLong(value);
+        }
+
+        @Override
+        public void writeStoreData(JsonDataWriter writer, Long value) {
+            writer.writeLong(value);
+        }
+
+        @Override
+        public Long readStoreData(JsonDataReader reader) {
+            return reader.readLong();
+        }
+
+        @Override
+        public int estimateBsonSize(Long value) {
+            return 8;
+        }
+
+        @Override
+        public void writeSnapshot(SnapshotOutput out, Long value) {
+            out.writeLong(value);
+        }
+
+        @Override
+        public Long readSnapshot(SnapshotInput in) {
+            return in.readLong();
+        }
+
     }
 
     static final class DoubleValue implements SingleValue<Double> {
@@ -200,6 +265,36 @@ public class SingleValues {
             };
         }
 
+        @Override
+        public void writeDisplayData(JsonDataWriter writer, Double value) {
+            writer.writeDouble(value);
+        }
+
+        @Override
+        public void writeStoreData(JsonDataWriter writer, Double value) {
+            writer.writeDouble(value);
+        }
+
+        @Override
+        public Double readStoreData(JsonDataReader reader) {
+            return reader.readDouble();
+        }
+
+        @Override
+        public int estimateBsonSize(Double value) {
+            return 8;
+        }
+
+        @Override
+        public void writeSnapshot(SnapshotOutput out, Double value) {
+            out.writeDouble(value);
+        }
+
+        @Override
+        public Double readSnapshot(SnapshotInput in) {
+            return in.readDouble();
+        }
+
     }
 
     static final class BigDecimalValue implements SingleValue<BigDecimal> {
@@ -250,6 +345,36 @@ public class SingleValues {
             };
         }
 
+        @Override
+        public void writeDisplayData(JsonDataWriter writer, BigDecimal value) {
+            writer.writeNumber(value);
+        }
+
+        @Override
+        public void writeStoreData(JsonDataWriter writer, BigDecimal value) {
+            writer.writeNumber(value);
+        }
+
+        @Override
+        public BigDecimal readStoreData(JsonDataReader reader) {
+            return reader.readNumber();
+        }
+
+        @Override
+        public int estimateBsonSize(BigDecimal value) {
+            return 16;
+        }
+
+        @Override
+        public void writeSnapshot(SnapshotOutput out, BigDecimal value) {
+            out.writeNumber(value);
+        }
+
+        @Override
+        public BigDecimal readSnapshot(SnapshotInput in) {
+            return in.readNumber();
+        }
+
     }
 
     static final class StringValue implements SingleValue<String> {
@@ -279,6 +404,36 @@ public class SingleValues {
             return value.toString();
         }
 
+        @Override
+        public void writeDisplayData(JsonDataWriter writer, String value) {
+            writer.writeString(value);
+        }
+
+        @Override
+        public void writeStoreData(JsonDataWriter writer, String value) {
+            writer.writeString(value);
+        }
+
+        @Override
+        public String readStoreData(JsonDataReader reader) {
+            return reader.readString();
+        }
+
+        @Override
+        public int estimateBsonSize(String value) {
+            return BsonSizeUtil.stringSize(value);
+        }
+
+        @Override
+        public void writeSnapshot(SnapshotOutput out, String value) {
+            out.writeString(value);
+        }
+
+        @Override
+        public String readSnapshot(SnapshotInput in) {
+            return in.readString();
+        }
+
     }
 
     static final class LocalDateTimeValue implements SingleValue<LocalDateTime> {
@@ -313,6 +468,36 @@ public class SingleValues {
             return DateTimeUtil.ofEpochMilli(toEpochMilli(value));
         }
 
+        @Override
+        public void writeDisplayData(JsonDataWriter writer, LocalDateTime value) {
+            writer.writeLong(encodeStoreData(value));
+        }
+
+        @Override
+        public void writeStoreData(JsonDataWriter writer, LocalDateTime value) {
+            writer.writeLong(encodeStoreData(value));
+        }
+
+        @Override
+        public LocalDateTime readStoreData(JsonDataReader reader) {
+            return DateTimeUtil.ofEpochMilli(reader.readLong());
+        }
+
+        @Override
+        public int estimateBsonSize(LocalDateTime value) {
+            return 8;
+        }
+
+        @Override
+        public void writeSnapshot(SnapshotOutput out, LocalDateTime value) {
+            out.writeDateTime(value);
+        }
+
+        @Override
+        public LocalDateTime readSnapshot(SnapshotInput in) {
+            return in.readDateTime();
+        }
+
     }
 
     static final class ZonedDateTimeValue implements SingleValue<ZonedDateTime> {
@@ -347,6 +532,36 @@ public class SingleValues {
             return DateTimeUtil.ofEpochMilli(toEpochMilli(value), ZoneId.systemDefault());
         }
 
+        @Override
+        public void writeDisplayData(JsonDataWriter writer, ZonedDateTime value) {
+            writer.writeLong(encodeStoreData(value));
+        }
+
+        @Override
+        public void writeStoreData(JsonDataWriter writer, ZonedDateTime value) {
+            writer.writeLong(encodeStoreData(value));
+        }
+
+        @Override
+        public ZonedDateTime readStoreData(JsonDataReader reader) {
+            return DateTimeUtil.ofEpochMilli(reader.readLong(), ZoneId.systemDefault());
+        }
+
+        @Override
+        public int estimateBsonSize(ZonedDateTime value) {
+            return 8;
+        }
+
+        @Override
+        public void writeSnapshot(SnapshotOutput out, ZonedDateTime value) {
+            out.writeLong(encodeStoreData(value));
+        }
+
+        @Override
+        public ZonedDateTime readSnapshot(SnapshotInput in) {
+            return DateTimeUtil.ofEpochMilli(in.readLong(), ZoneId.systemDefault());
+        }
+
     }
 
     private static long toEpochMilli(Object value) {
@@ -0,0 +1,278 @@
+package com.github.fmjsjx.bson.model3.core;
+
+import com.github.fmjsjx.bson.model3.core.util.BsonValueUtil;
+import com.mongodb.client.model.Updates;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A {@link List} view of a {@code std-list} field of an object model,
+ * which marks the field changed on every in-place mutation.
+ * <p>
+ * The elements are held by reference when they are loaded or replaced,
+ * and copied into a new {@link ArrayList} only on the first mutation
+ * after that, so the lists passed in by the caller are never modified.
+ * <p>
+ * The update of the field is a {@code $set} of the whole array by
+ * default, which is idempotent and can be safely applied more than once.
+ * An append-only view, created by
+ * {@link #appendOnly(AbstractObjectModel, int...)}, also records whether
+ * all mutations since the last reset of the owner model are appends, in
+ * which case {@link #toUpdate} creates a {@code $push} of the appended
+ * tail instead. The {@code $push} is not idempotent, so the updates of
+ * append-only views must be applied exactly once, and can't be retried
+ * or replayed, such as by the write-ahead log.
+ * <p>
+ * The field may be absent, which is read as an empty list by this view,
+ * and {@link #orNull()} returns {@code null} for it. Any mutation makes
+ * the field present.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <E> the type of elements
+ * @author MJ Fang
+ * @since 3.0
+ */
+public final class TrackedList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int UNCHANGED = -1;
+    private static final int REPLACED = -2;
+
+    /**
+     * Creates a new append-only {@link TrackedList} with an absent value,
+     * whose appends are updated by {@code $push}.
+     *
+     * @param <E>          the type of elements
+     * @param owner        the owner model
+     * @param fieldIndexes the indexes of the fields changed along with
+     *                     the list, the first one must be the index of
+     *                     the list field itself
+     * @return a new append-only {@code TrackedList}
+     * @throws IllegalArgumentException if {@code fieldIndexes} is empty
+     */
+    public static <E> TrackedList<E> appendOnly(AbstractObjectModel<?> owner, int... fieldIndexes) {
+        return new TrackedList<>(owner, fieldIndexes, true);
+    }
+
+    private final AbstractObjectModel<?> owner;
+    private final int[] fieldIndexes;
+    private final boolean appendOnly;
+    private @Nullable List<E> elements;
+    private boolean shared;
+    private int appendedFrom = UNCHANGED;
+
+    /**
+     * Constructs a new {@link TrackedList} with an absent value.
+     *
+     * @param owner        the owner model
+     * @param fieldIndexes the indexes of the fields changed along with
+     *                     the list, the first one must be the index of
+     *                     the list field itself
+     * @throws IllegalArgumentException if {@code fieldIndexes} is empty
+     */
+    public TrackedList(AbstractObjectModel<?> owner, int... fieldIndexes) {
+        this(owner, fieldIndexes, false);
+    }
+
+    private TrackedList(AbstractObjectModel<?> owner, int[] fieldIndexes, boolean appendOnly) {
+        if (fieldIndexes.length == 0) {
+            throw new IllegalArgumentException("fieldIndexes must not be empty");
+        }
+        this.owner = owner;
+        this.fieldIndexes = fieldIndexes;
+        this.appendOnly = appendOnly;
+    }
+
+    /**
+     * Returns whether this view is append-only, whose appends are updated
+     * by {@code $push}.
+     *
+     * @return {@code true} if this view is append-only
+     */
+    public boolean isAppendOnly() {
+        return appendOnly;
+    }
+
+    /**
+     * Returns whether the field is present.
+     *
+     * @return {@code true} if the field is present
+     */
+    public boolean isPresent() {
+        return elements != null;
+    }
+
+    /**
+     * Returns this view if the field is present, or {@code null}
+     * otherwise.
+     *
+     * @return this view or {@code null}
+     */
+    public @Nullable List<E> orNull() {
+        return elements == null ? null : this;
+    }
+
+    /**
+     * Loads the specified elements without triggering any change event.
+     *
+     * @param elements the elements, {@code null} means absent
+     * @return this view
+     */
+    public TrackedList<E> load(@Nullable List<E> elements) {
+        setElements(elements);
+        appendedFrom = UNCHANGED;
+        return this;
+    }
+
+    /**
+     * Replaces the elements by the specified list, the caller should
+     * trigger the change event of the field.
+     *
+     * @param elements the elements, {@code null} means absent
+     * @return this view
+     */
+    public TrackedList<E> replace(@Nullable List<E> elements) {
+        setElements(elements);
+        appendedFrom = REPLACED;
+        return this;
+    }
+
+    private void setElements(@Nullable List<E> elements) {
+        modCount++;
+        if (elements instanceof TrackedList<?>) {
+            // never share the elements of another live view
+            this.elements = new ArrayList<>(elements);
+            shared = false;
+        } else {
+            this.elements = elements;
+            shared = true;
+        }
+    }
+
+    /**
+     * Creates the update of the field, a {@code $push} of the appended
+     * tail if this view is append-only and all mutations since the last
+     * reset are appends, or a {@code $set} of the whole array otherwise.
+     *
+     * @param path        the dot notation path of the field
+     * @param valueMapper the function converts non-null elements to
+     *                    {@link BsonValue}s
+     * @return the update
+     */
+    public Bson toUpdate(String path, Function<? super E, ? extends BsonValue> valueMapper) {
+        var appendedFrom = this.appendedFrom;
+        if (appendOnly && appendedFrom >= 0 && owner.isFieldChanged(fieldIndexes[0])) {
+            return Updates.pushEach(path, BsonValueUtil.toBsonArray(subList(appendedFrom, size()), valueMapper));
+        }
+        return Updates.set(path, BsonValueUtil.toBsonArray(this, valueMapper));
+    }
+
+    @Override
+    public E get(int index) {
+        var elements = this.elements;
+        if (elements == null) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length 0");
+        }
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        var elements = this.elements;
+        return elements == null ? 0 : elements.size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        var previous = get(index);
+        if (!Objects.equals(previous, element)) {
+            beforeChange(false);
+            mutableElements().set(index, element);
+            afterChange();
+        }
+        return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        beforeChange(index == size());
+        mutableElements().add(index, element);
+        afterChange();
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        if (c.isEmpty()) {
+            return false;
+        }
+        beforeChange(index == size());
+        mutableElements().addAll(index, c);
+        afterChange();
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        return addAll(size(), c);
+    }
+
+    @Override
+    public E remove(int index) {
+        var previous = get(index);
+        beforeChange(false);
+        mutableElements().remove(index);
+        afterChange();
+        return previous;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < toIndex) {
+            beforeChange(false);
+            mutableElements().subList(fromIndex, toIndex).clear();
+            afterChange();
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (!isEmpty()) {
+            beforeChange(false);
+            mutableElements().clear();
+            afterChange();
+        }
+    }
+
+    private void beforeChange(boolean appending) {
+        if (!owner.isFieldChanged(fieldIndexes[0])) {
+            // first change since the last reset
+            appendedFrom = appending ? size() : REPLACED;
+        } else if (!appending || appendedFrom == UNCHANGED) {
+            appendedFrom = REPLACED;
+        }
+    }
+
+    private List<E> mutableElements() {
+        var elements = this.elements;
+        if (elements == null) {
+            elements = new ArrayList<>();
+        } else if (shared) {
+            elements = new ArrayList<>(elements);
+        } else {
+            return elements;
+        }
+        this.elements = elements;
+        shared = false;
+        return elements;
+    }
+
+    private void afterChange() {
+        modCount++;
+        owner.fieldsChanged(fieldIndexes);
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.github.fmjsjx.bson.model3.core.bulk;
+
+import com.github.fmjsjx.bson.model3.core.RootModel;
+import org.bson.BsonDocument;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A loader decodes the documents of a cursor into root models in
+ * parallel, while the cursor is fetching the next documents.
+ * <p>
+ * The documents are loaded into the models created by the factory via
+ * {@link RootModel#load(BsonDocument)} on the executor, at most
+ * {@code maxInFlight} documents are being loaded at the same time. The
+ * loaded models are passed to the action on the thread calling
+ * {@link #load(Iterator, Consumer)}, one by one, so the action is not
+ * required to be thread-safe, and it can mutate the models and collect
+ * the updates created by {@link RootModel#toUpdates()} for batched
+ * writes.
+ * <p>
+ * The models are passed in the same order as the documents if the
+ * loader is ordered, otherwise in the order of completion.
+ *
+ * @param <R> the type of root models
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class BulkLoader<R extends RootModel<R>> {
+
+    private final Supplier<R> factory;
+    private final Executor executor;
+    private final int maxInFlight;
+    private final boolean ordered;
+
+    /**
+     * Constructs a new ordered {@link BulkLoader} with the specified
+     * factory, executor and the maximum number of the in-flight
+     * documents.
+     *
+     * @param factory     the factory creating the models
+     * @param executor    the executor loading the documents, typically a
+     *                    {@link ForkJoinPool} or a virtual thread per
+     *                    task executor
+     * @param maxInFlight the maximum number of the in-flight documents
+     */
+    public BulkLoader(Supplier<R> factory, Executor executor, int maxInFlight) {
+        this(factory, executor, maxInFlight, true);
+    }
+
+    /**
+     * Constructs a new {@link BulkLoader} with the specified factory,
+     * executor, the maximum number of the in-flight documents and
+     * whether to keep the order of the documents.
+     *
+     * @param factory     the factory creating the models
+     * @param executor    the executor loading the documents, typically a
+     *                    {@link ForkJoinPool} or a virtual thread per
+     *                    task executor
+     * @param maxInFlight the maximum number of the in-flight documents
+     * @param ordered     {@code true} to pass the models in the same
+     *                    order as the documents
+     */
+    public BulkLoader(Supplier<R> factory, Executor executor, int maxInFlight, boolean ordered) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight expected >= 1 but was " + maxInFlight);
+        }
+        this.factory = factory;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.ordered = ordered;
+    }
+
+    /**
+     * Loads all documents of the specified cursor and passes the loaded
+     * models to the specified action.
+     *
+     * @param documents the documents, such as a {@code FindIterable}
+     * @param action    the action
+     * @return the number of the loaded models
+     * @throws CompletionException if any document fails to be loaded
+     */
+    public long load(Iterable<? extends BsonDocument> documents, Consumer<? super R> action) {
+        return load(documents.iterator(), action);
+    }
+
+    /**
+     * Loads all documents of the specified cursor and passes the loaded
+     * models to the specified action.
+     *
+     * @param cursor the cursor, such as a {@code MongoCursor}
+     * @param action the action
+     * @return the number of the loaded models
+     * @throws CompletionException if any document fails to be loaded
+     */
+    public long load(Iterator<? extends BsonDocument> cursor, Consumer<? super R> action) {
+        return ordered ? loadOrdered(cursor, action) : loadUnordered(cursor, action);
+    }
+
+    private CompletableFuture<R> submit(BsonDocument document) {
+        return CompletableFuture.supplyAsync(() -> factory.get().load(document), executor);
+    }
+
+    private long loadOrdered(Iterator<? extends BsonDocument> cursor, Consumer<? super R> action) {
+        var pending = new ArrayDeque<CompletableFuture<R>>(maxInFlight);
+        var count = 0L;
+        while (cursor.hasNext()) {
+            pending.addLast(submit(cursor.next()));
+            // pass the completed ones eagerly
+            while (!pending.isEmpty() && (pending.size() >= maxInFlight || pending.getFirst().isDone())) {
+                action.accept(pending.removeFirst().join());
+                count++;
+            }
+        }
+        while (!pending.isEmpty()) {
+            action.accept(pending.removeFirst().join());
+            count++;
+        }
+        return count;
+    }
+
+    private long loadUnordered(Iterator<? extends BsonDocument> cursor, Consumer<? super R> action) {
+        var completed = new LinkedBlockingQueue<CompletableFuture<R>>();
+        var inFlight = 0;
+        var count = 0L;
+        try {
+            while (cursor.hasNext()) {
+                var future = submit(cursor.next());
+                future.whenComplete((model, e) -> completed.add(future));
+                inFlight++;
+                // pass the completed ones eagerly
+                for (var done = inFlight >= maxInFlight ? completed.take() : completed.poll(); done != null;
+                     done = completed.poll()) {
+                    inFlight--;
+                    action.accept(done.join());
+                    count++;
+                }
+            }
+            for (; inFlight > 0; inFlight--) {
+                action.accept(completed.take().join());
+                count++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,7 @@
+/**
+ * Bulk processing of root models for BSON model 3 core package.
+ */
+@NullMarked
+package com.github.fmjsjx.bson.model3.core.bulk;
+
+import org.jspecify.annotations.NullMarked;
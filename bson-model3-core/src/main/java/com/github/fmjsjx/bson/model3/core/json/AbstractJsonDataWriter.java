@@ -0,0 +1,436 @@
+package com.github.fmjsjx.bson.model3.core.json;
+
+import com.github.fmjsjx.bson.model3.core.BsonModel;
+import org.jspecify.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The abstract base class of {@link JsonDataWriter} implementations.
+ * <p>
+ * This class handles the deferred tokens and tracks the nesting scopes,
+ * so that implementations only need to write the raw tokens and, if the
+ * underlying generator requires it, the separators.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public abstract class AbstractJsonDataWriter implements JsonDataWriter {
+
+    private static final byte SCOPE_EMPTY_OBJECT = 1;
+    private static final byte SCOPE_OBJECT = 2;
+    private static final byte SCOPE_EMPTY_ARRAY = 3;
+    private static final byte SCOPE_ARRAY = 4;
+
+    private static final Object DEFERRED_START_OBJECT = new Object();
+
+    private byte[] scopes = new byte[16];
+    private int depth;
+
+    private @Nullable Object[] deferred = new Object[16];
+    private int deferredSize;
+
+    /**
+     * Constructs a new {@link AbstractJsonDataWriter}.
+     */
+    protected AbstractJsonDataWriter() {
+    }
+
+    @Override
+    public JsonDataWriter writeStartObject() {
+        flushDeferred();
+        startObject();
+        return this;
+    }
+
+    private void startObject() {
+        beforeValue();
+        doWriteStartObject();
+        pushScope(SCOPE_EMPTY_OBJECT);
+    }
+
+    @Override
+    public JsonDataWriter writeEndObject() {
+        flushDeferred();
+        popScope();
+        doWriteEndObject();
+        return this;
+    }
+
+    @Override
+    public JsonDataWriter writeStartArray() {
+        flushDeferred();
+        beforeValue();
+        doWriteStartArray();
+        pushScope(SCOPE_EMPTY_ARRAY);
+        return this;
+    }
+
+    @Override
+    public JsonDataWriter writeEndArray() {
+        flushDeferred();
+        popScope();
+        doWriteEndArray();
+        return this;
+    }
+
+    @Override
+    public JsonDataWriter writeName(JsonFieldName name) {
+        flushDeferred();
+        beforeName();
+        doWriteName(name);
+        return this;
+    }
+
+    @Override
+    public JsonDataWriter writeName(String name) {
+        flushDeferred();
+        beforeName();
+        doWriteName(name);
+        return this;
+    }
+
+    @Override
+    public JsonDataWriter writeNull() {
+        flushDeferred();
+        beforeValue();
+        doWriteNull();
+        return this;
+    }
+
+    @Override
+    public JsonDataWriter writeBoolean(boolean value) {
+        flushDeferred();
+        beforeValue();
+        doWriteBoolean(value);
+        return this;
+    }
+
+    @Override
+    public JsonDataWriter writeInt(int value) {
+        flushDeferred();
+        beforeValue();
+        doWriteInt(value);
+        return this;
+    }
+
+    @Override
+    public JsonDataWriter writeLong(long value) {
+        flushDeferred();
+        beforeValue();
+        doWriteLong(value);
+        return this;
+    }
+
+    @Override
+    public JsonDataWriter writeDouble(double value) {
+        flushDeferred();
+        beforeValue();
+        doWriteDouble(value);
+        return this;
+    }
+
+    @Override
+    public JsonDataWriter writeNumber(BigDecimal value) {
+        flushDeferred();
+        beforeValue();
+        doWriteNumber(value);
+        return this;
+    }
+
+    @Override
+    public JsonDataWriter writeString(String value) {
+        flushDeferred();
+        beforeValue();
+        doWriteString(value);
+        return this;
+    }
+
+    @Override
+    public JsonDataWriter writeValue(@Nullable Object value) {
+        return switch (value) {
+            case null -> writeNull();
+            case String s -> writeString(s);
+            case Integer i -> writeInt(i);
+            case Long l -> writeLong(l);
+            case Double d -> writeDouble(d);
+            case Boolean b -> writeBoolean(b);
+            case BigDecimal d -> writeNumber(d);
+            case BigInteger i -> writeNumber(new BigDecimal(i));
+            case Short s -> writeInt(s);
+            case Byte b -> writeInt(b);
+            case Float f -> writeDouble(f);
+            case BsonModel<?, ?> model -> {
+                model.writeDisplayData(this);
+                yield this;
+            }
+            case Map<?, ?> map -> writeMap(map);
+            case Iterable<?> values -> writeArray(values);
+            default -> {
+                flushDeferred();
+                beforeValue();
+                doWriteOtherValue(value);
+                yield this;
+            }
+        };
+    }
+
+    private JsonDataWriter writeMap(Map<?, ?> map) {
+        writeStartObject();
+        for (var entry : map.entrySet()) {
+            writeName(String.valueOf(entry.getKey()));
+            writeValue(entry.getValue());
+        }
+        return writeEndObject();
+    }
+
+    @Override
+    public JsonDataWriter writeArray(Iterable<?> values) {
+        writeStartArray();
+        for (var value : values) {
+            writeValue(value);
+        }
+        return writeEndArray();
+    }
+
+    @Override
+    public <E> JsonDataWriter writeArray(Iterable<? extends @Nullable E> values, Function<? super E, ?> mapper) {
+        writeStartArray();
+        for (E value : values) {
+            writeValue(value == null ? null : mapper.apply(value));
+        }
+        return writeEndArray();
+    }
+
+    @Override
+    public JsonDataWriter deferName(JsonFieldName name) {
+        pushDeferred(name);
+        return this;
+    }
+
+    @Override
+    public JsonDataWriter deferName(String name) {
+        pushDeferred(name);
+        return this;
+    }
+
+    @Override
+    public boolean discardDeferredName() {
+        var size = deferredSize;
+        if (size > 0 && deferred[size - 1] != DEFERRED_START_OBJECT) {
+            deferred[deferredSize = size - 1] = null;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public JsonDataWriter deferStartObject() {
+        pushDeferred(DEFERRED_START_OBJECT);
+        return this;
+    }
+
+    @Override
+    public boolean writeEndDeferredObject() {
+        var size = deferredSize;
+        if (size > 0 && deferred[size - 1] == DEFERRED_START_OBJECT) {
+            deferred[deferredSize = size - 1] = null;
+            return false;
+        }
+        writeEndObject();
+        return true;
+    }
+
+    private void pushDeferred(Object token) {
+        var size = deferredSize;
+        if (size == deferred.length) {
+            deferred = Arrays.copyOf(deferred, size << 1);
+        }
+        deferred[size] = token;
+        deferredSize = size + 1;
+    }
+
+    private void flushDeferred() {
+        var size = deferredSize;
+        if (size == 0) {
+            return;
+        }
+        var deferred = this.deferred;
+        deferredSize = 0;
+        for (var i = 0; i < size; i++) {
+            var token = deferred[i];
+            deferred[i] = null;
+            switch (token) {
+                case JsonFieldName name -> {
+                    beforeName();
+                    doWriteName(name);
+                }
+                case String name -> {
+                    beforeName();
+                    doWriteName(name);
+                }
+                case null, default -> startObject();
+            }
+        }
+    }
+
+    private void pushScope(byte scope) {
+        var depth = this.depth;
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth << 1);
+        }
+        scopes[depth] = scope;
+        this.depth = depth + 1;
+    }
+
+    private void popScope() {
+        if (depth == 0) {
+            throw new IllegalStateException("no scope to end");
+        }
+        depth--;
+    }
+
+    private void beforeName() {
+        var depth = this.depth;
+        if (depth == 0) {
+            throw new IllegalStateException("name must be written in an object");
+        }
+        switch (scopes[depth - 1]) {
+            case SCOPE_EMPTY_OBJECT -> scopes[depth - 1] = SCOPE_OBJECT;
+            case SCOPE_OBJECT -> writeFieldSeparator();
+            default -> throw new IllegalStateException("name must be written in an object");
+        }
+    }
+
+    private void beforeValue() {
+        var depth = this.depth;
+        if (depth > 0) {
+            switch (scopes[depth - 1]) {
+                case SCOPE_EMPTY_ARRAY -> scopes[depth - 1] = SCOPE_ARRAY;
+                case SCOPE_ARRAY -> writeElementSeparator();
+                default -> {
+                    // values in objects are always preceded by names
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the separator between two fields of an object.
+     * <p>
+     * Does nothing as default.
+     */
+    protected void writeFieldSeparator() {
+        // do nothing as default
+    }
+
+    /**
+     * Writes the separator between two elements of an array.
+     * <p>
+     * Does nothing as default.
+     */
+    protected void writeElementSeparator() {
+        // do nothing as default
+    }
+
+    /**
+     * Writes the raw start of an object.
+     */
+    protected abstract void doWriteStartObject();
+
+    /**
+     * Writes the raw end of an object.
+     */
+    protected abstract void doWriteEndObject();
+
+    /**
+     * Writes the raw start of an array.
+     */
+    protected abstract void doWriteStartArray();
+
+    /**
+     * Writes the raw end of an array.
+     */
+    protected abstract void doWriteEndArray();
+
+    /**
+     * Writes the raw pre-encoded field name.
+     * <p>
+     * Writes the value of the name as default.
+     *
+     * @param name the field name
+     */
+    protected void doWriteName(JsonFieldName name) {
+        doWriteName(name.getValue());
+    }
+
+    /**
+     * Writes the raw field name.
+     *
+     * @param name the field name
+     */
+    protected abstract void doWriteName(String name);
+
+    /**
+     * Writes the raw {@code null} value.
+     */
+    protected abstract void doWriteNull();
+
+    /**
+     * Writes the raw {@code boolean} value.
+     *
+     * @param value the value
+     */
+    protected abstract void doWriteBoolean(boolean value);
+
+    /**
+     * Writes the raw {@code int} value.
+     *
+     * @param value the value
+     */
+    protected abstract void doWriteInt(int value);
+
+    /**
+     * Writes the raw {@code long} value.
+     *
+     * @param value the value
+     */
+    protected abstract void doWriteLong(long value);
+
+    /**
+     * Writes the raw {@code double} value.
+     *
+     * @param value the value
+     */
+    protected abstract void doWriteDouble(double value);
+
+    /**
+     * Writes the raw {@link BigDecimal} value.
+     *
+     * @param value the value
+     */
+    protected abstract void doWriteNumber(BigDecimal value);
+
+    /**
+     * Writes the raw {@link String} value.
+     *
+     * @param value the value
+     */
+    protected abstract void doWriteString(String value);
+
+    /**
+     * Writes the raw value of any other type.
+     * <p>
+     * Writes the string value as default.
+     *
+     * @param value the value
+     */
+    protected void doWriteOtherValue(Object value) {
+        doWriteString(value.toString());
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.github.fmjsjx.bson.model3.core.json;
+
+import com.alibaba.fastjson2.JSONReader;
+import org.jspecify.annotations.Nullable;
+
+import java.math.BigDecimal;
+
+/**
+ * The {@link JsonDataReader} implementation reads from a Fastjson2
+ * {@link JSONReader}.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class Fastjson2JsonDataReader implements JsonDataReader {
+
+    private final JSONReader reader;
+
+    /**
+     * Constructs a new {@link Fastjson2JsonDataReader} with the specified
+     * {@link JSONReader}.
+     *
+     * @param reader the {@link JSONReader}
+     */
+    public Fastjson2JsonDataReader(JSONReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the underlying {@link JSONReader}.
+     *
+     * @return the underlying {@code JSONReader}
+     */
+    public JSONReader reader() {
+        return reader;
+    }
+
+    @Override
+    public void readStartObject() {
+        if (!reader.nextIfObjectStart()) {
+            throw new IllegalStateException("unexpected character '" + reader.current() + "', expected '{'");
+        }
+    }
+
+    @Override
+    public @Nullable String nextName() {
+        var reader = this.reader;
+        if (reader.nextIfObjectEnd()) {
+            return null;
+        }
+        return reader.readFieldName();
+    }
+
+    @Override
+    public void readStartArray() {
+        if (!reader.nextIfArrayStart()) {
+            throw new IllegalStateException("unexpected character '" + reader.current() + "', expected '['");
+        }
+    }
+
+    @Override
+    public boolean hasNextElement() {
+        return !reader.nextIfArrayEnd();
+    }
+
+    @Override
+    public boolean readNull() {
+        return reader.nextIfNull();
+    }
+
+    @Override
+    public boolean readBoolean() {
+        return reader.readBoolValue();
+    }
+
+    @Override
+    public int readInt() {
+        return reader.readInt32Value();
+    }
+
+    @Override
+    public long readLong() {
+        return reader.readInt64Value();
+    }
+
+    @Override
+    public double readDouble() {
+        return reader.readDoubleValue();
+    }
+
+    @Override
+    public BigDecimal readNumber() {
+        var value = reader.readBigDecimal();
+        if (value == null) {
+            throw new IllegalStateException("unexpected null, expected number");
+        }
+        return value;
+    }
+
+    @Override
+    public String readString() {
+        var value = reader.readString();
+        if (value == null) {
+            throw new IllegalStateException("unexpected null, expected string");
+        }
+        return value;
+    }
+
+    @Override
+    public @Nullable Object readValue() {
+        return reader.readAny();
+    }
+
+    @Override
+    public <T> @Nullable T readValue(Class<T> type) {
+        return reader.read(type);
+    }
+
+    @Override
+    public void skipValue() {
+        reader.skipValue();
+    }
+
+}
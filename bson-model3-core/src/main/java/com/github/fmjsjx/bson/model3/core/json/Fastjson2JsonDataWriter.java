@@ -0,0 +1,122 @@
+package com.github.fmjsjx.bson.model3.core.json;
+
+import com.alibaba.fastjson2.JSONWriter;
+
+import java.math.BigDecimal;
+
+/**
+ * The {@link JsonDataWriter} implementation writes to a Fastjson2
+ * {@link JSONWriter}.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class Fastjson2JsonDataWriter extends AbstractJsonDataWriter {
+
+    private final JSONWriter writer;
+
+    /**
+     * Constructs a new {@link Fastjson2JsonDataWriter} with the specified
+     * {@link JSONWriter}.
+     *
+     * @param writer the {@link JSONWriter}
+     */
+    public Fastjson2JsonDataWriter(JSONWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Returns the underlying {@link JSONWriter}.
+     *
+     * @return the underlying {@code JSONWriter}
+     */
+    public JSONWriter writer() {
+        return writer;
+    }
+
+    @Override
+    protected void writeElementSeparator() {
+        // JSONWriter writes separators between object fields itself, but
+        // not the ones between array elements
+        writer.writeComma();
+    }
+
+    @Override
+    protected void doWriteStartObject() {
+        writer.startObject();
+    }
+
+    @Override
+    protected void doWriteEndObject() {
+        writer.endObject();
+    }
+
+    @Override
+    protected void doWriteStartArray() {
+        writer.startArray();
+    }
+
+    @Override
+    protected void doWriteEndArray() {
+        writer.endArray();
+    }
+
+    @Override
+    protected void doWriteName(JsonFieldName name) {
+        var writer = this.writer;
+        if (writer.isUTF8()) {
+            writer.writeNameRaw(name.quotedWithColonUtf8());
+        } else if (writer.isUTF16()) {
+            writer.writeNameRaw(name.quotedWithColonUtf16());
+        } else {
+            doWriteName(name.getValue());
+        }
+    }
+
+    @Override
+    protected void doWriteName(String name) {
+        writer.writeName(name);
+        writer.writeColon();
+    }
+
+    @Override
+    protected void doWriteNull() {
+        writer.writeNull();
+    }
+
+    @Override
+    protected void doWriteBoolean(boolean value) {
+        writer.writeBool(value);
+    }
+
+    @Override
+    protected void doWriteInt(int value) {
+        writer.writeInt32(value);
+    }
+
+    @Override
+    protected void doWriteLong(long value) {
+        writer.writeInt64(value);
+    }
+
+    @Override
+    protected void doWriteDouble(double value) {
+        writer.writeDouble(value);
+    }
+
+    @Override
+    protected void doWriteNumber(BigDecimal value) {
+        writer.writeDecimal(value);
+    }
+
+    @Override
+    protected void doWriteString(String value) {
+        writer.writeString(value);
+    }
+
+    @Override
+    protected void doWriteOtherValue(Object value) {
+        writer.writeAny(value);
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.github.fmjsjx.bson.model3.core.json;
+
+import org.jspecify.annotations.Nullable;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+/**
+ * The {@link JsonDataReader} implementation reads from a Jackson
+ * {@link JsonParser}.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class JacksonJsonDataReader implements JsonDataReader {
+
+    private final JsonParser parser;
+
+    private @Nullable JsonToken peeked;
+
+    /**
+     * Constructs a new {@link JacksonJsonDataReader} with the specified
+     * {@link JsonParser}.
+     *
+     * @param parser the {@link JsonParser}
+     */
+    public JacksonJsonDataReader(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Returns the underlying {@link JsonParser}.
+     *
+     * @return the underlying {@code JsonParser}
+     */
+    public JsonParser parser() {
+        return parser;
+    }
+
+    private JsonToken nextToken() {
+        var token = peeked;
+        if (token != null) {
+            peeked = null;
+            return token;
+        }
+        token = parser.nextToken();
+        if (token == null) {
+            throw new IllegalStateException("unexpected end of JSON input");
+        }
+        return token;
+    }
+
+    private JsonToken peekToken() {
+        var token = peeked;
+        if (token == null) {
+            peeked = token = nextToken();
+        }
+        return token;
+    }
+
+    private static IllegalStateException unexpectedToken(JsonToken token, String expected) {
+        return new IllegalStateException("unexpected token " + token + ", expected " + expected);
+    }
+
+    @Override
+    public void readStartObject() {
+        var token = nextToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw unexpectedToken(token, "START_OBJECT");
+        }
+    }
+
+    @Override
+    public @Nullable String nextName() {
+        var token = nextToken();
+        return switch (token) {
+            case PROPERTY_NAME -> parser.currentName();
+            case END_OBJECT -> null;
+            default -> throw unexpectedToken(token, "PROPERTY_NAME or END_OBJECT");
+        };
+    }
+
+    @Override
+    public void readStartArray() {
+        var token = nextToken();
+        if (token != JsonToken.START_ARRAY) {
+            throw unexpectedToken(token, "START_ARRAY");
+        }
+    }
+
+    @Override
+    public boolean hasNextElement() {
+        if (peekToken() == JsonToken.END_ARRAY) {
+            peeked = null;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean readNull() {
+        if (peekToken() == JsonToken.VALUE_NULL) {
+            peeked = null;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean readBoolean() {
+        nextToken();
+        return parser.getValueAsBoolean();
+    }
+
+    @Override
+    public int readInt() {
+        nextToken();
+        return parser.getValueAsInt();
+    }
+
+    @Override
+    public long readLong() {
+        nextToken();
+        return parser.getValueAsLong();
+    }
+
+    @Override
+    public double readDouble() {
+        nextToken();
+        return parser.getValueAsDouble();
+    }
+
+    @Override
+    public BigDecimal readNumber() {
+        var token = nextToken();
+        return switch (token) {
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDecimalValue();
+            case VALUE_STRING -> new BigDecimal(parser.getString());
+            default -> throw unexpectedToken(token, "number");
+        };
+    }
+
+    @Override
+    public String readString() {
+        var token = nextToken();
+        var value = parser.getValueAsString();
+        if (value == null) {
+            throw unexpectedToken(token, "string");
+        }
+        return value;
+    }
+
+    @Override
+    public @Nullable Object readValue() {
+        return readValue(nextToken());
+    }
+
+    private @Nullable Object readValue(JsonToken token) {
+        return switch (token) {
+            case VALUE_NULL -> null;
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_STRING -> parser.getString();
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getNumberValue();
+            case START_OBJECT -> {
+                var map = new LinkedHashMap<String, @Nullable Object>();
+                for (var name = nextName(); name != null; name = nextName()) {
+                    map.put(name, readValue());
+                }
+                yield map;
+            }
+            case START_ARRAY -> {
+                var list = new ArrayList<@Nullable Object>();
+                while (hasNextElement()) {
+                    list.add(readValue());
+                }
+                yield list;
+            }
+            default -> throw unexpectedToken(token, "value");
+        };
+    }
+
+    @Override
+    public <T> @Nullable T readValue(Class<T> type) {
+        if (readNull()) {
+            return null;
+        }
+        nextToken();
+        return parser.readValueAs(type);
+    }
+
+    @Override
+    public void skipValue() {
+        nextToken();
+        parser.skipChildren();
+    }
+
+}
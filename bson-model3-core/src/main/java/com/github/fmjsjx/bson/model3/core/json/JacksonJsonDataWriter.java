@@ -0,0 +1,115 @@
+package com.github.fmjsjx.bson.model3.core.json;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+
+import java.math.BigDecimal;
+
+/**
+ * The {@link JsonDataWriter} implementation writes to a Jackson
+ * {@link JsonGenerator}.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class JacksonJsonDataWriter extends AbstractJsonDataWriter {
+
+    private final JsonGenerator generator;
+
+    /**
+     * Constructs a new {@link JacksonJsonDataWriter} with the specified
+     * {@link JsonGenerator}.
+     *
+     * @param generator the {@link JsonGenerator}
+     */
+    public JacksonJsonDataWriter(JsonGenerator generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * Returns the underlying {@link JsonGenerator}.
+     *
+     * @return the underlying {@code JsonGenerator}
+     */
+    public JsonGenerator generator() {
+        return generator;
+    }
+
+    @Override
+    protected void doWriteStartObject() {
+        generator.writeStartObject();
+    }
+
+    @Override
+    protected void doWriteEndObject() {
+        generator.writeEndObject();
+    }
+
+    @Override
+    protected void doWriteStartArray() {
+        generator.writeStartArray();
+    }
+
+    @Override
+    protected void doWriteEndArray() {
+        generator.writeEndArray();
+    }
+
+    @Override
+    protected void doWriteName(JsonFieldName name) {
+        if (name.libraryEncoded instanceof SerializableString serializedName) {
+            generator.writeName(serializedName);
+        } else {
+            var serializedName = new SerializedString(name.getValue());
+            name.libraryEncoded = serializedName;
+            generator.writeName(serializedName);
+        }
+    }
+
+    @Override
+    protected void doWriteName(String name) {
+        generator.writeName(name);
+    }
+
+    @Override
+    protected void doWriteNull() {
+        generator.writeNull();
+    }
+
+    @Override
+    protected void doWriteBoolean(boolean value) {
+        generator.writeBoolean(value);
+    }
+
+    @Override
+    protected void doWriteInt(int value) {
+        generator.writeNumber(value);
+    }
+
+    @Override
+    protected void doWriteLong(long value) {
+        generator.writeNumber(value);
+    }
+
+    @Override
+    protected void doWriteDouble(double value) {
+        generator.writeNumber(value);
+    }
+
+    @Override
+    protected void doWriteNumber(BigDecimal value) {
+        generator.writeNumber(value);
+    }
+
+    @Override
+    protected void doWriteString(String value) {
+        generator.writeString(value);
+    }
+
+    @Override
+    protected void doWriteOtherValue(Object value) {
+        generator.writePOJO(value);
+    }
+
+}
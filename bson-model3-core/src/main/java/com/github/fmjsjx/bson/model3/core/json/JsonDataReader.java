@@ -0,0 +1,149 @@
+package com.github.fmjsjx.bson.model3.core.json;
+
+import org.jspecify.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A streaming source that BSON models read their store data from,
+ * without binding the JSON to intermediate store data objects.
+ * <p>
+ * The implementations are stateful and not thread-safe.
+ *
+ * @author MJ Fang
+ * @see JacksonJsonDataReader
+ * @see Fastjson2JsonDataReader
+ * @see JsoniterJsonDataReader
+ * @since 3.0
+ */
+public interface JsonDataReader {
+
+    /**
+     * Reads the start of an object.
+     */
+    void readStartObject();
+
+    /**
+     * Reads the name of the next field in the current object.
+     * <p>
+     * Returns {@code null} and consumes the end of the current object
+     * if there are no more fields.
+     *
+     * @return the name of the next field, or {@code null} if there are
+     * no more fields
+     */
+    @Nullable String nextName();
+
+    /**
+     * Reads the start of an array.
+     */
+    void readStartArray();
+
+    /**
+     * Returns whether the current array has more elements.
+     * <p>
+     * Consumes the end of the current array if there are no more
+     * elements.
+     *
+     * @return {@code true} if the current array has more elements,
+     * {@code false} otherwise
+     */
+    boolean hasNextElement();
+
+    /**
+     * Reads the {@code null} value if the next value is {@code null}.
+     * <p>
+     * Nothing will be consumed if the next value is not {@code null}.
+     *
+     * @return {@code true} if the next value is {@code null},
+     * {@code false} otherwise
+     */
+    boolean readNull();
+
+    /**
+     * Reads the next value as {@code boolean}.
+     *
+     * @return the {@code boolean} value
+     */
+    boolean readBoolean();
+
+    /**
+     * Reads the next value as {@code int}.
+     *
+     * @return the {@code int} value
+     */
+    int readInt();
+
+    /**
+     * Reads the next value as {@code long}.
+     *
+     * @return the {@code long} value
+     */
+    long readLong();
+
+    /**
+     * Reads the next value as {@code double}.
+     *
+     * @return the {@code double} value
+     */
+    double readDouble();
+
+    /**
+     * Reads the next value as {@link BigDecimal}.
+     *
+     * @return the {@code BigDecimal} value
+     */
+    BigDecimal readNumber();
+
+    /**
+     * Reads the next value as {@link String}.
+     *
+     * @return the {@code String} value
+     */
+    String readString();
+
+    /**
+     * Reads the next value as a generic java value.
+     * <p>
+     * Objects are read as {@link java.util.Map}s and arrays are read as
+     * {@link List}s.
+     *
+     * @return the java value, may be {@code null}
+     */
+    @Nullable Object readValue();
+
+    /**
+     * Reads the next value as the specified type, using the data binding
+     * of the underlying JSON library.
+     *
+     * @param <T>  the type of the value
+     * @param type the class of the value
+     * @return the value, may be {@code null}
+     */
+    <T> @Nullable T readValue(Class<T> type);
+
+    /**
+     * Skips the next value, including all its children.
+     */
+    void skipValue();
+
+    /**
+     * Reads the next array as a {@link List}.
+     *
+     * @param <E>           the type of the elements
+     * @param elementReader the function reads each non-null element
+     * @return the {@code List}
+     */
+    default <E> List<@Nullable E> readList(Function<? super JsonDataReader, ? extends E> elementReader) {
+        readStartArray();
+        var list = new ArrayList<@Nullable E>();
+        while (hasNextElement()) {
+            list.add(readNull() ? null : elementReader.apply(this));
+        }
+        return list;
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.github.fmjsjx.bson.model3.core.json;
+
+import org.jspecify.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+/**
+ * A streaming sink that BSON models write their display, updated and
+ * deleted data to, without building intermediate {@link java.util.Map}s
+ * and {@link java.util.List}s.
+ * <p>
+ * Besides the usual streaming operations, this interface supports
+ * <em>deferred</em> names and objects. A deferred token is not written
+ * until the next value is written, so that a model can emit its updated
+ * or deleted data only when there actually is something to emit.
+ *
+ * @author MJ Fang
+ * @see AbstractJsonDataWriter
+ * @since 3.0
+ */
+public interface JsonDataWriter {
+
+    /**
+     * Writes the start of an object.
+     *
+     * @return this writer
+     */
+    JsonDataWriter writeStartObject();
+
+    /**
+     * Writes the end of an object.
+     *
+     * @return this writer
+     */
+    JsonDataWriter writeEndObject();
+
+    /**
+     * Writes the start of an array.
+     *
+     * @return this writer
+     */
+    JsonDataWriter writeStartArray();
+
+    /**
+     * Writes the end of an array.
+     *
+     * @return this writer
+     */
+    JsonDataWriter writeEndArray();
+
+    /**
+     * Writes the specified pre-encoded field name.
+     *
+     * @param name the field name
+     * @return this writer
+     */
+    JsonDataWriter writeName(JsonFieldName name);
+
+    /**
+     * Writes the specified field name.
+     *
+     * @param name the field name
+     * @return this writer
+     */
+    JsonDataWriter writeName(String name);
+
+    /**
+     * Writes a {@code null} value.
+     *
+     * @return this writer
+     */
+    JsonDataWriter writeNull();
+
+    /**
+     * Writes a {@code boolean} value.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    JsonDataWriter writeBoolean(boolean value);
+
+    /**
+     * Writes an {@code int} value.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    JsonDataWriter writeInt(int value);
+
+    /**
+     * Writes a {@code long} value.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    JsonDataWriter writeLong(long value);
+
+    /**
+     * Writes a {@code double} value.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    JsonDataWriter writeDouble(double value);
+
+    /**
+     * Writes a {@link BigDecimal} value.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    JsonDataWriter writeNumber(BigDecimal value);
+
+    /**
+     * Writes a {@link String} value.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    JsonDataWriter writeString(String value);
+
+    /**
+     * Writes an arbitrary display value.
+     * <p>
+     * Supports {@code null}s, {@link String}s, {@link Number}s,
+     * {@link Boolean}s, BSON models, {@link java.util.Map}s and
+     * {@link Iterable}s.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    JsonDataWriter writeValue(@Nullable Object value);
+
+    /**
+     * Writes the specified values as an array.
+     *
+     * @param values the values
+     * @return this writer
+     */
+    JsonDataWriter writeArray(Iterable<?> values);
+
+    /**
+     * Writes the specified values as an array, each element is converted
+     * by the specified mapper function given.
+     *
+     * @param <E>    the type of the elements
+     * @param values the values
+     * @param mapper the mapper function
+     * @return this writer
+     */
+    <E> JsonDataWriter writeArray(Iterable<? extends @Nullable E> values, Function<? super E, ?> mapper);
+
+    /**
+     * Defers the specified pre-encoded field name until the next value is
+     * written.
+     *
+     * @param name the field name
+     * @return this writer
+     */
+    JsonDataWriter deferName(JsonFieldName name);
+
+    /**
+     * Defers the specified field name until the next value is written.
+     *
+     * @param name the field name
+     * @return this writer
+     */
+    JsonDataWriter deferName(String name);
+
+    /**
+     * Discards the last deferred field name if it has not been written
+     * yet.
+     *
+     * @return {@code true} if a deferred field name was discarded,
+     * {@code false} otherwise
+     */
+    boolean discardDeferredName();
+
+    /**
+     * Defers the start of an object until the next value is written.
+     *
+     * @return this writer
+     */
+    JsonDataWriter deferStartObject();
+
+    /**
+     * Ends the object started by {@link #deferStartObject()}.
+     * <p>
+     * If nothing was written since the deferred start, the start is
+     * discarded and nothing is written at all.
+     *
+     * @return {@code true} if the object was written, {@code false}
+     * otherwise
+     */
+    boolean writeEndDeferredObject();
+
+}
@@ -0,0 +1,118 @@
+package com.github.fmjsjx.bson.model3.core.json;
+
+import org.jspecify.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A JSON field name which caches its encoded forms, so that the
+ * {@link JsonDataWriter} implementations can write it without
+ * re-encoding it each time.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public final class JsonFieldName {
+
+    /**
+     * Returns a new {@link JsonFieldName} with the specified value.
+     *
+     * @param value the value of the field name
+     * @return a new {@code JsonFieldName}
+     */
+    public static JsonFieldName of(String value) {
+        return new JsonFieldName(value);
+    }
+
+    private final String value;
+    private final String quotedWithColon;
+    private volatile byte @Nullable [] quotedWithColonUtf8;
+    private volatile char @Nullable [] quotedWithColonUtf16;
+    /**
+     * Cached library specific encoded form, for internal use only.
+     */
+    volatile @Nullable Object libraryEncoded;
+
+    private JsonFieldName(String value) {
+        this.value = value;
+        this.quotedWithColon = quote(value) + ":";
+    }
+
+    /**
+     * Returns the value of this field name.
+     *
+     * @return the value of this field name
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the quoted and escaped field name followed by a colon.
+     *
+     * @return the quoted and escaped field name followed by a colon
+     */
+    public String quotedWithColon() {
+        return quotedWithColon;
+    }
+
+    /**
+     * Returns the UTF-8 encoded bytes of {@link #quotedWithColon()}.
+     * <p>
+     * The returned array is shared and must not be modified.
+     *
+     * @return the UTF-8 encoded bytes
+     */
+    public byte[] quotedWithColonUtf8() {
+        var bytes = quotedWithColonUtf8;
+        if (bytes == null) {
+            quotedWithColonUtf8 = bytes = quotedWithColon.getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the characters of {@link #quotedWithColon()}.
+     * <p>
+     * The returned array is shared and must not be modified.
+     *
+     * @return the characters
+     */
+    public char[] quotedWithColonUtf16() {
+        var chars = quotedWithColonUtf16;
+        if (chars == null) {
+            quotedWithColonUtf16 = chars = quotedWithColon.toCharArray();
+        }
+        return chars;
+    }
+
+    static String quote(String value) {
+        var builder = new StringBuilder(value.length() + 2).append('"');
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                case '\b' -> builder.append("\\b");
+                case '\f' -> builder.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+}
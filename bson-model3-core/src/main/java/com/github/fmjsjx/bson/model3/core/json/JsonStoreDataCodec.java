@@ -0,0 +1,50 @@
+package com.github.fmjsjx.bson.model3.core.json;
+
+import com.github.fmjsjx.bson.model3.core.BsonModel;
+
+/**
+ * An interface defines methods to marshal/unmarshal the store data of
+ * BSON models directly between models and JSON, without the store data
+ * objects.
+ *
+ * @author MJ Fang
+ * @see JsonStoreDataCodecs
+ * @since 3.0
+ */
+public interface JsonStoreDataCodec {
+
+    /**
+     * Marshals the store data of the specified model to a JSON string.
+     *
+     * @param model the model
+     * @return the JSON string
+     */
+    String marshal(BsonModel<?, ?> model);
+
+    /**
+     * Marshals the store data of the specified model to a UTF-8 encoded
+     * JSON byte array.
+     *
+     * @param model the model
+     * @return the JSON byte array
+     */
+    byte[] marshalToBytes(BsonModel<?, ?> model);
+
+    /**
+     * Unmarshals the specified JSON string into the specified model.
+     *
+     * @param model the model
+     * @param json  the JSON string
+     */
+    void unmarshal(BsonModel<?, ?> model, String json);
+
+    /**
+     * Unmarshals the specified UTF-8 encoded JSON byte array into the
+     * specified model.
+     *
+     * @param model the model
+     * @param json  the JSON byte array
+     */
+    void unmarshal(BsonModel<?, ?> model, byte[] json);
+
+}
@@ -0,0 +1,229 @@
+package com.github.fmjsjx.bson.model3.core.json;
+
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
+import com.github.fmjsjx.bson.model3.core.BsonModel;
+import com.github.fmjsjx.libcommon.json.Jackson3Library;
+import com.github.fmjsjx.libcommon.json.JsonLibrary;
+import com.github.fmjsjx.libcommon.util.SystemPropertyUtil;
+import com.jsoniter.JsonIterator;
+import com.jsoniter.output.JsonStream;
+import org.jspecify.annotations.Nullable;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helper class which provides {@link JsonStoreDataCodec}
+ * implementations for the supported {@link JsonLibrary}s.
+ * <p>
+ * The direct codecs are opt-in, they are used by the
+ * {@code jsonMarshal}/{@code jsonUnmarshal} methods of root models only
+ * when the system property {@code bson.model3.core.json.directStoreData}
+ * is set to {@code true}. Otherwise, the store data will be
+ * marshaled/unmarshaled through the store data objects by the
+ * {@link JsonLibrary} itself. The codecs returned by the factory methods
+ * can always be used directly.
+ * <p>
+ * Both paths produce and accept the same JSON, so the switch can be
+ * made without converting the existing data.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class JsonStoreDataCodecs {
+
+    private static final String DIRECT_STORE_DATA_KEY = "bson.model3.core.json.directStoreData";
+    private static final boolean DEFAULT_DIRECT_STORE_DATA = false;
+
+    private static final boolean directStoreData = SystemPropertyUtil.getBoolean(DIRECT_STORE_DATA_KEY, DEFAULT_DIRECT_STORE_DATA);
+
+    /**
+     * Returns the {@link JsonStoreDataCodec} for the specified
+     * {@link JsonLibrary}.
+     * <p>
+     * The codec is chosen by the name of the class of the
+     * {@code JsonLibrary}, so that the optional JSON libraries will not
+     * be loaded unless they are actually used. The Jackson codec uses
+     * the mapper configured in the {@code JsonLibrary}.
+     *
+     * @param jsonLibrary the {@code JsonLibrary}
+     * @return the {@code JsonStoreDataCodec}, or {@code null} if the
+     * {@code JsonLibrary} is not supported or the direct codecs are
+     * not enabled
+     */
+    public static @Nullable JsonStoreDataCodec forLibrary(JsonLibrary<?> jsonLibrary) {
+        if (!directStoreData) {
+            return null;
+        }
+        return switch (jsonLibrary.getClass().getName()) {
+            case "com.github.fmjsjx.libcommon.json.Jackson3Library" -> jackson(((Jackson3Library) jsonLibrary).objectMapper());
+            case "com.github.fmjsjx.libcommon.json.Fastjson2Library" -> Fastjson2Codec.INSTANCE;
+            case "com.github.fmjsjx.libcommon.json.JsoniterLibrary" -> JsoniterCodec.INSTANCE;
+            default -> null;
+        };
+    }
+
+    /**
+     * Returns the {@link JsonStoreDataCodec} based on Jackson, using the
+     * shared default {@link JsonMapper}.
+     *
+     * @return the {@code JsonStoreDataCodec} based on Jackson
+     */
+    public static JsonStoreDataCodec jackson() {
+        return JacksonCodec.INSTANCE;
+    }
+
+    /**
+     * Returns a new {@link JsonStoreDataCodec} based on Jackson, using
+     * the specified {@link ObjectMapper} to create generators and
+     * parsers.
+     *
+     * @param mapper the {@code ObjectMapper}
+     * @return a new {@code JsonStoreDataCodec} based on Jackson
+     */
+    public static JsonStoreDataCodec jackson(ObjectMapper mapper) {
+        return new JacksonCodec(mapper);
+    }
+
+    /**
+     * Returns the {@link JsonStoreDataCodec} based on Fastjson2.
+     *
+     * @return the {@code JsonStoreDataCodec} based on Fastjson2
+     */
+    public static JsonStoreDataCodec fastjson2() {
+        return Fastjson2Codec.INSTANCE;
+    }
+
+    /**
+     * Returns the {@link JsonStoreDataCodec} based on Jsoniter.
+     *
+     * @return the {@code JsonStoreDataCodec} based on Jsoniter
+     */
+    public static JsonStoreDataCodec jsoniter() {
+        return JsoniterCodec.INSTANCE;
+    }
+
+    private static final class JacksonCodec implements JsonStoreDataCodec {
+
+        private static final JacksonCodec INSTANCE = new JacksonCodec(JsonMapper.shared());
+
+        private final ObjectMapper mapper;
+
+        private JacksonCodec(ObjectMapper mapper) {
+            this.mapper = mapper;
+        }
+
+        @Override
+        public String marshal(BsonModel<?, ?> model) {
+            var out = new StringWriter();
+            try (var generator = mapper.createGenerator(out)) {
+                model.writeStoreData(new JacksonJsonDataWriter(generator));
+            }
+            return out.toString();
+        }
+
+        @Override
+        public byte[] marshalToBytes(BsonModel<?, ?> model) {
+            var out = new ByteArrayOutputStream();
+            try (var generator = mapper.createGenerator(out)) {
+                model.writeStoreData(new JacksonJsonDataWriter(generator));
+            }
+            return out.toByteArray();
+        }
+
+        @Override
+        public void unmarshal(BsonModel<?, ?> model, String json) {
+            try (var parser = mapper.createParser(json)) {
+                model.readStoreData(new JacksonJsonDataReader(parser));
+            }
+        }
+
+        @Override
+        public void unmarshal(BsonModel<?, ?> model, byte[] json) {
+            try (var parser = mapper.createParser(json)) {
+                model.readStoreData(new JacksonJsonDataReader(parser));
+            }
+        }
+
+    }
+
+    private static final class Fastjson2Codec implements JsonStoreDataCodec {
+
+        private static final Fastjson2Codec INSTANCE = new Fastjson2Codec();
+
+        @Override
+        public String marshal(BsonModel<?, ?> model) {
+            try (var writer = JSONWriter.of()) {
+                model.writeStoreData(new Fastjson2JsonDataWriter(writer));
+                return writer.toString();
+            }
+        }
+
+        @Override
+        public byte[] marshalToBytes(BsonModel<?, ?> model) {
+            try (var writer = JSONWriter.ofUTF8()) {
+                model.writeStoreData(new Fastjson2JsonDataWriter(writer));
+                return writer.getBytes();
+            }
+        }
+
+        @Override
+        public void unmarshal(BsonModel<?, ?> model, String json) {
+            try (var reader = JSONReader.of(json)) {
+                model.readStoreData(new Fastjson2JsonDataReader(reader));
+            }
+        }
+
+        @Override
+        public void unmarshal(BsonModel<?, ?> model, byte[] json) {
+            try (var reader = JSONReader.of(json)) {
+                model.readStoreData(new Fastjson2JsonDataReader(reader));
+            }
+        }
+
+    }
+
+    private static final class JsoniterCodec implements JsonStoreDataCodec {
+
+        private static final JsoniterCodec INSTANCE = new JsoniterCodec();
+
+        @Override
+        public String marshal(BsonModel<?, ?> model) {
+            return new String(marshalToBytes(model), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public byte[] marshalToBytes(BsonModel<?, ?> model) {
+            var out = new ByteArrayOutputStream();
+            var stream = new JsonStream(out, 512);
+            model.writeStoreData(new JsoniterJsonDataWriter(stream));
+            try {
+                stream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+
+        @Override
+        public void unmarshal(BsonModel<?, ?> model, String json) {
+            model.readStoreData(new JsoniterJsonDataReader(JsonIterator.parse(json)));
+        }
+
+        @Override
+        public void unmarshal(BsonModel<?, ?> model, byte[] json) {
+            model.readStoreData(new JsoniterJsonDataReader(JsonIterator.parse(json)));
+        }
+
+    }
+
+    private JsonStoreDataCodecs() {
+    }
+
+}
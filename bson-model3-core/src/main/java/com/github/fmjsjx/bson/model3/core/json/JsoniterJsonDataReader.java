@@ -0,0 +1,163 @@
+package com.github.fmjsjx.bson.model3.core.json;
+
+import com.jsoniter.JsonIterator;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+
+/**
+ * The {@link JsonDataReader} implementation reads from a Jsoniter
+ * {@link JsonIterator}.
+ * <p>
+ * All {@link IOException}s thrown by the underlying iterator are wrapped
+ * into {@link UncheckedIOException}s.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class JsoniterJsonDataReader implements JsonDataReader {
+
+    private final JsonIterator iterator;
+
+    /**
+     * Constructs a new {@link JsoniterJsonDataReader} with the specified
+     * {@link JsonIterator}.
+     *
+     * @param iterator the {@link JsonIterator}
+     */
+    public JsoniterJsonDataReader(JsonIterator iterator) {
+        this.iterator = iterator;
+    }
+
+    /**
+     * Returns the underlying {@link JsonIterator}.
+     *
+     * @return the underlying {@code JsonIterator}
+     */
+    public JsonIterator iterator() {
+        return iterator;
+    }
+
+    @Override
+    public void readStartObject() {
+        // JsonIterator.readObject() consumes the start of the object
+        // together with the first field name
+    }
+
+    @Override
+    public @Nullable String nextName() {
+        try {
+            return iterator.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void readStartArray() {
+        // JsonIterator.readArray() consumes the start of the array
+        // together with the check of the first element
+    }
+
+    @Override
+    public boolean hasNextElement() {
+        try {
+            return iterator.readArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean readNull() {
+        try {
+            return iterator.readNull();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean readBoolean() {
+        try {
+            return iterator.readBoolean();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int readInt() {
+        try {
+            return iterator.readInt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long readLong() {
+        try {
+            return iterator.readLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public double readDouble() {
+        try {
+            return iterator.readDouble();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public BigDecimal readNumber() {
+        try {
+            return iterator.readBigDecimal();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String readString() {
+        try {
+            return iterator.readString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public @Nullable Object readValue() {
+        try {
+            return iterator.read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public <T> @Nullable T readValue(Class<T> type) {
+        try {
+            return iterator.read(type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void skipValue() {
+        try {
+            iterator.skip();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
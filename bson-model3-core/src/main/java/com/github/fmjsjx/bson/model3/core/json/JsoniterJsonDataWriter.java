@@ -0,0 +1,193 @@
+package com.github.fmjsjx.bson.model3.core.json;
+
+import com.jsoniter.output.JsonStream;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+
+/**
+ * The {@link JsonDataWriter} implementation writes to a Jsoniter
+ * {@link JsonStream}.
+ * <p>
+ * All {@link IOException}s thrown by the underlying stream are wrapped
+ * into {@link UncheckedIOException}s.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class JsoniterJsonDataWriter extends AbstractJsonDataWriter {
+
+    private final JsonStream stream;
+
+    /**
+     * Constructs a new {@link JsoniterJsonDataWriter} with the specified
+     * {@link JsonStream}.
+     *
+     * @param stream the {@link JsonStream}
+     */
+    public JsoniterJsonDataWriter(JsonStream stream) {
+        this.stream = stream;
+    }
+
+    /**
+     * Returns the underlying {@link JsonStream}.
+     *
+     * @return the underlying {@code JsonStream}
+     */
+    public JsonStream stream() {
+        return stream;
+    }
+
+    @Override
+    protected void writeFieldSeparator() {
+        try {
+            stream.writeMore();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void writeElementSeparator() {
+        try {
+            stream.writeMore();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void doWriteStartObject() {
+        try {
+            stream.writeObjectStart();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void doWriteEndObject() {
+        try {
+            stream.writeObjectEnd();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void doWriteStartArray() {
+        try {
+            stream.writeArrayStart();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void doWriteEndArray() {
+        try {
+            stream.writeArrayEnd();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void doWriteName(JsonFieldName name) {
+        var stream = this.stream;
+        try {
+            if (stream.currentConfig().indentionStep() == 0) {
+                // the same as writeObjectField(String) without indention
+                var bytes = name.quotedWithColonUtf8();
+                stream.write(bytes, 0, bytes.length);
+            } else {
+                stream.writeObjectField(name.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void doWriteName(String name) {
+        try {
+            stream.writeObjectField(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void doWriteNull() {
+        try {
+            stream.writeNull();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void doWriteBoolean(boolean value) {
+        try {
+            stream.writeVal(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void doWriteInt(int value) {
+        try {
+            stream.writeVal(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void doWriteLong(long value) {
+        try {
+            stream.writeVal(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void doWriteDouble(double value) {
+        try {
+            stream.writeVal(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void doWriteNumber(BigDecimal value) {
+        try {
+            stream.writeRaw(value.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void doWriteString(String value) {
+        try {
+            stream.writeVal(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void doWriteOtherValue(Object value) {
+        try {
+            stream.writeVal(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
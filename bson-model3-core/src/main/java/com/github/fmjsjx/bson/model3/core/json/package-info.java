@@ -0,0 +1,7 @@
+/**
+ * Streaming JSON support for BSON model 3 core package.
+ */
+@NullMarked
+package com.github.fmjsjx.bson.model3.core.json;
+
+import org.jspecify.annotations.NullMarked;
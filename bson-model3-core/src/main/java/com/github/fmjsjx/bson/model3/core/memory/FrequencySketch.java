@@ -0,0 +1,81 @@
+package com.github.fmjsjx.bson.model3.core.memory;
+
+/**
+ * A count-min sketch estimating the access frequencies of keys.
+ * <p>
+ * All counters are halved after a sample of additions, so the
+ * estimates are aged to the recent accesses.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_FREQUENCY = 15;
+    private static final int[] SEEDS = {0x97CB3127, 0xB6A4B2C3, 0x85EBCA6B, 0xC2B2AE35};
+
+    private final int[][] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(long expectedSize) {
+        var width = Integer.highestOneBit(Math.clamp(expectedSize, 16, 1 << 20) - 1) << 1;
+        this.table = new int[DEPTH][width];
+        this.mask = width - 1;
+        this.sampleSize = width * 10;
+    }
+
+    private int indexOf(int hash, int row) {
+        var h = (hash ^ SEEDS[row]) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the estimated frequency of the specified key.
+     *
+     * @param key the key
+     * @return the estimated frequency, not greater than 15
+     */
+    int frequency(Object key) {
+        var hash = key.hashCode();
+        var frequency = MAX_FREQUENCY;
+        for (var row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, table[row][indexOf(hash, row)]);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the estimated frequency of the specified key.
+     *
+     * @param key the key
+     */
+    void increment(Object key) {
+        var hash = key.hashCode();
+        var added = false;
+        for (var row = 0; row < DEPTH; row++) {
+            var index = indexOf(hash, row);
+            if (table[row][index] < MAX_FREQUENCY) {
+                table[row][index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (var row : table) {
+            for (var i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+        additions >>>= 1;
+    }
+
+}
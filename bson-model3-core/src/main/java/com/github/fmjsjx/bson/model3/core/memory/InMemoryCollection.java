@@ -0,0 +1,313 @@
+package com.github.fmjsjx.bson.model3.core.memory;
+
+import com.github.fmjsjx.bson.model3.core.RootModel;
+import com.github.fmjsjx.bson.model3.core.util.BsonUpdateUtil;
+import com.mongodb.client.model.*;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A small in-memory collection of {@link BsonDocument}s keyed by
+ * {@code _id}, which applies the updates generated by
+ * {@link RootModel#toUpdates()} the same way as MongoDB does.
+ * <p>
+ * It can be used as an in-process shadow copy of what the database
+ * holds, or to verify the incremental updates without a live MongoDB.
+ * <p>
+ * Only the filters on {@code _id} equality are supported, except that
+ * the filters of updates can also contain equality conditions on other
+ * top-level fields, such as the expected version of the optimistic
+ * concurrency control. Update pipelines are not supported. See {@link BsonUpdateUtil} for the
+ * supported update operators, besides them {@code $setOnInsert} is
+ * supported for upserts.
+ * <p>
+ * Each single write is atomic, but bulk writes are not transactional:
+ * an ordered bulk write stops at the first failed write.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class InMemoryCollection {
+
+    private static final String ID = "_id";
+    private static final String SET_ON_INSERT = "$setOnInsert";
+
+    /**
+     * The result of a bulk write.
+     *
+     * @param insertedCount the number of inserted documents
+     * @param matchedCount  the number of matched documents of updates
+     *                      and replacements
+     * @param deletedCount  the number of deleted documents
+     * @param upsertedCount the number of upserted documents
+     */
+    public record WriteResult(int insertedCount, int matchedCount, int deletedCount, int upsertedCount) {
+    }
+
+    private final ConcurrentMap<BsonValue, BsonDocument> documents = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the number of documents in this collection.
+     *
+     * @return the number of documents in this collection
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Removes all documents from this collection.
+     */
+    public void clear() {
+        documents.clear();
+    }
+
+    /**
+     * Returns a copy of the document with the specified {@code _id}.
+     *
+     * @param id the {@code _id}
+     * @return a copy of the document, or {@code null} if not found
+     */
+    public @Nullable BsonDocument find(BsonValue id) {
+        var document = documents.get(id);
+        if (document == null) {
+            return null;
+        }
+        synchronized (document) {
+            return document.clone();
+        }
+    }
+
+    /**
+     * Inserts a copy of the specified document.
+     * <p>
+     * A new {@link BsonObjectId} will be put into the specified document
+     * if it has no {@code _id}, same as the MongoDB drivers.
+     *
+     * @param document the document
+     * @throws IllegalStateException if a document with the same
+     *                               {@code _id} already exists
+     */
+    public void insertOne(BsonDocument document) {
+        var id = document.get(ID);
+        if (id == null) {
+            id = new BsonObjectId(new ObjectId());
+            document.put(ID, id);
+        }
+        if (documents.putIfAbsent(id, document.clone()) != null) {
+            throw new IllegalStateException("Duplicate key error: _id " + id);
+        }
+    }
+
+    /**
+     * Inserts a new document of the specified root model.
+     *
+     * @param model the root model
+     * @throws IllegalStateException if a document with the same
+     *                               {@code _id} already exists
+     */
+    public void insertOne(RootModel<?> model) {
+        var document = model.toBsonValue();
+        var id = document.get(ID);
+        if (id == null) {
+            throw new IllegalArgumentException("Missing _id in model " + model.getClass().getName());
+        }
+        if (documents.putIfAbsent(id, document) != null) {
+            throw new IllegalStateException("Duplicate key error: _id " + id);
+        }
+    }
+
+    /**
+     * Applies the specified updates to the document with the specified
+     * {@code _id}.
+     *
+     * @param id      the {@code _id}
+     * @param updates the updates, typically created by
+     *                {@link RootModel#toUpdates()}
+     * @return {@code true} if the document was found, {@code false}
+     * otherwise
+     */
+    public boolean updateOne(BsonValue id, List<? extends Bson> updates) {
+        var document = documents.get(id);
+        if (document == null) {
+            return false;
+        }
+        synchronized (document) {
+            BsonUpdateUtil.applyUpdates(document, updates);
+        }
+        return true;
+    }
+
+    /**
+     * Applies the updates of the specified root model to the document
+     * with the same {@code _id}, then resets the states of the model.
+     * <p>
+     * Nothing will be done if the model has no changes.
+     *
+     * @param model the root model
+     * @return {@code true} if the document was found or there were no
+     * changes, {@code false} otherwise
+     */
+    public boolean updateOne(RootModel<?> model) {
+        var updates = model.toUpdates();
+        if (updates.isEmpty()) {
+            return true;
+        }
+        var id = model.toBsonId();
+        if (id == null) {
+            throw new IllegalArgumentException("Missing _id in model " + model.getClass().getName());
+        }
+        var found = updateOne(id, updates);
+        model.reset();
+        return found;
+    }
+
+    /**
+     * Deletes the document with the specified {@code _id}.
+     *
+     * @param id the {@code _id}
+     * @return {@code true} if the document was found, {@code false}
+     * otherwise
+     */
+    public boolean deleteOne(BsonValue id) {
+        return documents.remove(id) != null;
+    }
+
+    /**
+     * Executes the specified write models in order.
+     * <p>
+     * Supports {@link InsertOneModel}, {@link UpdateOneModel},
+     * {@link ReplaceOneModel} and {@link DeleteOneModel}.
+     *
+     * @param requests the write models
+     * @return the result
+     * @throws IllegalArgumentException if any write model is unsupported
+     * @throws IllegalStateException    if any insertion causes a
+     *                                  duplicate key
+     */
+    public WriteResult bulkWrite(List<? extends WriteModel<? extends BsonDocument>> requests) {
+        int inserted = 0, matched = 0, deleted = 0, upserted = 0;
+        for (var request : requests) {
+            switch (request) {
+                case InsertOneModel<? extends BsonDocument> insert -> {
+                    insertOne(insert.getDocument());
+                    inserted++;
+                }
+                case UpdateOneModel<? extends BsonDocument> update -> {
+                    var updateBson = update.getUpdate();
+                    if (updateBson == null) {
+                        throw new IllegalArgumentException("Update pipelines are not supported");
+                    }
+                    var filter = update.getFilter().toBsonDocument();
+                    if (update(filterId(filter, true), filter, updateBson, update.getOptions().isUpsert())) {
+                        matched++;
+                    } else if (update.getOptions().isUpsert()) {
+                        upserted++;
+                    }
+                }
+                case ReplaceOneModel<? extends BsonDocument> replace -> {
+                    var id = filterId(replace.getFilter().toBsonDocument(), false);
+                    var replacement = new BsonDocument(ID, id);
+                    replace.getReplacement().clone().forEach((name, value) -> {
+                        if (!ID.equals(name)) {
+                            replacement.put(name, value);
+                        }
+                    });
+                    if (replace.getReplaceOptions().isUpsert()) {
+                        if (documents.put(id, replacement) != null) {
+                            matched++;
+                        } else {
+                            upserted++;
+                        }
+                    } else if (documents.replace(id, replacement) != null) {
+                        matched++;
+                    }
+                }
+                case DeleteOneModel<? extends BsonDocument> delete -> {
+                    if (deleteOne(filterId(delete.getFilter().toBsonDocument(), false))) {
+                        deleted++;
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unsupported write model " + request.getClass().getName());
+            }
+        }
+        return new WriteResult(inserted, matched, deleted, upserted);
+    }
+
+    private boolean update(BsonValue id, BsonDocument filter, Bson update, boolean upsert) {
+        var updateDocument = update.toBsonDocument();
+        var setOnInsert = updateDocument.get(SET_ON_INSERT);
+        if (setOnInsert != null) {
+            updateDocument = updateDocument.clone();
+            updateDocument.remove(SET_ON_INSERT);
+        }
+        var document = documents.get(id);
+        if (document != null) {
+            synchronized (document) {
+                if (!matches(document, filter)) {
+                    if (upsert) {
+                        // MongoDB tries to insert a new document with the same _id
+                        throw new IllegalStateException("Duplicate key error: _id " + id);
+                    }
+                    return false;
+                }
+                BsonUpdateUtil.applyUpdate(document, updateDocument);
+            }
+            return true;
+        }
+        if (upsert) {
+            var inserting = new BsonDocument(ID, id);
+            if (setOnInsert != null) {
+                BsonUpdateUtil.applyUpdate(inserting, new BsonDocument("$set", setOnInsert));
+            }
+            BsonUpdateUtil.applyUpdate(inserting, updateDocument);
+            var existing = documents.putIfAbsent(id, inserting);
+            if (existing != null) {
+                // concurrently inserted, apply as a normal update
+                synchronized (existing) {
+                    if (!matches(existing, filter)) {
+                        throw new IllegalStateException("Duplicate key error: _id " + id);
+                    }
+                    BsonUpdateUtil.applyUpdate(existing, updateDocument);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static BsonValue filterId(BsonDocument filter, boolean allowConditions) {
+        var id = filter.get(ID);
+        if (id == null || isOperator(id) || (filter.size() != 1 && !allowConditions)) {
+            throw new IllegalArgumentException("Only filters on _id equality are supported, but was " + filter);
+        }
+        for (var entry : filter.entrySet()) {
+            if (entry.getKey().startsWith("$") || entry.getKey().indexOf('.') >= 0 || isOperator(entry.getValue())) {
+                throw new IllegalArgumentException("Only equality conditions on top-level fields are supported, but was " + filter);
+            }
+        }
+        return id;
+    }
+
+    private static boolean isOperator(BsonValue value) {
+        return value.isDocument() && !value.asDocument().isEmpty() && value.asDocument().getFirstKey().startsWith("$");
+    }
+
+    private static boolean matches(BsonDocument document, BsonDocument filter) {
+        for (var entry : filter.entrySet()) {
+            if (!entry.getValue().equals(document.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,402 @@
+package com.github.fmjsjx.bson.model3.core.memory;
+
+import com.github.fmjsjx.bson.model3.core.RootModel;
+import org.jspecify.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A container of resident root models, which hibernates the idle ones
+ * into compressed bytes in memory and rehydrates them on next access.
+ * <p>
+ * A hibernated model is encoded as a compact binary snapshot (see
+ * {@link RootModel#toSnapshot()}) compressed by {@link Deflater}, and
+ * its object graph is released. It will be decoded into a new model
+ * created by the factory on next {@link #get(Object)}.
+ * <p>
+ * Only the models without any changes can be hibernated, so no pending
+ * updates will be lost. Hibernation is driven by
+ * {@link #hibernateIdle()}, which is expected to be called periodically:
+ * <ul>
+ * <li>the models not accessed for the idle timeout are hibernated</li>
+ * <li>then if there are still more resident models than the maximum
+ * resident count, the least recently accessed ones are hibernated until
+ * the count is within the budget</li>
+ * </ul>
+ * <p>
+ * Since a rehydrated model is always a new instance, the models
+ * returned by {@link #get(Object)} should not be retained beyond the
+ * current access. And since a model returned by {@link #get(Object)}
+ * can be hibernated at any time, changes made to it by one thread may
+ * be lost when another thread hibernates it concurrently. Use
+ * {@link #access(Object, Consumer)} or {@link #compute(Object, Function)}
+ * instead when the models are accessed concurrently, which pin the
+ * model so that it will never be hibernated during the access.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @param <K> the type of keys
+ * @param <M> the type of root models
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class ModelHibernator<K, M extends RootModel<M>> {
+
+    private static final class Entry<M> {
+
+        private @Nullable M model;
+        private byte @Nullable [] hibernated;
+        private volatile long lastAccessTime;
+        private int pins;
+
+        private Entry(M model, long lastAccessTime) {
+            this.model = model;
+            this.lastAccessTime = lastAccessTime;
+        }
+
+    }
+
+    private record Candidate<M>(Entry<M> entry, long lastAccessTime) {
+    }
+
+    private final ConcurrentMap<K, Entry<M>> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger residentCount = new AtomicInteger();
+    private final AtomicLong hibernatedBytes = new AtomicLong();
+    private final Supplier<M> factory;
+    private final long idleTimeoutNanos;
+    private final int maxResident;
+    private final LongSupplier nanoClock;
+
+    /**
+     * Constructs a new {@link ModelHibernator} with the specified
+     * factory, idle timeout and maximum resident count.
+     *
+     * @param factory     the factory creating the rehydrated models
+     * @param idleTimeout the idle timeout
+     * @param maxResident the maximum count of the resident models
+     */
+    public ModelHibernator(Supplier<M> factory, Duration idleTimeout, int maxResident) {
+        this(factory, idleTimeout, maxResident, System::nanoTime);
+    }
+
+    ModelHibernator(Supplier<M> factory, Duration idleTimeout, int maxResident, LongSupplier nanoClock) {
+        if (maxResident < 0) {
+            throw new IllegalArgumentException("maxResident expected >= 0 but was " + maxResident);
+        }
+        this.factory = factory;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.maxResident = maxResident;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the number of models in this hibernator.
+     *
+     * @return the number of models in this hibernator
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of resident models in this hibernator.
+     *
+     * @return the number of resident models
+     */
+    public int residentCount() {
+        return residentCount.get();
+    }
+
+    /**
+     * Returns the total size in bytes of the hibernated models.
+     *
+     * @return the total size in bytes of the hibernated models
+     */
+    public long hibernatedBytes() {
+        return hibernatedBytes.get();
+    }
+
+    /**
+     * Puts the specified model into this hibernator as a resident model.
+     *
+     * @param key   the key
+     * @param model the model
+     */
+    public void put(K key, M model) {
+        var old = entries.put(key, new Entry<>(model, nanoClock.getAsLong()));
+        residentCount.incrementAndGet();
+        if (old != null) {
+            release(old);
+        }
+    }
+
+    /**
+     * Returns the model with the specified key, rehydrates it first if
+     * it is hibernated.
+     *
+     * @param key the key
+     * @return the model, or {@code null} if not found
+     */
+    public @Nullable M get(K key) {
+        var entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        synchronized (entry) {
+            return resident(entry);
+        }
+    }
+
+    private @Nullable M resident(Entry<M> entry) {
+        entry.lastAccessTime = nanoClock.getAsLong();
+        var model = entry.model;
+        if (model == null) {
+            var hibernated = entry.hibernated;
+            if (hibernated == null) {
+                // already removed
+                return null;
+            }
+            entry.model = model = rehydrate(hibernated);
+            entry.hibernated = null;
+            hibernatedBytes.addAndGet(-hibernated.length);
+            residentCount.incrementAndGet();
+        }
+        return model;
+    }
+
+    /**
+     * Performs the specified action on the model with the specified key,
+     * rehydrates it first if it is hibernated.
+     * <p>
+     * The model is pinned during the action, so it will never be
+     * hibernated until the action returns.
+     *
+     * @param key    the key
+     * @param action the action
+     * @return {@code true} if the model was found, {@code false}
+     * otherwise
+     */
+    public boolean access(K key, Consumer<? super M> action) {
+        var entry = entries.get(key);
+        if (entry == null) {
+            return false;
+        }
+        var model = pin(entry);
+        if (model == null) {
+            return false;
+        }
+        try {
+            action.accept(model);
+            return true;
+        } finally {
+            unpin(entry);
+        }
+    }
+
+    /**
+     * Applies the specified function on the model with the specified key
+     * and returns the result, rehydrates the model first if it is
+     * hibernated.
+     * <p>
+     * The model is pinned during the function, so it will never be
+     * hibernated until the function returns.
+     *
+     * @param <R>      the type of the result
+     * @param key      the key
+     * @param function the function
+     * @return the result of the function, or {@code null} if the model
+     * was not found
+     */
+    public <R> @Nullable R compute(K key, Function<? super M, ? extends @Nullable R> function) {
+        var entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        var model = pin(entry);
+        if (model == null) {
+            return null;
+        }
+        try {
+            return function.apply(model);
+        } finally {
+            unpin(entry);
+        }
+    }
+
+    private @Nullable M pin(Entry<M> entry) {
+        synchronized (entry) {
+            var model = resident(entry);
+            if (model != null) {
+                entry.pins++;
+            }
+            return model;
+        }
+    }
+
+    private void unpin(Entry<M> entry) {
+        synchronized (entry) {
+            entry.pins--;
+            entry.lastAccessTime = nanoClock.getAsLong();
+        }
+    }
+
+    /**
+     * Returns whether the model with the specified key is hibernated.
+     *
+     * @param key the key
+     * @return {@code true} if the model is hibernated, {@code false}
+     * otherwise
+     */
+    public boolean isHibernated(K key) {
+        var entry = entries.get(key);
+        if (entry == null) {
+            return false;
+        }
+        synchronized (entry) {
+            return entry.hibernated != null;
+        }
+    }
+
+    /**
+     * Removes the model with the specified key.
+     *
+     * @param key the key
+     * @return {@code true} if the model was found, {@code false}
+     * otherwise
+     */
+    public boolean remove(K key) {
+        var entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        release(entry);
+        return true;
+    }
+
+    private void release(Entry<M> entry) {
+        synchronized (entry) {
+            var hibernated = entry.hibernated;
+            if (hibernated != null) {
+                hibernatedBytes.addAndGet(-hibernated.length);
+                entry.hibernated = null;
+            } else if (entry.model != null) {
+                residentCount.decrementAndGet();
+            }
+            entry.model = null;
+        }
+    }
+
+    /**
+     * Hibernates the model with the specified key if it has no changes
+     * and is not pinned by any access.
+     *
+     * @param key the key
+     * @return {@code true} if the model is hibernated, {@code false}
+     * otherwise
+     */
+    public boolean hibernate(K key) {
+        var entry = entries.get(key);
+        return entry != null && hibernate(entry);
+    }
+
+    private boolean hibernate(Entry<M> entry) {
+        synchronized (entry) {
+            var model = entry.model;
+            if (model == null) {
+                return entry.hibernated != null;
+            }
+            if (entry.pins > 0 || model.anyChanged()) {
+                return false;
+            }
+            var hibernated = compress(model.toSnapshot());
+            entry.hibernated = hibernated;
+            entry.model = null;
+            hibernatedBytes.addAndGet(hibernated.length);
+            residentCount.decrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     * Hibernates the idle models and the least recently accessed models
+     * beyond the maximum resident count.
+     * <p>
+     * The models with any changes and the models pinned by any access
+     * are always skipped.
+     *
+     * @return the number of the models hibernated
+     */
+    public int hibernateIdle() {
+        var now = nanoClock.getAsLong();
+        var count = 0;
+        var candidates = new ArrayList<Candidate<M>>();
+        for (var entry : entries.values()) {
+            if (entry.model == null) {
+                continue;
+            }
+            var lastAccessTime = entry.lastAccessTime;
+            if (now - lastAccessTime >= idleTimeoutNanos) {
+                if (hibernate(entry)) {
+                    count++;
+                }
+            } else {
+                candidates.add(new Candidate<>(entry, lastAccessTime));
+            }
+        }
+        var exceeded = residentCount.get() - maxResident;
+        if (exceeded > 0) {
+            candidates.sort(Comparator.comparingLong(Candidate::lastAccessTime));
+            for (var candidate : candidates) {
+                if (exceeded <= 0) {
+                    break;
+                }
+                if (hibernate(candidate.entry())) {
+                    count++;
+                    exceeded--;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static byte[] compress(byte[] snapshot) {
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(snapshot);
+            deflater.finish();
+            var out = new ByteArrayOutputStream(Math.max(64, snapshot.length >> 1));
+            var buffer = new byte[Math.min(8192, Math.max(64, snapshot.length))];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private M rehydrate(byte[] hibernated) {
+        try (var in = new InflaterInputStream(new ByteArrayInputStream(hibernated))) {
+            return factory.get().readFrom(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,549 @@
+package com.github.fmjsjx.bson.model3.core.memory;
+
+import com.github.fmjsjx.bson.model3.core.RootModel;
+import org.bson.BsonDocument;
+import org.bson.conversions.Bson;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * A weight bounded cache of root models keyed by {@code _id}.
+ * <p>
+ * The models are loaded by the loader on cache misses, via
+ * {@link RootModel#load(BsonDocument)}. Each key is loaded at most once
+ * under contention, the concurrent callers wait for the same load.
+ * <p>
+ * When the total weight exceeds the maximum weight, the victims are
+ * selected from a few least recently used entries by the lowest access
+ * frequency estimated by a count-min sketch. A victim with any changes
+ * will be flushed first: the updates created by
+ * {@link RootModel#toUpdates()} are passed to the flusher, and the entry
+ * is only dropped after the returned stage completes normally. The
+ * caller never waits for the flush, the victim stays in the cache until
+ * the stage completes, so the total weight may exceed the maximum
+ * weight temporarily. If the flush fails, or the model was changed
+ * again during the flush, the victim is kept in the cache, and its
+ * updates will be flushed again on the next eviction. So the updates
+ * should be idempotent, the models with append-only std-list fields,
+ * whose appends are updated by {@code $push}, should not be cached.
+ * <p>
+ * Cache hits are recorded into a lossy ring buffer and replayed on the
+ * access order in batches, so the hits never wait for the global lock.
+ * Some hits may be dropped under heavy contention, which only makes the
+ * eviction order less accurate.
+ * <p>
+ * Eviction synchronizes on the model while collecting the updates and
+ * dropping it, the callers modifying the cached models concurrently
+ * should also synchronize on the models. Changes made on a model after
+ * it was evicted will be lost, so the models should not be retained
+ * beyond the current access.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @param <ID> the type of {@code _id}s
+ * @param <R>  the type of root models
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class RootModelCache<ID, R extends RootModel<R>> {
+
+    /**
+     * The flusher of the updates of cached models.
+     *
+     * @param <ID> the type of {@code _id}s
+     */
+    @FunctionalInterface
+    public interface Flusher<ID> {
+
+        /**
+         * Flushes the specified updates of the model with the specified
+         * {@code _id}.
+         *
+         * @param id      the {@code _id}
+         * @param updates the updates
+         * @return a stage completes when the updates are acknowledged
+         */
+        CompletionStage<?> flush(ID id, List<Bson> updates);
+
+    }
+
+    /**
+     * The statistics of a {@link RootModelCache}.
+     *
+     * @param hitCount          the number of cache hits
+     * @param missCount         the number of cache misses
+     * @param loadSuccessCount  the number of successful loads
+     * @param loadFailureCount  the number of failed loads
+     * @param totalLoadTime     the total nanoseconds spent on loading
+     * @param evictionCount     the number of evicted entries
+     * @param flushCount        the number of successful flushes
+     * @param flushFailureCount the number of failed flushes
+     */
+    public record Stats(long hitCount, long missCount, long loadSuccessCount, long loadFailureCount,
+                        long totalLoadTime, long evictionCount, long flushCount, long flushFailureCount) {
+
+        /**
+         * Returns the ratio of hits to requests.
+         *
+         * @return the ratio of hits to requests, {@code 1.0} if there
+         * were no requests
+         */
+        public double hitRate() {
+            var requestCount = hitCount + missCount;
+            return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+        }
+
+        /**
+         * Returns the average nanoseconds spent on loading.
+         *
+         * @return the average nanoseconds spent on loading
+         */
+        public double averageLoadPenalty() {
+            var loadCount = loadSuccessCount + loadFailureCount;
+            return loadCount == 0 ? 0.0 : (double) totalLoadTime / loadCount;
+        }
+
+    }
+
+    private static final class Node<ID, R> {
+
+        private final ID id;
+        private final R model;
+        private final int weight;
+        private @Nullable Node<ID, R> prev;
+        private @Nullable Node<ID, R> next;
+        private volatile boolean flushing;
+
+        private Node(ID id, R model, int weight) {
+            this.id = id;
+            this.model = model;
+            this.weight = weight;
+        }
+
+    }
+
+    private static final int SAMPLE_SIZE = 4;
+    private static final int READ_BUFFER_SIZE = 128;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    // tries to drain the read buffer once every 32 hits
+    private static final int READ_BUFFER_DRAIN_MASK = 31;
+
+    private final ConcurrentMap<ID, Node<ID, R>> nodes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ID, CompletableFuture<@Nullable R>> loadings = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final Supplier<R> factory;
+    private final Function<? super ID, @Nullable BsonDocument> loader;
+    private final Flusher<? super ID> flusher;
+    private final long maximumWeight;
+    private final ToIntFunction<? super R> weigher;
+    private final FrequencySketch sketch;
+    private final AtomicReferenceArray<@Nullable Node<ID, R>> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    private final AtomicLong readBufferWrites = new AtomicLong();
+    private final AtomicLong flushingWeight = new AtomicLong();
+    // guarded by lock
+    private @Nullable Node<ID, R> head;
+    private @Nullable Node<ID, R> tail;
+    private volatile long weightedSize;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushFailureCount = new LongAdder();
+
+    /**
+     * Constructs a new {@link RootModelCache} bounded by the specified
+     * maximum size.
+     *
+     * @param factory     the factory creating the models to be loaded
+     * @param loader      the loader returns the document with the
+     *                    specified {@code _id}, or {@code null} if not
+     *                    found
+     * @param flusher     the flusher of the updates of the models to be
+     *                    evicted
+     * @param maximumSize the maximum number of the cached models
+     */
+    public RootModelCache(Supplier<R> factory, Function<? super ID, @Nullable BsonDocument> loader,
+                          Flusher<? super ID> flusher, long maximumSize) {
+        this(factory, loader, flusher, maximumSize, model -> 1);
+    }
+
+    /**
+     * Constructs a new {@link RootModelCache} bounded by the specified
+     * maximum weight.
+     *
+     * @param factory       the factory creating the models to be loaded
+     * @param loader        the loader returns the document with the
+     *                      specified {@code _id}, or {@code null} if not
+     *                      found
+     * @param flusher       the flusher of the updates of the models to
+     *                      be evicted
+     * @param maximumWeight the maximum total weight of the cached models
+     * @param weigher       the weigher computes the weight of a model
+     *                      when it is put into the cache
+     */
+    public RootModelCache(Supplier<R> factory, Function<? super ID, @Nullable BsonDocument> loader,
+                          Flusher<? super ID> flusher, long maximumWeight, ToIntFunction<? super R> weigher) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("maximumWeight expected >= 0 but was " + maximumWeight);
+        }
+        this.factory = factory;
+        this.loader = loader;
+        this.flusher = flusher;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(maximumWeight);
+    }
+
+    /**
+     * Returns the number of the cached models.
+     *
+     * @return the number of the cached models
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns the total weight of the cached models.
+     *
+     * @return the total weight of the cached models
+     */
+    public long weightedSize() {
+        return weightedSize;
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this cache.
+     *
+     * @return the statistics
+     */
+    public Stats stats() {
+        return new Stats(hitCount.sum(), missCount.sum(), loadSuccessCount.sum(), loadFailureCount.sum(),
+                totalLoadTime.sum(), evictionCount.sum(), flushCount.sum(), flushFailureCount.sum());
+    }
+
+    /**
+     * Returns the cached model with the specified {@code _id}, without
+     * loading.
+     *
+     * @param id the {@code _id}
+     * @return the cached model, or {@code null} if not cached
+     */
+    public @Nullable R getIfPresent(ID id) {
+        var node = nodes.get(id);
+        if (node == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        touch(node);
+        return node.model;
+    }
+
+    /**
+     * Returns the model with the specified {@code _id}, loads it first
+     * if it is not cached.
+     *
+     * @param id the {@code _id}
+     * @return the model, or {@code null} if the loader found nothing
+     */
+    public @Nullable R get(ID id) {
+        var node = nodes.get(id);
+        if (node != null) {
+            hitCount.increment();
+            touch(node);
+            return node.model;
+        }
+        missCount.increment();
+        var loading = new CompletableFuture<@Nullable R>();
+        var existing = loadings.putIfAbsent(id, loading);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            node = nodes.get(id);
+            if (node != null) {
+                // loaded by another thread just now
+                loading.complete(node.model);
+                return node.model;
+            }
+            var model = load(id);
+            if (model != null) {
+                insert(id, model);
+            }
+            loading.complete(model);
+            return model;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadings.remove(id, loading);
+        }
+    }
+
+    private @Nullable R load(ID id) {
+        var start = System.nanoTime();
+        try {
+            var document = loader.apply(id);
+            var model = document == null ? null : factory.get().load(document);
+            loadSuccessCount.increment();
+            return model;
+        } catch (RuntimeException e) {
+            loadFailureCount.increment();
+            throw e;
+        } finally {
+            totalLoadTime.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Puts the specified model into this cache.
+     * <p>
+     * The model already cached with the same {@code _id} will be
+     * replaced without flushing.
+     *
+     * @param id    the {@code _id}
+     * @param model the model
+     */
+    public void put(ID id, R model) {
+        insert(id, model);
+    }
+
+    private void insert(ID id, R model) {
+        var node = new Node<>(id, model, weigher.applyAsInt(model));
+        lock.lock();
+        try {
+            drainReadBuffer();
+            var old = nodes.put(id, node);
+            if (old != null) {
+                unlink(old);
+            }
+            link(node);
+            sketch.increment(id);
+        } finally {
+            lock.unlock();
+        }
+        evictIfNeeded();
+    }
+
+    /**
+     * Flushes the model with the specified {@code _id} if it has any
+     * changes, and then removes it from this cache.
+     *
+     * @param id the {@code _id}
+     * @return {@code true} if the model was removed, {@code false} if
+     * it was not cached, it is being flushed by an eviction or the flush
+     * failed
+     */
+    public boolean invalidate(ID id) {
+        var node = nodes.get(id);
+        return node != null && invalidate(node);
+    }
+
+    private void touch(Node<ID, R> node) {
+        // lossy, the slot may be overwritten before it is drained
+        var index = readBufferWrites.getAndIncrement();
+        readBuffer.lazySet((int) (index & READ_BUFFER_MASK), node);
+        if ((index & READ_BUFFER_DRAIN_MASK) == READ_BUFFER_DRAIN_MASK && lock.tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // guarded by lock
+    private void drainReadBuffer() {
+        var end = readBufferWrites.get();
+        for (var index = Math.max(0, end - READ_BUFFER_SIZE); index < end; index++) {
+            var node = readBuffer.getAndSet((int) (index & READ_BUFFER_MASK), null);
+            if (node != null) {
+                sketch.increment(node.id);
+                if (nodes.get(node.id) == node && tail != node) {
+                    unlink(node);
+                    link(node);
+                }
+            }
+        }
+    }
+
+    private void link(Node<ID, R> node) {
+        var last = tail;
+        node.prev = last;
+        node.next = null;
+        if (last == null) {
+            head = node;
+        } else {
+            last.next = node;
+        }
+        tail = node;
+        weightedSize += node.weight;
+    }
+
+    private void unlink(Node<ID, R> node) {
+        var prev = node.prev;
+        var next = node.next;
+        if (prev == null) {
+            head = next;
+        } else {
+            prev.next = next;
+        }
+        if (next == null) {
+            tail = prev;
+        } else {
+            next.prev = prev;
+        }
+        node.prev = null;
+        node.next = null;
+        weightedSize -= node.weight;
+    }
+
+    private void evictIfNeeded() {
+        if (weightedSize <= maximumWeight) {
+            return;
+        }
+        evictionLock.lock();
+        try {
+            // the victims flushed in this pass, never selected again even
+            // if the flush failed immediately
+            var flushed = new ArrayList<Node<ID, R>>();
+            // the victims being flushed will be dropped asynchronously
+            while (weightedSize - flushingWeight.get() > maximumWeight) {
+                var victim = selectVictim(flushed);
+                if (victim == null) {
+                    break;
+                }
+                var model = victim.model;
+                List<Bson> updates;
+                synchronized (model) {
+                    if (!model.anyChanged()) {
+                        if (!remove(victim)) {
+                            break;
+                        }
+                        evictionCount.increment();
+                        continue;
+                    }
+                    updates = model.toUpdates();
+                    victim.flushing = true;
+                }
+                flushed.add(victim);
+                flushingWeight.addAndGet(victim.weight);
+                flushThenEvict(victim, updates);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private @Nullable Node<ID, R> selectVictim(List<Node<ID, R>> excluded) {
+        lock.lock();
+        try {
+            drainReadBuffer();
+            Node<ID, R> victim = null;
+            var minFrequency = Integer.MAX_VALUE;
+            // the most recently used one is never selected
+            var node = head;
+            for (var i = 0; i < SAMPLE_SIZE && node != null && node != tail; node = node.next) {
+                if (node.flushing || excluded.contains(node)) {
+                    continue;
+                }
+                var frequency = sketch.frequency(node.id);
+                if (frequency < minFrequency) {
+                    victim = node;
+                    minFrequency = frequency;
+                }
+                i++;
+            }
+            return victim;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushThenEvict(Node<ID, R> node, List<Bson> updates) {
+        CompletionStage<?> stage;
+        try {
+            stage = flusher.flush(node.id, updates);
+        } catch (RuntimeException e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+        stage.whenComplete((result, cause) -> {
+            var model = node.model;
+            synchronized (model) {
+                node.flushing = false;
+                flushingWeight.addAndGet(-node.weight);
+                if (cause != null) {
+                    flushFailureCount.increment();
+                    return;
+                }
+                flushCount.increment();
+                // changed again during the flush, kept for the next eviction
+                if (!toDocuments(updates).equals(toDocuments(model.toUpdates()))) {
+                    return;
+                }
+                model.reset();
+                if (remove(node)) {
+                    evictionCount.increment();
+                }
+            }
+        });
+    }
+
+    private static List<BsonDocument> toDocuments(List<Bson> updates) {
+        return updates.stream().map(Bson::toBsonDocument).toList();
+    }
+
+    private boolean invalidate(Node<ID, R> node) {
+        var model = node.model;
+        synchronized (model) {
+            if (node.flushing) {
+                return false;
+            }
+            if (model.anyChanged()) {
+                var updates = model.toUpdates();
+                try {
+                    flusher.flush(node.id, updates).toCompletableFuture().join();
+                } catch (RuntimeException e) {
+                    flushFailureCount.increment();
+                    return false;
+                }
+                flushCount.increment();
+                model.reset();
+            }
+            return remove(node);
+        }
+    }
+
+    private boolean remove(Node<ID, R> node) {
+        lock.lock();
+        try {
+            if (!nodes.remove(node.id, node)) {
+                return false;
+            }
+            unlink(node);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,8 @@
+/**
+ * In-memory stand-ins of MongoDB and in-memory storage of models for BSON
+ * model 3 core package.
+ */
+@NullMarked
+package com.github.fmjsjx.bson.model3.core.memory;
+
+import org.jspecify.annotations.NullMarked;
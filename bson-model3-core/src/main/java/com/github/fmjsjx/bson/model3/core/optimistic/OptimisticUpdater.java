@@ -0,0 +1,150 @@
+package com.github.fmjsjx.bson.model3.core.optimistic;
+
+import com.github.fmjsjx.bson.model3.core.RootModel;
+import com.mongodb.client.model.UpdateOneModel;
+import org.bson.BsonDocument;
+import org.jspecify.annotations.Nullable;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * An updater writes the changes of root models by the optimistic
+ * concurrency control.
+ * <p>
+ * The changes are written by the update models created by
+ * {@link RootModel#toVersionedUpdate()}, which only match the documents
+ * with the same versions as the models. If the update was not matched,
+ * the {@link ConflictResolver} is called to reload the model and reapply
+ * the changes, or to merge the changes, and then the update is retried,
+ * until the maximum number of attempts is reached.
+ * <p>
+ * For example, with the MongoDB synchronous driver:
+ * <pre>{@code
+ * var updater = new OptimisticUpdater<Player>(
+ *         update -> collection.bulkWrite(List.of(update)).getMatchedCount(),
+ *         OptimisticUpdater.reloadAndRetry(
+ *                 player -> collection.find(Filters.eq(player.getId())).first(),
+ *                 player -> player.getLogin().increaseCount()),
+ *         3);
+ * }</pre>
+ *
+ * @param <R> the type of root models
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class OptimisticUpdater<R extends RootModel<R>> {
+
+    /**
+     * The writer executes the versioned update models.
+     */
+    @FunctionalInterface
+    public interface Writer {
+
+        /**
+         * Executes the specified update model.
+         *
+         * @param update the update model
+         * @return the number of the matched documents
+         */
+        long write(UpdateOneModel<BsonDocument> update);
+
+    }
+
+    /**
+     * The resolver of the version conflicts.
+     *
+     * @param <R> the type of root models
+     */
+    @FunctionalInterface
+    public interface ConflictResolver<R> {
+
+        /**
+         * Resolves the version conflict of the specified model, returns
+         * the model with the latest version and the changes to be
+         * retried.
+         *
+         * @param model   the model whose update was not matched
+         * @param attempt the number of the failed attempts
+         * @return the model to be retried, or {@code null} to give up
+         */
+        @Nullable R resolve(R model, int attempt);
+
+    }
+
+    /**
+     * Returns a {@link ConflictResolver} reloads the model from the
+     * latest document and then reapplies the changes.
+     *
+     * @param finder  the function finds the latest document of the model
+     * @param changes the action applies the changes to the model
+     * @param <R>     the type of root models
+     * @return a {@code ConflictResolver}
+     */
+    public static <R extends RootModel<R>> ConflictResolver<R> reloadAndRetry(
+            Function<? super R, ? extends @Nullable BsonDocument> finder, Consumer<? super R> changes) {
+        return (model, attempt) -> {
+            var document = finder.apply(model);
+            if (document == null) {
+                // the document was deleted
+                return null;
+            }
+            model.load(document);
+            changes.accept(model);
+            return model;
+        };
+    }
+
+    private final Writer writer;
+    private final ConflictResolver<R> resolver;
+    private final int maxAttempts;
+
+    /**
+     * Constructs a new {@link OptimisticUpdater} with the specified
+     * writer, resolver and the maximum number of attempts.
+     *
+     * @param writer      the writer
+     * @param resolver    the resolver of the version conflicts
+     * @param maxAttempts the maximum number of attempts
+     */
+    public OptimisticUpdater(Writer writer, ConflictResolver<R> resolver, int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts expected >= 1 but was " + maxAttempts);
+        }
+        this.writer = writer;
+        this.resolver = resolver;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Writes the changes of the specified model.
+     * <p>
+     * The returned model, which may be a different instance given by
+     * the resolver, has the increased version and the reset states.
+     *
+     * @param model the model
+     * @return the updated model
+     * @throws VersionConflictException if the conflict can't be resolved
+     */
+    public R update(R model) {
+        var current = model;
+        for (var attempt = 1; ; attempt++) {
+            var update = current.toVersionedUpdate();
+            if (update == null) {
+                return current;
+            }
+            if (writer.write(update) > 0) {
+                return current.versionUpdated();
+            }
+            if (attempt >= maxAttempts) {
+                throw new VersionConflictException(attempt);
+            }
+            var resolved = resolver.resolve(current, attempt);
+            if (resolved == null) {
+                throw new VersionConflictException(attempt);
+            }
+            current = resolved;
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.github.fmjsjx.bson.model3.core.optimistic;
+
+import java.io.Serial;
+
+/**
+ * Thrown to indicate that the versioned update of a root model was not
+ * matched, because the document was concurrently updated by others, and
+ * the conflict can't be resolved.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class VersionConflictException extends IllegalStateException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int attempts;
+
+    /**
+     * Constructs a new {@link VersionConflictException}.
+     *
+     * @param attempts the number of the attempts
+     */
+    public VersionConflictException(int attempts) {
+        super("Version conflict after " + attempts + " attempt(s)");
+        this.attempts = attempts;
+    }
+
+    /**
+     * Returns the number of the attempts.
+     *
+     * @return the number of the attempts
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+}
@@ -0,0 +1,8 @@
+/**
+ * Optimistic concurrency control of root models for BSON model 3 core
+ * package.
+ */
+@NullMarked
+package com.github.fmjsjx.bson.model3.core.optimistic;
+
+import org.jspecify.annotations.NullMarked;
@@ -0,0 +1,51 @@
+package com.github.fmjsjx.bson.model3.core.snapshot;
+
+import java.io.Serial;
+
+/**
+ * Thrown to indicate that a change set can't be applied because one or
+ * more change sets before it were missed, the follower model should be
+ * resynchronized by a full change set.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class ChangeSetGapException extends IllegalStateException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long expectedSequence;
+    private final long actualSequence;
+
+    /**
+     * Constructs a new {@link ChangeSetGapException}.
+     *
+     * @param expectedSequence the expected sequence number
+     * @param actualSequence   the sequence number of the change set
+     */
+    public ChangeSetGapException(long expectedSequence, long actualSequence) {
+        super("Change set gap: expected sequence " + expectedSequence + " but was " + actualSequence);
+        this.expectedSequence = expectedSequence;
+        this.actualSequence = actualSequence;
+    }
+
+    /**
+     * Returns the expected sequence number.
+     *
+     * @return the expected sequence number
+     */
+    public long getExpectedSequence() {
+        return expectedSequence;
+    }
+
+    /**
+     * Returns the sequence number of the change set.
+     *
+     * @return the sequence number of the change set
+     */
+    public long getActualSequence() {
+        return actualSequence;
+    }
+
+}
@@ -0,0 +1,557 @@
+package com.github.fmjsjx.bson.model3.core.snapshot;
+
+import com.github.fmjsjx.bson.model3.core.RootModel;
+import org.bson.*;
+import org.bson.types.ObjectId;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+/**
+ * A local store of the compact binary snapshots of root models, in
+ * segment files accessed via {@link FileChannel#map}.
+ * <p>
+ * The records are appended to the segments, the later record with the
+ * same {@code _id} supersedes the earlier ones. Each record is a
+ * little-endian header followed by the {@code _id} and the snapshot:
+ * <pre>
+ * +---------------+--------+---------+-----------+-----+----------+
+ * | record length | CRC32C | version | id length | id  | snapshot |
+ * | 4bytes        | 4bytes | 8bytes  | 4bytes    | ... | ...      |
+ * +---------------+--------+---------+-----------+-----+----------+
+ * </pre>
+ * The checksum covers all bytes after itself. The {@code _id} is
+ * encoded as the {@link BsonType} value followed by the value, only
+ * {@code int32}, {@code int64}, {@code string} and {@code objectId} are
+ * supported. A record without the snapshot is a tombstone of a removed
+ * model.
+ * <p>
+ * The index by {@code _id} is rebuilt by scanning the segments when the
+ * store is opened, the scanning of a segment stops at the first record
+ * that is incomplete or fails the checksum.
+ * <p>
+ * Each time the records roll over to a new segment, the older segments
+ * with no more than half of their records live are compacted: the live
+ * records are copied to the current segment, then the segment file is
+ * deleted. The tombstones are only copied while there are still older
+ * segments, which may contain the records they supersede.
+ * <p>
+ * The version of a record is typically the value of an increment field
+ * of the model, such as {@code updatedVersion}, so that the stale
+ * snapshots can be detected and be reloaded from MongoDB.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author MJ Fang
+ * @see RootModel#toSnapshot()
+ * @since 3.0
+ */
+public class MappedSnapshotStore implements Closeable {
+
+    /**
+     * The magic number of segment files, {@code "BM3M"}.
+     */
+    public static final int SEGMENT_MAGIC = 0x4D334D42;
+
+    /**
+     * The size of the segment file header.
+     */
+    public static final int SEGMENT_HEADER_SIZE = 8;
+
+    /**
+     * The size of the record header.
+     */
+    public static final int RECORD_HEADER_SIZE = 20;
+
+    /**
+     * The default size of segment files, 64 MiB.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private record Location(int segment, int offset, int length, long version) {
+    }
+
+    private static final class Segment {
+
+        private final int id;
+        private final MappedByteBuffer buffer;
+        // guarded by the store
+        private int limit = SEGMENT_HEADER_SIZE;
+        private long liveBytes;
+
+        private Segment(int id, MappedByteBuffer buffer) {
+            this.id = id;
+            this.buffer = buffer;
+        }
+
+    }
+
+    /**
+     * Opens the store in the specified directory with the default
+     * segment size.
+     *
+     * @param directory the directory
+     * @return the store
+     * @throws IOException if any I/O error occurs
+     */
+    public static MappedSnapshotStore open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens the store in the specified directory with the specified
+     * segment size.
+     * <p>
+     * The segment size only applies to the new segments.
+     *
+     * @param directory   the directory
+     * @param segmentSize the size of segment files
+     * @return the store
+     * @throws IOException if any I/O error occurs
+     */
+    public static MappedSnapshotStore open(Path directory, int segmentSize) throws IOException {
+        if (segmentSize <= SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize too small: " + segmentSize);
+        }
+        Files.createDirectories(directory);
+        var store = new MappedSnapshotStore(directory, segmentSize);
+        store.recover();
+        return store;
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentMap<BsonValue, Location> index = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    // guarded by this
+    private @Nullable Segment active;
+    private int nextSegmentId;
+    private boolean closed;
+
+    private MappedSnapshotStore(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    private Path segmentPath(int segment) {
+        return directory.resolve(SEGMENT_PREFIX + "%08d".formatted(segment) + SEGMENT_SUFFIX);
+    }
+
+    private static MappedByteBuffer map(Path path, int size) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    private synchronized void recover() throws IOException {
+        var ids = new ArrayList<Integer>();
+        try (var paths = Files.list(directory)) {
+            for (var path : (Iterable<Path>) paths::iterator) {
+                var name = path.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        ids.add(Integer.parseInt(name, SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length(), 10));
+                    } catch (NumberFormatException e) {
+                        // not a segment file
+                    }
+                }
+            }
+        }
+        // the later segments supersede the earlier ones
+        ids.sort(null);
+        for (var id : ids) {
+            var buffer = map(segmentPath(id), 0);
+            if (buffer.capacity() < SEGMENT_HEADER_SIZE || buffer.getInt(0) != SEGMENT_MAGIC
+                    || buffer.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Invalid segment file " + segmentPath(id));
+            }
+            var segment = new Segment(id, buffer);
+            segments.put(id, segment);
+            segment.limit = scan(segment);
+            active = segment;
+            nextSegmentId = id + 1;
+        }
+        if (segments.isEmpty()) {
+            newSegment();
+        }
+    }
+
+    private int scan(Segment segment) {
+        var buffer = segment.buffer;
+        var offset = SEGMENT_HEADER_SIZE;
+        var capacity = buffer.capacity();
+        while (offset + RECORD_HEADER_SIZE <= capacity) {
+            var length = buffer.getInt(offset);
+            if (length < RECORD_HEADER_SIZE || length > capacity - offset) {
+                break;
+            }
+            var idLength = buffer.getInt(offset + 16);
+            if (idLength < 0 || idLength > length - RECORD_HEADER_SIZE
+                    || buffer.getInt(offset + 4) != checksum(buffer, offset, length)) {
+                break;
+            }
+            var id = decodeId(buffer.slice(offset + RECORD_HEADER_SIZE, idLength));
+            if (length == RECORD_HEADER_SIZE + idLength) {
+                updateIndex(id, null);
+            } else {
+                updateIndex(id, new Location(segment.id, offset, length, buffer.getLong(offset + 8)));
+            }
+            offset += length;
+        }
+        return offset;
+    }
+
+    // guarded by this
+    private void updateIndex(BsonValue id, @Nullable Location location) {
+        var old = location == null ? index.remove(id) : index.put(id, location);
+        if (old != null) {
+            var segment = segments.get(old.segment());
+            if (segment != null) {
+                segment.liveBytes -= old.length();
+            }
+        }
+        if (location != null) {
+            segments.get(location.segment()).liveBytes += location.length();
+        }
+    }
+
+    private Segment newSegment() throws IOException {
+        var id = nextSegmentId++;
+        var buffer = map(segmentPath(id), segmentSize);
+        buffer.putInt(0, SEGMENT_MAGIC).putInt(4, FORMAT_VERSION);
+        var segment = new Segment(id, buffer);
+        segments.put(id, segment);
+        active = segment;
+        return segment;
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        var crc = new CRC32C();
+        crc.update(buffer.slice(offset + 8, length - 8));
+        return (int) crc.getValue();
+    }
+
+    private static byte[] encodeId(BsonValue id) {
+        var type = id.getBsonType();
+        var buffer = switch (type) {
+            case INT32 -> ByteBuffer.allocate(5).order(ByteOrder.LITTLE_ENDIAN).put((byte) type.getValue())
+                    .putInt(id.asInt32().getValue());
+            case INT64 -> ByteBuffer.allocate(9).order(ByteOrder.LITTLE_ENDIAN).put((byte) type.getValue())
+                    .putLong(id.asInt64().getValue());
+            case STRING -> {
+                var bytes = id.asString().getValue().getBytes(StandardCharsets.UTF_8);
+                yield ByteBuffer.allocate(1 + bytes.length).put((byte) type.getValue()).put(bytes);
+            }
+            case OBJECT_ID -> ByteBuffer.allocate(13).put((byte) type.getValue())
+                    .put(id.asObjectId().getValue().toByteArray());
+            default -> throw new IllegalArgumentException("Unsupported _id type " + type);
+        };
+        return buffer.array();
+    }
+
+    private static BsonValue decodeId(ByteBuffer buffer) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        var type = BsonType.findByValue(buffer.get());
+        return switch (type) {
+            case INT32 -> new BsonInt32(buffer.getInt());
+            case INT64 -> new BsonInt64(buffer.getLong());
+            case STRING -> new BsonString(StandardCharsets.UTF_8.decode(buffer).toString());
+            case OBJECT_ID -> {
+                var bytes = new byte[12];
+                buffer.get(bytes);
+                yield new BsonObjectId(new ObjectId(bytes));
+            }
+            case null, default -> throw new IllegalArgumentException("Unsupported _id type " + type);
+        };
+    }
+
+    /**
+     * Returns the number of the models in this store.
+     *
+     * @return the number of the models in this store
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the number of the segments of this store.
+     *
+     * @return the number of the segments
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Writes the snapshot of the specified model with the specified
+     * {@code _id} and version.
+     *
+     * @param id      the {@code _id}
+     * @param version the version of the model
+     * @param model   the model
+     * @throws IllegalArgumentException if the model has any changes or
+     *                                  the record is larger than the
+     *                                  segment size
+     * @throws IOException              if any I/O error occurs
+     */
+    public void put(BsonValue id, long version, RootModel<?> model) throws IOException {
+        if (model.anyChanged()) {
+            throw new IllegalArgumentException("Only the models without any changes can be stored");
+        }
+        append(id, version, model.toSnapshot());
+    }
+
+    /**
+     * Writes a tombstone of the model with the specified {@code _id}.
+     *
+     * @param id the {@code _id}
+     * @return {@code true} if the model was in this store, {@code false}
+     * otherwise
+     * @throws IOException if any I/O error occurs
+     */
+    public boolean remove(BsonValue id) throws IOException {
+        if (!index.containsKey(id)) {
+            return false;
+        }
+        append(id, 0, new byte[0]);
+        return true;
+    }
+
+    private synchronized void append(BsonValue id, long version, byte[] snapshot) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Store already closed");
+        }
+        var idBytes = encodeId(id);
+        var length = RECORD_HEADER_SIZE + idBytes.length + snapshot.length;
+        if (length > segmentSize - SEGMENT_HEADER_SIZE) {
+            throw new IllegalArgumentException("Record size " + length + " exceeds the segment size " + segmentSize);
+        }
+        var segment = activeSegment(length);
+        if (segment == null) {
+            segment = newSegment();
+            compact();
+            segment = activeSegment(length);
+            if (segment == null) {
+                segment = newSegment();
+            }
+        }
+        var buffer = segment.buffer;
+        var offset = segment.limit;
+        buffer.putLong(offset + 8, version).putInt(offset + 16, idBytes.length)
+                .put(offset + RECORD_HEADER_SIZE, idBytes)
+                .put(offset + RECORD_HEADER_SIZE + idBytes.length, snapshot);
+        buffer.putInt(offset + 4, checksum(buffer, offset, length));
+        // the length is written at last, so an incomplete record is never scanned
+        buffer.putInt(offset, length);
+        segment.limit = offset + length;
+        updateIndex(id, snapshot.length == 0 ? null : new Location(segment.id, offset, length, version));
+    }
+
+    // guarded by this, returns null if the active segment has not enough space
+    private @Nullable Segment activeSegment(int length) {
+        var segment = active;
+        return segment != null && length <= segment.buffer.capacity() - segment.limit ? segment : null;
+    }
+
+    private Segment copy(Segment from, int offset, int length) throws IOException {
+        var segment = activeSegment(length);
+        if (segment == null) {
+            segment = newSegment();
+        }
+        var buffer = segment.buffer;
+        var position = segment.limit;
+        // the checksum does not cover the location, so the record is copied as is
+        buffer.put(position + 4, from.buffer, offset + 4, length - 4);
+        buffer.putInt(position, length);
+        segment.limit = position + length;
+        return segment;
+    }
+
+    /**
+     * Compacts the older segments with no more than half of their
+     * records live.
+     * <p>
+     * The live records are copied to the current segment, then the
+     * compacted segment files are deleted.
+     *
+     * @return the number of the deleted segments
+     * @throws IOException if any I/O error occurs
+     */
+    public synchronized int compact() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Store already closed");
+        }
+        var candidates = new ArrayList<Segment>();
+        for (var segment : segments.values()) {
+            if (segment != active && segment.liveBytes * 2 <= segment.limit - SEGMENT_HEADER_SIZE) {
+                candidates.add(segment);
+            }
+        }
+        for (var segment : candidates) {
+            compact(segment);
+        }
+        return candidates.size();
+    }
+
+    private void compact(Segment segment) throws IOException {
+        var buffer = segment.buffer;
+        // the tombstones may supersede the records in the older segments
+        var keepTombstones = segments.firstKey() < segment.id;
+        for (var offset = SEGMENT_HEADER_SIZE; offset < segment.limit; ) {
+            var length = buffer.getInt(offset);
+            var idLength = buffer.getInt(offset + 16);
+            var id = decodeId(buffer.slice(offset + RECORD_HEADER_SIZE, idLength));
+            var location = index.get(id);
+            if (length == RECORD_HEADER_SIZE + idLength) {
+                if (keepTombstones && location == null) {
+                    copy(segment, offset, length);
+                }
+            } else if (location != null && location.segment() == segment.id && location.offset() == offset) {
+                var target = copy(segment, offset, length);
+                updateIndex(id, new Location(target.id, target.limit - length, length, location.version()));
+            }
+            offset += length;
+        }
+        // the copies must be durable before the segment file is deleted
+        for (var target : segments.tailMap(segment.id, false).values()) {
+            target.buffer.force();
+        }
+        segments.remove(segment.id);
+        Files.deleteIfExists(segmentPath(segment.id));
+    }
+
+    /**
+     * Returns the version of the model with the specified {@code _id}.
+     *
+     * @param id the {@code _id}
+     * @return an {@code OptionalLong} contains the version, or empty if
+     * the model is not in this store
+     */
+    public OptionalLong version(BsonValue id) {
+        var location = index.get(id);
+        return location == null ? OptionalLong.empty() : OptionalLong.of(location.version());
+    }
+
+    /**
+     * Loads the model with the specified {@code _id} into a new model
+     * created by the specified factory.
+     *
+     * @param <R>     the type of the model
+     * @param id      the {@code _id}
+     * @param factory the factory creating the model
+     * @return the model, or {@code null} if the model is not in this
+     * store, the record fails the checksum or the snapshot is stale
+     */
+    public <R extends RootModel<R>> @Nullable R load(BsonValue id, Supplier<R> factory) {
+        var location = index.get(id);
+        return location == null ? null : load(id, location, factory);
+    }
+
+    /**
+     * Loads the model with the specified {@code _id} into a new model
+     * created by the specified factory, only if it has the specified
+     * version.
+     *
+     * @param <R>     the type of the model
+     * @param id      the {@code _id}
+     * @param version the expected version
+     * @param factory the factory creating the model
+     * @return the model, or {@code null} if the model is not in this
+     * store with the specified version, the record fails the checksum or
+     * the snapshot is stale
+     */
+    public <R extends RootModel<R>> @Nullable R load(BsonValue id, long version, Supplier<R> factory) {
+        var location = index.get(id);
+        return location == null || location.version() != version ? null : load(id, location, factory);
+    }
+
+    private <R extends RootModel<R>> @Nullable R load(BsonValue id, Location location, Supplier<R> factory) {
+        var segment = segments.get(location.segment());
+        if (segment == null) {
+            // moved by a compaction just now, or removed by clear()
+            var moved = index.get(id);
+            if (moved == null || moved.version() != location.version()
+                    || (segment = segments.get(moved.segment())) == null) {
+                return null;
+            }
+            location = moved;
+        }
+        // the mapping of a deleted segment file is still readable
+        var buffer = segment.buffer;
+        var offset = location.offset();
+        var length = location.length();
+        if (buffer.getInt(offset + 4) != checksum(buffer, offset, length)) {
+            return null;
+        }
+        var snapshotOffset = offset + RECORD_HEADER_SIZE + buffer.getInt(offset + 16);
+        try {
+            return factory.get().readFrom(buffer.slice(snapshotOffset, offset + length - snapshotOffset));
+        } catch (StaleSnapshotException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Forces the written records to the storage device.
+     */
+    public synchronized void force() {
+        for (var segment : segments.values()) {
+            segment.buffer.force();
+        }
+    }
+
+    /**
+     * Removes all models and deletes all segment files of this store.
+     *
+     * @throws IOException if any I/O error occurs
+     */
+    public synchronized void clear() throws IOException {
+        index.clear();
+        var ids = new ArrayList<>(segments.keySet());
+        segments.clear();
+        active = null;
+        // the ids are never reused, so the stale locations never match
+        for (var id : ids) {
+            Files.deleteIfExists(segmentPath(id));
+        }
+        newSegment();
+    }
+
+    /**
+     * Forces the written records to the storage device and closes this
+     * store.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            force();
+        }
+    }
+
+}
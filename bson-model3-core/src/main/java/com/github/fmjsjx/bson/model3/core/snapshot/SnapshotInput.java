@@ -0,0 +1,381 @@
+package com.github.fmjsjx.bson.model3.core.snapshot;
+
+import com.github.fmjsjx.libcommon.util.DateTimeUtil;
+import org.bson.types.ObjectId;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Reads the compact binary snapshots written by
+ * {@link SnapshotOutput}s.
+ *
+ * @author MJ Fang
+ * @see SnapshotOutput
+ * @since 3.0
+ */
+public final class SnapshotInput {
+
+    /**
+     * Reads the header of the snapshot at the current position of the
+     * specified {@link ByteBuffer}, and returns a new
+     * {@link SnapshotInput} reads the body of the snapshot.
+     * <p>
+     * The position of the buffer will be advanced to the end of the
+     * snapshot.
+     *
+     * @param src         the {@code ByteBuffer}
+     * @param fingerprint the expected schema fingerprint
+     * @return a new {@code SnapshotInput}
+     * @throws IllegalArgumentException if the bytes are not a snapshot
+     * @throws StaleSnapshotException   if the schema fingerprint of the
+     *                                  snapshot does not match
+     */
+    public static SnapshotInput beginSnapshot(ByteBuffer src, long fingerprint) {
+        return begin(src, Snapshots.MAGIC, fingerprint, "snapshot");
+    }
+
+    /**
+     * Reads the header of the change set at the current position of the
+     * specified {@link ByteBuffer}, and returns a new
+     * {@link SnapshotInput} reads the body of the change set.
+     * <p>
+     * The position of the buffer will be advanced to the end of the
+     * change set.
+     *
+     * @param src         the {@code ByteBuffer}
+     * @param fingerprint the expected schema fingerprint
+     * @return a new {@code SnapshotInput}
+     * @throws IllegalArgumentException if the bytes are not a change set
+     * @throws StaleSnapshotException   if the schema fingerprint of the
+     *                                  change set does not match
+     */
+    public static SnapshotInput beginChangeSet(ByteBuffer src, long fingerprint) {
+        return begin(src, Snapshots.CHANGE_SET_MAGIC, fingerprint, "change set");
+    }
+
+    private static SnapshotInput begin(ByteBuffer src, int expectedMagic, long fingerprint, String kind) {
+        if (src.remaining() < Snapshots.HEADER_SIZE) {
+            throw new IllegalArgumentException("Not a " + kind + ": insufficient header bytes " + src.remaining());
+        }
+        var header = new byte[Snapshots.HEADER_SIZE];
+        src.get(header);
+        var length = checkHeader(header, expectedMagic, fingerprint, kind);
+        if (src.remaining() < length) {
+            throw new IllegalArgumentException("Truncated " + kind + ": expected " + length + " bytes but only " + src.remaining() + " remaining");
+        }
+        if (src.hasArray()) {
+            var offset = src.arrayOffset() + src.position();
+            src.position(src.position() + length);
+            return new SnapshotInput(src.array(), offset, offset + length);
+        }
+        var body = new byte[length];
+        src.get(body);
+        return new SnapshotInput(body, 0, length);
+    }
+
+    /**
+     * Reads the snapshot from the specified {@link InputStream}, and
+     * returns a new {@link SnapshotInput} reads the body of the
+     * snapshot.
+     * <p>
+     * Exactly one snapshot will be consumed from the stream.
+     *
+     * @param in          the {@code InputStream}
+     * @param fingerprint the expected schema fingerprint
+     * @return a new {@code SnapshotInput}
+     * @throws IOException              if any I/O error occurs
+     * @throws IllegalArgumentException if the bytes are not a snapshot
+     * @throws StaleSnapshotException   if the schema fingerprint of the
+     *                                  snapshot does not match
+     */
+    public static SnapshotInput beginSnapshot(InputStream in, long fingerprint) throws IOException {
+        var header = in.readNBytes(Snapshots.HEADER_SIZE);
+        if (header.length < Snapshots.HEADER_SIZE) {
+            throw new EOFException("Unexpected end of stream while reading snapshot header");
+        }
+        var length = checkHeader(header, Snapshots.MAGIC, fingerprint, "snapshot");
+        var body = in.readNBytes(length);
+        if (body.length < length) {
+            throw new EOFException("Unexpected end of stream while reading snapshot body");
+        }
+        return new SnapshotInput(body, 0, length);
+    }
+
+    private static int checkHeader(byte[] header, int expectedMagic, long fingerprint, String kind) {
+        var magic = getFixedInt(header, 0);
+        if (magic != expectedMagic) {
+            throw new IllegalArgumentException("Not a " + kind + ": unexpected magic 0x" + Integer.toHexString(magic));
+        }
+        var actual = (getFixedInt(header, 4) & 0xFFFFFFFFL) | ((long) getFixedInt(header, 8) << 32);
+        if (actual != fingerprint) {
+            throw new StaleSnapshotException(fingerprint, actual);
+        }
+        var length = getFixedInt(header, 12);
+        if (length < 0) {
+            throw new IllegalArgumentException("Not a " + kind + ": illegal length " + length);
+        }
+        return length;
+    }
+
+    private static int getFixedInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8) | ((bytes[offset + 2] & 0xFF) << 16)
+                | ((bytes[offset + 3] & 0xFF) << 24);
+    }
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+
+    /**
+     * Constructs a new {@link SnapshotInput} reads the specified range of
+     * the specified bytes.
+     *
+     * @param buffer   the bytes
+     * @param position the start position, inclusive
+     * @param limit    the end position, exclusive
+     */
+    public SnapshotInput(byte[] buffer, int position, int limit) {
+        Objects.checkFromToIndex(position, limit, buffer.length);
+        this.buffer = buffer;
+        this.position = position;
+        this.limit = limit;
+    }
+
+    private void ensureRemaining(int length) {
+        if (limit - position < length) {
+            throw new IllegalStateException("Unexpected end of snapshot");
+        }
+    }
+
+    private int readFixedInt() {
+        ensureRemaining(Integer.BYTES);
+        var value = getFixedInt(buffer, position);
+        position += Integer.BYTES;
+        return value;
+    }
+
+    private long readFixedLong() {
+        return (readFixedInt() & 0xFFFFFFFFL) | ((long) readFixedInt() << 32);
+    }
+
+    /**
+     * Reads the next unsigned varint.
+     *
+     * @return the value
+     */
+    public int readVarInt() {
+        var buffer = this.buffer;
+        var limit = this.limit;
+        var position = this.position;
+        var value = 0;
+        for (var shift = 0; shift < 32; shift += 7) {
+            if (position >= limit) {
+                throw new IllegalStateException("Unexpected end of snapshot");
+            }
+            var b = buffer[position++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                this.position = position;
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    /**
+     * Reads the next unsigned varint.
+     *
+     * @return the value
+     */
+    public long readVarLong() {
+        var buffer = this.buffer;
+        var limit = this.limit;
+        var position = this.position;
+        var value = 0L;
+        for (var shift = 0; shift < 64; shift += 7) {
+            if (position >= limit) {
+                throw new IllegalStateException("Unexpected end of snapshot");
+            }
+            var b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                this.position = position;
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    /**
+     * Reads the next field index.
+     *
+     * @return the field index, or {@code -1} at the end of the object
+     */
+    public int nextFieldIndex() {
+        return readVarInt() - 1;
+    }
+
+    /**
+     * Reads the next size of a map or a list.
+     *
+     * @return the size
+     */
+    public int readSize() {
+        return readVarInt();
+    }
+
+    /**
+     * Reads the next {@code boolean} value.
+     *
+     * @return the value
+     */
+    public boolean readBoolean() {
+        ensureRemaining(1);
+        return buffer[position++] != 0;
+    }
+
+    /**
+     * Reads the next {@code int} value.
+     *
+     * @return the value
+     */
+    public int readInt() {
+        var value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads the next {@code long} value.
+     *
+     * @return the value
+     */
+    public long readLong() {
+        var value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads the next {@code double} value.
+     *
+     * @return the value
+     */
+    public double readDouble() {
+        return Double.longBitsToDouble(readFixedLong());
+    }
+
+    /**
+     * Reads the next {@link BigDecimal} value.
+     *
+     * @return the value
+     */
+    public BigDecimal readNumber() {
+        var scale = readInt();
+        return new BigDecimal(new BigInteger(readBytes()), scale);
+    }
+
+    /**
+     * Reads the next length prefixed bytes.
+     *
+     * @return the bytes
+     */
+    public byte[] readBytes() {
+        var length = readVarInt();
+        ensureRemaining(length);
+        var bytes = Arrays.copyOfRange(buffer, position, position + length);
+        position += length;
+        return bytes;
+    }
+
+    /**
+     * Reads the next {@link String} value.
+     *
+     * @return the value
+     */
+    public String readString() {
+        var length = readVarInt();
+        ensureRemaining(length);
+        var value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Reads the next {@link LocalDate} value.
+     *
+     * @return the value
+     */
+    public LocalDate readDate() {
+        return DateTimeUtil.toDate(readInt());
+    }
+
+    /**
+     * Reads the next {@link LocalTime} value.
+     *
+     * @return the value
+     */
+    public LocalTime readTime() {
+        return DateTimeUtil.toTime(readInt());
+    }
+
+    /**
+     * Reads the next {@link LocalDateTime} value.
+     *
+     * @return the value
+     */
+    public LocalDateTime readDateTime() {
+        return DateTimeUtil.ofEpochMilli(readLong());
+    }
+
+    /**
+     * Reads the next {@link ObjectId} value.
+     *
+     * @return the value
+     */
+    public ObjectId readObjectId() {
+        ensureRemaining(12);
+        var value = new ObjectId(ByteBuffer.wrap(buffer, position, 12));
+        position += 12;
+        return value;
+    }
+
+    /**
+     * Reads the next {@link UUID} value.
+     *
+     * @return the value
+     */
+    public UUID readUuid() {
+        return new UUID(readFixedLong(), readFixedLong());
+    }
+
+    /**
+     * Reads the next {@link List} with the specified element reader.
+     *
+     * @param <E>           the type of the elements
+     * @param elementReader the function reads each element
+     * @return the {@code List}
+     */
+    public <E> List<E> readList(Function<? super SnapshotInput, ? extends E> elementReader) {
+        var size = readSize();
+        var list = new ArrayList<E>(size);
+        for (var i = 0; i < size; i++) {
+            list.add(elementReader.apply(this));
+        }
+        return list;
+    }
+
+}
@@ -0,0 +1,408 @@
+package com.github.fmjsjx.bson.model3.core.snapshot;
+
+import com.github.fmjsjx.libcommon.util.DateTimeUtil;
+import org.bson.types.ObjectId;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * A growable byte buffer that BSON models write their compact binary
+ * snapshots to.
+ * <p>
+ * The encoding is:
+ * <ul>
+ * <li>{@code int}s and {@code long}s are ZigZag encoded varints</li>
+ * <li>sizes and field indexes are unsigned varints</li>
+ * <li>{@code double}s are 8 bytes little-endian</li>
+ * <li>{@link String}s are varint length prefixed UTF-8 bytes</li>
+ * <li>{@link LocalDateTime}s are epoch millis, {@link LocalDate}s and
+ * {@link LocalTime}s are the numbers of {@link DateTimeUtil}</li>
+ * <li>object models are sequences of {@code (field index + 1, value)}
+ * ended with {@code 0}, absent fields are not written</li>
+ * </ul>
+ *
+ * @author MJ Fang
+ * @see SnapshotInput
+ * @since 3.0
+ */
+public final class SnapshotOutput {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 256;
+
+    private byte[] buffer;
+    private int size;
+
+    /**
+     * Constructs a new {@link SnapshotOutput} with the default initial
+     * capacity.
+     */
+    public SnapshotOutput() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new {@link SnapshotOutput} with the specified initial
+     * capacity.
+     *
+     * @param initialCapacity the initial capacity
+     */
+    public SnapshotOutput(int initialCapacity) {
+        buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, minCapacity));
+        }
+    }
+
+    /**
+     * Returns the number of bytes written.
+     *
+     * @return the number of bytes written
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Writes the header of a snapshot with the specified schema
+     * fingerprint.
+     * <p>
+     * The length of the snapshot body is reserved and will be filled by
+     * {@link #endSnapshot()}.
+     *
+     * @param fingerprint the schema fingerprint
+     * @return this output
+     */
+    public SnapshotOutput beginSnapshot(long fingerprint) {
+        return begin(Snapshots.MAGIC, fingerprint);
+    }
+
+    /**
+     * Writes the header of a change set with the specified schema
+     * fingerprint.
+     * <p>
+     * The length of the change set body is reserved and will be filled
+     * by {@link #endSnapshot()}.
+     *
+     * @param fingerprint the schema fingerprint
+     * @return this output
+     */
+    public SnapshotOutput beginChangeSet(long fingerprint) {
+        return begin(Snapshots.CHANGE_SET_MAGIC, fingerprint);
+    }
+
+    private SnapshotOutput begin(int magic, long fingerprint) {
+        writeFixedInt(magic);
+        writeFixedLong(fingerprint);
+        writeFixedInt(0);
+        return this;
+    }
+
+    /**
+     * Fills the length of the snapshot body into the header written by
+     * {@link #beginSnapshot(long)} or {@link #beginChangeSet(long)}.
+     *
+     * @return this output
+     */
+    public SnapshotOutput endSnapshot() {
+        var length = size - Snapshots.HEADER_SIZE;
+        var position = size;
+        size = Snapshots.HEADER_SIZE - Integer.BYTES;
+        writeFixedInt(length);
+        size = position;
+        return this;
+    }
+
+    private void writeFixedInt(int value) {
+        ensureCapacity(size + Integer.BYTES);
+        var buffer = this.buffer;
+        var size = this.size;
+        buffer[size] = (byte) value;
+        buffer[size + 1] = (byte) (value >>> 8);
+        buffer[size + 2] = (byte) (value >>> 16);
+        buffer[size + 3] = (byte) (value >>> 24);
+        this.size = size + Integer.BYTES;
+    }
+
+    private void writeFixedLong(long value) {
+        writeFixedInt((int) value);
+        writeFixedInt((int) (value >>> 32));
+    }
+
+    /**
+     * Writes the specified unsigned varint.
+     *
+     * @param value the value
+     * @return this output
+     */
+    public SnapshotOutput writeVarInt(int value) {
+        ensureCapacity(size + 5);
+        var buffer = this.buffer;
+        var size = this.size;
+        while ((value & ~0x7F) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+        this.size = size;
+        return this;
+    }
+
+    /**
+     * Writes the specified unsigned varint.
+     *
+     * @param value the value
+     * @return this output
+     */
+    public SnapshotOutput writeVarLong(long value) {
+        ensureCapacity(size + 10);
+        var buffer = this.buffer;
+        var size = this.size;
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+        this.size = size;
+        return this;
+    }
+
+    /**
+     * Writes the specified field index.
+     *
+     * @param index the field index
+     * @return this output
+     */
+    public SnapshotOutput writeFieldIndex(int index) {
+        return writeVarInt(index + 1);
+    }
+
+    /**
+     * Writes the end of an object.
+     *
+     * @return this output
+     */
+    public SnapshotOutput writeEndObject() {
+        return writeVarInt(0);
+    }
+
+    /**
+     * Writes the specified size of a map or a list.
+     *
+     * @param size the size
+     * @return this output
+     */
+    public SnapshotOutput writeSize(int size) {
+        return writeVarInt(size);
+    }
+
+    /**
+     * Writes the specified {@code boolean} value.
+     *
+     * @param value the value
+     * @return this output
+     */
+    public SnapshotOutput writeBoolean(boolean value) {
+        ensureCapacity(size + 1);
+        buffer[size++] = (byte) (value ? 1 : 0);
+        return this;
+    }
+
+    /**
+     * Writes the specified {@code int} value.
+     *
+     * @param value the value
+     * @return this output
+     */
+    public SnapshotOutput writeInt(int value) {
+        return writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Writes the specified {@code long} value.
+     *
+     * @param value the value
+     * @return this output
+     */
+    public SnapshotOutput writeLong(long value) {
+        return writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Writes the specified {@code double} value.
+     *
+     * @param value the value
+     * @return this output
+     */
+    public SnapshotOutput writeDouble(double value) {
+        writeFixedLong(Double.doubleToRawLongBits(value));
+        return this;
+    }
+
+    /**
+     * Writes the specified {@link BigDecimal} value.
+     *
+     * @param value the value
+     * @return this output
+     */
+    public SnapshotOutput writeNumber(BigDecimal value) {
+        writeInt(value.scale());
+        return writeBytes(value.unscaledValue().toByteArray());
+    }
+
+    /**
+     * Writes the specified length prefixed bytes.
+     *
+     * @param bytes the bytes
+     * @return this output
+     */
+    public SnapshotOutput writeBytes(byte[] bytes) {
+        writeVarInt(bytes.length);
+        ensureCapacity(size + bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    /**
+     * Writes the specified {@link String} value.
+     *
+     * @param value the value
+     * @return this output
+     */
+    public SnapshotOutput writeString(String value) {
+        var length = value.length();
+        ensureCapacity(size + 5 + length);
+        var start = size;
+        writeVarInt(length);
+        var buffer = this.buffer;
+        var position = size;
+        for (var i = 0; i < length; i++) {
+            var c = value.charAt(i);
+            if (c >= 0x80) {
+                // non-ASCII, fall back to the standard encoder
+                size = start;
+                return writeBytes(value.getBytes(StandardCharsets.UTF_8));
+            }
+            buffer[position++] = (byte) c;
+        }
+        size = position;
+        return this;
+    }
+
+    /**
+     * Writes the specified {@link LocalDate} value.
+     *
+     * @param value the value
+     * @return this output
+     */
+    public SnapshotOutput writeDate(LocalDate value) {
+        return writeInt(DateTimeUtil.toNumber(value));
+    }
+
+    /**
+     * Writes the specified {@link LocalTime} value.
+     *
+     * @param value the value
+     * @return this output
+     */
+    public SnapshotOutput writeTime(LocalTime value) {
+        return writeInt(DateTimeUtil.toNumber(value));
+    }
+
+    /**
+     * Writes the specified {@link LocalDateTime} value.
+     *
+     * @param value the value
+     * @return this output
+     */
+    public SnapshotOutput writeDateTime(LocalDateTime value) {
+        return writeLong(DateTimeUtil.toEpochMilli(value));
+    }
+
+    /**
+     * Writes the specified {@link ObjectId} value.
+     *
+     * @param value the value
+     * @return this output
+     */
+    public SnapshotOutput writeObjectId(ObjectId value) {
+        ensureCapacity(size + 12);
+        value.putToByteBuffer(ByteBuffer.wrap(buffer, size, 12));
+        size += 12;
+        return this;
+    }
+
+    /**
+     * Writes the specified {@link UUID} value.
+     *
+     * @param value the value
+     * @return this output
+     */
+    public SnapshotOutput writeUuid(UUID value) {
+        writeFixedLong(value.getMostSignificantBits());
+        writeFixedLong(value.getLeastSignificantBits());
+        return this;
+    }
+
+    /**
+     * Writes the specified {@link List} with the specified element
+     * writer.
+     *
+     * @param <E>           the type of the elements
+     * @param list          the list
+     * @param elementWriter the function writes each element
+     * @return this output
+     */
+    public <E> SnapshotOutput writeList(List<E> list, BiConsumer<? super SnapshotOutput, ? super E> elementWriter) {
+        writeSize(list.size());
+        for (var element : list) {
+            elementWriter.accept(this, element);
+        }
+        return this;
+    }
+
+    /**
+     * Returns a copy of the bytes written.
+     *
+     * @return a copy of the bytes written
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * Writes the bytes written to the specified {@link OutputStream}.
+     *
+     * @param out the {@code OutputStream}
+     * @throws IOException if any I/O error occurs
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    /**
+     * Writes the bytes written to the specified {@link ByteBuffer}.
+     *
+     * @param dst the {@code ByteBuffer}
+     * @throws java.nio.BufferOverflowException if there is insufficient
+     *                                          space in the buffer
+     */
+    public void writeTo(ByteBuffer dst) {
+        dst.put(buffer, 0, size);
+    }
+
+}
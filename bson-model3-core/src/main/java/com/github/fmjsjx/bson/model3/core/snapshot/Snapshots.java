@@ -0,0 +1,68 @@
+package com.github.fmjsjx.bson.model3.core.snapshot;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and utility methods for the compact binary snapshots.
+ * <p>
+ * Every snapshot starts with a 16 bytes little-endian header:
+ * <pre>
+ * +--------+--------------------+-------------+
+ * | magic  | schema fingerprint | body length |
+ * | 4bytes | 8bytes             | 4bytes      |
+ * +--------+--------------------+-------------+
+ * </pre>
+ * Change sets share the same header with a different magic number.
+ *
+ * @author MJ Fang
+ * @see SnapshotOutput
+ * @see SnapshotInput
+ * @since 3.0
+ */
+public final class Snapshots {
+
+    /**
+     * The magic number of snapshots, {@code "BM3S"}.
+     */
+    public static final int MAGIC = 0x53334D42;
+
+    /**
+     * The magic number of change sets, {@code "BM3C"}.
+     */
+    public static final int CHANGE_SET_MAGIC = 0x43334D42;
+
+    /**
+     * The size of the snapshot header.
+     */
+    public static final int HEADER_SIZE = 16;
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    /**
+     * Computes the schema fingerprint with the specified schema of a
+     * model and the fingerprints of the nested models.
+     * <p>
+     * Uses the 64-bit FNV-1a hash.
+     *
+     * @param schema       the schema of the model
+     * @param fingerprints the fingerprints of the nested models
+     * @return the schema fingerprint
+     */
+    public static long fingerprint(String schema, long... fingerprints) {
+        var hash = FNV_OFFSET_BASIS;
+        for (var b : schema.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        for (var fingerprint : fingerprints) {
+            for (var i = 0; i < Long.BYTES; i++) {
+                hash = (hash ^ ((fingerprint >>> (i << 3)) & 0xFF)) * FNV_PRIME;
+            }
+        }
+        return hash;
+    }
+
+    private Snapshots() {
+    }
+
+}
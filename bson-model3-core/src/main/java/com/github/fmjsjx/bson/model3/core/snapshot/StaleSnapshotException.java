@@ -0,0 +1,52 @@
+package com.github.fmjsjx.bson.model3.core.snapshot;
+
+import java.io.Serial;
+
+/**
+ * Thrown to indicate that the schema fingerprint of a snapshot does not
+ * match the model, typically because the snapshot was written by an
+ * older version of the model.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class StaleSnapshotException extends IllegalArgumentException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long expectedFingerprint;
+    private final long actualFingerprint;
+
+    /**
+     * Constructs a new {@link StaleSnapshotException}.
+     *
+     * @param expectedFingerprint the schema fingerprint of the model
+     * @param actualFingerprint   the schema fingerprint of the snapshot
+     */
+    public StaleSnapshotException(long expectedFingerprint, long actualFingerprint) {
+        super("Stale snapshot: expected fingerprint 0x" + Long.toHexString(expectedFingerprint) +
+                " but was 0x" + Long.toHexString(actualFingerprint));
+        this.expectedFingerprint = expectedFingerprint;
+        this.actualFingerprint = actualFingerprint;
+    }
+
+    /**
+     * Returns the schema fingerprint of the model.
+     *
+     * @return the schema fingerprint of the model
+     */
+    public long getExpectedFingerprint() {
+        return expectedFingerprint;
+    }
+
+    /**
+     * Returns the schema fingerprint of the snapshot.
+     *
+     * @return the schema fingerprint of the snapshot
+     */
+    public long getActualFingerprint() {
+        return actualFingerprint;
+    }
+
+}
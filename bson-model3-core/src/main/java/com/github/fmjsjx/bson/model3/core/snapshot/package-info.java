@@ -0,0 +1,7 @@
+/**
+ * Compact binary snapshot support for BSON model 3 core package.
+ */
+@NullMarked
+package com.github.fmjsjx.bson.model3.core.snapshot;
+
+import org.jspecify.annotations.NullMarked;
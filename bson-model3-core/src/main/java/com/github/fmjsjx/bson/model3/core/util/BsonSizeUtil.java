@@ -0,0 +1,213 @@
+package com.github.fmjsjx.bson.model3.core.util;
+
+import org.bson.*;
+import org.bson.conversions.Bson;
+
+import java.util.List;
+
+/**
+ * Utility class computes the encoded sizes of BSON values by traversing
+ * them, without actually encoding them.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class BsonSizeUtil {
+
+    /**
+     * The maximum size of a BSON document in MongoDB, {@code 16 MB}.
+     */
+    public static final int MAX_DOCUMENT_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Returns the number of bytes of the specified string encoded in
+     * UTF-8.
+     *
+     * @param value the string
+     * @return the number of bytes
+     */
+    public static int utf8Length(String value) {
+        var length = value.length();
+        var bytes = length;
+        for (var i = 0; i < length; i++) {
+            var c = value.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes++;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    // 4 bytes for 2 chars
+                    bytes += 2;
+                    i++;
+                } else {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the encoded size of a document element with the specified
+     * name and the specified value.
+     *
+     * @param name  the name of the element
+     * @param value the value of the element
+     * @return the encoded size
+     */
+    public static int elementSize(String name, BsonValue value) {
+        return elementSize(name, sizeOf(value));
+    }
+
+    /**
+     * Returns the encoded size of a document element with the specified
+     * name and the specified encoded value size.
+     *
+     * @param name      the name of the element
+     * @param valueSize the encoded size of the value
+     * @return the encoded size
+     */
+    public static int elementSize(String name, int valueSize) {
+        // type + name (c-string) + value
+        return 1 + utf8Length(name) + 1 + valueSize;
+    }
+
+    /**
+     * Returns the encoded size of a document which contains elements
+     * with the specified total size.
+     *
+     * @param elementsSize the total encoded size of the elements
+     * @return the encoded size
+     */
+    public static int documentSize(int elementsSize) {
+        // int32 length + elements + 0x00
+        return 4 + elementsSize + 1;
+    }
+
+    /**
+     * Returns the encoded size of the specified {@link BsonValue}.
+     *
+     * @param value the {@code BsonValue}
+     * @return the encoded size
+     */
+    public static int sizeOf(BsonValue value) {
+        return switch (value.getBsonType()) {
+            case DOCUMENT -> sizeOf(value.asDocument());
+            case ARRAY -> sizeOf(value.asArray());
+            case DOUBLE, DATE_TIME, INT64, TIMESTAMP -> 8;
+            case INT32 -> 4;
+            case DECIMAL128 -> 16;
+            case BOOLEAN -> 1;
+            case OBJECT_ID -> 12;
+            case STRING -> stringSize(value.asString().getValue());
+            case SYMBOL -> stringSize(value.asSymbol().getSymbol());
+            case JAVASCRIPT -> stringSize(value.asJavaScript().getCode());
+            case JAVASCRIPT_WITH_SCOPE -> 4 + stringSize(value.asJavaScriptWithScope().getCode())
+                    + sizeOf(value.asJavaScriptWithScope().getScope());
+            case BINARY -> binarySize(value.asBinary());
+            case REGULAR_EXPRESSION -> utf8Length(value.asRegularExpression().getPattern()) + 1
+                    + utf8Length(value.asRegularExpression().getOptions()) + 1;
+            case DB_POINTER -> stringSize(value.asDBPointer().getNamespace()) + 12;
+            default -> 0; // NULL, UNDEFINED, MIN_KEY, MAX_KEY, END_OF_DOCUMENT
+        };
+    }
+
+    /**
+     * Returns the encoded size of the specified {@link BsonDocument}.
+     *
+     * @param document the {@code BsonDocument}
+     * @return the encoded size
+     */
+    public static int sizeOf(BsonDocument document) {
+        var elementsSize = 0;
+        for (var entry : document.entrySet()) {
+            elementsSize += elementSize(entry.getKey(), entry.getValue());
+        }
+        return documentSize(elementsSize);
+    }
+
+    /**
+     * Returns the encoded size of the specified {@link BsonArray}.
+     *
+     * @param array the {@code BsonArray}
+     * @return the encoded size
+     */
+    public static int sizeOf(BsonArray array) {
+        var elementsSize = 0;
+        var size = array.size();
+        for (var i = 0; i < size; i++) {
+            // type + index name (c-string) + value
+            elementsSize += 1 + stringSizeOfIndex(i) + 1 + sizeOf(array.get(i));
+        }
+        return documentSize(elementsSize);
+    }
+
+    /**
+     * Returns the total encoded size of the fields in the specified
+     * update, such as {@code {"$set": {"a.b": 1}}}, excluding the
+     * operator documents.
+     * <p>
+     * Updates of the same operator can be combined into one operator
+     * document, so the size of the fields is a proper measurement of the
+     * payload of an update.
+     *
+     * @param update the update
+     * @return the encoded size of the fields
+     */
+    public static int updateFieldsSize(Bson update) {
+        var size = 0;
+        for (var operator : update.toBsonDocument().values()) {
+            if (operator instanceof BsonDocument fields) {
+                for (var entry : fields.entrySet()) {
+                    size += elementSize(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the total encoded size of the fields in the specified
+     * updates.
+     *
+     * @param updates the updates
+     * @return the encoded size of the fields
+     * @see #updateFieldsSize(Bson)
+     */
+    public static int updateFieldsSize(List<? extends Bson> updates) {
+        var size = 0;
+        for (var update : updates) {
+            size += updateFieldsSize(update);
+        }
+        return size;
+    }
+
+    /**
+     * Returns the encoded size of a string value.
+     *
+     * @param value the string
+     * @return the encoded size
+     */
+    public static int stringSize(String value) {
+        // int32 length + UTF-8 bytes + 0x00
+        return 4 + utf8Length(value) + 1;
+    }
+
+    private static int binarySize(BsonBinary binary) {
+        var length = binary.getData().length;
+        // the old binary subtype 0x02 has an extra int32 length
+        return binary.getType() == BsonBinarySubType.OLD_BINARY.getValue() ? 4 + 1 + 4 + length : 4 + 1 + length;
+    }
+
+    private static int stringSizeOfIndex(int index) {
+        var digits = 1;
+        while (index >= 10) {
+            index /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private BsonSizeUtil() {
+    }
+
+}
@@ -0,0 +1,273 @@
+package com.github.fmjsjx.bson.model3.core.util;
+
+import org.bson.*;
+import org.bson.conversions.Bson;
+import org.bson.types.Decimal128;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Utility class applies MongoDB update documents to {@link BsonDocument}s
+ * in memory.
+ * <p>
+ * The supported update operators are {@code $set}, {@code $unset},
+ * {@code $inc} and {@code $push} (with optional {@code $each}), with
+ * dotted field paths. Path segments are resolved as array indexes when
+ * the parent value is an array.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class BsonUpdateUtil {
+
+    /**
+     * Applies all the specified updates to the specified document in
+     * order.
+     *
+     * @param document the target document
+     * @param updates  the updates
+     * @return the target document
+     * @throws IllegalArgumentException if any update contains an
+     *                                  unsupported operator or an illegal
+     *                                  path
+     */
+    public static BsonDocument applyUpdates(BsonDocument document, List<? extends Bson> updates) {
+        for (var update : updates) {
+            applyUpdate(document, update);
+        }
+        return document;
+    }
+
+    /**
+     * Applies the specified update to the specified document.
+     *
+     * @param document the target document
+     * @param update   the update
+     * @return the target document
+     * @throws IllegalArgumentException if the update contains an
+     *                                  unsupported operator or an illegal
+     *                                  path
+     */
+    public static BsonDocument applyUpdate(BsonDocument document, Bson update) {
+        var updateDocument = update instanceof BsonDocument bsonDocument ? bsonDocument : update.toBsonDocument();
+        for (var entry : updateDocument.entrySet()) {
+            var fields = entry.getValue().asDocument();
+            switch (entry.getKey()) {
+                case "$set" -> fields.forEach((path, value) -> set(document, path, copyOf(value)));
+                case "$unset" -> fields.keySet().forEach(path -> unset(document, path));
+                case "$inc" -> fields.forEach((path, value) -> inc(document, path, value));
+                case "$push" -> fields.forEach((path, value) -> push(document, path, value));
+                default -> throw new IllegalArgumentException("Unsupported update operator " + entry.getKey());
+            }
+        }
+        return document;
+    }
+
+    private static BsonValue copyOf(BsonValue value) {
+        return switch (value) {
+            case BsonDocument document -> document.clone();
+            case BsonArray array -> array.clone();
+            default -> value;
+        };
+    }
+
+    private static void set(BsonDocument document, String path, BsonValue value) {
+        var lastDot = path.lastIndexOf('.');
+        if (lastDot < 0) {
+            document.put(path, value);
+            return;
+        }
+        var parent = resolveParent(document, path, lastDot, true);
+        var key = path.substring(lastDot + 1);
+        switch (parent) {
+            case BsonDocument parentDocument -> parentDocument.put(key, value);
+            case BsonArray parentArray -> {
+                var index = parseIndex(path, key);
+                while (parentArray.size() <= index) {
+                    parentArray.add(BsonNull.VALUE);
+                }
+                parentArray.set(index, value);
+            }
+            default -> throw illegalPath(path);
+        }
+    }
+
+    private static void unset(BsonDocument document, String path) {
+        var lastDot = path.lastIndexOf('.');
+        if (lastDot < 0) {
+            document.remove(path);
+            return;
+        }
+        var parent = resolveParent(document, path, lastDot, false);
+        var key = path.substring(lastDot + 1);
+        switch (parent) {
+            case BsonDocument parentDocument -> parentDocument.remove(key);
+            case BsonArray parentArray -> {
+                // same as MongoDB, $unset array elements set them to null
+                var index = parseIndex(path, key);
+                if (index < parentArray.size()) {
+                    parentArray.set(index, BsonNull.VALUE);
+                }
+            }
+            case null, default -> {
+                // missing parent, nothing to unset
+            }
+        }
+    }
+
+    private static void inc(BsonDocument document, String path, BsonValue amount) {
+        if (!amount.isNumber() && !amount.isDecimal128()) {
+            throw new IllegalArgumentException("Cannot $inc with non-numeric value " + amount + " at path " + path);
+        }
+        var current = get(document, path);
+        if (current == null || current.isNull()) {
+            set(document, path, amount);
+        } else {
+            set(document, path, add(current, amount, path));
+        }
+    }
+
+    private static BsonValue add(BsonValue current, BsonValue amount, String path) {
+        if (current.isDecimal128() || amount.isDecimal128()) {
+            return new BsonDecimal128(new Decimal128(toDecimal128(current, path).bigDecimalValue()
+                    .add(toDecimal128(amount, path).bigDecimalValue())));
+        }
+        if (current.isDouble() || amount.isDouble()) {
+            return new BsonDouble(toNumber(current, path).doubleValue() + amount.asNumber().doubleValue());
+        }
+        if (current.isInt32() && amount.isInt32()) {
+            var a = current.asInt32().getValue();
+            var b = amount.asInt32().getValue();
+            var sum = a + b;
+            // overflow promotes to int64, same as MongoDB
+            return ((a ^ sum) & (b ^ sum)) < 0 ? new BsonInt64((long) a + b) : new BsonInt32(sum);
+        }
+        return new BsonInt64(toNumber(current, path).longValue() + amount.asNumber().longValue());
+    }
+
+    private static BsonNumber toNumber(BsonValue value, String path) {
+        if (!value.isNumber()) {
+            throw new IllegalArgumentException("Cannot apply $inc to non-numeric value " + value + " at path " + path);
+        }
+        return value.asNumber();
+    }
+
+    private static Decimal128 toDecimal128(BsonValue value, String path) {
+        if (value.isDecimal128()) {
+            return value.asDecimal128().getValue();
+        }
+        return toNumber(value, path).decimal128Value();
+    }
+
+    private static void push(BsonDocument document, String path, BsonValue value) {
+        var current = get(document, path);
+        BsonArray array;
+        if (current == null) {
+            array = new BsonArray();
+            set(document, path, array);
+        } else if (current.isArray()) {
+            array = current.asArray();
+        } else {
+            throw new IllegalArgumentException("Cannot apply $push to non-array value at path " + path);
+        }
+        if (value.isDocument() && value.asDocument().containsKey("$each")) {
+            for (var element : value.asDocument().getArray("$each")) {
+                array.add(copyOf(element));
+            }
+        } else {
+            array.add(copyOf(value));
+        }
+    }
+
+    /**
+     * Returns the value at the specified dotted path in the specified
+     * document.
+     *
+     * @param document the document
+     * @param path     the dotted path
+     * @return the value, or {@code null} if missing
+     */
+    public static @Nullable BsonValue get(BsonDocument document, String path) {
+        var lastDot = path.lastIndexOf('.');
+        if (lastDot < 0) {
+            return document.get(path);
+        }
+        var parent = resolveParent(document, path, lastDot, false);
+        var key = path.substring(lastDot + 1);
+        return switch (parent) {
+            case BsonDocument parentDocument -> parentDocument.get(key);
+            case BsonArray parentArray -> {
+                var index = parseIndex(path, key);
+                yield index < parentArray.size() ? parentArray.get(index) : null;
+            }
+            case null, default -> null;
+        };
+    }
+
+    private static @Nullable BsonValue resolveParent(BsonDocument document, String path, int lastDot, boolean create) {
+        BsonValue current = document;
+        var start = 0;
+        while (start < lastDot) {
+            var end = path.indexOf('.', start);
+            var key = path.substring(start, end);
+            BsonValue next;
+            switch (current) {
+                case BsonDocument currentDocument -> {
+                    next = currentDocument.get(key);
+                    if (next == null || (create && next.isNull())) {
+                        if (!create) {
+                            return null;
+                        }
+                        next = new BsonDocument();
+                        currentDocument.put(key, next);
+                    }
+                }
+                case BsonArray currentArray -> {
+                    var index = parseIndex(path, key);
+                    if (index >= currentArray.size()) {
+                        if (!create) {
+                            return null;
+                        }
+                        while (currentArray.size() < index) {
+                            currentArray.add(BsonNull.VALUE);
+                        }
+                        next = new BsonDocument();
+                        currentArray.add(next);
+                    } else {
+                        next = currentArray.get(index);
+                    }
+                }
+                default -> {
+                    if (!create) {
+                        return null;
+                    }
+                    throw illegalPath(path);
+                }
+            }
+            current = next;
+            start = end + 1;
+        }
+        return current;
+    }
+
+    private static int parseIndex(String path, String key) {
+        try {
+            var index = Integer.parseInt(key);
+            if (index >= 0) {
+                return index;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw illegalPath(path);
+    }
+
+    private static IllegalArgumentException illegalPath(String path) {
+        return new IllegalArgumentException("Cannot resolve path " + path);
+    }
+
+    private BsonUpdateUtil() {
+    }
+
+}
@@ -140,6 +140,24 @@ public class BsonUtil {
         };
     }
 
+    /**
+     * Gets the datetime value of the specified key in the specified BSON,
+     * as the milliseconds from the epoch of 1970-01-01T00:00:00Z.
+     *
+     * @param bson the source BSON
+     * @param key  the key
+     * @return an {@code OptionalLong}
+     */
+    public static OptionalLong epochMilliValue(Bson bson, String key) {
+        var document = bson.toBsonDocument();
+        var value = document.get(key);
+        return switch (value) {
+            case null -> OptionalLong.empty();
+            case BsonNull ignored -> OptionalLong.empty();
+            default -> OptionalLong.of(BsonValueUtil.toEpochMilli(value));
+        };
+    }
+
     /**
      * Gets the zoned-datetime value of the specified key in the specified
      * BSON.
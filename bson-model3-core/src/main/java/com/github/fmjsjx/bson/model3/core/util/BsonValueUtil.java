@@ -37,6 +37,24 @@ public class BsonValueUtil {
         };
     }
 
+    /**
+     * Converts the specified {@link BsonValue} to the milliseconds from
+     * the epoch of 1970-01-01T00:00:00Z.
+     *
+     * @param value the {@link BsonValue} to be converted
+     * @return the milliseconds from the epoch
+     * @throws BsonInvalidOperationException if the specified {@link BsonValue} is not an instance of
+     *                                       {@link BsonDateTime} or {@link BsonTimestamp}
+     */
+    public static long toEpochMilli(BsonValue value) {
+        return switch (value) {
+            case BsonDateTime bsonDateTime -> bsonDateTime.getValue();
+            case BsonTimestamp bsonTimestamp -> bsonTimestamp.getTime() * 1000L;
+            default -> throw new BsonInvalidOperationException(
+                    "Value expected to be of type DATE_TIME is of unexpected type " + value.getBsonType());
+        };
+    }
+
     /**
      * Converts the specified {@link BsonValue} to
      * {@link ZonedDateTime} in the default time-zone.
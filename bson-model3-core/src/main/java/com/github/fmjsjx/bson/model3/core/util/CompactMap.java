@@ -0,0 +1,317 @@
+package com.github.fmjsjx.bson.model3.core.util;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * A compact {@link Map} implementation for small maps, which keeps the
+ * insertion order like {@link LinkedHashMap}.
+ * <p>
+ * The mappings are stored in a single array of interleaved keys and
+ * values and looked up by linear scanning, until the size exceeds the
+ * threshold, then they will be upgraded to a {@link LinkedHashMap}. The
+ * map will be downgraded to the array again when it is cleared.
+ * <p>
+ * Same as {@link LinkedHashMap}, removing a key and then putting it
+ * again moves the key to the end of the iteration order.
+ * <p>
+ * This class does not permit {@code null} keys, and it is not
+ * thread-safe.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ * @author MJ Fang
+ * @since 3.0
+ */
+public final class CompactMap<K, V> extends AbstractMap<K, V> {
+
+    /**
+     * The default threshold of the size to upgrade to a hash table.
+     */
+    public static final int DEFAULT_THRESHOLD = 8;
+
+    private static final @Nullable Object[] EMPTY_TABLE = {};
+
+    /**
+     * Returns a new {@link Set} backed by a new {@link CompactMap}.
+     *
+     * @param <E> the type of elements
+     * @return a new {@code Set}
+     */
+    public static <E> Set<E> newSet() {
+        return Collections.newSetFromMap(new CompactMap<>());
+    }
+
+    private final int threshold;
+    private @Nullable Object[] table = EMPTY_TABLE;
+    private int size;
+    private @Nullable LinkedHashMap<K, V> hashMap;
+    private @Nullable Set<Entry<K, V>> entrySet;
+
+    /**
+     * Constructs a new {@link CompactMap} with the default threshold.
+     */
+    public CompactMap() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Constructs a new {@link CompactMap} with the specified threshold.
+     *
+     * @param threshold the threshold of the size to upgrade to a hash
+     *                  table
+     */
+    public CompactMap(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold expected >= 1 but was " + threshold);
+        }
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns whether this map has been upgraded to a hash table.
+     *
+     * @return {@code true} if this map has been upgraded to a hash
+     * table, {@code false} otherwise
+     */
+    public boolean isUpgraded() {
+        return hashMap != null;
+    }
+
+    @Override
+    public int size() {
+        var hashMap = this.hashMap;
+        return hashMap == null ? size : hashMap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    private int indexOf(Object key) {
+        var table = this.table;
+        var end = size << 1;
+        for (var i = 0; i < end; i += 2) {
+            if (key.equals(table[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        var hashMap = this.hashMap;
+        return hashMap == null ? indexOf(key) >= 0 : hashMap.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        var hashMap = this.hashMap;
+        if (hashMap != null) {
+            return hashMap.containsValue(value);
+        }
+        var table = this.table;
+        var end = size << 1;
+        for (var i = 1; i < end; i += 2) {
+            if (Objects.equals(value, table[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public @Nullable V get(Object key) {
+        var hashMap = this.hashMap;
+        if (hashMap != null) {
+            return hashMap.get(key);
+        }
+        var index = indexOf(key);
+        return index < 0 ? null : (V) table[index + 1];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public @Nullable V put(K key, V value) {
+        var hashMap = this.hashMap;
+        if (hashMap != null) {
+            return hashMap.put(key, value);
+        }
+        var index = indexOf(key);
+        if (index >= 0) {
+            var old = (V) table[index + 1];
+            table[index + 1] = value;
+            return old;
+        }
+        var size = this.size;
+        if (size >= threshold) {
+            upgrade().put(key, value);
+            return null;
+        }
+        var table = this.table;
+        var end = size << 1;
+        if (end == table.length) {
+            this.table = table = Arrays.copyOf(table, Math.min(Math.max(4, end << 1), threshold << 1));
+        }
+        table[end] = key;
+        table[end + 1] = value;
+        this.size = size + 1;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private LinkedHashMap<K, V> upgrade() {
+        var hashMap = new LinkedHashMap<K, V>(CommonsUtil.mapCapacity(size << 1));
+        var table = this.table;
+        var end = size << 1;
+        for (var i = 0; i < end; i += 2) {
+            hashMap.put((K) table[i], (V) table[i + 1]);
+        }
+        this.table = EMPTY_TABLE;
+        this.size = 0;
+        return this.hashMap = hashMap;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public @Nullable V remove(Object key) {
+        var hashMap = this.hashMap;
+        if (hashMap != null) {
+            return hashMap.remove(key);
+        }
+        var index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        var old = (V) table[index + 1];
+        removeAt(index);
+        return old;
+    }
+
+    private void removeAt(int index) {
+        var table = this.table;
+        var end = size << 1;
+        var moved = end - index - 2;
+        if (moved > 0) {
+            System.arraycopy(table, index + 2, table, index, moved);
+        }
+        table[end - 2] = null;
+        table[end - 1] = null;
+        size--;
+    }
+
+    @Override
+    public void clear() {
+        if (hashMap != null) {
+            hashMap = null;
+            table = EMPTY_TABLE;
+        } else if (size > 0) {
+            Arrays.fill(table, 0, size << 1, null);
+        }
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        var hashMap = this.hashMap;
+        if (hashMap != null) {
+            hashMap.forEach(action);
+            return;
+        }
+        var table = this.table;
+        var end = size << 1;
+        for (var i = 0; i < end; i += 2) {
+            action.accept((K) table[i], (V) table[i + 1]);
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        var entrySet = this.entrySet;
+        if (entrySet == null) {
+            this.entrySet = entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            var hashMap = CompactMap.this.hashMap;
+            return hashMap == null ? new TableIterator() : hashMap.entrySet().iterator();
+        }
+
+        @Override
+        public int size() {
+            return CompactMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            CompactMap.this.clear();
+        }
+
+    }
+
+    private final class TableIterator implements Iterator<Entry<K, V>> {
+
+        private int next;
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return next < size << 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Entry<K, V> next() {
+            if (hashMap != null) {
+                throw new ConcurrentModificationException();
+            }
+            var index = next;
+            if (index >= size << 1) {
+                throw new NoSuchElementException();
+            }
+            next = index + 2;
+            last = index;
+            return new TableEntry((K) table[index], (V) table[index + 1]);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (hashMap != null) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+        }
+
+    }
+
+    private final class TableEntry extends SimpleEntry<K, V> {
+
+        private TableEntry(K key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+
+    }
+
+}
@@ -0,0 +1,237 @@
+package com.github.fmjsjx.bson.model3.core.util;
+
+import com.github.fmjsjx.bson.model3.core.BsonModelConstants;
+import com.github.fmjsjx.libcommon.util.DateTimeUtil;
+import org.bson.types.ObjectId;
+import org.jspecify.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Utility class converts display data, such as the values of the maps
+ * created by {@code toUpdated()} or the same data parsed from JSON, back
+ * to java values.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class DisplayDataUtil {
+
+    /**
+     * Converts the specified display data to {@code int}.
+     *
+     * @param value the display data
+     * @return the {@code int} value
+     * @throws IllegalArgumentException if the value can't be converted
+     */
+    public static int intValue(Object value) {
+        return switch (value) {
+            case Number number -> number.intValue();
+            case String string -> Integer.parseInt(string);
+            default -> throw unsupported(value, "int");
+        };
+    }
+
+    /**
+     * Converts the specified display data to {@code long}.
+     *
+     * @param value the display data
+     * @return the {@code long} value
+     * @throws IllegalArgumentException if the value can't be converted
+     */
+    public static long longValue(Object value) {
+        return switch (value) {
+            case Number number -> number.longValue();
+            case String string -> Long.parseLong(string);
+            default -> throw unsupported(value, "long");
+        };
+    }
+
+    /**
+     * Converts the specified display data to {@code double}.
+     *
+     * @param value the display data
+     * @return the {@code double} value
+     * @throws IllegalArgumentException if the value can't be converted
+     */
+    public static double doubleValue(Object value) {
+        return switch (value) {
+            case Number number -> number.doubleValue();
+            case String string -> Double.parseDouble(string);
+            default -> throw unsupported(value, "double");
+        };
+    }
+
+    /**
+     * Converts the specified display data to {@link BigDecimal}.
+     *
+     * @param value the display data
+     * @return the {@code BigDecimal} value
+     * @throws IllegalArgumentException if the value can't be converted
+     */
+    public static BigDecimal decimalValue(Object value) {
+        return switch (value) {
+            case BigDecimal decimal -> decimal;
+            case Integer i -> BigDecimal.valueOf(i);
+            case Long l -> BigDecimal.valueOf(l);
+            case Number number -> new BigDecimal(number.toString());
+            case String string -> new BigDecimal(string);
+            default -> throw unsupported(value, "decimal");
+        };
+    }
+
+    /**
+     * Converts the specified display data to {@code boolean}.
+     *
+     * @param value the display data
+     * @return the {@code boolean} value
+     * @throws IllegalArgumentException if the value can't be converted
+     */
+    public static boolean booleanValue(Object value) {
+        return switch (value) {
+            case Boolean bool -> bool;
+            case Number number -> number.intValue() != 0;
+            case String string -> Boolean.parseBoolean(string);
+            default -> throw unsupported(value, "boolean");
+        };
+    }
+
+    /**
+     * Converts the specified display data to {@link String}.
+     *
+     * @param value the display data
+     * @return the {@code String} value
+     */
+    public static String stringValue(Object value) {
+        return value instanceof String string ? string : value.toString();
+    }
+
+    /**
+     * Converts the specified display data to {@link LocalDate}.
+     *
+     * @param value the display data
+     * @return the {@code LocalDate} value
+     * @throws IllegalArgumentException if the value can't be converted
+     */
+    public static LocalDate dateValue(Object value) {
+        return switch (value) {
+            case LocalDate date -> date;
+            case String string -> LocalDate.parse(string);
+            default -> throw unsupported(value, "date");
+        };
+    }
+
+    /**
+     * Converts the specified display data to {@link LocalTime}.
+     *
+     * @param value the display data
+     * @return the {@code LocalTime} value
+     * @throws IllegalArgumentException if the value can't be converted
+     */
+    public static LocalTime timeValue(Object value) {
+        return switch (value) {
+            case LocalTime time -> time;
+            case String string -> LocalTime.parse(string, BsonModelConstants.TIME_FORMATTER);
+            default -> throw unsupported(value, "time");
+        };
+    }
+
+    /**
+     * Converts the specified display data to {@link LocalDateTime}.
+     * <p>
+     * Numbers are treated as epoch milliseconds.
+     *
+     * @param value the display data
+     * @return the {@code LocalDateTime} value
+     * @throws IllegalArgumentException if the value can't be converted
+     */
+    public static LocalDateTime dateTimeValue(Object value) {
+        return switch (value) {
+            case LocalDateTime dateTime -> dateTime;
+            case String string -> LocalDateTime.parse(string, BsonModelConstants.DATETIME_FORMATTER);
+            case Number number -> DateTimeUtil.ofEpochMilli(number.longValue());
+            default -> throw unsupported(value, "datetime");
+        };
+    }
+
+    /**
+     * Converts the specified display data to {@link ObjectId}.
+     *
+     * @param value the display data
+     * @return the {@code ObjectId} value
+     * @throws IllegalArgumentException if the value can't be converted
+     */
+    public static ObjectId objectIdValue(Object value) {
+        return switch (value) {
+            case ObjectId objectId -> objectId;
+            case String string -> new ObjectId(string);
+            default -> throw unsupported(value, "object-id");
+        };
+    }
+
+    /**
+     * Converts the specified display data to {@link UUID}.
+     *
+     * @param value the display data
+     * @return the {@code UUID} value
+     * @throws IllegalArgumentException if the value can't be converted
+     */
+    public static UUID uuidValue(Object value) {
+        return switch (value) {
+            case UUID uuid -> uuid;
+            case String string -> UUID.fromString(string);
+            default -> throw unsupported(value, "uuid");
+        };
+    }
+
+    /**
+     * Casts the specified display data to {@link Map}.
+     *
+     * @param value the display data
+     * @return the {@code Map} value
+     * @throws IllegalArgumentException if the value is not a {@code Map}
+     */
+    public static Map<?, ?> mapValue(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return map;
+        }
+        throw unsupported(value, "map");
+    }
+
+    /**
+     * Converts the specified display data to a new {@link List}, the
+     * {@code null} elements are kept.
+     *
+     * @param value         the display data
+     * @param elementMapper the function converts non-null elements
+     * @param <E>           the type of the elements
+     * @return a new {@code List}
+     * @throws IllegalArgumentException if the value is not a {@code List}
+     */
+    public static <E> List<@Nullable E> listValue(Object value, Function<Object, ? extends E> elementMapper) {
+        if (!(value instanceof List<?> list)) {
+            throw unsupported(value, "list");
+        }
+        var result = new ArrayList<@Nullable E>(list.size());
+        for (var element : list) {
+            result.add(element == null ? null : elementMapper.apply(element));
+        }
+        return result;
+    }
+
+    private static IllegalArgumentException unsupported(Object value, String type) {
+        return new IllegalArgumentException("Cannot convert " + value.getClass().getName() + " to " + type);
+    }
+
+    private DisplayDataUtil() {
+    }
+
+}
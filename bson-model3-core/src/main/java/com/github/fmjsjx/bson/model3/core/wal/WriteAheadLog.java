@@ -0,0 +1,559 @@
+package com.github.fmjsjx.bson.model3.core.wal;
+
+import com.github.fmjsjx.bson.model3.core.RootModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import org.bson.*;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.conversions.Bson;
+import org.bson.io.BasicOutputBuffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * A local append-only log of the pending updates of root models, which
+ * allows flushing the updates to MongoDB less often without losing
+ * them on a crash.
+ * <p>
+ * The typical usage is:
+ * <ol>
+ * <li>{@link #append(BsonValue, List)} the updates created by
+ * {@link RootModel#toUpdates()} and then reset the model</li>
+ * <li>{@link #sync(long)} the returned sequence before the changes are
+ * acknowledged to the clients, the concurrent syncs are committed by
+ * one {@link FileChannel#force(boolean)} as a group</li>
+ * <li>{@link #acknowledge(long)} the sequence once the updates are
+ * written to MongoDB, the acknowledged segments will be deleted and the
+ * log file will be truncated when all appended entries are
+ * acknowledged</li>
+ * <li>{@link #replay(Consumer)} the unacknowledged entries when the
+ * process starts</li>
+ * </ol>
+ * <p>
+ * The file starts with an 8 bytes header (the magic number and the
+ * format version), followed by the little-endian records:
+ * <pre>
+ * +---------------+--------+----------+-------+---------+
+ * | record length | CRC32C | sequence | type  | payload |
+ * | 4bytes        | 4bytes | 8bytes   | 1byte | ...     |
+ * +---------------+--------+----------+-------+---------+
+ * </pre>
+ * The payload of an update record is a BSON document contains the
+ * {@code _id} and the array of the updates. An acknowledgement record
+ * has no payload, all entries with a sequence not greater than it are
+ * acknowledged.
+ * <p>
+ * When the log file exceeds the segment size, it is rotated: the file is
+ * renamed to a sealed segment with an increasing number suffix, such as
+ * {@code wal.log.00000001}, and a new log file is created. A sealed
+ * segment is deleted once all entries in it are acknowledged.
+ * <p>
+ * The entries are replayed at least once, an entry acknowledged just
+ * before a crash may be replayed again. So only the idempotent update
+ * operators are accepted, see {@link #append(BsonValue, List)}.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author MJ Fang
+ * @since 3.0
+ */
+public class WriteAheadLog implements Closeable {
+
+    /**
+     * The magic number of log files, {@code "BM3W"}.
+     */
+    public static final int MAGIC = 0x57334D42;
+
+    /**
+     * The size of the log file header.
+     */
+    public static final int HEADER_SIZE = 8;
+
+    /**
+     * The size of the record header.
+     */
+    public static final int RECORD_HEADER_SIZE = 17;
+
+    /**
+     * The default size of the log file to be rotated, 64 MiB.
+     */
+    public static final long DEFAULT_SEGMENT_SIZE = 64 << 20;
+
+    /**
+     * The update operators accepted by {@link #append(BsonValue, List)},
+     * which are idempotent so that the entries can be replayed more
+     * than once.
+     */
+    public static final Set<String> IDEMPOTENT_OPERATORS = Set.of("$set", "$unset", "$setOnInsert", "$min", "$max",
+            "$addToSet", "$pull", "$pullAll");
+
+    private static final int FORMAT_VERSION = 1;
+    private static final byte TYPE_UPDATE = 1;
+    private static final byte TYPE_ACKNOWLEDGEMENT = 2;
+    private static final String ID = "_id";
+    private static final String UPDATES = "u";
+
+    /**
+     * An unacknowledged entry of the log.
+     *
+     * @param sequence the sequence
+     * @param id       the {@code _id} of the root model
+     * @param updates  the updates
+     */
+    public record Entry(long sequence, BsonValue id, List<BsonDocument> updates) {
+
+        /**
+         * Creates and returns a new {@link UpdateOneModel} applies the
+         * updates of this entry.
+         *
+         * @return a new {@code UpdateOneModel}
+         */
+        public UpdateOneModel<BsonDocument> toWriteModel() {
+            return new UpdateOneModel<>(new BsonDocument(ID, id), Updates.combine(updates));
+        }
+
+    }
+
+    private record Segment(Path path, long lastSequence) {
+    }
+
+    /**
+     * Opens the log file at the specified path with the default segment
+     * size, creates it if not exists.
+     * <p>
+     * The incomplete or corrupt records at the end of the file will be
+     * discarded.
+     *
+     * @param path the path of the log file
+     * @return the log
+     * @throws IOException if any I/O error occurs
+     */
+    public static WriteAheadLog open(Path path) throws IOException {
+        return open(path, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens the log file at the specified path with the specified
+     * segment size, creates it if not exists.
+     * <p>
+     * The incomplete or corrupt records at the end of the file will be
+     * discarded.
+     *
+     * @param path        the path of the log file
+     * @param segmentSize the size of the log file to be rotated
+     * @return the log
+     * @throws IOException if any I/O error occurs
+     */
+    public static WriteAheadLog open(Path path, long segmentSize) throws IOException {
+        if (segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize too small: " + segmentSize);
+        }
+        var log = new WriteAheadLog(path, segmentSize, openChannel(path));
+        try {
+            log.recover();
+            return log;
+        } catch (IOException | RuntimeException e) {
+            log.channel.close();
+            throw e;
+        }
+    }
+
+    private static FileChannel openChannel(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private final Path path;
+    private final long segmentSize;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    // replaced on rotation, guarded by both writeLock and syncLock
+    private volatile FileChannel channel;
+    // guarded by writeLock
+    private final List<Segment> segments = new ArrayList<>();
+    private int nextSegmentNumber = 1;
+    private long position;
+    private volatile long lastSequence;
+    private volatile long acknowledgedSequence;
+    private volatile long syncedSequence;
+
+    private WriteAheadLog(Path path, long segmentSize, FileChannel channel) {
+        this.path = path;
+        this.segmentSize = segmentSize;
+        this.channel = channel;
+    }
+
+    private Path segmentPath(int number) {
+        return path.resolveSibling(path.getFileName() + "." + "%08d".formatted(number));
+    }
+
+    private void recover() throws IOException {
+        var numbers = new ArrayList<Integer>();
+        var prefix = path.getFileName() + ".";
+        try (var paths = Files.list(path.toAbsolutePath().getParent())) {
+            for (var sibling : (Iterable<Path>) paths::iterator) {
+                var name = sibling.getFileName().toString();
+                if (name.length() == prefix.length() + 8 && name.startsWith(prefix)) {
+                    try {
+                        numbers.add(Integer.parseInt(name, prefix.length(), name.length(), 10));
+                    } catch (NumberFormatException e) {
+                        // not a segment
+                    }
+                }
+            }
+        }
+        numbers.sort(null);
+        for (var number : numbers) {
+            var segmentPath = segmentPath(number);
+            try (var segment = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+                var segmentLastSequence = recover(segment);
+                segments.add(new Segment(segmentPath, segmentLastSequence));
+            }
+            nextSegmentNumber = number + 1;
+        }
+        if (channel.size() < HEADER_SIZE) {
+            var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+            channel.truncate(0);
+            write(header, 0);
+            channel.force(true);
+            position = HEADER_SIZE;
+        } else {
+            recover(channel);
+            if (position < channel.size()) {
+                channel.truncate(position);
+            }
+        }
+        syncedSequence = lastSequence;
+        deleteAcknowledgedSegments();
+    }
+
+    private long recover(FileChannel channel) throws IOException {
+        var header = read(channel, 0, HEADER_SIZE);
+        if (header.limit() < HEADER_SIZE || header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Invalid write-ahead log file");
+        }
+        var segmentLastSequence = new long[1];
+        position = scan(channel, record -> {
+            var sequence = record.getLong(8);
+            lastSequence = Math.max(lastSequence, sequence);
+            if (record.get(16) == TYPE_ACKNOWLEDGEMENT) {
+                acknowledgedSequence = Math.max(acknowledgedSequence, sequence);
+            } else {
+                segmentLastSequence[0] = Math.max(segmentLastSequence[0], sequence);
+            }
+        });
+        return segmentLastSequence[0];
+    }
+
+    private static long scan(FileChannel channel, Consumer<ByteBuffer> action) throws IOException {
+        var offset = (long) HEADER_SIZE;
+        var size = channel.size();
+        while (offset + RECORD_HEADER_SIZE <= size) {
+            var length = read(channel, offset, Integer.BYTES).getInt(0);
+            if (length < RECORD_HEADER_SIZE || length > size - offset) {
+                break;
+            }
+            var record = read(channel, offset, length);
+            if (record.getInt(4) != checksum(record)) {
+                break;
+            }
+            action.accept(record);
+            offset += length;
+        }
+        return offset;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long offset, int length) throws IOException {
+        var buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.flip();
+    }
+
+    private void write(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, offset + buffer.position());
+        }
+    }
+
+    private static int checksum(ByteBuffer record) {
+        var crc = new CRC32C();
+        crc.update(record.slice(8, record.limit() - 8));
+        return (int) crc.getValue();
+    }
+
+    private static byte[] encode(BsonDocument document) {
+        var buffer = new BasicOutputBuffer();
+        new BsonDocumentCodec().encode(new BsonBinaryWriter(buffer), document, EncoderContext.builder().build());
+        return buffer.toByteArray();
+    }
+
+    private static BsonDocument decode(ByteBuffer record) {
+        var offset = record.arrayOffset() + RECORD_HEADER_SIZE;
+        return new RawBsonDocument(record.array(), offset, record.limit() - RECORD_HEADER_SIZE)
+                .decode(new BsonDocumentCodec());
+    }
+
+    /**
+     * Returns the sequence of the last appended entry.
+     *
+     * @return the sequence of the last appended entry
+     */
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Returns the sequence of the last acknowledged entry.
+     *
+     * @return the sequence of the last acknowledged entry
+     */
+    public long acknowledgedSequence() {
+        return acknowledgedSequence;
+    }
+
+    /**
+     * Appends the specified updates of the root model with the specified
+     * {@code _id}.
+     * <p>
+     * The entry is not guaranteed to be durable until it is synced.
+     * <p>
+     * Since the entries are replayed at least once, only the
+     * {@link #IDEMPOTENT_OPERATORS idempotent operators} are accepted.
+     * The updates with other operators, such as {@code $inc} or the
+     * {@code $push} of the elements appended to an append-only std-list
+     * field, would be applied more than once on replay, so they should be
+     * written to MongoDB directly instead.
+     *
+     * @param id      the {@code _id}
+     * @param updates the updates, typically created by
+     *                {@link RootModel#toUpdates()}
+     * @return the sequence of the entry, or the last sequence if the
+     * updates are empty
+     * @throws IllegalArgumentException if any update uses an operator
+     *                                  which is not idempotent
+     * @throws IOException              if any I/O error occurs
+     * @see #sync(long)
+     */
+    public long append(BsonValue id, List<? extends Bson> updates) throws IOException {
+        if (updates.isEmpty()) {
+            return lastSequence;
+        }
+        var array = new BsonArray(new ArrayList<>(updates.size()));
+        for (var update : updates) {
+            var document = update.toBsonDocument();
+            for (var operator : document.keySet()) {
+                if (!IDEMPOTENT_OPERATORS.contains(operator)) {
+                    throw new IllegalArgumentException("Non-idempotent update operator " + operator
+                            + " can't be replayed more than once");
+                }
+            }
+            array.add(document);
+        }
+        var payload = encode(new BsonDocument(ID, id).append(UPDATES, array));
+        writeLock.lock();
+        try {
+            var sequence = lastSequence + 1;
+            appendRecord(sequence, TYPE_UPDATE, payload);
+            lastSequence = sequence;
+            if (position >= segmentSize) {
+                rotate();
+            }
+            return sequence;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void appendRecord(long sequence, byte type, byte[] payload) throws IOException {
+        var length = RECORD_HEADER_SIZE + payload.length;
+        var record = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        record.putInt(length).putInt(0).putLong(sequence).put(type).put(payload);
+        record.putInt(4, checksum(record.flip()));
+        write(record, position);
+        position += length;
+    }
+
+    // guarded by writeLock
+    private void rotate() throws IOException {
+        syncLock.lock();
+        try {
+            var channel = this.channel;
+            // the sealed segment is always durable
+            channel.force(false);
+            syncedSequence = lastSequence;
+            channel.close();
+            var segmentPath = segmentPath(nextSegmentNumber++);
+            Files.move(path, segmentPath, StandardCopyOption.ATOMIC_MOVE);
+            segments.add(new Segment(segmentPath, lastSequence));
+            this.channel = channel = openChannel(path);
+            write(ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(MAGIC).putInt(FORMAT_VERSION).flip(), 0);
+            channel.force(true);
+            position = HEADER_SIZE;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // guarded by writeLock
+    private void deleteAcknowledgedSegments() throws IOException {
+        var acknowledged = acknowledgedSequence;
+        for (var iterator = segments.iterator(); iterator.hasNext(); ) {
+            var segment = iterator.next();
+            if (segment.lastSequence() > acknowledged) {
+                break;
+            }
+            Files.deleteIfExists(segment.path());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Returns the number of the sealed segments not fully acknowledged
+     * yet.
+     *
+     * @return the number of the sealed segments
+     */
+    public int segmentCount() {
+        writeLock.lock();
+        try {
+            return segments.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Forces the entries up to the specified sequence to the storage
+     * device.
+     * <p>
+     * The concurrent callers are committed by one force as a group.
+     *
+     * @param sequence the sequence
+     * @throws IOException if any I/O error occurs
+     */
+    public void sync(long sequence) throws IOException {
+        if (syncedSequence >= sequence) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (syncedSequence >= sequence) {
+                return;
+            }
+            var target = lastSequence;
+            channel.force(false);
+            syncedSequence = target;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Acknowledges that all entries up to the specified sequence are
+     * written to MongoDB.
+     * <p>
+     * The sealed segments with all entries acknowledged will be deleted,
+     * and the log file will be truncated if all appended entries are
+     * acknowledged.
+     *
+     * @param sequence the sequence
+     * @throws IOException if any I/O error occurs
+     */
+    public void acknowledge(long sequence) throws IOException {
+        writeLock.lock();
+        try {
+            if (sequence <= acknowledgedSequence) {
+                return;
+            }
+            var last = lastSequence;
+            if (sequence > last) {
+                throw new IllegalArgumentException("Sequence " + sequence + " has not been appended yet, last is " + last);
+            }
+            if (sequence == last) {
+                channel.truncate(HEADER_SIZE);
+                position = HEADER_SIZE;
+            } else {
+                appendRecord(sequence, TYPE_ACKNOWLEDGEMENT, new byte[0]);
+            }
+            channel.force(false);
+            acknowledgedSequence = sequence;
+            // the acknowledgement is durable before the segments are deleted
+            deleteAcknowledgedSegments();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replays the unacknowledged entries in order.
+     *
+     * @param action the action applies an entry
+     * @return the number of the replayed entries
+     * @throws IOException if any I/O error occurs
+     */
+    public int replay(Consumer<? super Entry> action) throws IOException {
+        var entries = new ArrayList<Entry>();
+        writeLock.lock();
+        try {
+            var acknowledged = acknowledgedSequence;
+            Consumer<ByteBuffer> collector = record -> {
+                var sequence = record.getLong(8);
+                if (record.get(16) == TYPE_UPDATE && sequence > acknowledged) {
+                    var document = decode(record);
+                    var updates = document.getArray(UPDATES).stream().map(BsonValue::asDocument).toList();
+                    entries.add(new Entry(sequence, document.get(ID), updates));
+                }
+            };
+            for (var segment : segments) {
+                try (var segmentChannel = FileChannel.open(segment.path(), StandardOpenOption.READ)) {
+                    scan(segmentChannel, collector);
+                }
+            }
+            scan(channel, collector);
+        } finally {
+            writeLock.unlock();
+        }
+        entries.forEach(action);
+        return entries.size();
+    }
+
+    /**
+     * Forces all appended entries to the storage device and closes this
+     * log.
+     *
+     * @throws IOException if any I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+}
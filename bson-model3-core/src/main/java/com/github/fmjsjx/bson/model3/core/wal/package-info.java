@@ -0,0 +1,7 @@
+/**
+ * Write-ahead logs of the pending updates for BSON model 3 core package.
+ */
+@NullMarked
+package com.github.fmjsjx.bson.model3.core.wal;
+
+import org.jspecify.annotations.NullMarked;
@@ -0,0 +1,153 @@
+package com.github.fmjsjx.bson.model3.core;
+
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotInput;
+import com.github.fmjsjx.bson.model3.core.snapshot.SnapshotOutput;
+import com.mongodb.client.model.Updates;
+import org.bson.*;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DynamicObjectModelTests {
+
+    private static BsonDocument createDocument() {
+        return new BsonDocument("a", new BsonInt32(1))
+                .append("cfg", new BsonDocument("x", new BsonString("s"))
+                        .append("deep", new BsonDocument("n", new BsonInt32(2))))
+                .append("arr", new BsonArray(List.of(new BsonInt32(1), new BsonInt32(2))))
+                .append("t", new BsonDateTime(1717200000000L));
+    }
+
+    private static List<BsonDocument> toDocuments(List<Bson> updates) {
+        return updates.stream().map(Bson::toBsonDocument).toList();
+    }
+
+    @Test
+    public void testChangesAndUpdates() {
+        var model = new DynamicObjectModel().load(createDocument());
+        assertEquals(createDocument(), model.toBsonValue());
+        assertFalse(model.anyChanged());
+        assertEquals(new BsonInt32(1), model.get("a"));
+        var cfg = model.getObject("cfg");
+        assertNotNull(cfg);
+        assertNull(model.getObject("a"));
+
+        // equal values are ignored
+        model.put("a", new BsonInt32(1));
+        assertFalse(model.anyChanged());
+
+        cfg.getOrCreateObject("deep").put("n", new BsonInt32(3));
+        model.remove("arr");
+        model.put("b", new BsonDocument("y", BsonBoolean.TRUE));
+        assertTrue(model.anyUpdated());
+        assertTrue(model.anyDeleted());
+        assertEquals(1, model.deletedSize());
+        var updates = new ArrayList<Bson>();
+        assertEquals(3, model.appendUpdates(updates));
+        assertEquals(List.of(
+                Updates.set("cfg.deep.n", new BsonInt32(3)).toBsonDocument(),
+                Updates.unset("arr").toBsonDocument(),
+                Updates.set("b", new BsonDocument("y", BsonBoolean.TRUE)).toBsonDocument()
+        ), toDocuments(updates));
+        assertEquals(Map.of("cfg", Map.of("deep", Map.of("n", 3)), "b", Map.of("y", true)), model.toUpdated());
+        assertEquals(Map.of("arr", BsonModelConstants.DELETED_VALUE), model.toDeleted());
+
+        var follower = new DynamicObjectModel().load(createDocument());
+        follower.applyUpdated(model.toUpdated()).applyDeleted(model.toDeleted());
+        assertEquals(model.toBsonValue(), follower.toBsonValue());
+
+        model.reset();
+        assertFalse(model.anyChanged());
+        assertThrows(IllegalArgumentException.class, () -> model.put("c", "text"));
+    }
+
+    @Test
+    public void testStoreAndDisplayData() {
+        var model = new DynamicObjectModel().load(createDocument());
+        var storeData = model.toStoreData();
+        assertEquals(Map.of("x", "s", "deep", Map.of("n", 2)), storeData.get("cfg"));
+        assertEquals(List.of(1, 2), storeData.get("arr"));
+        assertEquals(Map.of("$date", 1717200000000L), storeData.get("t"));
+        assertEquals(storeData, model.toDisplayData());
+
+        var loaded = new DynamicObjectModel().loadStoreData(storeData);
+        assertEquals(createDocument(), loaded.toBsonValue());
+
+        var objectId = new ObjectId();
+        model.put("oid", new BsonObjectId(objectId));
+        storeData = model.toStoreData();
+        assertEquals(Map.of("$oid", objectId.toHexString()), storeData.get("oid"));
+        loaded = new DynamicObjectModel().loadStoreData(storeData);
+        assertEquals(new BsonObjectId(objectId), loaded.get("oid"));
+
+        // the types which can't be round-tripped are rejected
+        model.put("bin", new BsonBinary(new byte[]{1, 2}));
+        assertThrows(IllegalArgumentException.class, model::toStoreData);
+        assertThrows(IllegalArgumentException.class, model::toDisplayData);
+    }
+
+    @Test
+    public void testSnapshotAndChanges() {
+        var model = new DynamicObjectModel().load(createDocument());
+        var out = new SnapshotOutput();
+        model.writeSnapshot(out);
+        var bytes = out.toByteArray();
+        var copy = new DynamicObjectModel().readSnapshot(new SnapshotInput(bytes, 0, bytes.length));
+        assertEquals(createDocument(), copy.toBsonValue());
+
+        model.getOrCreateObject("cfg").remove("x");
+        model.put("t", new BsonDateTime(0));
+        model.put("d", new BsonDocument("z", new BsonInt32(9)));
+        out = new SnapshotOutput();
+        model.writeChanges(out);
+        bytes = out.toByteArray();
+        copy.applyChanges(new SnapshotInput(bytes, 0, bytes.length));
+        assertEquals(model.toBsonValue(), copy.toBsonValue());
+
+        var deepCopy = model.deepCopy();
+        assertEquals(model.toBsonValue(), deepCopy.toBsonValue());
+        assertNotSame(model.getObject("cfg"), deepCopy.getObject("cfg"));
+    }
+
+    @Test
+    public void testGeneratedField() {
+        var player = PlayerFixtures.createPlayer();
+        var preferences = player.getPreferences();
+        assertNull(preferences.getExtras());
+        preferences.setExtras(new DynamicObjectModel().load(createDocument()));
+        player.reset();
+
+        var extras = preferences.getExtras();
+        assertNotNull(extras);
+        extras.getOrCreateObject("cfg").put("x", new BsonString("t"));
+        extras.remove("a");
+        var updates = new ArrayList<Bson>();
+        player.appendUpdates(updates);
+        assertEquals(List.of(
+                Updates.set("p.x.cfg.x", new BsonString("t")).toBsonDocument(),
+                Updates.unset("p.x.a").toBsonDocument()
+        ), toDocuments(updates));
+        assertEquals(Map.of("preferences", Map.of("extras", Map.of("cfg", Map.of("x", "t")))), player.toUpdated());
+        assertEquals(Map.of("preferences", Map.of("extras", Map.of("a", BsonModelConstants.DELETED_VALUE))), player.toDeleted());
+
+        var copy = new Player().load(player.toBsonValue());
+        assertEquals(player.toBsonValue(), copy.toBsonValue());
+        var bytes = player.toSnapshot();
+        assertEquals(player.toBsonValue(), new Player().readFrom(bytes).toBsonValue());
+
+        player.reset();
+        preferences.setExtras(null);
+        updates.clear();
+        player.appendUpdates(updates);
+        assertEquals(List.of(Updates.unset("p.x").toBsonDocument()), toDocuments(updates));
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.github.fmjsjx.bson.model3.core;
+
+import com.github.fmjsjx.bson.model3.core.model.Equipment;
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MapIndexTests {
+
+    private static Equipment equipment(String id, int refId, int atk) {
+        var equipment = new Equipment();
+        equipment.setId(id);
+        equipment.setRefId(refId);
+        equipment.setAtk(atk);
+        return equipment;
+    }
+
+    @Test
+    public void testUniqueIndex() {
+        var player = PlayerFixtures.createPlayer();
+        var equipments = player.getEquipments();
+        var byId = equipments.uniqueIndex(Equipment::getId);
+        assertEquals(1, byId.size());
+        assertEquals("weapon", byId.getKey("eq001"));
+        assertSame(equipments.get("weapon"), byId.get("eq001"));
+
+        equipments.put("armor", equipment("eq002", 1002, 10));
+        assertEquals("armor", byId.getKey("eq002"));
+        var e = assertThrows(IllegalStateException.class, () -> equipments.put("ring", equipment("eq002", 1003, 0)));
+        assertEquals("Duplicate index key eq002 of map keys armor and ring", e.getMessage());
+        assertNull(equipments.get("ring"));
+        // replacing the value of the same key is not a violation
+        equipments.put("armor", equipment("eq002", 1004, 20));
+        assertEquals(1004, byId.get("eq002").getRefId());
+
+        // in-place changes of the values are followed
+        player.reset();
+        equipments.get("weapon").setId("eq003");
+        assertNull(byId.get("eq001"));
+        assertEquals("weapon", byId.getKey("eq003"));
+        equipments.get("weapon").setId("eq004");
+        assertEquals("weapon", byId.getKey("eq004"));
+        assertNull(byId.get("eq003"));
+
+        equipments.remove("weapon");
+        assertNull(byId.get("eq004"));
+        assertEquals(1, byId.size());
+        equipments.clear();
+        assertEquals(0, byId.size());
+    }
+
+    @Test
+    public void testUniqueIndexViolatedByChanges() {
+        var player = PlayerFixtures.createPlayer();
+        var equipments = player.getEquipments();
+        equipments.put("armor", equipment("eq002", 1002, 10));
+        var byId = equipments.uniqueIndex(Equipment::getId);
+        var byRefId = equipments.multiIndex(Equipment::getRefId);
+
+        // values exchanging their index keys are not violations
+        equipments.get("weapon").setId("eq002");
+        equipments.get("armor").setId("eq001");
+        assertEquals("weapon", byId.getKey("eq002"));
+        assertEquals("armor", byId.getKey("eq001"));
+
+        equipments.get("armor").setId("eq002");
+        equipments.get("armor").setRefId(2002);
+        var e = assertThrows(IllegalStateException.class, () -> byId.get("eq002"));
+        assertTrue(e.getMessage().startsWith("Duplicate index key eq002 of map keys "), e.getMessage());
+        // the indexes are never left half updated
+        assertThrows(IllegalStateException.class, () -> byId.get("eq001"));
+        assertThrows(IllegalStateException.class, () -> byRefId.getKeys(2002));
+
+        equipments.get("armor").setId("eq003");
+        assertEquals("weapon", byId.getKey("eq002"));
+        assertEquals("armor", byId.getKey("eq003"));
+        assertNull(byId.get("eq001"));
+        assertEquals(2, byId.size());
+        assertEquals(Set.of("armor"), byRefId.getKeys(2002));
+        // changes after the rebuilding are followed
+        equipments.get("weapon").setId("eq004");
+        assertEquals("weapon", byId.getKey("eq004"));
+        assertNull(byId.get("eq002"));
+    }
+
+    @Test
+    public void testMultiIndex() {
+        var player = PlayerFixtures.createPlayer();
+        var equipments = player.getEquipments();
+        equipments.put("armor", equipment("eq002", 1001, 10));
+        equipments.put("ring", equipment("eq003", 1002, 0));
+        var byRefId = equipments.multiIndex(Equipment::getRefId);
+        assertEquals(Set.of("weapon", "armor"), byRefId.getKeys(1001));
+        assertEquals(List.of(equipments.get("weapon"), equipments.get("armor")), byRefId.get(1001));
+        assertEquals(1, byRefId.count(1002));
+        assertEquals(List.of(), byRefId.get(1003));
+
+        equipments.get("armor").setRefId(1002);
+        assertEquals(Set.of("weapon"), byRefId.getKeys(1001));
+        assertEquals(Set.of("ring", "armor"), byRefId.getKeys(1002));
+        equipments.remove("ring");
+        assertEquals(Set.of("armor"), byRefId.getKeys(1002));
+        // changes after a lookup are followed too
+        equipments.get("armor").setRefId(1003);
+        assertEquals(0, byRefId.count(1002));
+        assertEquals(1, byRefId.count(1003));
+    }
+
+    @Test
+    public void testReload() {
+        var player = PlayerFixtures.createPlayer();
+        var equipments = player.getEquipments();
+        var byId = equipments.uniqueIndex(Equipment::getId);
+        var byRefId = equipments.multiIndex(Equipment::getRefId);
+
+        var other = player.deepCopy();
+        other.getEquipments().get("weapon").setRefId(2001);
+        other.getEquipments().put("armor", equipment("eq002", 2001, 10));
+        var weapon = equipments.get("weapon");
+        player.load(other.toBsonValue());
+        assertSame(weapon, byId.get("eq001"));
+        assertEquals("armor", byId.getKey("eq002"));
+        assertEquals(Set.of("weapon", "armor"), byRefId.getKeys(2001));
+        assertEquals(0, byRefId.count(1001));
+
+        // indexes are not copied
+        var copy = player.getEquipments().deepCopy();
+        assertEquals(2, byId.size());
+        copy.remove("armor");
+        assertEquals("armor", byId.getKey("eq002"));
+
+        player.readFrom(PlayerFixtures.createPlayer().toSnapshot());
+        assertEquals(1, byId.size());
+        assertNull(byId.get("eq002"));
+        assertEquals(Set.of("weapon"), byRefId.getKeys(1001));
+    }
+
+}
@@ -1,12 +1,15 @@
 package com.github.fmjsjx.bson.model3.core;
 
 import com.github.fmjsjx.bson.model3.core.model.*;
+import com.github.fmjsjx.bson.model3.core.util.BsonUpdateUtil;
 import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.changestream.UpdateDescription;
 import org.bson.*;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -66,6 +69,90 @@ public class ModelTests {
         assertNull(player.getBasicInfo().getAvatar()); // default value
     }
 
+    @Test
+    public void testReloadReusesInstances() {
+        var player = createTestPlayer();
+        var location = new GeoJsonPoint();
+        location.setCoordinates(Arrays.asList(116.4074, 39.9042));
+        player.getLogin().setLastLoginLocation(location);
+        var shield = new Equipment();
+        shield.setId("eq002");
+        player.getEquipments().put("shield", shield);
+        player.reset();
+        var weapon = player.getEquipments().get("weapon");
+        assertNotNull(weapon);
+
+        var src = player.deepCopy();
+        src.getEquipments().remove("shield");
+        var armor = new Equipment();
+        armor.setId("eq003");
+        src.getEquipments().put("armor", armor);
+        var srcWeapon = src.getEquipments().get("weapon");
+        assertNotNull(srcWeapon);
+        srcWeapon.setAtk(999);
+        src.getLogin().getLastLoginLocation().setCoordinates(Arrays.asList(1.0, 2.0));
+        var doc = src.toBsonValue();
+
+        player.load(doc);
+        assertEquals(doc, player.toBsonValue());
+        assertFalse(player.anyChanged());
+        assertSame(weapon, player.getEquipments().get("weapon"));
+        assertSame(player.getEquipments(), weapon.parent());
+        assertEquals(999, weapon.getAtk());
+        assertFalse(shield.isAttached());
+        assertFalse(player.getEquipments().containsKey("shield"));
+        assertSame(location, player.getLogin().getLastLoginLocation());
+        assertEquals(List.of(1.0, 2.0), location.getCoordinates());
+
+        player.loadStoreData(src.toStoreData());
+        assertEquals(doc, player.toBsonValue());
+        assertSame(weapon, player.getEquipments().get("weapon"));
+        assertSame(location, player.getLogin().getLastLoginLocation());
+        assertEquals(Set.of("weapon", "armor"), player.getEquipments().keys());
+    }
+
+    @Test
+    public void testRecycler() {
+        var recycler = Recycler.of(Equipment::new, 2);
+        var player = createTestPlayer();
+        var equipments = player.getEquipments().recycler(recycler);
+        var weapon = equipments.get("weapon");
+        assertNotNull(weapon);
+        for (var i = 0; i < 3; i++) {
+            var equipment = new Equipment();
+            equipment.setId("eq" + i);
+            equipment.setAtk(i + 1);
+            equipments.put("slot" + i, equipment);
+        }
+        player.reset();
+
+        // values returned to callers are never recycled
+        var removed = equipments.remove("slot0");
+        assertNotNull(removed);
+        assertEquals(0, recycler.size());
+
+        var doc = player.toBsonValue();
+        equipments.clear();
+        assertEquals(2, recycler.size());
+        assertFalse(weapon.isAttached());
+
+        player.load(doc);
+        assertEquals(doc, player.toBsonValue());
+        assertEquals(0, recycler.size());
+        var reloaded = equipments.get("weapon");
+        assertNotNull(reloaded);
+        assertSame(player.getEquipments(), reloaded.parent());
+        assertFalse(reloaded.anyChanged());
+
+        var equipment = new Equipment();
+        equipment.setId("eq");
+        equipment.setAtk(100);
+        equipment.recycle();
+        assertEquals("", equipment.getId());
+        assertEquals(0, equipment.getAtk());
+        assertFalse(equipment.anyChanged());
+    }
+
     // ==================== 2. 父子关系管理测试 ====================
 
     @Test
@@ -898,6 +985,360 @@ public class ModelTests {
         assertTrue(player.anyChanged());
     }
 
+    @Test
+    public void testPackedDateTime() {
+        var login = new LoginInfo();
+        assertEquals(BsonModelConstants.EPOCH_DATE_TIME, login.getLastLoginTime());
+        assertEquals(BsonModelConstants.EPOCH_DATE_TIME_MILLIS, login.getLastLoginTimeMillis());
+
+        var time = LocalDateTime.of(2024, 6, 1, 12, 0, 0);
+        login.setLastLoginTime(time);
+        var millis = login.getLastLoginTimeMillis();
+        assertEquals(time, login.getLastLoginTime());
+        assertEquals(millis, login.getLastLoggedInAt());
+        assertTrue(login.anyChanged());
+
+        login.reset();
+        login.setLastLoginTimeMillis(millis);
+        assertFalse(login.anyChanged());
+
+        var bson = login.toBsonValue();
+        assertEquals(new BsonDateTime(millis), bson.get(LoginInfo.STORE_NAME_LAST_LOGIN_TIME));
+        var loaded = new LoginInfo().load(bson);
+        assertEquals(millis, loaded.getLastLoginTimeMillis());
+        assertEquals(time, loaded.getLastLoginTime());
+
+        login.setLastLoginTimeMillis(millis + 1000);
+        var updates = new ArrayList<org.bson.conversions.Bson>();
+        assertEquals(1, login.appendUpdates(updates));
+        assertEquals(Updates.set(LoginInfo.STORE_NAME_LAST_LOGIN_TIME, new BsonDateTime(millis + 1000)).toBsonDocument(),
+                updates.getFirst().toBsonDocument());
+
+        loaded.clean();
+        assertEquals(BsonModelConstants.EPOCH_DATE_TIME_MILLIS, loaded.getLastLoginTimeMillis());
+    }
+
+    @Test
+    public void testPackedDateAndTime() {
+        var basicInfo = new BasicInfo();
+        assertEquals(LocalDate.EPOCH, basicInfo.getRegisteredDate());
+        assertEquals(BsonModelConstants.EPOCH_DATE_NUMBER, basicInfo.getRegisteredDateNumber());
+        assertEquals(LocalTime.MIDNIGHT, basicInfo.getDailyResetTime());
+        assertEquals(0, basicInfo.getDailyResetTimeNumber());
+
+        basicInfo.setRegisteredDate(LocalDate.of(2024, 6, 1));
+        basicInfo.setDailyResetTime(LocalTime.of(5, 30));
+        assertEquals(20240601, basicInfo.getRegisteredDateNumber());
+        assertEquals(53000, basicInfo.getDailyResetTimeNumber());
+        assertEquals(Map.of(BasicInfo.DISPLAY_NAME_REGISTERED_DATE, "2024-06-01",
+                BasicInfo.DISPLAY_NAME_DAILY_RESET_TIME, "05:30:00"), basicInfo.toUpdated());
+        var updates = new ArrayList<org.bson.conversions.Bson>();
+        assertEquals(2, basicInfo.appendUpdates(updates));
+        assertEquals(List.of(Updates.set(BasicInfo.STORE_NAME_REGISTERED_DATE, new BsonInt32(20240601)).toBsonDocument(),
+                        Updates.set(BasicInfo.STORE_NAME_DAILY_RESET_TIME, new BsonInt32(53000)).toBsonDocument()),
+                updates.stream().map(org.bson.conversions.Bson::toBsonDocument).toList());
+
+        basicInfo.reset();
+        basicInfo.setRegisteredDateNumber(20240601);
+        basicInfo.setDailyResetTime(LocalTime.of(5, 30));
+        assertFalse(basicInfo.anyChanged());
+
+        var bson = basicInfo.toBsonValue();
+        assertEquals(new BsonInt32(20240601), bson.get(BasicInfo.STORE_NAME_REGISTERED_DATE));
+        assertEquals(new BsonInt32(53000), bson.get(BasicInfo.STORE_NAME_DAILY_RESET_TIME));
+        var loaded = new BasicInfo().load(bson);
+        assertEquals(LocalDate.of(2024, 6, 1), loaded.getRegisteredDate());
+        assertEquals(LocalTime.of(5, 30), loaded.getDailyResetTime());
+        assertEquals(bson, new BasicInfo().loadStoreData(basicInfo.toStoreData()).toBsonValue());
+        assertEquals(bson, basicInfo.deepCopy().toBsonValue());
+
+        var applied = new BasicInfo().applyUpdated(basicInfo.toDisplayData());
+        assertEquals(20240601, applied.getRegisteredDateNumber());
+        assertEquals(53000, applied.getDailyResetTimeNumber());
+
+        loaded.clean();
+        assertEquals(BsonModelConstants.EPOCH_DATE_NUMBER, loaded.getRegisteredDateNumber());
+        assertEquals(0, loaded.getDailyResetTimeNumber());
+    }
+
+    @Test
+    public void testUnboxedNullableField() {
+        var basicInfo = new BasicInfo();
+        assertFalse(basicInfo.hasLevel());
+        assertNull(basicInfo.getLevel());
+        assertNull(basicInfo.toBsonValue().get(BasicInfo.STORE_NAME_LEVEL));
+
+        basicInfo.setLevelAsInt(0);
+        assertTrue(basicInfo.hasLevel());
+        assertEquals(0, basicInfo.getLevel());
+        assertTrue(basicInfo.anyUpdated());
+        assertEquals(new BsonInt32(0), basicInfo.toBsonValue().get(BasicInfo.STORE_NAME_LEVEL));
+
+        basicInfo.reset();
+        basicInfo.setLevel(0);
+        assertFalse(basicInfo.anyChanged());
+        basicInfo.setLevel(12);
+        assertEquals(12, basicInfo.getLevelAsInt());
+        var updates = new ArrayList<org.bson.conversions.Bson>();
+        assertEquals(1, basicInfo.appendUpdates(updates));
+        assertEquals(Updates.set(BasicInfo.STORE_NAME_LEVEL, new BsonInt32(12)).toBsonDocument(), updates.getFirst().toBsonDocument());
+
+        var loaded = new BasicInfo().load(basicInfo.toBsonValue());
+        assertEquals(12, loaded.getLevel());
+        var copy = basicInfo.deepCopy();
+        assertEquals(12, copy.getLevel());
+        var restored = new BasicInfo().loadStoreData(basicInfo.toStoreData());
+        assertEquals(12, restored.getLevel());
+
+        basicInfo.reset();
+        basicInfo.setLevel(null);
+        assertFalse(basicInfo.hasLevel());
+        assertEquals(0, basicInfo.getLevelAsInt());
+        assertTrue(basicInfo.anyDeleted());
+        assertEquals(1, basicInfo.deletedSize());
+        assertEquals(Map.of(BasicInfo.DISPLAY_NAME_LEVEL, BsonModelConstants.DELETED_VALUE), basicInfo.toDeleted());
+        updates.clear();
+        assertEquals(1, basicInfo.appendUpdates(updates));
+        assertEquals(Updates.unset(BasicInfo.STORE_NAME_LEVEL).toBsonDocument(), updates.getFirst().toBsonDocument());
+
+        loaded.load(basicInfo.toBsonValue());
+        assertFalse(loaded.hasLevel());
+        // reloading store data without the field clears it as well
+        restored.loadStoreData(basicInfo.toStoreData());
+        assertFalse(restored.hasLevel());
+        assertNull(restored.getLevel());
+        assertEquals(0, restored.getLevelAsInt());
+        copy.clean();
+        assertFalse(copy.hasLevel());
+    }
+
+    @Test
+    public void testLazyChildModel() {
+        var player = new Player();
+        assertEquals(new BsonDocument(), player.toBsonValue().get(Player.STORE_NAME_EQUIPMENTS));
+        assertEquals(Map.of(), player.toDisplayData().get(Player.DISPLAY_NAME_EQUIPMENTS));
+        assertFalse(player.anyChanged());
+
+        var equipments = player.getEquipments();
+        assertSame(equipments, player.getEquipments());
+        var equipment = new Equipment();
+        equipment.setId("eq001");
+        equipment.setRefId(1001);
+        equipments.put("slot1", equipment);
+        assertTrue(player.anyUpdated());
+        var updates = new ArrayList<org.bson.conversions.Bson>();
+        assertEquals(1, player.appendUpdates(updates));
+
+        var copy = player.deepCopy();
+        assertEquals(1, copy.getEquipments().size());
+        var loaded = new Player().load(player.toBsonValue());
+        assertEquals("eq001", loaded.getEquipments().get("slot1").getId());
+        var restored = new Player().loadStoreData(player.toStoreData());
+        assertEquals(1001, restored.getEquipments().get("slot1").getRefId());
+
+        var empty = new Player();
+        loaded.load(empty.toBsonValue());
+        assertTrue(loaded.getEquipments().isEmpty());
+        assertEquals(empty.toBsonValue(), new Player().deepCopyFrom(empty).toBsonValue());
+    }
+
+    private static boolean isEquipmentsCreated(Player player) {
+        // the lazy child is printed as null before it is instantiated
+        return !player.toString().contains("equipments=null");
+    }
+
+    @Test
+    public void testEmptyLazyChildModel() {
+        var empty = new Player();
+        assertFalse(isEquipmentsCreated(empty));
+        assertFalse(isEquipmentsCreated(new Player().load(empty.toBsonValue())));
+        assertFalse(isEquipmentsCreated(new Player().loadStoreData(empty.toStoreData())));
+        var writer = new com.github.fmjsjx.bson.model3.core.json.JsonDataWriterTests.StringJsonDataWriter();
+        empty.writeStoreData(writer);
+        var reader = new com.github.fmjsjx.bson.model3.core.json.JsonDataReaderTests.StringJsonDataReader(writer.toString());
+        assertFalse(isEquipmentsCreated(new Player().readStoreData(reader)));
+        assertFalse(isEquipmentsCreated(new Player().readFrom(empty.toSnapshot())));
+        assertFalse(isEquipmentsCreated(empty.deepCopy()));
+
+        // an instantiated child is kept and cleaned by the empty document
+        var player = new Player();
+        player.getEquipments().put("slot1", new Equipment());
+        player.load(empty.toBsonValue());
+        assertTrue(isEquipmentsCreated(player));
+        assertTrue(player.getEquipments().isEmpty());
+    }
+
+    @Test
+    public void testPartialLoad() {
+        var player = createTestPlayer();
+        player.reset();
+        var src = player.toBsonValue();
+
+        var projection = Player.projection(Player.FIELD_INDEX_BASIC_INFO, Player.FIELD_INDEX_WALLET);
+        assertEquals(new BsonDocument(Player.STORE_NAME_BASIC_INFO, new BsonInt32(1))
+                .append(Player.STORE_NAME_WALLET, new BsonInt32(1)), projection);
+        assertThrows(IllegalArgumentException.class, () -> Player.projection(Player.FIELD_INDEX_UPDATED_AT));
+
+        var partial = new Player().loadPartial(src, Player.FIELD_INDEX_ID, Player.FIELD_INDEX_BASIC_INFO,
+                Player.FIELD_INDEX_WALLET);
+        assertTrue(partial.isPartial());
+        assertTrue(partial.isFieldLoaded(Player.FIELD_INDEX_WALLET));
+        assertFalse(partial.isFieldLoaded(Player.FIELD_INDEX_LOGIN));
+        assertEquals(player.getBasicInfo().getName(), partial.getBasicInfo().getName());
+        assertEquals(player.getWallet().getCoinTotal(), partial.getWallet().getCoinTotal());
+        assertFalse(partial.anyChanged());
+
+        partial.getWallet().setCoinTotal(partial.getWallet().getCoinTotal() + 10);
+        assertEquals(1, partial.toUpdates().size());
+        partial.reset();
+        assertTrue(partial.isPartial());
+        assertThrows(IllegalStateException.class, () -> partial.getLogin().setCount(100));
+        assertThrows(IllegalStateException.class, () -> partial.setUpdatedVersion(100));
+        assertThrows(IllegalStateException.class, partial::toBsonValue);
+        assertThrows(IllegalStateException.class, partial::toStoreData);
+        var writer = new com.github.fmjsjx.bson.model3.core.json.JsonDataWriterTests.StringJsonDataWriter();
+        assertThrows(IllegalStateException.class, () -> partial.writeStoreData(writer));
+        assertThrows(IllegalStateException.class, partial::toSnapshot);
+
+        var absentProjection = partial.absentProjection();
+        assertFalse(absentProjection.containsKey(Player.STORE_NAME_WALLET));
+        assertTrue(absentProjection.containsKey(Player.STORE_NAME_LOGIN));
+        partial.getWallet().setCoinTotal(partial.getWallet().getCoinTotal() + 10);
+        partial.loadAbsent(src);
+        assertFalse(partial.isPartial());
+        assertEquals(new BsonDocument(), partial.absentProjection());
+        assertTrue(partial.isFieldChanged(Player.FIELD_INDEX_WALLET));
+        assertEquals(player.getLogin().getCount(), partial.getLogin().getCount());
+        partial.getWallet().setCoinTotal(player.getWallet().getCoinTotal());
+        assertEquals(src, partial.toBsonValue());
+
+        partial.loadPartial(src, Player.FIELD_INDEX_ID);
+        assertTrue(partial.isPartial());
+        partial.load(src);
+        assertFalse(partial.isPartial());
+    }
+
+    @Test
+    public void testApplyUpdateDescription() {
+        var player = createTestPlayer();
+        var equipment = new Equipment();
+        equipment.setId("eq001");
+        equipment.setRefId(1001);
+        player.getEquipments().put("slot1", equipment);
+        player.reset();
+        var remote = BsonUpdateUtil.applyUpdates(player.toBsonValue(), List.of(
+                Updates.set("w.ct", new BsonInt64(player.getWallet().getCoinTotal() + 100)),
+                Updates.set("e.slot1.a", new BsonInt32(15)),
+                Updates.unset("bi.n"),
+                Updates.set("x", new BsonString("unknown"))));
+        remote.remove("x");
+
+        player.getLogin().setCount(player.getLogin().getCount() + 1);
+        var description = new UpdateDescription(List.of("bi.n", "y"), new BsonDocument("w.ct", remote.getDocument("w").get("ct"))
+                .append("e.slot1.a", new BsonInt32(15)).append("x", new BsonString("unknown")));
+        player.applyUpdateDescription(description);
+        assertEquals(remote.getDocument("w").getInt64("ct").getValue(), player.getWallet().getCoinTotal());
+        assertEquals(15, player.getEquipments().get("slot1").getAtk());
+        assertEquals("", player.getBasicInfo().getName());
+        assertFalse(player.isFieldChanged(Player.FIELD_INDEX_WALLET));
+        assertFalse(player.isFieldChanged(Player.FIELD_INDEX_EQUIPMENTS));
+        assertEquals(1, player.toUpdates().size());
+        player.getLogin().setCount(player.getLogin().getCount() - 1);
+        player.reset();
+        assertEquals(new Player().load(remote).toBsonValue(), player.toBsonValue());
+
+        var partial = new Player().loadPartial(remote, Player.FIELD_INDEX_ID, Player.FIELD_INDEX_LOGIN);
+        partial.applyUpdateDescription(description);
+        assertEquals(0, partial.getWallet().getCoinTotal());
+        assertFalse(partial.anyChanged());
+    }
+
+    @Test
+    public void testApplyUpdateDescriptionKeepingPendingChanges() {
+        var player = createTestPlayer();
+        for (var slot : List.of("slot1", "slot2")) {
+            var equipment = new Equipment();
+            equipment.setId(slot);
+            equipment.setRefId(1001);
+            player.getEquipments().put(slot, equipment);
+        }
+        player.reset();
+        var slot1 = player.getEquipments().get("slot1");
+        var remote = BsonUpdateUtil.applyUpdates(player.toBsonValue(), List.of(
+                Updates.set("e.slot1.a", new BsonInt32(15)),
+                Updates.set("w.ct", new BsonInt64(player.getWallet().getCoinTotal() + 100)),
+                Updates.unset("e.slot3")));
+
+        player.getEquipments().get("slot2").setAtk(30);
+        player.getWallet().setCoinConsumed(player.getWallet().getCoinConsumed() + 5);
+        var description = new UpdateDescription(List.of("e.slot3"), new BsonDocument("e.slot1.a", new BsonInt32(15))
+                .append("w.ct", remote.getDocument("w").get("ct")));
+        player.applyUpdateDescription(description);
+        assertSame(slot1, player.getEquipments().get("slot1"));
+        assertEquals(15, slot1.getAtk());
+        assertEquals(remote.getDocument("w").getInt64("ct").getValue(), player.getWallet().getCoinTotal());
+        assertEquals(30, player.getEquipments().get("slot2").getAtk());
+        assertTrue(player.getEquipments().get("slot2").isFieldChanged(Equipment.FIELD_INDEX_ATK));
+        assertTrue(player.getWallet().isFieldChanged(Wallet.FIELD_INDEX_COIN_CONSUMED));
+        assertEquals(2, player.toUpdates().size());
+        assertEquals(player.toBsonValue(), BsonUpdateUtil.applyUpdates(remote, player.toUpdates()));
+    }
+
+    @Test
+    public void testApplyUpdatedAndDeleted() {
+        var player = createTestPlayer();
+        var mirror = player.deepCopy();
+
+        var equipment = new Equipment();
+        equipment.setId("eq002");
+        equipment.setRefId(1002);
+        equipment.setAtk(20);
+        player.getEquipments().put("armor", equipment);
+        player.getEquipments().get("weapon").setAtk(120);
+        player.getItems().put(1003, 30);
+        player.getItems().remove(1001);
+        player.getWallet().setCoinTotal(20000L);
+        player.getBasicInfo().setAvatar(null);
+        player.getBasicInfo().setLevelAsInt(9);
+        player.getPreferences().setFeatures(Arrays.asList("f3", null));
+        player.getPreferences().getAttributes().put("k", "v");
+        var location = new GeoJsonPoint();
+        location.setType("Point");
+        location.setCoordinates(List.of(1.0, 2.0));
+        player.getLogin().setLastLoginLocation(location);
+        // hidden fields are applied through their single-source virtual fields
+        player.setUpdatedTime(LocalDateTime.of(2024, 5, 6, 7, 8, 9));
+        player.getBasicInfo().setCreatedTime(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        player.getLogin().setLastLoginTime(LocalDateTime.of(2024, 5, 6, 7, 0));
+
+        mirror.applyUpdated(Objects.requireNonNull(player.toUpdated()))
+                .applyDeleted(Objects.requireNonNull(player.toDeleted()));
+        assertEquals(player.toBsonValue(), mirror.toBsonValue());
+        assertTrue(mirror.anyChanged());
+        assertEquals(player.toUpdated(), mirror.toUpdated());
+        assertEquals(player.toDeleted(), mirror.toDeleted());
+
+        player.reset();
+        mirror.reset();
+        player.getEquipments().remove("weapon");
+        player.getLogin().getLastLoginLocation().setCoordinates(List.of(3.0, 2.0));
+        player.getBasicInfo().setLevel(null);
+        player.getPreferences().setFeatures(null);
+        player.setUpdatedTime(null);
+        mirror.applyUpdated(Objects.requireNonNull(player.toUpdated()))
+                .applyDeleted(Objects.requireNonNull(player.toDeleted()));
+        assertEquals(player.toBsonValue(), mirror.toBsonValue());
+        assertNull(mirror.getUpdatedTime());
+
+        player.reset();
+        player.getLogin().setLastLoginLocation(null);
+        mirror.applyDeleted(Objects.requireNonNull(player.toDeleted()));
+        assertNull(mirror.getLogin().getLastLoginLocation());
+        // virtual fields derived from multiple fields and unknown fields are ignored
+        mirror.applyUpdated(Map.of("wallet", Map.of("coin", 1, "unknown", 2), "unknown", 3));
+        assertEquals(player.toBsonValue(), mirror.toBsonValue());
+    }
+
     // ==================== 辅助方法 ====================
 
     private Player createTestPlayer() {
@@ -2,8 +2,12 @@ package com.github.fmjsjx.bson.model3.core;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.List;
 import java.util.Map;
 
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.util.BsonSizeUtil;
+
 import org.bson.BsonDocument;
 import org.bson.BsonInt32;
 import org.bson.BsonString;
@@ -176,4 +180,75 @@ public class SingleValueMapModelTests {
         assertTrue(model.anyChanged());
         // For clear(), AbstractMapModel implementation might trigger full update or specific changes
     }
+
+    @Test
+    void testEstimateBsonSize() {
+        var model = SingleValueMapModel.stringKeysMap(SingleValues.string());
+        model.put("k1", "v1");
+        model.put("中文", "值");
+        assertEquals(BsonSizeUtil.sizeOf(model.toBsonValue()), model.estimateBsonSize());
+    }
+
+    @Test
+    void testAdaptiveFullUpdate() {
+        var player = new Player();
+        var items = player.getItems();
+        for (var i = 0; i < 10; i++) {
+            items.put(1000 + i, i);
+        }
+        player.reset();
+        // disabled by default
+        assertEquals(0, items.fullUpdateRatio());
+        items.put(1000, 100);
+        assertEquals(1, player.toUpdates().size());
+        for (var i = 0; i < 10; i++) {
+            items.put(1000 + i, i + 2);
+        }
+        assertEquals(10, player.toUpdates().size());
+        player.reset();
+
+        items.fullUpdateRatio(1.0);
+        items.put(1000, 100);
+        items.remove(1001);
+        assertEquals(2, player.toUpdates().size());
+        player.reset();
+
+        for (var i = 0; i < 10; i++) {
+            items.put(1000 + i, i + 1);
+        }
+        var updates = player.toUpdates();
+        assertEquals(1, updates.size());
+        assertEquals(new BsonDocument("$set", new BsonDocument(Player.STORE_NAME_ITEMS, items.toBsonValue())), updates.getFirst().toBsonDocument());
+
+        items.fullUpdateRatio(0);
+        assertEquals(10, player.toUpdates().size());
+        items.fullUpdateRatio(2.0);
+        assertEquals(10, player.toUpdates().size());
+        assertEquals(List.of(), player.reset().toUpdates());
+    }
+
+    @Test
+    void testCompactMap() {
+        var model = SingleValueMapModel.compactStringKeysMap(SingleValues.string());
+        assertTrue(model.isCompact());
+        assertFalse(SingleValueMapModel.stringKeysMap(SingleValues.string()).isCompact());
+        for (var i = 0; i < 10; i++) {
+            model.put("k" + i, "v" + i);
+        }
+        model.reset();
+        model.put("k1", "x");
+        model.remove("k2");
+        model.put("k10", "v10");
+        assertEquals(Map.of("k1", "x", "k10", "v10"), model.toUpdated());
+        assertEquals(Map.of("k2", 1), model.toDeleted());
+        assertEquals(10, model.size());
+
+        var copy = model.deepCopy();
+        assertTrue(copy.isCompact());
+        assertEquals(model.toBsonValue(), copy.toBsonValue());
+
+        var loaded = SingleValueMapModel.compactStringKeysMap(SingleValues.string()).load(model.toBsonValue());
+        assertEquals(model.toBsonValue(), loaded.toBsonValue());
+        assertFalse(loaded.anyChanged());
+    }
 }
@@ -0,0 +1,101 @@
+package com.github.fmjsjx.bson.model3.core;
+
+import com.github.fmjsjx.bson.model3.core.model.Equipment;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import com.mongodb.client.model.Updates;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SortedMapModelTests {
+
+    @Test
+    public void testNavigation() {
+        var player = PlayerFixtures.createPlayer();
+        var items = player.getItems();
+        assertTrue(items.isSorted());
+        assertFalse(player.getEquipments().isSorted());
+        items.put(1500, 1);
+        items.put(900, 2);
+        items.put(2000, 3);
+        assertEquals(List.of(900, 1001, 1002, 1500, 2000), List.copyOf(items.keys()));
+        assertEquals(900, items.firstKey());
+        assertEquals(2000, items.lastKey());
+        assertEquals(1002, items.floorKey(1499));
+        assertEquals(1500, items.ceilingKey(1003));
+        assertEquals(1001, items.lowerKey(1002));
+        assertEquals(1002, items.higherKey(1001));
+        assertNull(items.higherKey(2000));
+
+        assertEquals(Map.of(1001, 10, 1002, 5, 1500, 1), items.subMap(1000, true, 1999, true));
+        assertEquals(List.of(900), List.copyOf(items.headMap(1001, false).keySet()));
+        var page = items.tailMap(1001, false);
+        assertEquals(List.of(1002, 1500, 2000), List.copyOf(page.keySet()));
+        assertThrows(UnsupportedOperationException.class, () -> page.remove(1002));
+        // views are backed by the model
+        items.remove(1500);
+        assertEquals(List.of(1002, 2000), List.copyOf(page.keySet()));
+
+        assertThrows(UnsupportedOperationException.class, () -> player.getEquipments().floorKey("weapon"));
+        assertNull(SingleValueMapModel.sortedLongKeysMap(SingleValues.integer()).firstKey());
+    }
+
+    @Test
+    public void testChangesAndLoading() {
+        var player = PlayerFixtures.createPlayer();
+        var items = player.getItems();
+        items.put(1003, 1);
+        items.remove(1001);
+        var updates = new ArrayList<Bson>();
+        player.appendUpdates(updates);
+        assertEquals(List.of(Updates.set("i.1003", new BsonInt32(1)).toBsonDocument(), Updates.unset("i.1001").toBsonDocument()),
+                updates.stream().map(Bson::toBsonDocument).toList());
+        assertEquals(Map.of("items", Map.of(1003, 1)), player.toUpdated());
+
+        var copy = items.deepCopy();
+        assertTrue(copy.isSorted());
+        assertEquals(items.toBsonValue(), copy.toBsonValue());
+
+        items.load(new BsonDocument("3", new BsonInt32(3)).append("1", new BsonInt32(1)).append("2", new BsonInt32(2)));
+        assertEquals(List.of(1, 2, 3), List.copyOf(items.keys()));
+        assertFalse(items.anyChanged());
+    }
+
+    @Test
+    public void testReloadDefaultMapModel() {
+        var map = DefaultMapModel.sortedStringKeysMap(Equipment::new);
+        for (var id : List.of("c", "a", "d", "b")) {
+            var equipment = new Equipment();
+            equipment.setId(id);
+            map.put(id, equipment);
+        }
+        assertEquals(List.of("a", "b", "c", "d"), List.copyOf(map.keys()));
+        var b = map.get("b");
+
+        var src = new BsonDocument();
+        src.put("d", map.get("d").toBsonValue());
+        src.put("b", map.get("b").toBsonValue());
+        src.put("e", map.get("a").toBsonValue());
+        map.load(src);
+        assertEquals(Set.of("b", "d", "e"), map.keys());
+        assertEquals(List.of("b", "d", "e"), List.copyOf(map.keys()));
+        assertSame(b, map.get("b"));
+        assertEquals("a", map.get("e").getId());
+
+        var other = map.deepCopy();
+        other.remove("d");
+        var e = map.get("e");
+        map.loadStoreData(other.toStoreData());
+        assertEquals(List.of("b", "e"), List.copyOf(map.keys()));
+        assertSame(e, map.get("e"));
+    }
+
+}
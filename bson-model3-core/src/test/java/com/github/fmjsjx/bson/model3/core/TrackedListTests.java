@@ -0,0 +1,125 @@
+package com.github.fmjsjx.bson.model3.core;
+
+import com.github.fmjsjx.bson.model3.core.model.GeoJsonPoint;
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import com.github.fmjsjx.bson.model3.core.model.Preferences;
+import com.mongodb.client.model.Updates;
+import org.bson.BsonArray;
+import org.bson.BsonDouble;
+import org.bson.BsonString;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrackedListTests {
+
+    private static List<Bson> toUpdates(Player player) {
+        var updates = new ArrayList<Bson>();
+        player.appendUpdates(updates);
+        return updates;
+    }
+
+    private static List<Object> toDocuments(List<Bson> updates) {
+        return updates.stream().map(it -> (Object) it.toBsonDocument()).toList();
+    }
+
+    @Test
+    public void testAppends() {
+        var player = PlayerFixtures.createPlayer();
+        var source = List.of("f1", "f2");
+        player.getPreferences().setFeatures(source);
+        player.reset();
+
+        var features = player.getPreferences().getFeatures();
+        assertNotNull(features);
+        features.add("f3");
+        features.addAll(List.of("f4", "f5"));
+        assertTrue(player.getPreferences().isFieldChanged(Preferences.FIELD_INDEX_FEATURES));
+        assertEquals(List.of("f1", "f2"), source);
+        assertEquals(List.of("f1", "f2", "f3", "f4", "f5"), player.getPreferences().getFeatures());
+        // appends are updated by the idempotent $set by default
+        assertEquals(toDocuments(List.of(Updates.set("p.f", new BsonArray(List.of(new BsonString("f1"), new BsonString("f2"),
+                        new BsonString("f3"), new BsonString("f4"), new BsonString("f5")))))),
+                toDocuments(toUpdates(player)));
+        assertEquals(Map.of("preferences", Map.of("features", List.of("f1", "f2", "f3", "f4", "f5"))), player.toUpdated());
+    }
+
+    @Test
+    public void testAppendOnly() {
+        var preferences = new Preferences();
+        TrackedList<String> list = TrackedList.appendOnly(preferences, Preferences.FIELD_INDEX_FEATURES);
+        assertTrue(list.isAppendOnly());
+        assertFalse(new TrackedList<String>(preferences, Preferences.FIELD_INDEX_FEATURES).isAppendOnly());
+        list.load(List.of("f1", "f2"));
+        list.add("f3");
+        list.addAll(List.of("f4", "f5"));
+        assertTrue(preferences.isFieldChanged(Preferences.FIELD_INDEX_FEATURES));
+        assertEquals(toDocuments(List.of(Updates.pushEach("f", List.of(new BsonString("f3"), new BsonString("f4"), new BsonString("f5"))))),
+                toDocuments(List.of(list.toUpdate("f", BsonString::new))));
+
+        // tracking starts over after reset
+        preferences.reset();
+        list.add("f6");
+        assertEquals(toDocuments(List.of(Updates.pushEach("f", List.of(new BsonString("f6"))))),
+                toDocuments(List.of(list.toUpdate("f", BsonString::new))));
+
+        // any other mutation falls back to $set
+        list.remove(0);
+        assertEquals(toDocuments(List.of(Updates.set("f", new BsonArray(List.of(new BsonString("f2"), new BsonString("f3"),
+                        new BsonString("f4"), new BsonString("f5"), new BsonString("f6")))))),
+                toDocuments(List.of(list.toUpdate("f", BsonString::new))));
+    }
+
+    @Test
+    public void testOtherMutations() {
+        var player = PlayerFixtures.createPlayer();
+        player.reset();
+        var features = player.getPreferences().getFeatures();
+        assertNotNull(features);
+        features.add("f3");
+        features.remove(0);
+        assertEquals(toDocuments(List.of(Updates.set("p.f", new BsonArray(List.of(new BsonString("f2"), new BsonString("f3")))))),
+                toDocuments(toUpdates(player)));
+
+        player.reset();
+        // setting an equal element is not a change
+        features.set(0, "f2");
+        assertFalse(player.anyChanged());
+        features.removeIf("f2"::equals);
+        assertEquals(toDocuments(List.of(Updates.set("p.f", new BsonArray(List.of(new BsonString("f3")))))), toDocuments(toUpdates(player)));
+
+        // replacing by the setter is never a $push
+        player.reset();
+        player.getPreferences().setFeatures(List.of("f3", "f4"));
+        assertEquals(toDocuments(List.of(Updates.set("p.f", new BsonArray(List.of(new BsonString("f3"), new BsonString("f4")))))),
+                toDocuments(toUpdates(player)));
+        player.getPreferences().setFeatures(null);
+        assertEquals(toDocuments(List.of(Updates.unset("p.f"))), toDocuments(toUpdates(player)));
+    }
+
+    @Test
+    public void testVirtualFieldsAndCopies() {
+        var player = PlayerFixtures.createPlayer();
+        player.reset();
+        var location = player.getLogin().getLastLoginLocation();
+        assertNotNull(location);
+        location.getCoordinates().set(0, 121.0);
+        assertTrue(location.isFieldChanged(GeoJsonPoint.FIELD_INDEX_X));
+        assertEquals(121.0, location.getX());
+        assertEquals(toDocuments(List.of(Updates.set("l.lll.coordinates", new BsonArray(List.of(new BsonDouble(121.0), new BsonDouble(30.0)))))),
+                toDocuments(toUpdates(player)));
+
+        var copy = player.deepCopy();
+        var storeData = location.toStoreData();
+        location.getCoordinates().add(0.0);
+        assertEquals(List.of(121.0, 30.0), copy.getLogin().getLastLoginLocation().getCoordinates());
+        assertEquals(List.of(121.0, 30.0), storeData.getCoordinates());
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.github.fmjsjx.bson.model3.core.bulk;
+
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkLoaderTests {
+
+    private static List<BsonDocument> createDocuments(int size) {
+        var documents = new ArrayList<BsonDocument>(size);
+        for (var id = 1; id <= size; id++) {
+            var player = PlayerFixtures.createPlayer();
+            player.setId(id);
+            documents.add(player.toBsonValue());
+        }
+        return documents;
+    }
+
+    @Test
+    public void testLoadOrdered() {
+        var documents = createDocuments(50);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var loader = new BulkLoader<>(Player::new, executor, 8);
+            var ids = new ArrayList<Long>();
+            var updates = new ArrayList<BsonDocument>();
+            var count = loader.load(documents, player -> {
+                ids.add(player.getId());
+                assertFalse(player.anyChanged());
+                player.getWallet().setCoinTotal(player.getWallet().getCoinTotal() + 1);
+                player.toUpdates().forEach(update -> updates.add(update.toBsonDocument()));
+            });
+            assertEquals(50, count);
+            for (var i = 0; i < ids.size(); i++) {
+                assertEquals(i + 1L, ids.get(i));
+            }
+            assertEquals(50, updates.size());
+        }
+    }
+
+    @Test
+    public void testLoadUnordered() {
+        var documents = createDocuments(50);
+        try (var executor = Executors.newFixedThreadPool(4)) {
+            var loader = new BulkLoader<>(Player::new, executor, 3, false);
+            var ids = new HashSet<Long>();
+            assertEquals(50, loader.load(documents.iterator(), player -> ids.add(player.getId())));
+            assertEquals(50, ids.size());
+            assertEquals(0, new BulkLoader<>(Player::new, executor, 3, false).load(List.of(), player -> fail()));
+        }
+    }
+
+    @Test
+    public void testLoadFailure() {
+        var documents = createDocuments(3);
+        var created = new AtomicInteger();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var loader = new BulkLoader<Player>(() -> {
+                if (created.incrementAndGet() == 2) {
+                    throw new IllegalStateException("test");
+                }
+                return new Player();
+            }, executor, 2);
+            assertThrows(CompletionException.class, () -> loader.load(documents, player -> {
+            }));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new BulkLoader<>(Player::new, Runnable::run, 0));
+    }
+
+}
@@ -0,0 +1,281 @@
+package com.github.fmjsjx.bson.model3.core.json;
+
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonDataReaderTests {
+
+    /**
+     * Simple {@link JsonDataReader} implementation reads compact JSON
+     * from a {@link String}.
+     * <p>
+     * Separators are treated as whitespaces for simplicity.
+     */
+    public static final class StringJsonDataReader implements JsonDataReader {
+
+        private final String json;
+        private int position;
+
+        public StringJsonDataReader(String json) {
+            this.json = json;
+        }
+
+        private char peek() {
+            while (position < json.length()) {
+                var c = json.charAt(position);
+                if (c != ',' && c != ':' && !Character.isWhitespace(c)) {
+                    return c;
+                }
+                position++;
+            }
+            throw new IllegalStateException("unexpected end of JSON");
+        }
+
+        private void expect(char expected) {
+            var c = peek();
+            if (c != expected) {
+                throw new IllegalStateException("expected '" + expected + "' but was '" + c + "' at " + position);
+            }
+            position++;
+        }
+
+        private boolean nextIfLiteral(String literal) {
+            peek();
+            if (json.startsWith(literal, position)) {
+                position += literal.length();
+                return true;
+            }
+            return false;
+        }
+
+        private String readNumberText() {
+            peek();
+            var start = position;
+            while (position < json.length() && "+-.0123456789eE".indexOf(json.charAt(position)) >= 0) {
+                position++;
+            }
+            return json.substring(start, position);
+        }
+
+        @Override
+        public void readStartObject() {
+            expect('{');
+        }
+
+        @Override
+        public @Nullable String nextName() {
+            if (peek() == '}') {
+                position++;
+                return null;
+            }
+            return readString();
+        }
+
+        @Override
+        public void readStartArray() {
+            expect('[');
+        }
+
+        @Override
+        public boolean hasNextElement() {
+            if (peek() == ']') {
+                position++;
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean readNull() {
+            return nextIfLiteral("null");
+        }
+
+        @Override
+        public boolean readBoolean() {
+            if (nextIfLiteral("true")) {
+                return true;
+            }
+            if (nextIfLiteral("false")) {
+                return false;
+            }
+            throw new IllegalStateException("expected boolean at " + position);
+        }
+
+        @Override
+        public int readInt() {
+            return Integer.parseInt(readNumberText());
+        }
+
+        @Override
+        public long readLong() {
+            return Long.parseLong(readNumberText());
+        }
+
+        @Override
+        public double readDouble() {
+            return Double.parseDouble(readNumberText());
+        }
+
+        @Override
+        public BigDecimal readNumber() {
+            return new BigDecimal(readNumberText());
+        }
+
+        @Override
+        public String readString() {
+            expect('"');
+            var builder = new StringBuilder();
+            for (var c = json.charAt(position++); c != '"'; c = json.charAt(position++)) {
+                if (c == '\\') {
+                    c = json.charAt(position++);
+                    switch (c) {
+                        case 'b' -> builder.append('\b');
+                        case 'f' -> builder.append('\f');
+                        case 'n' -> builder.append('\n');
+                        case 'r' -> builder.append('\r');
+                        case 't' -> builder.append('\t');
+                        case 'u' -> {
+                            builder.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                            position += 4;
+                        }
+                        default -> builder.append(c);
+                    }
+                } else {
+                    builder.append(c);
+                }
+            }
+            return builder.toString();
+        }
+
+        @Override
+        public @Nullable Object readValue() {
+            return switch (peek()) {
+                case '{' -> {
+                    readStartObject();
+                    var map = new LinkedHashMap<String, @Nullable Object>();
+                    for (var name = nextName(); name != null; name = nextName()) {
+                        map.put(name, readValue());
+                    }
+                    yield map;
+                }
+                case '[' -> {
+                    readStartArray();
+                    var list = new ArrayList<@Nullable Object>();
+                    while (hasNextElement()) {
+                        list.add(readValue());
+                    }
+                    yield list;
+                }
+                case '"' -> readString();
+                case 'n' -> {
+                    readNull();
+                    yield null;
+                }
+                case 't', 'f' -> readBoolean();
+                default -> {
+                    var number = readNumber();
+                    try {
+                        yield number.intValueExact();
+                    } catch (ArithmeticException e) {
+                        yield number;
+                    }
+                }
+            };
+        }
+
+        @Override
+        public <T> @Nullable T readValue(Class<T> type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void skipValue() {
+            readValue();
+        }
+
+    }
+
+    private static String writeStoreData(Player player) {
+        var writer = new JsonDataWriterTests.StringJsonDataWriter();
+        player.writeStoreData(writer);
+        return writer.toString();
+    }
+
+    @Test
+    public void testReadValues() {
+        var reader = new StringJsonDataReader("{\"a\":[1,null,\"x\\\"y\"],\"b\":true,\"c\":1.5,\"d\":{}}");
+        assertEquals(Map.of("a", Arrays.asList(1, null, "x\"y"), "b", true, "c", new BigDecimal("1.5"), "d", Map.of()),
+                reader.readValue());
+
+        reader = new StringJsonDataReader("[1,2,null,3]");
+        assertEquals(Arrays.asList(1, 2, null, 3), reader.readList(JsonDataReader::readInt));
+    }
+
+    @Test
+    public void testReadStoreData() {
+        var player = PlayerFixtures.createPlayer();
+        var json = writeStoreData(player);
+
+        var copy = new Player().readStoreData(new StringJsonDataReader(json));
+        assertEquals(player.toBsonValue(), copy.toBsonValue());
+        assertEquals(json, writeStoreData(copy));
+        assertFalse(copy.anyChanged());
+        assertSame(copy.getEquipments(), copy.getEquipments().get("weapon").parent());
+        assertEquals(List.of(120.0, 30.0), copy.getLogin().getLastLoginLocation().getCoordinates());
+    }
+
+    @Test
+    public void testReadStoreDataCleansModel() {
+        var player = PlayerFixtures.createPlayer();
+        player.readStoreData(new StringJsonDataReader("{\"_id\":1002,\"unknown\":{\"a\":[1,{\"b\":null}]},\"_ut\":null,\"w\":{\"ct\":5}}"));
+
+        assertEquals(1002L, player.getId());
+        assertNull(player.getUpdatedTime());
+        assertEquals(5L, player.getWallet().getCoinTotal());
+        assertEquals(0L, player.getWallet().getCoinConsumed());
+        assertNull(player.getBasicInfo().getAvatar());
+        assertNull(player.getLogin().getLastLoginLocation());
+        assertTrue(player.getEquipments().isEmpty());
+        assertTrue(player.getItems().isEmpty());
+
+        player.setUpdatedTime(LocalDateTime.of(2024, 1, 1, 0, 0, 0));
+        player.readStoreData(new StringJsonDataReader("null"));
+        assertEquals(0L, player.getId());
+        assertNull(player.getUpdatedTime());
+    }
+
+    @Test
+    public void testReadUpdatedAndDeleted() {
+        var player = PlayerFixtures.createPlayer();
+        var mirror = player.deepCopy();
+        player.getWallet().setCoinTotal(20000L);
+        player.getItems().put(1003, 30);
+        player.getItems().remove(1001);
+        player.getEquipments().get("weapon").setAtk(120);
+        player.getBasicInfo().setBirthday(LocalDate.of(2000, 2, 29));
+        player.getLogin().setLastLoginLocation(null);
+
+        var updated = new JsonDataWriterTests.StringJsonDataWriter();
+        assertTrue(player.writeUpdated(updated));
+        var deleted = new JsonDataWriterTests.StringJsonDataWriter();
+        assertTrue(player.writeDeleted(deleted));
+        mirror.readUpdated(new StringJsonDataReader(updated.toString()))
+                .readDeleted(new StringJsonDataReader(deleted.toString()));
+        assertEquals(player.toBsonValue(), mirror.toBsonValue());
+        assertEquals(player.toUpdated(), mirror.toUpdated());
+    }
+
+}
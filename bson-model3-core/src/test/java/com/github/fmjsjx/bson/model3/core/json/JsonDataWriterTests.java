@@ -0,0 +1,229 @@
+package com.github.fmjsjx.bson.model3.core.json;
+
+import com.github.fmjsjx.bson.model3.core.model.Equipment;
+import com.github.fmjsjx.bson.model3.core.model.GeoJsonPoint;
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonDataWriterTests {
+
+    /**
+     * Simple {@link JsonDataWriter} implementation writes compact JSON
+     * into a {@link StringBuilder}.
+     */
+    public static final class StringJsonDataWriter extends AbstractJsonDataWriter {
+
+        private final StringBuilder builder = new StringBuilder();
+
+        @Override
+        protected void writeFieldSeparator() {
+            builder.append(',');
+        }
+
+        @Override
+        protected void writeElementSeparator() {
+            builder.append(',');
+        }
+
+        @Override
+        protected void doWriteStartObject() {
+            builder.append('{');
+        }
+
+        @Override
+        protected void doWriteEndObject() {
+            builder.append('}');
+        }
+
+        @Override
+        protected void doWriteStartArray() {
+            builder.append('[');
+        }
+
+        @Override
+        protected void doWriteEndArray() {
+            builder.append(']');
+        }
+
+        @Override
+        protected void doWriteName(JsonFieldName name) {
+            builder.append(name.quotedWithColon());
+        }
+
+        @Override
+        protected void doWriteName(String name) {
+            doWriteName(JsonFieldName.of(name));
+        }
+
+        @Override
+        protected void doWriteNull() {
+            builder.append("null");
+        }
+
+        @Override
+        protected void doWriteBoolean(boolean value) {
+            builder.append(value);
+        }
+
+        @Override
+        protected void doWriteInt(int value) {
+            builder.append(value);
+        }
+
+        @Override
+        protected void doWriteLong(long value) {
+            builder.append(value);
+        }
+
+        @Override
+        protected void doWriteDouble(double value) {
+            builder.append(value);
+        }
+
+        @Override
+        protected void doWriteNumber(BigDecimal value) {
+            builder.append(value);
+        }
+
+        @Override
+        protected void doWriteString(String value) {
+            builder.append(JsonFieldName.quote(value));
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+
+    }
+
+    private static String write(Consumer<JsonDataWriter> action) {
+        var writer = new StringJsonDataWriter();
+        action.accept(writer);
+        return writer.toString();
+    }
+
+    private static String writeValue(Object value) {
+        return write(writer -> writer.writeValue(value));
+    }
+
+    @Test
+    public void testJsonFieldName() {
+        var name = JsonFieldName.of("a\"b");
+        assertEquals("a\"b", name.getValue());
+        assertEquals("\"a\\\"b\":", name.quotedWithColon());
+        assertArrayEquals("\"a\\\"b\":".getBytes(), name.quotedWithColonUtf8());
+        assertSame(name.quotedWithColonUtf8(), name.quotedWithColonUtf8());
+        assertArrayEquals("\"a\\\"b\":".toCharArray(), name.quotedWithColonUtf16());
+    }
+
+    @Test
+    public void testWriteValues() {
+        assertEquals("{\"a\":1,\"b\":[1,\"x\",null,true],\"c\":{}}", write(writer -> writer.writeStartObject()
+                .writeName("a").writeInt(1)
+                .writeName(JsonFieldName.of("b")).writeStartArray().writeLong(1).writeString("x").writeNull().writeBoolean(true).writeEndArray()
+                .writeName("c").writeStartObject().writeEndObject()
+                .writeEndObject()));
+        var map = new LinkedHashMap<String, Object>();
+        map.put("a", List.of(1, "x"));
+        map.put("b", 1.5);
+        map.put("c", null);
+        assertEquals("{\"a\":[1,\"x\"],\"b\":1.5,\"c\":null}", writeValue(map));
+        assertEquals("[\"2024-01-01\",null]", write(writer -> writer.writeArray(Arrays.asList(LocalDate.of(2024, 1, 1), null), LocalDate::toString)));
+    }
+
+    @Test
+    public void testDeferredTokens() {
+        // nothing written at all
+        assertEquals("", write(writer -> {
+            writer.deferStartObject();
+            writer.deferName("a");
+            writer.deferStartObject();
+            assertFalse(writer.writeEndDeferredObject());
+            assertTrue(writer.discardDeferredName());
+            assertFalse(writer.writeEndDeferredObject());
+        }));
+        // deferred tokens are flushed by the first value
+        assertEquals("{\"b\":1,\"c\":{\"d\":2}}", write(writer -> {
+            writer.deferStartObject();
+            writer.deferName("a");
+            assertTrue(writer.discardDeferredName());
+            writer.writeName("b").writeInt(1);
+            writer.deferName("c");
+            writer.deferStartObject();
+            writer.writeName("d").writeInt(2);
+            assertTrue(writer.writeEndDeferredObject());
+            assertFalse(writer.discardDeferredName());
+            assertTrue(writer.writeEndDeferredObject());
+        }));
+    }
+
+    @Test
+    public void testWriteDisplayData() {
+        var player = PlayerFixtures.createPlayer();
+        assertEquals(writeValue(player.toDisplayData()), write(player::writeDisplayData));
+        assertEquals(writeValue(player.toDisplayData()), writeValue(player));
+    }
+
+    @Test
+    public void testWriteUpdated() {
+        var player = PlayerFixtures.createPlayer();
+        assertFalse(player.writeUpdated(new StringJsonDataWriter()));
+        assertEquals("", write(player::writeUpdated));
+
+        player.getWallet().setCoinTotal(20000L);
+        player.getLogin().setLastLoginIp("127.0.0.1");
+        player.getItems().put(1003, 30);
+        var equipment = player.getEquipments().get("weapon");
+        assertNotNull(equipment);
+        equipment.setAtk(120);
+        var location = new GeoJsonPoint();
+        location.setCoordinates(List.of(1.0, 2.0));
+        player.getLogin().setLastLoginLocation(location);
+        player.setUpdatedTime(LocalDateTime.of(2024, 6, 2, 0, 0, 0));
+
+        var updated = player.toUpdated();
+        assertNotNull(updated);
+        assertEquals(writeValue(updated), write(player::writeUpdated));
+        assertEquals("{\"atk\":120}", write(equipment::writeUpdated));
+    }
+
+    @Test
+    public void testWriteUpdatedOnlyHiddenFields() {
+        var player = PlayerFixtures.createPlayer();
+        player.setUpdatedVersion(player.getUpdatedVersion() + 1);
+        assertNull(player.toUpdated());
+        assertFalse(player.writeUpdated(new StringJsonDataWriter()));
+    }
+
+    @Test
+    public void testWriteDeleted() {
+        var player = PlayerFixtures.createPlayer();
+        assertFalse(player.writeDeleted(new StringJsonDataWriter()));
+
+        player.getEquipments().remove("weapon");
+        player.getItems().remove(1001);
+        player.getBasicInfo().setAvatar(null);
+        player.getLogin().setLastLoginLocation(null);
+        player.getWallet().setCoinTotal(1L);
+
+        var deleted = player.toDeleted();
+        assertNotNull(deleted);
+        assertEquals(writeValue(deleted), write(player::writeDeleted));
+        assertEquals("{\"basicInfo\":{\"avatar\":1},\"login\":{\"lastLoginLocation\":1},\"equipments\":{\"weapon\":1},\"items\":{\"1001\":1}}",
+                write(player::writeDeleted));
+        assertFalse(player.getWallet().writeDeleted(new StringJsonDataWriter()));
+    }
+
+}
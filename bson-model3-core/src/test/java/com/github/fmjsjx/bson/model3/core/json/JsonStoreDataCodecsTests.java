@@ -0,0 +1,73 @@
+package com.github.fmjsjx.bson.model3.core.json;
+
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import com.github.fmjsjx.libcommon.json.Fastjson2Library;
+import com.github.fmjsjx.libcommon.json.Jackson3Library;
+import com.github.fmjsjx.libcommon.json.JsonLibrary;
+import com.github.fmjsjx.libcommon.json.JsoniterLibrary;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonStoreDataCodecsTests {
+
+    private static Player createPlayer() {
+        var player = PlayerFixtures.createPlayer();
+        player.setUpdatedTime(LocalDateTime.of(2024, 6, 1, 12, 0, 0));
+        return player.reset();
+    }
+
+    private static void check(JsonLibrary<?> jsonLibrary, JsonStoreDataCodec codec) {
+        var player = createPlayer();
+        var expected = player.toBsonValue();
+
+        // the default path is still the data binding of the library
+        assertNull(JsonStoreDataCodecs.forLibrary(jsonLibrary));
+        var legacyJson = player.jsonMarshal(jsonLibrary);
+        assertEquals(jsonLibrary.dumpsToString(player.toStoreData()), legacyJson);
+
+        // direct round trips
+        var json = codec.marshal(player);
+        var copy = new Player();
+        codec.unmarshal(copy, json);
+        assertEquals(expected, copy.toBsonValue());
+        assertFalse(copy.anyChanged());
+        copy = new Player();
+        codec.unmarshal(copy, codec.marshalToBytes(player));
+        assertEquals(expected, copy.toBsonValue());
+
+        // JSON written by the data binding can be read directly
+        copy = new Player();
+        codec.unmarshal(copy, legacyJson);
+        assertEquals(expected, copy.toBsonValue());
+        copy = new Player();
+        codec.unmarshal(copy, legacyJson.getBytes(StandardCharsets.UTF_8));
+        assertEquals(expected, copy.toBsonValue());
+
+        // and vice versa
+        assertEquals(expected, new Player().jsonUnmarshal(jsonLibrary, json).toBsonValue());
+        assertEquals(expected, new Player().jsonUnmarshal(jsonLibrary, codec.marshalToBytes(player)).toBsonValue());
+    }
+
+    @Test
+    public void testFastjson2() {
+        check(Fastjson2Library.getInstance(), JsonStoreDataCodecs.fastjson2());
+    }
+
+    @Test
+    public void testJackson() {
+        var jsonLibrary = Jackson3Library.getInstance();
+        check(jsonLibrary, JsonStoreDataCodecs.jackson(jsonLibrary.objectMapper()));
+        check(jsonLibrary, JsonStoreDataCodecs.jackson());
+    }
+
+    @Test
+    public void testJsoniter() {
+        check(JsoniterLibrary.getInstance(), JsonStoreDataCodecs.jsoniter());
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.github.fmjsjx.bson.model3.core.json;
+
+import com.alibaba.fastjson2.JSONWriter;
+import com.github.fmjsjx.bson.model3.core.json.JsonDataReaderTests.StringJsonDataReader;
+import com.github.fmjsjx.bson.model3.core.json.JsonDataWriterTests.StringJsonDataWriter;
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import com.jsoniter.output.JsonStream;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LibraryJsonDataWriterTests {
+
+    private static String writeFastjson2(Consumer<JsonDataWriter> action) {
+        try (var writer = JSONWriter.of()) {
+            action.accept(new Fastjson2JsonDataWriter(writer));
+            return writer.toString();
+        }
+    }
+
+    private static String writeFastjson2Utf8(Consumer<JsonDataWriter> action) {
+        try (var writer = JSONWriter.ofUTF8()) {
+            action.accept(new Fastjson2JsonDataWriter(writer));
+            return new String(writer.getBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String writeJackson(Consumer<JsonDataWriter> action) {
+        var out = new StringWriter();
+        try (var generator = JsonMapper.shared().createGenerator(out)) {
+            action.accept(new JacksonJsonDataWriter(generator));
+        }
+        return out.toString();
+    }
+
+    private static String writeJsoniter(Consumer<JsonDataWriter> action) {
+        var out = new ByteArrayOutputStream();
+        var stream = new JsonStream(out, 512);
+        action.accept(new JsoniterJsonDataWriter(stream));
+        try {
+            stream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Normalizes the numbers so that {@code 1.0} and {@code 1} are equal,
+     * since the libraries format doubles differently.
+     */
+    private static @Nullable Object normalize(@Nullable Object value) {
+        return switch (value) {
+            case Map<?, ?> map -> {
+                var normalized = new LinkedHashMap<Object, @Nullable Object>();
+                map.forEach((k, v) -> normalized.put(k, normalize(v)));
+                yield normalized;
+            }
+            case List<?> list -> list.stream().map(LibraryJsonDataWriterTests::normalize).toList();
+            case Number number -> new BigDecimal(number.toString()).stripTrailingZeros();
+            case null, default -> value;
+        };
+    }
+
+    private static @Nullable Object parse(String json) {
+        return normalize(new StringJsonDataReader(json).readValue());
+    }
+
+    private static void check(Function<Consumer<JsonDataWriter>, String> write) {
+        var fieldNames = write.apply(writer -> writer.writeStartObject()
+                .writeName(JsonFieldName.of("a\"b")).writeInt(1)
+                .writeName("c").writeStartArray().writeBoolean(true).writeNull().writeString("x").writeEndArray()
+                .writeEndObject());
+        assertEquals("{\"a\\\"b\":1,\"c\":[true,null,\"x\"]}", fieldNames);
+
+        var player = PlayerFixtures.createPlayer();
+        var storeData = write.apply(player::writeStoreData);
+        assertEquals(player.toBsonValue(), new Player().readStoreData(new StringJsonDataReader(storeData)).toBsonValue());
+
+        var expected = new StringJsonDataWriter();
+        player.writeDisplayData(expected);
+        assertEquals(parse(expected.toString()), parse(write.apply(player::writeDisplayData)));
+
+        player.getWallet().setCoinTotal(1L);
+        player.getEquipments().remove("weapon");
+        expected = new StringJsonDataWriter();
+        player.writeUpdated(expected);
+        assertEquals(parse(expected.toString()), parse(write.apply(player::writeUpdated)));
+        expected = new StringJsonDataWriter();
+        player.writeDeleted(expected);
+        assertEquals(parse(expected.toString()), parse(write.apply(player::writeDeleted)));
+    }
+
+    @Test
+    public void testFastjson2() {
+        check(LibraryJsonDataWriterTests::writeFastjson2);
+        check(LibraryJsonDataWriterTests::writeFastjson2Utf8);
+    }
+
+    @Test
+    public void testJackson() {
+        check(LibraryJsonDataWriterTests::writeJackson);
+    }
+
+    @Test
+    public void testJsoniter() {
+        check(LibraryJsonDataWriterTests::writeJsoniter);
+    }
+
+}
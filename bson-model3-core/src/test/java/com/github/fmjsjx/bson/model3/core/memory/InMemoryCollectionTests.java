@@ -0,0 +1,159 @@
+package com.github.fmjsjx.bson.model3.core.memory;
+
+import com.github.fmjsjx.bson.model3.core.model.Equipment;
+import com.github.fmjsjx.bson.model3.core.model.GeoJsonPoint;
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import com.github.fmjsjx.bson.model3.core.util.BsonUpdateUtil;
+import com.mongodb.client.model.*;
+import org.bson.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryCollectionTests {
+
+    @Test
+    public void testApplyUpdate() {
+        var document = new BsonDocument("a", new BsonInt32(1))
+                .append("b", new BsonDocument("c", new BsonInt32(Integer.MAX_VALUE)))
+                .append("l", new BsonArray(List.of(new BsonInt32(1), new BsonInt32(2))));
+        BsonUpdateUtil.applyUpdates(document, List.of(
+                Updates.set("x.y.z", "v"),
+                Updates.unset("a"),
+                Updates.inc("b.c", 1),
+                Updates.inc("d", 1.5),
+                Updates.set("l.0", 10),
+                Updates.unset("l.1"),
+                Updates.pushEach("l", List.of(3, 4)),
+                Updates.push("m", 5)));
+        assertFalse(document.containsKey("a"));
+        assertEquals(new BsonString("v"), BsonUpdateUtil.get(document, "x.y.z"));
+        assertEquals(new BsonInt64(Integer.MAX_VALUE + 1L), BsonUpdateUtil.get(document, "b.c"));
+        assertEquals(new BsonDouble(1.5), document.get("d"));
+        assertEquals(new BsonArray(List.of(new BsonInt32(10), BsonNull.VALUE, new BsonInt32(3), new BsonInt32(4))),
+                document.get("l"));
+        assertEquals(new BsonArray(List.of(new BsonInt32(5))), document.get("m"));
+        assertNull(BsonUpdateUtil.get(document, "x.none"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> BsonUpdateUtil.applyUpdate(document, Updates.currentDate("t")));
+        assertThrows(IllegalArgumentException.class,
+                () -> BsonUpdateUtil.applyUpdate(document, Updates.set("x.y.z.w", 1)));
+    }
+
+    @Test
+    public void testRandomUpdatesEquivalence() {
+        var random = new Random(20240601L);
+        var player = PlayerFixtures.createPlayer();
+        var collection = new InMemoryCollection();
+        collection.insertOne(player);
+        var id = new BsonInt64(player.getId());
+        for (var round = 0; round < 500; round++) {
+            var mutations = 1 + random.nextInt(5);
+            for (var i = 0; i < mutations; i++) {
+                mutate(player, random);
+            }
+            if (random.nextInt(50) == 0) {
+                player.fullUpdate();
+            }
+            var expected = player.toBsonValue();
+            assertTrue(collection.updateOne(player));
+            assertFalse(player.anyChanged());
+            assertEquals(expected, collection.find(id), "round " + round);
+        }
+    }
+
+    @Test
+    public void testUpdateOnePartialModel() {
+        var player = PlayerFixtures.createPlayer();
+        var collection = new InMemoryCollection();
+        collection.insertOne(player);
+        var id = new BsonInt64(player.getId());
+        assertEquals(id, player.toBsonId());
+
+        // only the _id is encoded, so partially loaded models can be updated too
+        var partial = new Player().loadPartial(player.toBsonValue(), Player.FIELD_INDEX_ID, Player.FIELD_INDEX_WALLET);
+        partial.getWallet().setCoinTotal(partial.getWallet().getCoinTotal() + 10);
+        assertTrue(collection.updateOne(partial));
+        assertFalse(partial.anyChanged());
+        player.getWallet().setCoinTotal(player.getWallet().getCoinTotal() + 10);
+        assertEquals(player.toBsonValue(), collection.find(id));
+    }
+
+    private static void mutate(Player player, Random random) {
+        switch (random.nextInt(10)) {
+            case 0 -> player.getWallet().setCoinTotal(player.getWallet().getCoinTotal() + random.nextInt(1000));
+            case 1 -> player.getLogin().increaseCount();
+            case 2 -> player.getItems().put(1000 + random.nextInt(10), random.nextInt(100));
+            case 3 -> player.getItems().remove(1000 + random.nextInt(10));
+            case 4 -> {
+                var equipment = new Equipment();
+                equipment.setId("eq" + random.nextInt(1000));
+                equipment.setRefId(random.nextInt(100));
+                equipment.setAtk(random.nextInt(200));
+                player.getEquipments().put("slot" + random.nextInt(4), equipment);
+            }
+            case 5 -> player.getEquipments().remove("slot" + random.nextInt(4));
+            case 6 -> {
+                var equipment = player.getEquipments().get("slot" + random.nextInt(4));
+                if (equipment != null) {
+                    equipment.setDef(random.nextInt(200));
+                }
+            }
+            case 7 -> player.getBasicInfo().setAvatar(random.nextBoolean() ? null : "avatar" + random.nextInt(10) + ".png");
+            case 8 -> {
+                if (random.nextBoolean()) {
+                    player.getLogin().setLastLoginLocation(null);
+                } else {
+                    var location = new GeoJsonPoint();
+                    location.setCoordinates(List.of(random.nextDouble(), random.nextDouble()));
+                    player.getLogin().setLastLoginLocation(location);
+                }
+            }
+            default -> {
+                player.getPreferences().getAttributes().put("k" + random.nextInt(3), "v" + random.nextInt(3));
+                player.setUpdatedTime(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(random.nextInt(100000)));
+            }
+        }
+    }
+
+    @Test
+    public void testBulkWrite() {
+        var player = PlayerFixtures.createPlayer();
+        var collection = new InMemoryCollection();
+        var id = new BsonInt64(player.getId());
+        var result = collection.bulkWrite(List.of(new InsertOneModel<>(player.toBsonValue())));
+        assertEquals(new InMemoryCollection.WriteResult(1, 0, 0, 0), result);
+        assertThrows(IllegalStateException.class, () -> collection.insertOne(player.toBsonValue()));
+
+        player.getWallet().setCoinTotal(20000L);
+        player.getItems().remove(1001);
+        var update = new UpdateOneModel<BsonDocument>(Filters.eq("_id", id), Updates.combine(player.toUpdates()));
+        result = collection.bulkWrite(List.of(update,
+                new UpdateOneModel<>(Filters.eq("_id", 2L), Updates.set("x", 1)),
+                new UpdateOneModel<>(Filters.eq("_id", 3L), Updates.combine(Updates.set("x", 1), Updates.setOnInsert("y", 2)),
+                        new UpdateOptions().upsert(true)),
+                new DeleteOneModel<>(Filters.eq("_id", 4L))));
+        assertEquals(new InMemoryCollection.WriteResult(0, 1, 0, 1), result);
+        assertEquals(player.toBsonValue(), collection.find(id));
+        assertNull(collection.find(new BsonInt64(2L)));
+        assertEquals(new BsonDocument("_id", new BsonInt64(3L)).append("y", new BsonInt32(2)).append("x", new BsonInt32(1)),
+                collection.find(new BsonInt64(3L)));
+
+        result = collection.bulkWrite(List.of(
+                new ReplaceOneModel<>(Filters.eq("_id", 3L), new BsonDocument("z", BsonBoolean.TRUE)),
+                new DeleteOneModel<>(Filters.eq("_id", id))));
+        assertEquals(new InMemoryCollection.WriteResult(0, 1, 1, 0), result);
+        assertEquals(new BsonDocument("_id", new BsonInt64(3L)).append("z", BsonBoolean.TRUE), collection.find(new BsonInt64(3L)));
+        assertEquals(1, collection.size());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> collection.bulkWrite(List.of(new DeleteOneModel<>(Filters.gt("_id", 1L)))));
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.github.fmjsjx.bson.model3.core.memory;
+
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModelHibernatorTests {
+
+    @Test
+    public void testHibernateAndRehydrate() {
+        var player = PlayerFixtures.createPlayer();
+        player.reset();
+        var expected = player.toBsonValue();
+        var hibernator = new ModelHibernator<Long, Player>(Player::new, Duration.ofMinutes(1), 10);
+        hibernator.put(player.getId(), player);
+        assertEquals(1, hibernator.residentCount());
+
+        assertTrue(hibernator.hibernate(player.getId()));
+        assertTrue(hibernator.isHibernated(player.getId()));
+        assertEquals(0, hibernator.residentCount());
+        assertTrue(hibernator.hibernatedBytes() > 0);
+
+        var rehydrated = hibernator.get(player.getId());
+        assertNotNull(rehydrated);
+        assertNotSame(player, rehydrated);
+        assertEquals(expected, rehydrated.toBsonValue());
+        assertFalse(rehydrated.anyChanged());
+        assertFalse(hibernator.isHibernated(player.getId()));
+        assertEquals(1, hibernator.residentCount());
+        assertEquals(0, hibernator.hibernatedBytes());
+        assertSame(rehydrated, hibernator.get(player.getId()));
+
+        assertTrue(hibernator.remove(player.getId()));
+        assertNull(hibernator.get(player.getId()));
+        assertEquals(0, hibernator.size());
+        assertEquals(0, hibernator.residentCount());
+    }
+
+    @Test
+    public void testChangedModelNotHibernated() {
+        var player = PlayerFixtures.createPlayer();
+        player.reset();
+        var hibernator = new ModelHibernator<Long, Player>(Player::new, Duration.ZERO, 0);
+        hibernator.put(player.getId(), player);
+        player.getWallet().setCoinTotal(player.getWallet().getCoinTotal() + 1);
+        assertFalse(hibernator.hibernate(player.getId()));
+        assertEquals(0, hibernator.hibernateIdle());
+        assertSame(player, hibernator.get(player.getId()));
+
+        player.reset();
+        assertEquals(1, hibernator.hibernateIdle());
+        assertTrue(hibernator.isHibernated(player.getId()));
+    }
+
+    @Test
+    public void testHibernateIdle() {
+        var clock = new AtomicLong();
+        var hibernator = new ModelHibernator<Long, Player>(Player::new, Duration.ofSeconds(60), 2, clock::get);
+        for (var i = 1L; i <= 4L; i++) {
+            var player = new Player();
+            player.setId(i);
+            player.reset();
+            hibernator.put(i, player);
+            clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        }
+        // the least recently accessed ones beyond the maximum resident count
+        assertEquals(2, hibernator.hibernateIdle());
+        assertTrue(hibernator.isHibernated(1L));
+        assertTrue(hibernator.isHibernated(2L));
+        assertFalse(hibernator.isHibernated(3L));
+        assertEquals(2, hibernator.residentCount());
+
+        assertNotNull(hibernator.get(1L));
+        clock.addAndGet(Duration.ofSeconds(50).toNanos());
+        // player 3 and 4 are idle
+        assertEquals(2, hibernator.hibernateIdle());
+        assertFalse(hibernator.isHibernated(1L));
+        assertTrue(hibernator.isHibernated(3L));
+        assertTrue(hibernator.isHibernated(4L));
+        assertEquals(1, hibernator.residentCount());
+        assertEquals(4, hibernator.size());
+        assertEquals(4L, hibernator.get(4L).getId());
+    }
+
+    @Test
+    public void testPinnedAccess() {
+        var player = PlayerFixtures.createPlayer();
+        player.reset();
+        var hibernator = new ModelHibernator<Long, Player>(Player::new, Duration.ZERO, 0);
+        hibernator.put(player.getId(), player);
+        assertTrue(hibernator.access(player.getId(), it -> {
+            assertSame(player, it);
+            assertFalse(hibernator.hibernate(player.getId()));
+            assertEquals(0, hibernator.hibernateIdle());
+        }));
+        assertFalse(hibernator.isHibernated(player.getId()));
+        assertTrue(hibernator.hibernate(player.getId()));
+
+        var coinTotal = hibernator.compute(player.getId(), it -> it.getWallet().getCoinTotal());
+        assertEquals(player.getWallet().getCoinTotal(), coinTotal);
+        assertFalse(hibernator.isHibernated(player.getId()));
+        assertFalse(hibernator.access(0L, it -> fail()));
+        assertNull(hibernator.compute(0L, it -> fail()));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        var player = PlayerFixtures.createPlayer();
+        player.getWallet().setCoinTotal(0);
+        player.reset();
+        var hibernator = new ModelHibernator<Long, Player>(Player::new, Duration.ZERO, 0);
+        hibernator.put(player.getId(), player);
+        var running = new AtomicBoolean(true);
+        var started = new CountDownLatch(1);
+        var hibernating = new Thread(() -> {
+            started.countDown();
+            while (running.get()) {
+                hibernator.hibernateIdle();
+            }
+        });
+        hibernating.start();
+        started.await();
+        var times = 10_000L;
+        try {
+            for (var i = 0; i < times; i++) {
+                hibernator.access(player.getId(), it -> {
+                    it.getWallet().setCoinTotal(it.getWallet().getCoinTotal() + 1);
+                    // as if the changes are flushed
+                    it.reset();
+                });
+            }
+        } finally {
+            running.set(false);
+            hibernating.join();
+        }
+        // no increment is lost on the hibernated instances
+        var coinTotal = hibernator.compute(player.getId(), it -> it.getWallet().getCoinTotal());
+        assertEquals(times, coinTotal);
+    }
+
+}
@@ -0,0 +1,216 @@
+package com.github.fmjsjx.bson.model3.core.memory;
+
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import org.bson.BsonInt64;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RootModelCacheTests {
+
+    private static InMemoryCollection createCollection(int count) {
+        var collection = new InMemoryCollection();
+        for (var id = 1L; id <= count; id++) {
+            var player = new Player();
+            player.setId(id);
+            player.getWallet().setCoinTotal(100);
+            collection.insertOne(player);
+        }
+        return collection;
+    }
+
+    private static RootModelCache<Long, Player> createCache(InMemoryCollection collection, long maximumSize) {
+        return new RootModelCache<>(Player::new, id -> collection.find(new BsonInt64(id)),
+                (id, updates) -> {
+                    collection.updateOne(new BsonInt64(id), updates);
+                    return CompletableFuture.completedFuture(null);
+                }, maximumSize);
+    }
+
+    @Test
+    public void testGet() {
+        var cache = createCache(createCollection(2), 10);
+        var player = cache.get(1L);
+        assertNotNull(player);
+        assertEquals(1L, player.getId());
+        assertEquals(100, player.getWallet().getCoinTotal());
+        assertFalse(player.anyChanged());
+        assertSame(player, cache.get(1L));
+        assertSame(player, cache.getIfPresent(1L));
+        assertNull(cache.getIfPresent(2L));
+        assertNull(cache.get(3L));
+        assertEquals(1, cache.size());
+
+        var stats = cache.stats();
+        assertEquals(2, stats.hitCount());
+        assertEquals(3, stats.missCount());
+        assertEquals(2, stats.loadSuccessCount());
+        assertEquals(0.4, stats.hitRate(), 1e-9);
+        assertTrue(stats.averageLoadPenalty() > 0);
+    }
+
+    @Test
+    public void testEvictionFlushesChanges() {
+        var collection = createCollection(4);
+        var cache = createCache(collection, 2);
+        var player = cache.get(1L);
+        assertNotNull(player);
+        player.getWallet().setCoinTotal(200);
+        cache.get(2L);
+        cache.get(2L);
+        cache.get(3L);
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.weightedSize());
+        assertNull(cache.getIfPresent(1L));
+        assertFalse(player.anyChanged());
+        var stats = cache.stats();
+        assertEquals(1, stats.evictionCount());
+        assertEquals(1, stats.flushCount());
+        var document = collection.find(new BsonInt64(1L));
+        assertNotNull(document);
+        assertEquals(200, new Player().load(document).getWallet().getCoinTotal());
+
+        // the more frequently used one is kept
+        cache.get(4L);
+        assertNotNull(cache.getIfPresent(2L));
+        assertNull(cache.getIfPresent(3L));
+    }
+
+    @Test
+    public void testFlushFailureKeepsModel() {
+        var collection = createCollection(2);
+        var cache = new RootModelCache<Long, Player>(Player::new, id -> collection.find(new BsonInt64(id)),
+                (id, updates) -> CompletableFuture.failedFuture(new IllegalStateException("unavailable")), 1);
+        var player = cache.get(1L);
+        assertNotNull(player);
+        player.getWallet().setCoinTotal(200);
+        cache.get(2L);
+        assertSame(player, cache.getIfPresent(1L));
+        assertTrue(player.anyChanged());
+        assertEquals(1, cache.stats().flushFailureCount());
+        assertFalse(cache.invalidate(1L));
+
+        player.reset();
+        assertTrue(cache.invalidate(1L));
+        assertNull(cache.getIfPresent(1L));
+    }
+
+    @Test
+    public void testLoadOnceUnderContention() throws Exception {
+        var collection = createCollection(1);
+        var loads = new AtomicInteger();
+        var latch = new CountDownLatch(1);
+        var cache = new RootModelCache<Long, Player>(Player::new, id -> {
+            loads.incrementAndGet();
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return collection.find(new BsonInt64(id));
+        }, (id, updates) -> CompletableFuture.completedFuture(null), 10);
+        var threads = 8;
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            var futures = new ArrayList<Future<Player>>();
+            for (var i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> cache.get(1L)));
+            }
+            Thread.sleep(100);
+            latch.countDown();
+            var player = futures.getFirst().get();
+            assertNotNull(player);
+            for (var future : futures) {
+                assertSame(player, future.get());
+            }
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().loadSuccessCount());
+    }
+
+    @Test
+    public void testPutReplaces() {
+        var cache = createCache(new InMemoryCollection(), 10);
+        var player = new Player();
+        player.setId(1L);
+        cache.put(1L, player);
+        assertSame(player, cache.getIfPresent(1L));
+        var another = new Player();
+        cache.put(1L, another);
+        assertSame(another, cache.getIfPresent(1L));
+        assertEquals(1, cache.weightedSize());
+        assertNull(cache.get(2L));
+    }
+
+    @Test
+    public void testEvictionNotWaitingForFlush() {
+        var collection = createCollection(3);
+        var flushes = new ArrayList<CompletableFuture<Object>>();
+        var cache = new RootModelCache<Long, Player>(Player::new, id -> collection.find(new BsonInt64(id)),
+                (id, updates) -> {
+                    var flush = new CompletableFuture<>();
+                    flushes.add(flush);
+                    return flush;
+                }, 1);
+        var player = cache.get(1L);
+        assertNotNull(player);
+        player.getWallet().setCoinTotal(200);
+        // returns before the flush completes, the victim is kept until then
+        assertNotNull(cache.get(2L));
+        assertEquals(1, flushes.size());
+        assertSame(player, cache.getIfPresent(1L));
+        assertEquals(2, cache.size());
+        assertFalse(cache.invalidate(1L));
+        flushes.getFirst().complete(null);
+        assertNull(cache.getIfPresent(1L));
+        assertFalse(player.anyChanged());
+        assertEquals(1, cache.stats().flushCount());
+        assertEquals(1, cache.stats().evictionCount());
+
+        // changed again during the flush
+        player = cache.getIfPresent(2L);
+        assertNotNull(player);
+        player.getWallet().setCoinTotal(300);
+        assertNotNull(cache.get(3L));
+        assertEquals(2, flushes.size());
+        player.getWallet().setCoinTotal(400);
+        flushes.getLast().complete(null);
+        assertSame(player, cache.getIfPresent(2L));
+        assertTrue(player.anyChanged());
+        assertEquals(2, cache.stats().flushCount());
+        assertEquals(1, cache.stats().evictionCount());
+    }
+
+    @Test
+    public void testConcurrentHits() throws Exception {
+        var cache = createCache(createCollection(4), 10);
+        var ids = List.of(1L, 2L, 3L, 4L);
+        ids.forEach(cache::get);
+        var threads = 8;
+        var times = 10_000;
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            var futures = new ArrayList<Future<?>>();
+            for (var i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (var j = 0; j < times; j++) {
+                        assertNotNull(cache.getIfPresent(ids.get(j & 3)));
+                    }
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        }
+        assertEquals((long) threads * times, cache.stats().hitCount());
+        assertEquals(4, cache.size());
+        assertEquals(4, cache.weightedSize());
+    }
+
+}
@@ -2,6 +2,8 @@ package com.github.fmjsjx.bson.model3.core.model;
 
 import com.alibaba.fastjson2.annotation.JSONType;
 import com.github.fmjsjx.bson.model3.core.*;
+import com.github.fmjsjx.bson.model3.core.json.*;
+import com.github.fmjsjx.bson.model3.core.snapshot.*;
 import com.github.fmjsjx.bson.model3.core.util.*;
 import com.mongodb.client.model.Updates;
 import org.bson.*;
@@ -25,12 +27,26 @@ public final class Equipment extends AbstractObjectModel<Equipment> {
     public static final String DISPLAY_NAME_DEF = "def";
     public static final String DISPLAY_NAME_HP = "hp";
 
+    public static final JsonFieldName JSON_NAME_ID = JsonFieldName.of(DISPLAY_NAME_ID);
+    public static final JsonFieldName JSON_NAME_REF_ID = JsonFieldName.of(DISPLAY_NAME_REF_ID);
+    public static final JsonFieldName JSON_NAME_ATK = JsonFieldName.of(DISPLAY_NAME_ATK);
+    public static final JsonFieldName JSON_NAME_DEF = JsonFieldName.of(DISPLAY_NAME_DEF);
+    public static final JsonFieldName JSON_NAME_HP = JsonFieldName.of(DISPLAY_NAME_HP);
+
+    public static final JsonFieldName JSON_STORE_NAME_ID = JsonFieldName.of(STORE_NAME_ID);
+    public static final JsonFieldName JSON_STORE_NAME_REF_ID = JsonFieldName.of(STORE_NAME_REF_ID);
+    public static final JsonFieldName JSON_STORE_NAME_ATK = JsonFieldName.of(STORE_NAME_ATK);
+    public static final JsonFieldName JSON_STORE_NAME_DEF = JsonFieldName.of(STORE_NAME_DEF);
+    public static final JsonFieldName JSON_STORE_NAME_HP = JsonFieldName.of(STORE_NAME_HP);
+
     public static final int FIELD_INDEX_ID = 0;
     public static final int FIELD_INDEX_REF_ID = 1;
     public static final int FIELD_INDEX_ATK = 2;
     public static final int FIELD_INDEX_DEF = 3;
     public static final int FIELD_INDEX_HP = 4;
 
+    public static final long SNAPSHOT_FINGERPRINT = Snapshots.fingerprint("0:string,1:int,2:int,3:int,4:int");
+
     @JSONType(alphabetic = false)
     public static final class EquipmentStoreData {
         @com.alibaba.fastjson2.annotation.JSONField(name = STORE_NAME_ID)
@@ -212,6 +228,29 @@ public final class Equipment extends AbstractObjectModel<Equipment> {
         }
     }
 
+    @Override
+    protected void writeUpdatedFields(JsonDataWriter writer) {
+        var changedFields = this.changedFields;
+        if (changedFields.isEmpty()) {
+            return;
+        }
+        if (changedFields.get(FIELD_INDEX_ID)) {
+            writer.writeName(JSON_NAME_ID).writeString(getId());
+        }
+        if (changedFields.get(FIELD_INDEX_REF_ID)) {
+            writer.writeName(JSON_NAME_REF_ID).writeInt(getRefId());
+        }
+        if (changedFields.get(FIELD_INDEX_ATK)) {
+            writer.writeName(JSON_NAME_ATK).writeInt(getAtk());
+        }
+        if (changedFields.get(FIELD_INDEX_DEF)) {
+            writer.writeName(JSON_NAME_DEF).writeInt(getDef());
+        }
+        if (changedFields.get(FIELD_INDEX_HP)) {
+            writer.writeName(JSON_NAME_HP).writeInt(getHp());
+        }
+    }
+
     @Override
     public Map<String, ?> toDisplayData() {
         var _displayData = new LinkedHashMap<String, Object>();
@@ -223,6 +262,17 @@ public final class Equipment extends AbstractObjectModel<Equipment> {
         return _displayData;
     }
 
+    @Override
+    public void writeDisplayData(JsonDataWriter writer) {
+        writer.writeStartObject();
+        writer.writeName(JSON_NAME_ID).writeString(getId());
+        writer.writeName(JSON_NAME_REF_ID).writeInt(getRefId());
+        writer.writeName(JSON_NAME_ATK).writeInt(getAtk());
+        writer.writeName(JSON_NAME_DEF).writeInt(getDef());
+        writer.writeName(JSON_NAME_HP).writeInt(getHp());
+        writer.writeEndObject();
+    }
+
     @Override
     public BsonDocument toBsonValue() {
         var _bsonValue = new BsonDocument();
@@ -234,6 +284,27 @@ public final class Equipment extends AbstractObjectModel<Equipment> {
         return _bsonValue;
     }
 
+    @Override
+    protected BsonDocument toBsonValue(BitSet fieldIndexes) {
+        var _bsonValue = new BsonDocument();
+        if (fieldIndexes.get(FIELD_INDEX_ID)) {
+            _bsonValue.put(STORE_NAME_ID, new BsonString(getId()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_REF_ID)) {
+            _bsonValue.put(STORE_NAME_REF_ID, new BsonInt32(getRefId()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_ATK)) {
+            _bsonValue.put(STORE_NAME_ATK, new BsonInt32(getAtk()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_DEF)) {
+            _bsonValue.put(STORE_NAME_DEF, new BsonInt32(getDef()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_HP)) {
+            _bsonValue.put(STORE_NAME_HP, new BsonInt32(getHp()));
+        }
+        return _bsonValue;
+    }
+
     @Override
     public Equipment load(BsonDocument src) {
         resetStates();
@@ -245,6 +316,37 @@ public final class Equipment extends AbstractObjectModel<Equipment> {
         return this;
     }
 
+    @Override
+    protected void loadFields(BsonDocument src, BitSet fieldIndexes) {
+        if (fieldIndexes.get(FIELD_INDEX_ID)) {
+            id = BsonUtil.stringValue(src, STORE_NAME_ID).orElse("");
+        }
+        if (fieldIndexes.get(FIELD_INDEX_REF_ID)) {
+            refId = BsonUtil.intValue(src, STORE_NAME_REF_ID).orElse(0);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_ATK)) {
+            atk = BsonUtil.intValue(src, STORE_NAME_ATK).orElse(0);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_DEF)) {
+            def = BsonUtil.intValue(src, STORE_NAME_DEF).orElse(0);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_HP)) {
+            hp = BsonUtil.intValue(src, STORE_NAME_HP).orElse(0);
+        }
+    }
+
+    @Override
+    protected int fieldIndex(String storeName) {
+        return switch (storeName) {
+            case STORE_NAME_ID -> FIELD_INDEX_ID;
+            case STORE_NAME_REF_ID -> FIELD_INDEX_REF_ID;
+            case STORE_NAME_ATK -> FIELD_INDEX_ATK;
+            case STORE_NAME_DEF -> FIELD_INDEX_DEF;
+            case STORE_NAME_HP -> FIELD_INDEX_HP;
+            default -> -1;
+        };
+    }
+
     @Override
     public EquipmentStoreData toStoreData() {
         var _storeData = new EquipmentStoreData();
@@ -256,6 +358,17 @@ public final class Equipment extends AbstractObjectModel<Equipment> {
         return _storeData;
     }
 
+    @Override
+    public void writeStoreData(JsonDataWriter writer) {
+        writer.writeStartObject();
+        writer.writeName(JSON_STORE_NAME_ID).writeString(getId());
+        writer.writeName(JSON_STORE_NAME_REF_ID).writeInt(getRefId());
+        writer.writeName(JSON_STORE_NAME_ATK).writeInt(getAtk());
+        writer.writeName(JSON_STORE_NAME_DEF).writeInt(getDef());
+        writer.writeName(JSON_STORE_NAME_HP).writeInt(getHp());
+        writer.writeEndObject();
+    }
+
     @Override
     public Equipment loadStoreData(Object data) {
         resetStates();
@@ -269,6 +382,99 @@ public final class Equipment extends AbstractObjectModel<Equipment> {
         return this;
     }
 
+    @Override
+    public Equipment readStoreData(JsonDataReader reader) {
+        clean();
+        if (reader.readNull()) {
+            return this;
+        }
+        reader.readStartObject();
+        for (var _name = reader.nextName(); _name != null; _name = reader.nextName()) {
+            switch (_name) {
+                case STORE_NAME_ID -> id = reader.readString();
+                case STORE_NAME_REF_ID -> refId = reader.readInt();
+                case STORE_NAME_ATK -> atk = reader.readInt();
+                case STORE_NAME_DEF -> def = reader.readInt();
+                case STORE_NAME_HP -> hp = reader.readInt();
+                default -> reader.skipValue();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput out) {
+        out.writeFieldIndex(FIELD_INDEX_ID).writeString(getId());
+        var _refId = getRefId();
+        if (_refId != 0) {
+            out.writeFieldIndex(FIELD_INDEX_REF_ID).writeInt(_refId);
+        }
+        var _atk = getAtk();
+        if (_atk != 0) {
+            out.writeFieldIndex(FIELD_INDEX_ATK).writeInt(_atk);
+        }
+        var _def = getDef();
+        if (_def != 0) {
+            out.writeFieldIndex(FIELD_INDEX_DEF).writeInt(_def);
+        }
+        var _hp = getHp();
+        if (_hp != 0) {
+            out.writeFieldIndex(FIELD_INDEX_HP).writeInt(_hp);
+        }
+        out.writeEndObject();
+    }
+
+    @Override
+    public Equipment readSnapshot(SnapshotInput in) {
+        clean();
+        for (var _index = in.nextFieldIndex(); _index >= 0; _index = in.nextFieldIndex()) {
+            switch (_index) {
+                case FIELD_INDEX_ID -> id = in.readString();
+                case FIELD_INDEX_REF_ID -> refId = in.readInt();
+                case FIELD_INDEX_ATK -> atk = in.readInt();
+                case FIELD_INDEX_DEF -> def = in.readInt();
+                case FIELD_INDEX_HP -> hp = in.readInt();
+                default -> throw new IllegalStateException("Unknown field index " + _index + " in snapshot of Equipment");
+            }
+        }
+        return this;
+    }
+
+    @Override
+    protected void writeChangedFields(SnapshotOutput out) {
+        var changedFields = this.changedFields;
+        if (changedFields.get(FIELD_INDEX_ID)) {
+            out.writeFieldIndex(FIELD_INDEX_ID).writeString(getId());
+        }
+        if (changedFields.get(FIELD_INDEX_REF_ID)) {
+            out.writeFieldIndex(FIELD_INDEX_REF_ID).writeInt(getRefId());
+        }
+        if (changedFields.get(FIELD_INDEX_ATK)) {
+            out.writeFieldIndex(FIELD_INDEX_ATK).writeInt(getAtk());
+        }
+        if (changedFields.get(FIELD_INDEX_DEF)) {
+            out.writeFieldIndex(FIELD_INDEX_DEF).writeInt(getDef());
+        }
+        if (changedFields.get(FIELD_INDEX_HP)) {
+            out.writeFieldIndex(FIELD_INDEX_HP).writeInt(getHp());
+        }
+    }
+
+    @Override
+    protected Equipment applyChangedFields(SnapshotInput in) {
+        for (var _index = in.nextFieldIndex(); _index >= 0; _index = in.nextFieldIndex()) {
+            switch (_index) {
+                case FIELD_INDEX_ID -> setId(in.readString());
+                case FIELD_INDEX_REF_ID -> setRefId(in.readInt());
+                case FIELD_INDEX_ATK -> setAtk(in.readInt());
+                case FIELD_INDEX_DEF -> setDef(in.readInt());
+                case FIELD_INDEX_HP -> setHp(in.readInt());
+                default -> throw new IllegalStateException("Unknown field index " + _index + " in change set of Equipment");
+            }
+        }
+        return this;
+    }
+
     @Override
     public boolean anyUpdated() {
         if (isFullUpdate()) {
@@ -301,6 +507,11 @@ public final class Equipment extends AbstractObjectModel<Equipment> {
         return null;
     }
 
+    @Override
+    public boolean writeDeleted(JsonDataWriter writer) {
+        return false;
+    }
+
     @Override
     public boolean anyDeleted() {
         return false;
@@ -311,6 +522,29 @@ public final class Equipment extends AbstractObjectModel<Equipment> {
         return 0;
     }
 
+    @Override
+    public Equipment applyUpdated(Map<?, ?> data) {
+        for (var entry : data.entrySet()) {
+            var value = entry.getValue();
+            switch (String.valueOf(entry.getKey())) {
+                case DISPLAY_NAME_ID -> setId(DisplayDataUtil.stringValue(value));
+                case DISPLAY_NAME_REF_ID -> setRefId(DisplayDataUtil.intValue(value));
+                case DISPLAY_NAME_ATK -> setAtk(DisplayDataUtil.intValue(value));
+                case DISPLAY_NAME_DEF -> setDef(DisplayDataUtil.intValue(value));
+                case DISPLAY_NAME_HP -> setHp(DisplayDataUtil.intValue(value));
+                default -> {
+                    // virtual or unknown fields
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Equipment applyDeleted(Map<?, ?> data) {
+        return this;
+    }
+
     @Override
     public Equipment deepCopy() {
         return new Equipment().deepCopyFrom(this);
@@ -2,6 +2,8 @@ package com.github.fmjsjx.bson.model3.core.model;
 
 import com.alibaba.fastjson2.annotation.JSONType;
 import com.github.fmjsjx.bson.model3.core.*;
+import com.github.fmjsjx.bson.model3.core.json.*;
+import com.github.fmjsjx.bson.model3.core.snapshot.*;
 import com.github.fmjsjx.bson.model3.core.util.*;
 import com.mongodb.client.model.Updates;
 import org.bson.*;
@@ -21,11 +23,21 @@ public final class GeoJsonPoint extends AbstractObjectModel<GeoJsonPoint> {
     public static final String DISPLAY_NAME_X = "x";
     public static final String DISPLAY_NAME_Y = "y";
 
+    public static final JsonFieldName JSON_NAME_TYPE = JsonFieldName.of(DISPLAY_NAME_TYPE);
+    public static final JsonFieldName JSON_NAME_COORDINATES = JsonFieldName.of(DISPLAY_NAME_COORDINATES);
+    public static final JsonFieldName JSON_NAME_X = JsonFieldName.of(DISPLAY_NAME_X);
+    public static final JsonFieldName JSON_NAME_Y = JsonFieldName.of(DISPLAY_NAME_Y);
+
+    public static final JsonFieldName JSON_STORE_NAME_TYPE = JsonFieldName.of(STORE_NAME_TYPE);
+    public static final JsonFieldName JSON_STORE_NAME_COORDINATES = JsonFieldName.of(STORE_NAME_COORDINATES);
+
     public static final int FIELD_INDEX_TYPE = 0;
     public static final int FIELD_INDEX_COORDINATES = 1;
     public static final int FIELD_INDEX_X = 2;
     public static final int FIELD_INDEX_Y = 3;
 
+    public static final long SNAPSHOT_FINGERPRINT = Snapshots.fingerprint("0:string,1:std-list<double>");
+
     @JSONType(alphabetic = false)
     public static final class GeoJsonPointStoreData {
         @com.alibaba.fastjson2.annotation.JSONField(name = STORE_NAME_TYPE)
@@ -55,7 +67,7 @@ public final class GeoJsonPoint extends AbstractObjectModel<GeoJsonPoint> {
     }
 
     private String type = "Point";
-    private List<@Nullable Double> coordinates = List.of();
+    private final TrackedList<@Nullable Double> coordinates = new TrackedList<>(this, FIELD_INDEX_COORDINATES, FIELD_INDEX_X, FIELD_INDEX_Y);
 
     public String getType() {
         return type;
@@ -74,7 +86,7 @@ public final class GeoJsonPoint extends AbstractObjectModel<GeoJsonPoint> {
 
     public void setCoordinates(List<@Nullable Double> coordinates) {
         if (!coordinates.equals(this.coordinates)) {
-            this.coordinates = coordinates;
+            this.coordinates.replace(coordinates);
             fieldsChanged(FIELD_INDEX_COORDINATES, FIELD_INDEX_X, FIELD_INDEX_Y);
         }
     }
@@ -92,7 +104,7 @@ public final class GeoJsonPoint extends AbstractObjectModel<GeoJsonPoint> {
     @Override
     protected GeoJsonPoint cleanFields() {
         type = "Point";
-        coordinates = List.of();
+        coordinates.load(List.of());
         return this;
     }
 
@@ -106,7 +118,7 @@ public final class GeoJsonPoint extends AbstractObjectModel<GeoJsonPoint> {
             updates.add(Updates.set(path().path(STORE_NAME_TYPE), new BsonString(getType())));
         }
         if (changedFields.get(FIELD_INDEX_COORDINATES)) {
-            updates.add(Updates.set(path().path(STORE_NAME_COORDINATES), BsonValueUtil.toBsonArray(getCoordinates(), BsonDouble::new)));
+            updates.add(coordinates.toUpdate(path().path(STORE_NAME_COORDINATES), BsonDouble::new));
         }
     }
 
@@ -130,6 +142,26 @@ public final class GeoJsonPoint extends AbstractObjectModel<GeoJsonPoint> {
         }
     }
 
+    @Override
+    protected void writeUpdatedFields(JsonDataWriter writer) {
+        var changedFields = this.changedFields;
+        if (changedFields.isEmpty()) {
+            return;
+        }
+        if (changedFields.get(FIELD_INDEX_TYPE)) {
+            writer.writeName(JSON_NAME_TYPE).writeString(getType());
+        }
+        if (changedFields.get(FIELD_INDEX_COORDINATES)) {
+            writer.writeName(JSON_NAME_COORDINATES).writeArray(getCoordinates());
+        }
+        if (changedFields.get(FIELD_INDEX_X)) {
+            writer.writeName(JSON_NAME_X).writeDouble(getX());
+        }
+        if (changedFields.get(FIELD_INDEX_Y)) {
+            writer.writeName(JSON_NAME_Y).writeDouble(getY());
+        }
+    }
+
     @Override
     public Map<String, ?> toDisplayData() {
         var _displayData = new LinkedHashMap<String, Object>();
@@ -140,6 +172,16 @@ public final class GeoJsonPoint extends AbstractObjectModel<GeoJsonPoint> {
         return _displayData;
     }
 
+    @Override
+    public void writeDisplayData(JsonDataWriter writer) {
+        writer.writeStartObject();
+        writer.writeName(JSON_NAME_TYPE).writeString(getType());
+        writer.writeName(JSON_NAME_COORDINATES).writeArray(getCoordinates());
+        writer.writeName(JSON_NAME_X).writeDouble(getX());
+        writer.writeName(JSON_NAME_Y).writeDouble(getY());
+        writer.writeEndObject();
+    }
+
     @Override
     public BsonDocument toBsonValue() {
         var _bsonValue = new BsonDocument();
@@ -148,28 +190,127 @@ public final class GeoJsonPoint extends AbstractObjectModel<GeoJsonPoint> {
         return _bsonValue;
     }
 
+    @Override
+    protected BsonDocument toBsonValue(BitSet fieldIndexes) {
+        var _bsonValue = new BsonDocument();
+        if (fieldIndexes.get(FIELD_INDEX_TYPE)) {
+            _bsonValue.put(STORE_NAME_TYPE, new BsonString(getType()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_COORDINATES)) {
+            _bsonValue.put(STORE_NAME_COORDINATES, BsonValueUtil.toBsonArray(getCoordinates(), BsonDouble::new));
+        }
+        return _bsonValue;
+    }
+
     @Override
     public GeoJsonPoint load(BsonDocument src) {
         resetStates();
         type = BsonUtil.stringValue(src, STORE_NAME_TYPE).orElse("Point");
-        coordinates = BsonUtil.arrayValue(src, STORE_NAME_COORDINATES).map(BsonValueUtil::mapToDoubleList).orElse(List.of());
+        coordinates.load(BsonUtil.arrayValue(src, STORE_NAME_COORDINATES).map(BsonValueUtil::mapToDoubleList).orElse(List.of()));
         return this;
     }
 
+    @Override
+    protected void loadFields(BsonDocument src, BitSet fieldIndexes) {
+        if (fieldIndexes.get(FIELD_INDEX_TYPE)) {
+            type = BsonUtil.stringValue(src, STORE_NAME_TYPE).orElse("Point");
+        }
+        if (fieldIndexes.get(FIELD_INDEX_COORDINATES)) {
+            coordinates.load(BsonUtil.arrayValue(src, STORE_NAME_COORDINATES).map(BsonValueUtil::mapToDoubleList).orElse(List.of()));
+        }
+    }
+
+    @Override
+    protected int fieldIndex(String storeName) {
+        return switch (storeName) {
+            case STORE_NAME_TYPE -> FIELD_INDEX_TYPE;
+            case STORE_NAME_COORDINATES -> FIELD_INDEX_COORDINATES;
+            default -> -1;
+        };
+    }
+
     @Override
     public GeoJsonPointStoreData toStoreData() {
         var _storeData = new GeoJsonPointStoreData();
         _storeData.type = getType();
-        _storeData.coordinates = getCoordinates();
+        _storeData.coordinates = new ArrayList<>(getCoordinates());
         return _storeData;
     }
 
+    @Override
+    public void writeStoreData(JsonDataWriter writer) {
+        writer.writeStartObject();
+        writer.writeName(JSON_STORE_NAME_TYPE).writeString(getType());
+        writer.writeName(JSON_STORE_NAME_COORDINATES).writeArray(getCoordinates());
+        writer.writeEndObject();
+    }
+
     @Override
     public GeoJsonPoint loadStoreData(Object data) {
         resetStates();
         if (data instanceof GeoJsonPointStoreData _storeData) {
             type = _storeData.type;
-            coordinates = _storeData.coordinates;
+            coordinates.load(_storeData.coordinates);
+        }
+        return this;
+    }
+
+    @Override
+    public GeoJsonPoint readStoreData(JsonDataReader reader) {
+        clean();
+        if (reader.readNull()) {
+            return this;
+        }
+        reader.readStartObject();
+        for (var _name = reader.nextName(); _name != null; _name = reader.nextName()) {
+            switch (_name) {
+                case STORE_NAME_TYPE -> type = reader.readString();
+                case STORE_NAME_COORDINATES -> coordinates.load(reader.readList(JsonDataReader::readDouble));
+                default -> reader.skipValue();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput out) {
+        out.writeFieldIndex(FIELD_INDEX_TYPE).writeString(getType());
+        out.writeFieldIndex(FIELD_INDEX_COORDINATES).writeList(getCoordinates(), SnapshotOutput::writeDouble);
+        out.writeEndObject();
+    }
+
+    @Override
+    public GeoJsonPoint readSnapshot(SnapshotInput in) {
+        clean();
+        for (var _index = in.nextFieldIndex(); _index >= 0; _index = in.nextFieldIndex()) {
+            switch (_index) {
+                case FIELD_INDEX_TYPE -> type = in.readString();
+                case FIELD_INDEX_COORDINATES -> coordinates.load(in.readList(SnapshotInput::readDouble));
+                default -> throw new IllegalStateException("Unknown field index " + _index + " in snapshot of GeoJsonPoint");
+            }
+        }
+        return this;
+    }
+
+    @Override
+    protected void writeChangedFields(SnapshotOutput out) {
+        var changedFields = this.changedFields;
+        if (changedFields.get(FIELD_INDEX_TYPE)) {
+            out.writeFieldIndex(FIELD_INDEX_TYPE).writeString(getType());
+        }
+        if (changedFields.get(FIELD_INDEX_COORDINATES)) {
+            out.writeFieldIndex(FIELD_INDEX_COORDINATES).writeList(getCoordinates(), SnapshotOutput::writeDouble);
+        }
+    }
+
+    @Override
+    protected GeoJsonPoint applyChangedFields(SnapshotInput in) {
+        for (var _index = in.nextFieldIndex(); _index >= 0; _index = in.nextFieldIndex()) {
+            switch (_index) {
+                case FIELD_INDEX_TYPE -> setType(in.readString());
+                case FIELD_INDEX_COORDINATES -> setCoordinates(in.readList(SnapshotInput::readDouble));
+                default -> throw new IllegalStateException("Unknown field index " + _index + " in change set of GeoJsonPoint");
+            }
         }
         return this;
     }
@@ -197,6 +338,11 @@ public final class GeoJsonPoint extends AbstractObjectModel<GeoJsonPoint> {
         return null;
     }
 
+    @Override
+    public boolean writeDeleted(JsonDataWriter writer) {
+        return false;
+    }
+
     @Override
     public boolean anyDeleted() {
         return false;
@@ -207,6 +353,26 @@ public final class GeoJsonPoint extends AbstractObjectModel<GeoJsonPoint> {
         return 0;
     }
 
+    @Override
+    public GeoJsonPoint applyUpdated(Map<?, ?> data) {
+        for (var entry : data.entrySet()) {
+            var value = entry.getValue();
+            switch (String.valueOf(entry.getKey())) {
+                case DISPLAY_NAME_TYPE -> setType(DisplayDataUtil.stringValue(value));
+                case DISPLAY_NAME_COORDINATES -> setCoordinates(DisplayDataUtil.listValue(value, DisplayDataUtil::doubleValue));
+                default -> {
+                    // virtual or unknown fields
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public GeoJsonPoint applyDeleted(Map<?, ?> data) {
+        return this;
+    }
+
     @Override
     public GeoJsonPoint deepCopy() {
         return new GeoJsonPoint().deepCopyFrom(this);
@@ -215,7 +381,7 @@ public final class GeoJsonPoint extends AbstractObjectModel<GeoJsonPoint> {
     @Override
     public GeoJsonPoint deepCopyFrom(GeoJsonPoint src) {
         type = src.getType();
-        coordinates = new ArrayList<>(src.getCoordinates());
+        coordinates.load(src.getCoordinates());
         return this;
     }
 
@@ -0,0 +1,52 @@
+package com.github.fmjsjx.bson.model3.core.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Shared {@link Player} fixtures for tests.
+ */
+public final class PlayerFixtures {
+
+    /**
+     * Creates a new {@link Player} with all kinds of fields filled and all
+     * states reset.
+     *
+     * @return a new {@code Player}
+     */
+    public static Player createPlayer() {
+        var player = new Player();
+        player.setId(1001L);
+        var basicInfo = player.getBasicInfo();
+        basicInfo.setName("Player\"One");
+        basicInfo.setAvatar("avatar.png");
+        basicInfo.setBirthday(LocalDate.of(1990, 1, 1));
+        basicInfo.setCreatedTime(LocalDateTime.of(2024, 1, 1, 0, 0, 0));
+        var wallet = player.getWallet();
+        wallet.setCoinTotal(10000L);
+        wallet.setCoinConsumed(1000L);
+        var login = player.getLogin();
+        login.setCount(10);
+        login.setLastLoginTime(LocalDateTime.of(2024, 6, 1, 12, 0, 0));
+        login.setLastLoginIp("192.168.1.1");
+        var location = new GeoJsonPoint();
+        location.setCoordinates(List.of(120.0, 30.0));
+        login.setLastLoginLocation(location);
+        var preferences = player.getPreferences();
+        preferences.setFeatures(List.of("f1", "f2"));
+        preferences.getAttributes().put("theme", "dark");
+        var equipment = new Equipment();
+        equipment.setId("eq001");
+        equipment.setRefId(1001);
+        equipment.setAtk(100);
+        player.getEquipments().put("weapon", equipment);
+        player.getItems().put(1001, 10);
+        player.getItems().put(1002, 5);
+        return player.reset();
+    }
+
+    private PlayerFixtures() {
+    }
+
+}
@@ -2,6 +2,8 @@ package com.github.fmjsjx.bson.model3.core.model;
 
 import com.alibaba.fastjson2.annotation.JSONType;
 import com.github.fmjsjx.bson.model3.core.*;
+import com.github.fmjsjx.bson.model3.core.json.*;
+import com.github.fmjsjx.bson.model3.core.snapshot.*;
 import com.github.fmjsjx.bson.model3.core.util.*;
 import com.mongodb.client.model.Updates;
 import org.bson.*;
@@ -23,6 +25,16 @@ public final class Wallet extends AbstractObjectModel<Wallet> {
     public static final String DISPLAY_NAME_DIAMOND = "diamond";
     public static final String DISPLAY_NAME_DIAMOND_TOTAL = "diamondTotal";
 
+    public static final JsonFieldName JSON_NAME_COIN = JsonFieldName.of(DISPLAY_NAME_COIN);
+    public static final JsonFieldName JSON_NAME_COIN_TOTAL = JsonFieldName.of(DISPLAY_NAME_COIN_TOTAL);
+    public static final JsonFieldName JSON_NAME_DIAMOND = JsonFieldName.of(DISPLAY_NAME_DIAMOND);
+    public static final JsonFieldName JSON_NAME_DIAMOND_TOTAL = JsonFieldName.of(DISPLAY_NAME_DIAMOND_TOTAL);
+
+    public static final JsonFieldName JSON_STORE_NAME_COIN_TOTAL = JsonFieldName.of(STORE_NAME_COIN_TOTAL);
+    public static final JsonFieldName JSON_STORE_NAME_COIN_CONSUMED = JsonFieldName.of(STORE_NAME_COIN_CONSUMED);
+    public static final JsonFieldName JSON_STORE_NAME_DIAMOND_TOTAL = JsonFieldName.of(STORE_NAME_DIAMOND_TOTAL);
+    public static final JsonFieldName JSON_STORE_NAME_DIAMOND_CONSUMED = JsonFieldName.of(STORE_NAME_DIAMOND_CONSUMED);
+
     public static final int FIELD_INDEX_COIN = 0;
     public static final int FIELD_INDEX_COIN_TOTAL = 1;
     public static final int FIELD_INDEX_COIN_CONSUMED = 2;
@@ -30,6 +42,8 @@ public final class Wallet extends AbstractObjectModel<Wallet> {
     public static final int FIELD_INDEX_DIAMOND_TOTAL = 4;
     public static final int FIELD_INDEX_DIAMOND_CONSUMED = 5;
 
+    public static final long SNAPSHOT_FINGERPRINT = Snapshots.fingerprint("1:long,2:long,4:long,5:long");
+
     @JSONType(alphabetic = false)
     public static final class WalletStoreData {
         @com.alibaba.fastjson2.annotation.JSONField(name = STORE_NAME_COIN_TOTAL)
@@ -188,6 +202,26 @@ public final class Wallet extends AbstractObjectModel<Wallet> {
         }
     }
 
+    @Override
+    protected void writeUpdatedFields(JsonDataWriter writer) {
+        var changedFields = this.changedFields;
+        if (changedFields.isEmpty()) {
+            return;
+        }
+        if (changedFields.get(FIELD_INDEX_COIN)) {
+            writer.writeName(JSON_NAME_COIN).writeLong(getCoin());
+        }
+        if (changedFields.get(FIELD_INDEX_COIN_TOTAL)) {
+            writer.writeName(JSON_NAME_COIN_TOTAL).writeLong(getCoinTotal());
+        }
+        if (changedFields.get(FIELD_INDEX_DIAMOND)) {
+            writer.writeName(JSON_NAME_DIAMOND).writeLong(getDiamond());
+        }
+        if (changedFields.get(FIELD_INDEX_DIAMOND_TOTAL)) {
+            writer.writeName(JSON_NAME_DIAMOND_TOTAL).writeLong(getDiamondTotal());
+        }
+    }
+
     @Override
     public Map<String, ?> toDisplayData() {
         var _displayData = new LinkedHashMap<String, Object>();
@@ -198,6 +232,16 @@ public final class Wallet extends AbstractObjectModel<Wallet> {
         return _displayData;
     }
 
+    @Override
+    public void writeDisplayData(JsonDataWriter writer) {
+        writer.writeStartObject();
+        writer.writeName(JSON_NAME_COIN).writeLong(getCoin());
+        writer.writeName(JSON_NAME_COIN_TOTAL).writeLong(getCoinTotal());
+        writer.writeName(JSON_NAME_DIAMOND).writeLong(getDiamond());
+        writer.writeName(JSON_NAME_DIAMOND_TOTAL).writeLong(getDiamondTotal());
+        writer.writeEndObject();
+    }
+
     @Override
     public BsonDocument toBsonValue() {
         var _bsonValue = new BsonDocument();
@@ -208,6 +252,24 @@ public final class Wallet extends AbstractObjectModel<Wallet> {
         return _bsonValue;
     }
 
+    @Override
+    protected BsonDocument toBsonValue(BitSet fieldIndexes) {
+        var _bsonValue = new BsonDocument();
+        if (fieldIndexes.get(FIELD_INDEX_COIN_TOTAL)) {
+            _bsonValue.put(STORE_NAME_COIN_TOTAL, new BsonInt64(getCoinTotal()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_COIN_CONSUMED)) {
+            _bsonValue.put(STORE_NAME_COIN_CONSUMED, new BsonInt64(getCoinConsumed()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_DIAMOND_TOTAL)) {
+            _bsonValue.put(STORE_NAME_DIAMOND_TOTAL, new BsonInt64(getDiamondTotal()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_DIAMOND_CONSUMED)) {
+            _bsonValue.put(STORE_NAME_DIAMOND_CONSUMED, new BsonInt64(getDiamondConsumed()));
+        }
+        return _bsonValue;
+    }
+
     @Override
     public Wallet load(BsonDocument src) {
         resetStates();
@@ -218,6 +280,33 @@ public final class Wallet extends AbstractObjectModel<Wallet> {
         return this;
     }
 
+    @Override
+    protected void loadFields(BsonDocument src, BitSet fieldIndexes) {
+        if (fieldIndexes.get(FIELD_INDEX_COIN_TOTAL)) {
+            coinTotal = BsonUtil.longValue(src, STORE_NAME_COIN_TOTAL).orElse(0L);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_COIN_CONSUMED)) {
+            coinConsumed = BsonUtil.longValue(src, STORE_NAME_COIN_CONSUMED).orElse(0L);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_DIAMOND_TOTAL)) {
+            diamondTotal = BsonUtil.longValue(src, STORE_NAME_DIAMOND_TOTAL).orElse(0L);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_DIAMOND_CONSUMED)) {
+            diamondConsumed = BsonUtil.longValue(src, STORE_NAME_DIAMOND_CONSUMED).orElse(0L);
+        }
+    }
+
+    @Override
+    protected int fieldIndex(String storeName) {
+        return switch (storeName) {
+            case STORE_NAME_COIN_TOTAL -> FIELD_INDEX_COIN_TOTAL;
+            case STORE_NAME_COIN_CONSUMED -> FIELD_INDEX_COIN_CONSUMED;
+            case STORE_NAME_DIAMOND_TOTAL -> FIELD_INDEX_DIAMOND_TOTAL;
+            case STORE_NAME_DIAMOND_CONSUMED -> FIELD_INDEX_DIAMOND_CONSUMED;
+            default -> -1;
+        };
+    }
+
     @Override
     public WalletStoreData toStoreData() {
         var _storeData = new WalletStoreData();
@@ -228,6 +317,16 @@ public final class Wallet extends AbstractObjectModel<Wallet> {
         return _storeData;
     }
 
+    @Override
+    public void writeStoreData(JsonDataWriter writer) {
+        writer.writeStartObject();
+        writer.writeName(JSON_STORE_NAME_COIN_TOTAL).writeLong(getCoinTotal());
+        writer.writeName(JSON_STORE_NAME_COIN_CONSUMED).writeLong(getCoinConsumed());
+        writer.writeName(JSON_STORE_NAME_DIAMOND_TOTAL).writeLong(getDiamondTotal());
+        writer.writeName(JSON_STORE_NAME_DIAMOND_CONSUMED).writeLong(getDiamondConsumed());
+        writer.writeEndObject();
+    }
+
     @Override
     public Wallet loadStoreData(Object data) {
         resetStates();
@@ -240,6 +339,92 @@ public final class Wallet extends AbstractObjectModel<Wallet> {
         return this;
     }
 
+    @Override
+    public Wallet readStoreData(JsonDataReader reader) {
+        clean();
+        if (reader.readNull()) {
+            return this;
+        }
+        reader.readStartObject();
+        for (var _name = reader.nextName(); _name != null; _name = reader.nextName()) {
+            switch (_name) {
+                case STORE_NAME_COIN_TOTAL -> coinTotal = reader.readLong();
+                case STORE_NAME_COIN_CONSUMED -> coinConsumed = reader.readLong();
+                case STORE_NAME_DIAMOND_TOTAL -> diamondTotal = reader.readLong();
+                case STORE_NAME_DIAMOND_CONSUMED -> diamondConsumed = reader.readLong();
+                default -> reader.skipValue();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput out) {
+        var _coinTotal = getCoinTotal();
+        if (_coinTotal != 0) {
+            out.writeFieldIndex(FIELD_INDEX_COIN_TOTAL).writeLong(_coinTotal);
+        }
+        var _coinConsumed = getCoinConsumed();
+        if (_coinConsumed != 0) {
+            out.writeFieldIndex(FIELD_INDEX_COIN_CONSUMED).writeLong(_coinConsumed);
+        }
+        var _diamondTotal = getDiamondTotal();
+        if (_diamondTotal != 0) {
+            out.writeFieldIndex(FIELD_INDEX_DIAMOND_TOTAL).writeLong(_diamondTotal);
+        }
+        var _diamondConsumed = getDiamondConsumed();
+        if (_diamondConsumed != 0) {
+            out.writeFieldIndex(FIELD_INDEX_DIAMOND_CONSUMED).writeLong(_diamondConsumed);
+        }
+        out.writeEndObject();
+    }
+
+    @Override
+    public Wallet readSnapshot(SnapshotInput in) {
+        clean();
+        for (var _index = in.nextFieldIndex(); _index >= 0; _index = in.nextFieldIndex()) {
+            switch (_index) {
+                case FIELD_INDEX_COIN_TOTAL -> coinTotal = in.readLong();
+                case FIELD_INDEX_COIN_CONSUMED -> coinConsumed = in.readLong();
+                case FIELD_INDEX_DIAMOND_TOTAL -> diamondTotal = in.readLong();
+                case FIELD_INDEX_DIAMOND_CONSUMED -> diamondConsumed = in.readLong();
+                default -> throw new IllegalStateException("Unknown field index " + _index + " in snapshot of Wallet");
+            }
+        }
+        return this;
+    }
+
+    @Override
+    protected void writeChangedFields(SnapshotOutput out) {
+        var changedFields = this.changedFields;
+        if (changedFields.get(FIELD_INDEX_COIN_TOTAL)) {
+            out.writeFieldIndex(FIELD_INDEX_COIN_TOTAL).writeLong(getCoinTotal());
+        }
+        if (changedFields.get(FIELD_INDEX_COIN_CONSUMED)) {
+            out.writeFieldIndex(FIELD_INDEX_COIN_CONSUMED).writeLong(getCoinConsumed());
+        }
+        if (changedFields.get(FIELD_INDEX_DIAMOND_TOTAL)) {
+            out.writeFieldIndex(FIELD_INDEX_DIAMOND_TOTAL).writeLong(getDiamondTotal());
+        }
+        if (changedFields.get(FIELD_INDEX_DIAMOND_CONSUMED)) {
+            out.writeFieldIndex(FIELD_INDEX_DIAMOND_CONSUMED).writeLong(getDiamondConsumed());
+        }
+    }
+
+    @Override
+    protected Wallet applyChangedFields(SnapshotInput in) {
+        for (var _index = in.nextFieldIndex(); _index >= 0; _index = in.nextFieldIndex()) {
+            switch (_index) {
+                case FIELD_INDEX_COIN_TOTAL -> setCoinTotal(in.readLong());
+                case FIELD_INDEX_COIN_CONSUMED -> setCoinConsumed(in.readLong());
+                case FIELD_INDEX_DIAMOND_TOTAL -> setDiamondTotal(in.readLong());
+                case FIELD_INDEX_DIAMOND_CONSUMED -> setDiamondConsumed(in.readLong());
+                default -> throw new IllegalStateException("Unknown field index " + _index + " in change set of Wallet");
+            }
+        }
+        return this;
+    }
+
     @Override
     public boolean anyUpdated() {
         if (isFullUpdate()) {
@@ -269,6 +454,11 @@ public final class Wallet extends AbstractObjectModel<Wallet> {
         return null;
     }
 
+    @Override
+    public boolean writeDeleted(JsonDataWriter writer) {
+        return false;
+    }
+
     @Override
     public boolean anyDeleted() {
         return false;
@@ -279,6 +469,26 @@ public final class Wallet extends AbstractObjectModel<Wallet> {
         return 0;
     }
 
+    @Override
+    public Wallet applyUpdated(Map<?, ?> data) {
+        for (var entry : data.entrySet()) {
+            var value = entry.getValue();
+            switch (String.valueOf(entry.getKey())) {
+                case DISPLAY_NAME_COIN_TOTAL -> setCoinTotal(DisplayDataUtil.longValue(value));
+                case DISPLAY_NAME_DIAMOND_TOTAL -> setDiamondTotal(DisplayDataUtil.longValue(value));
+                default -> {
+                    // virtual or unknown fields
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Wallet applyDeleted(Map<?, ?> data) {
+        return this;
+    }
+
     @Override
     public Wallet deepCopy() {
         return new Wallet().deepCopyFrom(this);
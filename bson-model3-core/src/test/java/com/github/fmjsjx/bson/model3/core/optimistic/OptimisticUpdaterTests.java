@@ -0,0 +1,102 @@
+package com.github.fmjsjx.bson.model3.core.optimistic;
+
+import com.github.fmjsjx.bson.model3.core.memory.InMemoryCollection;
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptimisticUpdaterTests {
+
+    private static OptimisticUpdater<Player> createUpdater(InMemoryCollection collection, Consumer<Player> changes) {
+        return new OptimisticUpdater<>(
+                update -> collection.bulkWrite(List.of(update)).matchedCount(),
+                OptimisticUpdater.reloadAndRetry(player -> collection.find(new BsonInt64(player.getId())), changes),
+                3);
+    }
+
+    @Test
+    public void testToVersionedUpdate() {
+        var player = PlayerFixtures.createPlayer();
+        player.setUpdatedVersion(5);
+        player.reset();
+        assertNull(player.toVersionedUpdate());
+
+        player.getWallet().setCoinTotal(200L);
+        var update = player.toVersionedUpdate();
+        assertNotNull(update);
+        assertEquals(new BsonDocument("_id", new BsonInt64(player.getId())).append("_uv", new BsonInt32(5)),
+                update.getFilter().toBsonDocument());
+        var updateDocument = update.getUpdate().toBsonDocument();
+        assertEquals(new BsonDocument("w.ct", new BsonInt64(200)), updateDocument.getDocument("$set"));
+        assertEquals(new BsonDocument("_uv", new BsonInt32(1)), updateDocument.getDocument("$inc"));
+
+        player.versionUpdated();
+        assertEquals(6, player.getUpdatedVersion());
+        assertFalse(player.anyChanged());
+
+        player.setUpdatedVersion(player.getUpdatedVersion() + 1);
+        assertThrows(IllegalStateException.class, player::toVersionedUpdate);
+    }
+
+    @Test
+    public void testConflictAndRetry() {
+        var collection = new InMemoryCollection();
+        var player = PlayerFixtures.createPlayer();
+        collection.insertOne(player);
+        var id = new BsonInt64(player.getId());
+        var first = new Player().load(collection.find(id));
+        var second = new Player().load(collection.find(id));
+
+        Consumer<Player> firstChanges = it -> it.getWallet().setCoinTotal(it.getWallet().getCoinTotal() + 100);
+        firstChanges.accept(first);
+        first = createUpdater(collection, firstChanges).update(first);
+        assertEquals(1, first.getUpdatedVersion());
+
+        Consumer<Player> secondChanges = it -> it.getWallet().setCoinConsumed(it.getWallet().getCoinConsumed() + 10);
+        secondChanges.accept(second);
+        var secondUpdate = second.toVersionedUpdate();
+        assertNotNull(secondUpdate);
+        assertEquals(0, collection.bulkWrite(List.of(secondUpdate)).matchedCount());
+        second = createUpdater(collection, secondChanges).update(second);
+        assertEquals(2, second.getUpdatedVersion());
+        assertFalse(second.anyChanged());
+
+        var stored = new Player().load(collection.find(id));
+        assertEquals(2, stored.getUpdatedVersion());
+        assertEquals(player.getWallet().getCoinTotal() + 100, stored.getWallet().getCoinTotal());
+        assertEquals(player.getWallet().getCoinConsumed() + 10, stored.getWallet().getCoinConsumed());
+        assertEquals(stored.toBsonValue(), second.toBsonValue());
+    }
+
+    @Test
+    public void testConflictUnresolved() {
+        var collection = new InMemoryCollection();
+        var player = PlayerFixtures.createPlayer();
+        collection.insertOne(player);
+        var stale = new Player().load(collection.find(new BsonInt64(player.getId())));
+        stale.getWallet().setCoinTotal(1L);
+        // concurrently updated
+        player.getWallet().setCoinTotal(2L);
+        player = createUpdater(collection, it -> {
+        }).update(player);
+
+        var e = assertThrows(VersionConflictException.class, () -> new OptimisticUpdater<Player>(
+                update -> collection.bulkWrite(List.of(update)).matchedCount(), (model, attempt) -> null, 3
+        ).update(stale));
+        assertEquals(1, e.getAttempts());
+        e = assertThrows(VersionConflictException.class, () -> new OptimisticUpdater<Player>(
+                update -> 0, (model, attempt) -> model, 2
+        ).update(stale));
+        assertEquals(2, e.getAttempts());
+        assertThrows(IllegalArgumentException.class, () -> new OptimisticUpdater<Player>(update -> 1, (model, attempt) -> model, 0));
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.github.fmjsjx.bson.model3.core.snapshot;
+
+import com.github.fmjsjx.bson.model3.core.model.Equipment;
+import com.github.fmjsjx.bson.model3.core.model.GeoJsonPoint;
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeSetTests {
+
+    private static void tick(Player primary, Player follower) {
+        var changeSet = primary.toChangeSet();
+        primary.reset();
+        follower.applyChangeSet(changeSet);
+        assertEquals(primary.changeSequence(), follower.changeSequence());
+        assertEquals(primary.toBsonValue(), follower.toBsonValue());
+        assertFalse(follower.anyChanged());
+    }
+
+    @Test
+    public void testReplicate() {
+        var primary = PlayerFixtures.createPlayer();
+        var follower = new Player().applyChangeSet(primary.toFullChangeSet());
+        assertEquals(0, follower.changeSequence());
+        assertEquals(primary.toBsonValue(), follower.toBsonValue());
+
+        // scalars, hidden and unboxed fields
+        primary.getWallet().setCoinTotal(20000L);
+        primary.getWallet().setCoinConsumed(3000L);
+        primary.getBasicInfo().setAvatar(null);
+        primary.getBasicInfo().setLevelAsInt(0);
+        primary.getPreferences().setFeatures(List.of("f3"));
+        primary.setUpdatedTime(LocalDateTime.of(2024, 6, 2, 0, 0, 0));
+        tick(primary, follower);
+        assertEquals(0, follower.getBasicInfo().getLevel());
+
+        // maps and nested models
+        var equipment = new Equipment();
+        equipment.setId("eq002");
+        equipment.setRefId(1002);
+        primary.getEquipments().put("armor", equipment);
+        primary.getEquipments().get("weapon").setAtk(120);
+        primary.getItems().remove(1001);
+        primary.getItems().put(1003, 30);
+        primary.getPreferences().getAttributes().remove("theme");
+        primary.getLogin().getLastLoginLocation().setCoordinates(List.of(1.0, 2.0));
+        var weapon = follower.getEquipments().get("weapon");
+        tick(primary, follower);
+        assertSame(weapon, follower.getEquipments().get("weapon"));
+        assertEquals(120, weapon.getAtk());
+
+        // replaced and removed children
+        var location = new GeoJsonPoint();
+        location.setType("Point");
+        primary.getLogin().setLastLoginLocation(location);
+        primary.getBasicInfo().setLevel(null);
+        primary.setUpdatedTime(null);
+        tick(primary, follower);
+        assertNull(follower.getBasicInfo().getLevel());
+        primary.getLogin().setLastLoginLocation(null);
+        primary.getEquipments().clear();
+        tick(primary, follower);
+        assertNull(follower.getLogin().getLastLoginLocation());
+
+        // nothing changed
+        tick(primary, follower);
+        assertEquals(5, follower.changeSequence());
+    }
+
+    @Test
+    public void testGapAndResync() {
+        var primary = PlayerFixtures.createPlayer();
+        var follower = new Player().applyChangeSet(primary.toFullChangeSet());
+
+        primary.getWallet().setCoinTotal(1L);
+        var first = primary.toChangeSet();
+        primary.reset();
+        primary.getWallet().setCoinTotal(2L);
+        var second = primary.toChangeSet();
+        primary.reset();
+
+        var e = assertThrows(ChangeSetGapException.class, () -> follower.applyChangeSet(second));
+        assertEquals(1, e.getExpectedSequence());
+        assertEquals(2, e.getActualSequence());
+        assertEquals(0, follower.changeSequence());
+
+        follower.applyChangeSet(first).applyChangeSet(second);
+        assertEquals(2L, follower.getWallet().getCoinTotal());
+        // duplicates are ignored
+        follower.applyChangeSet(first);
+        assertEquals(2L, follower.getWallet().getCoinTotal());
+
+        primary.getWallet().setCoinTotal(3L);
+        primary.toChangeSet();
+        primary.reset();
+        primary.getWallet().setCoinTotal(4L);
+        var fourth = primary.toChangeSet();
+        primary.reset();
+        assertThrows(ChangeSetGapException.class, () -> follower.applyChangeSet(fourth));
+        follower.applyChangeSet(primary.toFullChangeSet());
+        assertEquals(4, follower.changeSequence());
+        assertEquals(primary.toBsonValue(), follower.toBsonValue());
+
+        assertThrows(IllegalArgumentException.class, () -> follower.applyChangeSet(primary.toSnapshot()));
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.github.fmjsjx.bson.model3.core.snapshot;
+
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import org.bson.BsonInt64;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedSnapshotStoreTests {
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (var paths = Files.walk(directory)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static Player createPlayer(long id) {
+        var player = PlayerFixtures.createPlayer();
+        player.setId(id);
+        player.reset();
+        return player;
+    }
+
+    @Test
+    public void testPutAndLoad() throws IOException {
+        var directory = Files.createTempDirectory("snapshot-store");
+        try {
+            var player = createPlayer(1);
+            var id = new BsonInt64(1);
+            try (var store = MappedSnapshotStore.open(directory, 4096)) {
+                store.put(id, player.getUpdatedVersion(), player);
+                assertEquals(1, store.size());
+                assertEquals(OptionalLong.of(player.getUpdatedVersion()), store.version(id));
+                var loaded = store.load(id, Player::new);
+                assertNotNull(loaded);
+                assertEquals(player.toBsonValue(), loaded.toBsonValue());
+                assertNull(store.load(id, player.getUpdatedVersion() + 1, Player::new));
+                assertNull(store.load(new BsonInt64(2), Player::new));
+                var changed = new Player();
+                changed.setId(2);
+                assertThrows(IllegalArgumentException.class, () -> store.put(new BsonString("x"), 0, changed));
+            }
+
+            // reopen
+            try (var store = MappedSnapshotStore.open(directory, 4096)) {
+                assertEquals(1, store.size());
+                var loaded = store.load(id, player.getUpdatedVersion(), Player::new);
+                assertNotNull(loaded);
+                assertEquals(player.toBsonValue(), loaded.toBsonValue());
+
+                player.versionUpdated();
+                store.put(id, player.getUpdatedVersion(), player);
+                var objectId = new BsonObjectId(new ObjectId());
+                store.put(objectId, 1, createPlayer(2));
+                store.put(new BsonString("p3"), 1, createPlayer(3));
+                assertTrue(store.remove(new BsonString("p3")));
+                assertFalse(store.remove(new BsonString("p4")));
+            }
+            try (var store = MappedSnapshotStore.open(directory, 4096)) {
+                assertEquals(2, store.size());
+                assertEquals(OptionalLong.of(player.getUpdatedVersion()), store.version(id));
+                assertNull(store.load(new BsonString("p3"), Player::new));
+                store.clear();
+                assertEquals(0, store.size());
+                assertEquals(1, store.segmentCount());
+            }
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    public void testSegmentsAndCorruption() throws IOException {
+        var directory = Files.createTempDirectory("snapshot-store");
+        try {
+            var size = createPlayer(1).toSnapshot().length;
+            var segmentSize = MappedSnapshotStore.SEGMENT_HEADER_SIZE + (MappedSnapshotStore.RECORD_HEADER_SIZE + 9 + size) * 2;
+            try (var store = MappedSnapshotStore.open(directory, segmentSize)) {
+                for (var id = 1L; id <= 5L; id++) {
+                    store.put(new BsonInt64(id), 1, createPlayer(id));
+                }
+                assertEquals(3, store.segmentCount());
+            }
+            // corrupt the last byte of the second record
+            try (var channel = FileChannel.open(directory.resolve("segment-00000000.dat"), StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), segmentSize - 1);
+            }
+            try (var store = MappedSnapshotStore.open(directory, segmentSize)) {
+                assertEquals(4, store.size());
+                assertNotNull(store.load(new BsonInt64(1), Player::new));
+                assertNull(store.load(new BsonInt64(2), Player::new));
+                var loaded = store.load(new BsonInt64(5), Player::new);
+                assertNotNull(loaded);
+                assertEquals(5L, loaded.getId());
+            }
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        var directory = Files.createTempDirectory("snapshot-store");
+        try {
+            var player = createPlayer(1);
+            var size = player.toSnapshot().length;
+            var segmentSize = MappedSnapshotStore.SEGMENT_HEADER_SIZE + (MappedSnapshotStore.RECORD_HEADER_SIZE + 9 + size) * 2;
+            var id = new BsonInt64(1);
+            var removed = new BsonInt64(2);
+            try (var store = MappedSnapshotStore.open(directory, segmentSize)) {
+                store.put(removed, 1, createPlayer(2));
+                assertTrue(store.remove(removed));
+                for (var version = 1; version <= 20; version++) {
+                    store.put(id, version, player);
+                    // the superseded records are never accumulated
+                    assertTrue(store.segmentCount() <= 3, "segmentCount: " + store.segmentCount());
+                }
+                assertEquals(1, store.size());
+                var loaded = store.load(id, 20, Player::new);
+                assertNotNull(loaded);
+                assertEquals(player.toBsonValue(), loaded.toBsonValue());
+                assertNull(store.load(removed, Player::new));
+            }
+            try (var store = MappedSnapshotStore.open(directory, segmentSize)) {
+                assertEquals(1, store.size());
+                assertEquals(OptionalLong.of(20), store.version(id));
+                assertNotNull(store.load(id, 20, Player::new));
+                assertNull(store.load(removed, Player::new));
+                store.clear();
+                assertNull(store.load(id, Player::new));
+                store.put(id, 21, player);
+                assertEquals(0, store.compact());
+            }
+            try (var store = MappedSnapshotStore.open(directory, segmentSize)) {
+                assertEquals(OptionalLong.of(21), store.version(id));
+            }
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.github.fmjsjx.bson.model3.core.snapshot;
+
+import com.github.fmjsjx.bson.model3.core.json.JsonStoreDataCodecs;
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import com.github.fmjsjx.bson.model3.core.model.Wallet;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotTests {
+
+    @Test
+    public void testValues() {
+        var objectId = new ObjectId();
+        var uuid = UUID.randomUUID();
+        var out = new SnapshotOutput(1)
+                .writeInt(-1).writeInt(Integer.MIN_VALUE).writeLong(Long.MAX_VALUE).writeDouble(1.5)
+                .writeBoolean(true).writeNumber(new BigDecimal("-123.456")).writeString("abc").writeString("中文")
+                .writeDate(LocalDate.of(2024, 2, 29)).writeDateTime(LocalDateTime.of(2024, 1, 1, 12, 0, 0))
+                .writeObjectId(objectId).writeUuid(uuid).writeList(List.of(1, 2, 3), SnapshotOutput::writeInt);
+        var bytes = out.toByteArray();
+        assertEquals(bytes.length, out.size());
+
+        var in = new SnapshotInput(bytes, 0, bytes.length);
+        assertEquals(-1, in.readInt());
+        assertEquals(Integer.MIN_VALUE, in.readInt());
+        assertEquals(Long.MAX_VALUE, in.readLong());
+        assertEquals(1.5, in.readDouble());
+        assertTrue(in.readBoolean());
+        assertEquals(new BigDecimal("-123.456"), in.readNumber());
+        assertEquals("abc", in.readString());
+        assertEquals("中文", in.readString());
+        assertEquals(LocalDate.of(2024, 2, 29), in.readDate());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 12, 0, 0), in.readDateTime());
+        assertEquals(objectId, in.readObjectId());
+        assertEquals(uuid, in.readUuid());
+        assertEquals(List.of(1, 2, 3), in.readList(SnapshotInput::readInt));
+        assertThrows(IllegalStateException.class, in::readInt);
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        var player = PlayerFixtures.createPlayer();
+        player.setUpdatedTime(LocalDateTime.of(2024, 6, 1, 12, 0, 0));
+        var snapshot = player.toSnapshot();
+
+        var copy = new Player().readFrom(snapshot);
+        assertEquals(player.toBsonValue(), copy.toBsonValue());
+        assertFalse(copy.anyChanged());
+        assertSame(copy.getEquipments(), copy.getEquipments().get("weapon").parent());
+        assertArrayEquals(snapshot, copy.toSnapshot());
+
+        var out = new ByteArrayOutputStream();
+        player.writeTo(out);
+        copy.getWallet().setCoinTotal(1);
+        copy.writeTo(out);
+        var in = new ByteArrayInputStream(out.toByteArray());
+        assertEquals(player.toBsonValue(), new Player().readFrom(in).toBsonValue());
+        assertEquals(1, new Player().readFrom(in).getWallet().getCoinTotal());
+        assertEquals(0, in.available());
+
+        var buffer = ByteBuffer.allocateDirect(snapshot.length + 1);
+        player.writeTo(buffer);
+        buffer.put((byte) 1).flip();
+        assertEquals(player.toBsonValue(), new Player().readFrom(buffer).toBsonValue());
+        assertEquals(1, buffer.remaining());
+    }
+
+    @Test
+    public void testReadFromCleansModel() {
+        var snapshot = new Player().toSnapshot();
+        var player = PlayerFixtures.createPlayer().readFrom(snapshot);
+        assertEquals(0L, player.getId());
+        assertNull(player.getLogin().getLastLoginLocation());
+        assertTrue(player.getItems().isEmpty());
+    }
+
+    @Test
+    public void testStaleSnapshot() {
+        var snapshot = PlayerFixtures.createPlayer().toSnapshot();
+        snapshot[4] ^= 1;
+        var e = assertThrows(StaleSnapshotException.class, () -> new Player().readFrom(snapshot));
+        assertEquals(Player.SNAPSHOT_FINGERPRINT, e.getExpectedFingerprint());
+        assertNotEquals(Player.SNAPSHOT_FINGERPRINT, e.getActualFingerprint());
+
+        snapshot[0] = 0;
+        assertThrows(IllegalArgumentException.class, () -> new Player().readFrom(snapshot));
+        assertThrows(IllegalArgumentException.class, () -> new Player().readFrom(new byte[8]));
+    }
+
+    @Test
+    public void testFingerprint() {
+        assertEquals(Snapshots.fingerprint("0:int"), Snapshots.fingerprint("0:int"));
+        assertNotEquals(Snapshots.fingerprint("0:int"), Snapshots.fingerprint("0:long"));
+        assertNotEquals(Snapshots.fingerprint("0:object", 1L), Snapshots.fingerprint("0:object", 2L));
+        assertNotEquals(Wallet.SNAPSHOT_FINGERPRINT, Player.SNAPSHOT_FINGERPRINT);
+    }
+
+    @Test
+    public void testSmallerThanJsonStoreData() {
+        var player = PlayerFixtures.createPlayer();
+        var snapshot = player.toSnapshot();
+        for (var codec : List.of(JsonStoreDataCodecs.fastjson2(), JsonStoreDataCodecs.jackson(), JsonStoreDataCodecs.jsoniter())) {
+            var json = codec.marshalToBytes(player);
+            assertTrue(snapshot.length * 2 <= json.length, () -> "snapshot " + snapshot.length + " bytes, JSON " + json.length + " bytes");
+            var copy = new Player();
+            codec.unmarshal(copy, json);
+            assertEquals(player.toBsonValue(), copy.toBsonValue());
+        }
+    }
+
+}
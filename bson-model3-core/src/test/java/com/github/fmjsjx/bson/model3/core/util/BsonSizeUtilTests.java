@@ -0,0 +1,59 @@
+package com.github.fmjsjx.bson.model3.core.util;
+
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import com.mongodb.client.model.Updates;
+import org.bson.*;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BsonSizeUtilTests {
+
+    @Test
+    public void testUtf8Length() {
+        assertEquals(0, BsonSizeUtil.utf8Length(""));
+        assertEquals(3, BsonSizeUtil.utf8Length("abc"));
+        assertEquals(2, BsonSizeUtil.utf8Length("é"));
+        assertEquals(6, BsonSizeUtil.utf8Length("中文"));
+        assertEquals(4, BsonSizeUtil.utf8Length("😀"));
+        assertEquals("a中é😀".getBytes(StandardCharsets.UTF_8).length, BsonSizeUtil.utf8Length("a中é😀"));
+    }
+
+    @Test
+    public void testSizeOf() {
+        // the well known example of BSON specification
+        assertEquals(22, BsonSizeUtil.sizeOf(new BsonDocument("hello", new BsonString("world"))));
+        assertEquals(5, BsonSizeUtil.sizeOf(new BsonDocument()));
+        assertEquals(12, BsonSizeUtil.sizeOf(new BsonDocument("a", new BsonInt32(1))));
+        var document = new BsonDocument("i", new BsonInt64(1L))
+                .append("d", new BsonDouble(1.0))
+                .append("b", BsonBoolean.TRUE)
+                .append("n", BsonNull.VALUE)
+                .append("o", new BsonObjectId(new ObjectId()))
+                .append("t", new BsonDateTime(0L))
+                .append("m", new BsonDecimal128(Decimal128.parse("1.5")))
+                .append("a", new BsonArray(List.of(new BsonInt32(1), new BsonString("x"))));
+        // 4 + (3+8) + (3+8) + (3+1) + (3+0) + (3+12) + (3+8) + (3+16) + (3+(4+(3+4)+(3+6)+1)) + 1
+        assertEquals(103, BsonSizeUtil.sizeOf(document));
+    }
+
+    @Test
+    public void testUpdateFieldsSize() {
+        assertEquals(9, BsonSizeUtil.updateFieldsSize(Updates.set("a.b", 1)));
+        assertEquals(14, BsonSizeUtil.updateFieldsSize(List.of(Updates.unset("a.b"), Updates.set("c", true))));
+    }
+
+    @Test
+    public void testModelEstimateBsonSize() {
+        var player = PlayerFixtures.createPlayer();
+        assertEquals(BsonSizeUtil.sizeOf(player.toBsonValue()), player.estimateBsonSize());
+        assertEquals(BsonSizeUtil.sizeOf(player.getEquipments().toBsonValue()), player.getEquipments().estimateBsonSize());
+        assertEquals(BsonSizeUtil.sizeOf(player.getItems().toBsonValue()), player.getItems().estimateBsonSize());
+    }
+
+}
@@ -51,6 +51,14 @@ public class BsonValueUtilTests {
         assertThrows(BsonInvalidOperationException.class, () -> BsonValueUtil.toLocalDateTime(new BsonInt32(1)));
     }
 
+    @Test
+    public void testToEpochMilli() {
+        long millis = 1625097600123L;
+        assertEquals(millis, BsonValueUtil.toEpochMilli(new BsonDateTime(millis)));
+        assertEquals(1625097600000L, BsonValueUtil.toEpochMilli(new BsonTimestamp(1625097600, 1)));
+        assertThrows(BsonInvalidOperationException.class, () -> BsonValueUtil.toEpochMilli(new BsonInt32(1)));
+    }
+
     @Test
     public void testToZonedDateTime_BsonDateTime() {
         long millis = 1625097600000L; // 2021-07-01T00:00:00Z
@@ -0,0 +1,99 @@
+package com.github.fmjsjx.bson.model3.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactMapTests {
+
+    @Test
+    public void testBasicOperations() {
+        var map = new CompactMap<String, Integer>(4);
+        assertTrue(map.isEmpty());
+        assertNull(map.put("a", 1));
+        assertNull(map.put("b", 2));
+        assertEquals(1, map.put("a", 10));
+        assertEquals(10, map.get("a"));
+        assertNull(map.get("c"));
+        assertTrue(map.containsKey("b"));
+        assertTrue(map.containsValue(2));
+        assertFalse(map.containsValue(1));
+        assertEquals(List.of("a", "b"), new ArrayList<>(map.keySet()));
+
+        // re-put a removed key moves it to the end
+        assertEquals(10, map.remove("a"));
+        map.put("a", 1);
+        assertEquals(List.of("b", "a"), new ArrayList<>(map.keySet()));
+        assertFalse(map.isUpgraded());
+
+        map.put("c", 3);
+        map.put("d", 4);
+        assertFalse(map.isUpgraded());
+        map.put("e", 5);
+        assertTrue(map.isUpgraded());
+        assertEquals(List.of("b", "a", "c", "d", "e"), new ArrayList<>(map.keySet()));
+        assertEquals(Map.of("a", 1, "b", 2, "c", 3, "d", 4, "e", 5), map);
+
+        map.clear();
+        assertFalse(map.isUpgraded());
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testIterator() {
+        var map = new CompactMap<Integer, String>();
+        for (var i = 0; i < 5; i++) {
+            map.put(i, "v" + i);
+        }
+        var iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            if (entry.getKey() % 2 == 0) {
+                iterator.remove();
+            } else {
+                entry.setValue("w" + entry.getKey());
+            }
+        }
+        assertEquals(Map.of(1, "w1", 3, "w3"), map);
+        assertThrows(IllegalStateException.class, iterator::remove);
+
+        var entries = new ArrayList<>(map.entrySet());
+        map.remove(1);
+        assertEquals(1, entries.getFirst().getKey());
+        assertEquals("w1", entries.getFirst().getValue());
+
+        var collected = new LinkedHashMap<Integer, String>();
+        map.forEach(collected::put);
+        assertEquals(Map.of(3, "w3"), collected);
+    }
+
+    @Test
+    public void testRandomEquivalence() {
+        var random = new Random(20240601L);
+        var map = new CompactMap<Integer, Integer>();
+        var expected = new LinkedHashMap<Integer, Integer>();
+        for (var i = 0; i < 10000; i++) {
+            var key = random.nextInt(20);
+            switch (random.nextInt(10)) {
+                case 0, 1, 2 -> assertEquals(expected.remove(key), map.remove(key));
+                case 3 -> {
+                    if (random.nextInt(50) == 0) {
+                        expected.clear();
+                        map.clear();
+                    }
+                }
+                default -> assertEquals(expected.put(key, i), map.put(key, i));
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(map.entrySet()));
+        }
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.github.fmjsjx.bson.model3.core.wal;
+
+import com.github.fmjsjx.bson.model3.core.memory.InMemoryCollection;
+import com.github.fmjsjx.bson.model3.core.model.Player;
+import com.github.fmjsjx.bson.model3.core.model.PlayerFixtures;
+import com.mongodb.client.model.Updates;
+import org.bson.BsonInt64;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteAheadLogTests {
+
+    @Test
+    public void testAppendAndReplay() throws IOException {
+        var path = Files.createTempFile("wal", ".log");
+        try {
+            var collection = new InMemoryCollection();
+            var player = new Player();
+            player.setId(1L);
+            player.reset();
+            collection.insertOne(player);
+            var shadow = new InMemoryCollection();
+            shadow.insertOne(player);
+            var id = new BsonInt64(1L);
+
+            long first, second;
+            try (var log = WriteAheadLog.open(path)) {
+                assertEquals(0, log.lastSequence());
+                player.getWallet().setCoinTotal(100);
+                var updates = player.toUpdates();
+                first = log.append(id, updates);
+                shadow.updateOne(id, updates);
+                player.reset();
+                player.getWallet().setCoinTotal(150);
+                player.getBasicInfo().setName("name");
+                updates = player.toUpdates();
+                second = log.append(id, updates);
+                shadow.updateOne(id, updates);
+                player.reset();
+                assertEquals(second, log.append(id, player.toUpdates()));
+                log.sync(second);
+                assertEquals(1, first);
+                assertEquals(2, second);
+            }
+
+            // crash before acknowledgement, replays all entries
+            try (var log = WriteAheadLog.open(path)) {
+                assertEquals(second, log.lastSequence());
+                var entries = new ArrayList<WriteAheadLog.Entry>();
+                assertEquals(2, log.replay(entries::add));
+                assertEquals(first, entries.getFirst().sequence());
+                assertEquals(id, entries.getFirst().id());
+                assertNotNull(entries.getLast().toWriteModel());
+                for (var entry : entries) {
+                    collection.updateOne(entry.id(), entry.updates());
+                }
+                assertEquals(shadow.find(id), collection.find(id));
+                log.acknowledge(first);
+            }
+
+            try (var log = WriteAheadLog.open(path)) {
+                assertEquals(first, log.acknowledgedSequence());
+                var entries = new ArrayList<WriteAheadLog.Entry>();
+                assertEquals(1, log.replay(entries::add));
+                assertEquals(second, entries.getFirst().sequence());
+                assertThrows(IllegalArgumentException.class, () -> log.acknowledge(second + 1));
+                log.acknowledge(second);
+                assertEquals(WriteAheadLog.HEADER_SIZE, Files.size(path));
+                assertEquals(0, log.replay(entries::add));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void testDiscardCorruptTail() throws IOException {
+        var path = Files.createTempFile("wal", ".log");
+        try {
+            var player = new Player();
+            player.setId(1L);
+            long size;
+            try (var log = WriteAheadLog.open(path)) {
+                log.append(new BsonInt64(1L), player.toUpdates());
+                size = Files.size(path);
+                player.reset();
+                player.getWallet().setCoinTotal(100);
+                log.append(new BsonInt64(1L), player.toUpdates());
+            }
+            // a torn write of the second entry
+            try (var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(Files.size(path) - 1);
+            }
+            try (var log = WriteAheadLog.open(path)) {
+                assertEquals(size, Files.size(path));
+                assertEquals(1, log.lastSequence());
+                assertEquals(1, log.replay(entry -> {
+                }));
+                assertEquals(2, log.append(new BsonInt64(1L), player.toUpdates()));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void testRotateAndDeleteAcknowledgedSegments() throws IOException {
+        var directory = Files.createTempDirectory("wal");
+        try {
+            var path = directory.resolve("wal.log");
+            var id = new BsonInt64(1L);
+            var sequences = new ArrayList<Long>();
+            try (var log = WriteAheadLog.open(path, 100)) {
+                for (var i = 1; i <= 10; i++) {
+                    sequences.add(log.append(id, List.of(Updates.set("wt.ct", i))));
+                }
+                assertTrue(log.segmentCount() > 1);
+                log.sync(log.lastSequence());
+            }
+            try (var log = WriteAheadLog.open(path, 100)) {
+                var segmentCount = log.segmentCount();
+                assertTrue(segmentCount > 1);
+                assertEquals(10, log.lastSequence());
+                var entries = new ArrayList<WriteAheadLog.Entry>();
+                assertEquals(10, log.replay(entries::add));
+                assertEquals(sequences, entries.stream().map(WriteAheadLog.Entry::sequence).toList());
+
+                // the segments with all entries acknowledged are deleted
+                log.acknowledge(sequences.get(5));
+                assertTrue(log.segmentCount() < segmentCount);
+                entries.clear();
+                assertEquals(4, log.replay(entries::add));
+                assertEquals(sequences.subList(6, 10), entries.stream().map(WriteAheadLog.Entry::sequence).toList());
+            }
+            try (var log = WriteAheadLog.open(path, 100)) {
+                assertEquals(4, log.replay(entry -> {
+                }));
+                log.acknowledge(log.lastSequence());
+                assertEquals(0, log.segmentCount());
+                assertEquals(WriteAheadLog.HEADER_SIZE, Files.size(path));
+            }
+            try (var files = Files.list(directory)) {
+                assertEquals(List.of(path), files.toList());
+            }
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (var file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testRejectNonIdempotentUpdates() throws IOException {
+        var path = Files.createTempFile("wal", ".log");
+        try (var log = WriteAheadLog.open(path)) {
+            var id = new BsonInt64(1L);
+            var e = assertThrows(IllegalArgumentException.class, () -> log.append(id, List.of(Updates.inc("c", 1))));
+            assertEquals("Non-idempotent update operator $inc can't be replayed more than once", e.getMessage());
+            assertThrows(IllegalArgumentException.class, () -> log.append(id, List.of(Updates.set("a", 1), Updates.push("b", 1))));
+            assertEquals(0, log.lastSequence());
+            assertEquals(1, log.append(id, List.of(Updates.set("a", 1), Updates.unset("b"))));
+            // appends of std-list fields are $set unless the fields are append-only
+            var player = PlayerFixtures.createPlayer();
+            player.reset();
+            player.getPreferences().getFeatures().add("f3");
+            assertEquals(2, log.append(id, player.toUpdates()));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+}
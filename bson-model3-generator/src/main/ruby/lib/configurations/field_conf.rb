@@ -13,7 +13,8 @@ class FieldConf
       imports = config['imports']
       block = config['block']
       expression = config['expression']
-      new(index, name, type, default, model, key, value, sources, imports, annotations, block, expression)
+      ordered = config['ordered']
+      new(index, name, type, default, model, key, value, sources, imports, annotations, block, expression, ordered)
     end
   end
 
@@ -32,15 +33,38 @@ class FieldConf
               :block,
               :expression
 
-  def initialize(index, name, type, default, model, key, value, sources, imports, annotations, block, expression)
+  def initialize(index, name, type, default, model, key, value, sources, imports, annotations, block, expression, ordered = nil)
     if index.nil?
       raise ArgumentError, 'index is required on field'
     end
     @index = index
     @name, @store_name, @display_name = parse_names(name)
-    @type, @required, @virtual, @hidden, @readonly, @transient, @increment = parse_type_and_modifiers(type)
+    @type, @required, @virtual, @hidden, @readonly, @transient, @increment, @compact, @packed, @lazy, @version, @append_only = parse_type_and_modifiers(type)
+    @dynamic = @type == 'dynamic'
+    # dynamic fields are object fields of the schemaless DynamicObjectModel
+    @type = 'object' if @dynamic
+    if @lazy and not (has_children? and @required and store_field?)
+      raise ArgumentError, "lazy is only supported on required stored object and map fields, but was #{type} on field #{@name}"
+    end
+    if @packed and not (%w[date time datetime].include?(@type) and @required and store_field?)
+      raise ArgumentError, "packed is only supported on required stored date, time and datetime fields, but was #{type} on field #{@name}"
+    end
+    if @version and not (%w[int long].include?(@type) and @required and store_field?)
+      raise ArgumentError, "version is only supported on required stored int and long fields, but was #{type} on field #{@name}"
+    end
+    if @append_only and not (@type == 'std-list' and store_field?)
+      raise ArgumentError, "append-only is only supported on stored std-list fields, but was #{type} on field #{@name}"
+    end
+    if @version and @increment
+      # the version is increased by the database on versioned updates and can't be changed directly
+      raise ArgumentError, "version can't be combined with increment, but was #{type} on field #{@name}"
+    end
     @default = default.to_s unless default.nil?
-    @model = model.to_s unless model.nil?
+    if @dynamic
+      @model = 'DynamicObjectModel'
+    elsif not model.nil?
+      @model = model.to_s
+    end
     @key = key.to_s unless key.nil?
     @value = value.to_s unless value.nil?
     @sources = parse_sources(sources)
@@ -48,6 +72,7 @@ class FieldConf
     @annotations = parse_annotations(annotations)    
     @block = block.to_s unless block.nil?
     @expression = expression.to_s unless expression.nil?
+    @sorted = parse_ordered(ordered)
   end
 
   def required?
@@ -74,6 +99,190 @@ class FieldConf
     @increment
   end
 
+  # Returns whether the map field should use the compact representation
+  #
+  # @return [Boolean] true if the map field should use the compact
+  #         representation, false otherwise
+  def compact?
+    @compact
+  end
+
+  # Returns whether the map field should use the sorted representation,
+  # which is ordered by the natural ordering of the keys
+  #
+  # @return [Boolean] true if the map field should use the sorted
+  #         representation, false otherwise
+  def sorted?
+    @sorted
+  end
+
+  # Returns whether the field should be stored as a primitive value,
+  # the epoch milliseconds for datetime, or the number for date and time
+  #
+  # @return [Boolean] true if the field should be stored as a primitive
+  #         value, false otherwise
+  def packed?
+    @packed
+  end
+
+  # Returns the Java type of the packed value of the field
+  #
+  # @return [String] the Java type of the packed value of the field
+  def packed_type
+    @type == 'datetime' ? 'long' : 'int'
+  end
+
+  # Returns the name suffix of the packed value accessors of the field
+  #
+  # @return [String] the name suffix of the packed value accessors
+  def packed_suffix
+    @type == 'datetime' ? 'Millis' : 'Number'
+  end
+
+  # Returns the getter method name of the packed value of the field
+  #
+  # @return [String] the getter method name of the packed value
+  def packed_getter_name
+    "get#{camel_case_name}#{packed_suffix}"
+  end
+
+  # Returns the setter method name of the packed value of the field
+  #
+  # @return [String] the setter method name of the packed value
+  def packed_setter_name
+    "set#{camel_case_name}#{packed_suffix}"
+  end
+
+  # Returns whether the child model of the field should be instantiated
+  # on first access instead of on construction of the model
+  #
+  # @return [Boolean] true if the child model should be instantiated
+  #         lazily, false otherwise
+  def lazy?
+    @lazy
+  end
+
+  # Returns whether the field is a schemaless dynamic object
+  #
+  # @return [Boolean] true if the field is a dynamic object, false
+  #         otherwise
+  def dynamic?
+    @dynamic
+  end
+
+  # Returns whether the field is the version of the document, used by
+  # the optimistic concurrency control of the root model
+  #
+  # @return [Boolean] true if the field is the version of the document,
+  #         false otherwise
+  def version?
+    @version
+  end
+
+  # Returns whether the appends of the std-list field should be updated
+  # by $push of the appended elements, instead of $set of the whole array,
+  # which is not idempotent
+  #
+  # @return [Boolean] true if the std-list field is append-only, false
+  #         otherwise
+  def append_only?
+    @append_only
+  end
+
+  # Returns whether the child model of the field is a map model, whose
+  # absence is encoded as an empty map, which is true for map and
+  # dynamic fields
+  #
+  # @return [Boolean] true if the child model is a map model, false
+  #         otherwise
+  def map_model?
+    @type == 'map' or @dynamic
+  end
+
+  # Returns whether the optional number field should be stored as a
+  # primitive value, with the presence tracked by a bit of the
+  # presentFields bitmask of the model
+  #
+  # @return [Boolean] true if the field should be stored as a primitive
+  #         value, false otherwise
+  def unboxed?
+    %w[int long double].include?(@type) and not required? and store_field?
+  end
+
+  # Returns the bit of the field in the presentFields bitmask of the model
+  #
+  # @return [Integer] the bit of the field, nil if the field is not unboxed
+  attr_accessor :present_bit
+
+  # Returns the mask of the field in the presentFields bitmask, as a Java
+  # long literal
+  #
+  # @return [String] the mask of the field
+  def present_mask
+    "0x#{(1 << @present_bit).to_s(16)}L"
+  end
+
+  # Returns the name of the method checks if the unboxed field is present
+  #
+  # @return [String] the name of the method checks if the field is present
+  def has_name
+    "has#{camel_case_name}"
+  end
+
+  # Returns the code checks if the value of the field is null
+  #
+  # @return [String] the code checks if the value of the field is null
+  def null_check_code
+    unboxed? ? "!#{has_name}()" : "#{getter_name}() == null"
+  end
+
+  # Returns the code checks if the value of the field is not null
+  #
+  # @return [String] the code checks if the value of the field is not null
+  def non_null_check_code
+    unboxed? ? "#{has_name}()" : "#{getter_name}() != null"
+  end
+
+  # Returns the code declares the temporary variable holding the value of
+  # the field and begins the block only executed when the value is not
+  # null
+  #
+  # @param indent [String] the indent of the code
+  # @param temp_name [String] the name of the temporary variable
+  # @return [String] the code
+  def if_present_code(indent, temp_name)
+    if unboxed?
+      "#{indent}if (#{has_name}()) {\n#{indent}    var #{temp_name} = #{primitive_getter_name}();\n"
+    else
+      "#{indent}var #{temp_name} = #{getter_name}();\n#{indent}if (#{temp_name} != null) {\n"
+    end
+  end
+
+  # Returns the getter method name of the primitive value of the unboxed
+  # field
+  #
+  # @return [String] the getter method name of the primitive value
+  def primitive_getter_name
+    "get#{camel_case_name}As#{@type.capitalize}"
+  end
+
+  # Returns the setter method name of the primitive value of the unboxed
+  # field
+  #
+  # @return [String] the setter method name of the primitive value
+  def primitive_setter_name
+    "set#{camel_case_name}As#{@type.capitalize}"
+  end
+
+  # Returns whether the field is a stored std-list, which is wrapped in a
+  # TrackedList to detect in-place mutations
+  #
+  # @return [Boolean] true if the field is a tracked std-list, false
+  #         otherwise
+  def tracked_list?
+    @type == 'std-list' and store_field?
+  end
+
   # Returns whether the field should be stored in MongoDB
   #
   # @return [Boolean] true if the field should be stored in MongoDB,
@@ -111,6 +320,20 @@ class FieldConf
     "DISPLAY_NAME_#{screaming_snake_case_name}"
   end
 
+  # Returns the name of the JSON name const of the field
+  #
+  # @return [String] the name of the JSON name const of the field
+  def json_name_const_name
+    "JSON_NAME_#{screaming_snake_case_name}"
+  end
+
+  # Returns the name of the JSON store name const of the field
+  #
+  # @return [String] the name of the JSON store name const of the field
+  def json_store_name_const_name
+    "JSON_STORE_NAME_#{screaming_snake_case_name}"
+  end
+
   # Returns the name of the field index const of the field
   #
   # @return [String] the name of the field index const of the field
@@ -179,6 +402,11 @@ class FieldConf
     readonly = false
     transient = false
     increment = false
+    compact = false
+    packed = false
+    lazy = false
+    version = false
+    append_only = false
     modifiers[1..].each do |modifier|
       case modifier
       when 'required'
@@ -193,10 +421,37 @@ class FieldConf
         transient = true
       when 'increment', 'increment-1'
         increment = true
+      when 'compact'
+        compact = true
+      when 'packed'
+        packed = true
+      when 'lazy'
+        lazy = true
+      when 'version'
+        version = true
+      when 'append-only'
+        append_only = true
       end
     end
     @modifiers = modifiers[1..]
-    [type, required, virtual, hidden, readonly, transient, increment]
+    [type, required, virtual, hidden, readonly, transient, increment, compact, packed, lazy, version, append_only]
+  end
+
+  def parse_ordered(ordered)
+    case ordered
+    when nil, 'insertion'
+      false
+    when 'sorted'
+      unless @type == 'map'
+        raise ArgumentError, "ordered: sorted is only supported on map fields, but was #{@type} on field #{@name}"
+      end
+      if @compact
+        raise ArgumentError, "ordered: sorted can not be used along with compact on field #{@name}"
+      end
+      true
+    else
+      raise ArgumentError, "Unsupported ordered #{ordered} on field #{@name}, must be insertion or sorted"
+    end
   end
 
   def parse_sources(sources)
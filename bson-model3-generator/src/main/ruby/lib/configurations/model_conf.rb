@@ -59,6 +59,39 @@ class ModelConf
       end
       @fields = fields
     end
+    unboxed_fields = @fields.filter { |field| field.unboxed? }
+    if unboxed_fields.size > 64
+      raise ArgumentError, "too many optional int, long and double fields on model #{@name}, expected <= 64 but was #{unboxed_fields.size}"
+    end
+    unboxed_fields.each_with_index { |field, bit| field.present_bit = bit }
+    version_fields = @fields.filter { |field| field.version? }
+    unless version_fields.empty?
+      if version_fields.size > 1
+        raise ArgumentError, "too many version fields on model #{@name}, expected <= 1 but was #{version_fields.size}"
+      end
+      unless @type == 'root'
+        raise ArgumentError, "version is only supported on root models, but was #{@type} on model #{@name}"
+      end
+      unless @fields.any? { |field| field.store_name == '_id' }
+        raise ArgumentError, "version requires the _id field on model #{@name}"
+      end
+    end
+  end
+
+  # Returns the version field of the model
+  #
+  # @return [FieldConf, nil] the version field, nil if the model has no
+  #         version field
+  def version_field
+    @fields.find { |field| field.version? }
+  end
+
+  # Returns whether the model has any unboxed field
+  #
+  # @return [Boolean] true if the model has any unboxed field, false
+  #         otherwise
+  def has_unboxed_fields?
+    @fields.any? { |field| field.unboxed? }
   end
 
 end
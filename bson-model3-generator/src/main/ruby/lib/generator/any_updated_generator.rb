@@ -50,7 +50,7 @@ class AnyUpdatedGenerator
         code << "            return _#{field_conf.name} != null && _#{field_conf.name}.anyUpdated();\n"
         code << "        }\n"
       else
-        code << "        if (changedFields.get(#{field_conf.field_index_const_name}) && #{field_conf.getter_name}() != null) {\n"
+        code << "        if (changedFields.get(#{field_conf.field_index_const_name}) && #{field_conf.non_null_check_code}) {\n"
         code << "            return true;\n"
         code << "        }\n"
       end
@@ -4,11 +4,11 @@ require_relative '../append_field_update_generator'
 class AppendStdListFieldUpdateGenerator < AppendFieldUpdateGenerator
 
   def generate_required_code
-    "            updates.add(Updates.set(path().path(#{field_conf.store_name_const_name}), BsonValueUtil.toBsonArray(#{field_conf.getter_name}(), #{map_to_bson_value_code})));\n"
+    "            updates.add(#{field_conf.name}.toUpdate(path().path(#{field_conf.store_name_const_name}), #{map_to_bson_value_code}));\n"
   end
 
   def generate_optional_append_update_code
-    "                updates.add(Updates.set(path().path(#{field_conf.store_name_const_name}), BsonValueUtil.toBsonArray(#{temp_field_name}, #{map_to_bson_value_code})));\n"
+    "                updates.add(#{field_conf.name}.toUpdate(path().path(#{field_conf.store_name_const_name}), #{map_to_bson_value_code}));\n"
   end
 
   private
@@ -4,7 +4,11 @@ require_relative '../append_field_update_generator'
 class AppendTimeFieldUpdateGenerator < AppendFieldUpdateGenerator
 
   def generate_required_code
-    "            updates.add(Updates.set(path().path(#{field_conf.store_name_const_name}), BsonValueUtil.toBsonInt32(#{field_conf.getter_name}())));\n"
+    if field_conf.packed?
+      "            updates.add(Updates.set(path().path(#{field_conf.store_name_const_name}), new BsonInt32(#{field_conf.packed_getter_name}())));\n"
+    else
+      "            updates.add(Updates.set(path().path(#{field_conf.store_name_const_name}), BsonValueUtil.toBsonInt32(#{field_conf.getter_name}())));\n"
+    end
   end
 
   def generate_optional_append_update_code
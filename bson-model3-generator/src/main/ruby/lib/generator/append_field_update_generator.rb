@@ -61,12 +61,22 @@ class AppendFieldUpdateGenerator
 
   def generate_optional_code
     code = ''
-    code << "            var #{@temp_field_name} = #{@field_conf.getter_name}();\n"
-    code << "            if (#{@temp_field_name} == null) {\n"
-    code << "                updates.add(Updates.unset(path().path(#{@field_conf.store_name_const_name})));\n"
-    code << "            } else {\n"
-    code << generate_optional_append_update_code
-    code << "            }\n"
+    if @field_conf.unboxed?
+      code << "            if (#{@field_conf.has_name}()) {\n"
+      code << "                var #{@temp_field_name} = #{@field_conf.primitive_getter_name}();\n"
+      code << generate_optional_append_update_code
+      code << "            } else {\n"
+      code << "                updates.add(Updates.unset(path().path(#{@field_conf.store_name_const_name})));\n"
+      code << "            }\n"
+    else
+      code << "            var #{@temp_field_name} = #{@field_conf.getter_name}();\n"
+      code << "            if (#{@temp_field_name} == null) {\n"
+      code << "                updates.add(Updates.unset(path().path(#{@field_conf.store_name_const_name})));\n"
+      code << "            } else {\n"
+      code << generate_optional_append_update_code
+      code << "            }\n"
+    end
+    code
   end
 
   def generate_optional_append_update_code
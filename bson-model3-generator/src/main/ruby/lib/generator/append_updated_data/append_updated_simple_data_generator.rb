@@ -8,11 +8,39 @@ class AppendUpdatedSimpleDataGenerator < AppendUpdatedFieldDataGenerator
     if field_conf.required?
       code << "            data.put(#{field_conf.display_name_const_name}, #{field_conf.getter_name}());\n"
     else
-      code << "            var #{temp_field_name} = #{field_conf.getter_name}();\n"
-      code << "            if (#{temp_field_name} != null) {\n"
+      code << field_conf.if_present_code("            ", temp_field_name)
       code << "                data.put(#{field_conf.display_name_const_name}, #{temp_field_name});\n"
       code << "            }\n"
     end
   end
 
+  def generate_write_code
+    code = ''
+    if field_conf.required?
+      code << "            writer.writeName(#{field_conf.json_name_const_name}).#{write_method_name}(#{field_conf.getter_name}());\n"
+    else
+      code << field_conf.if_present_code("            ", temp_field_name)
+      code << "                writer.writeName(#{field_conf.json_name_const_name}).#{write_method_name}(#{temp_field_name});\n"
+      code << "            }\n"
+    end
+  end
+
+  private
+  def write_method_name
+    case field_conf.type
+    when 'int'
+      'writeInt'
+    when 'long'
+      'writeLong'
+    when 'double'
+      'writeDouble'
+    when 'decimal'
+      'writeNumber'
+    when 'boolean'
+      'writeBoolean'
+    else
+      'writeString'
+    end
+  end
+
 end
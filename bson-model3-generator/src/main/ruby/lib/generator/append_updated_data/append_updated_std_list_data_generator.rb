@@ -15,6 +15,18 @@ class AppendUpdatedStdListDataGenerator < AppendUpdatedFieldDataGenerator
     end
   end
 
+  def generate_write_code
+    code = ''
+    if field_conf.required?
+      code << "            writer.writeName(#{field_conf.json_name_const_name}).writeArray(#{list_write_args("#{field_conf.getter_name}()")});\n"
+    else
+      code << "            var #{temp_field_name} = #{field_conf.getter_name}();\n"
+      code << "            if (#{temp_field_name} != null) {\n"
+      code << "                writer.writeName(#{field_conf.json_name_const_name}).writeArray(#{list_write_args(temp_field_name)});\n"
+      code << "            }\n"
+    end
+  end
+
   private
   def optional_value_map_code
     case field_conf.value
@@ -35,4 +47,21 @@ class AppendUpdatedStdListDataGenerator < AppendUpdatedFieldDataGenerator
     end
   end
 
+  def list_write_args(variable_name)
+    case field_conf.value
+    when 'date'
+      "#{variable_name}, LocalDate::toString"
+    when 'time'
+      "#{variable_name}, BsonModelConstants.TIME_FORMATTER::format"
+    when 'datetime'
+      "#{variable_name}, BsonModelConstants.DATETIME_FORMATTER::format"
+    when 'object-id'
+      "#{variable_name}, ObjectId::toHexString"
+    when 'uuid'
+      "#{variable_name}, UUID::toString"
+    else
+      variable_name
+    end
+  end
+
 end
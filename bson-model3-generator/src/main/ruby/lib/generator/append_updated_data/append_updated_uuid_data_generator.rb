@@ -15,4 +15,16 @@ class AppendUpdatedUuidDataGenerator < AppendUpdatedFieldDataGenerator
     end
   end
 
+  def generate_write_code
+    code = ''
+    if field_conf.required?
+      code << "            writer.writeName(#{field_conf.json_name_const_name}).writeString(#{field_conf.getter_name}().toString());\n"
+    else
+      code << "            var #{temp_field_name} = #{field_conf.getter_name}();\n"
+      code << "            if (#{temp_field_name} != null) {\n"
+      code << "                writer.writeName(#{field_conf.json_name_const_name}).writeString(#{temp_field_name}.toString());\n"
+      code << "            }\n"
+    end
+  end
+
 end
@@ -29,4 +29,18 @@ class AppendUpdatedDataGenerator
     code << "    }\n"
   end
 
+  def generate_write
+    code = ''
+    code << "    @Override\n"
+    code << "    protected void writeUpdatedFields(JsonDataWriter writer) {\n"
+    code << "        var changedFields = this.changedFields;\n"
+    code << "        if (changedFields.isEmpty()) {\n"
+    code << "            return;\n"
+    code << "        }\n"
+    @append_updated_field_data_generators.each do |append_updated_field_data_generator|
+      code << append_updated_field_data_generator.generate_write
+    end
+    code << "    }\n"
+  end
+
 end
@@ -59,6 +59,31 @@ class AppendUpdatedFieldDataGenerator
     end
   end
 
+  def generate_write
+    code = ''
+    code << "        if (changedFields.get(#{@field_conf.field_index_const_name})) {\n"
+    code << generate_write_code
+    code << "        }\n"
+  end
+
+  def generate_write_code
+    code = ''
+    if field_conf.required?
+      code << "            writer.deferName(#{@field_conf.json_name_const_name});\n"
+      code << "            if (!#{@field_conf.getter_name}().writeUpdated(writer)) {\n"
+      code << "                writer.discardDeferredName();\n"
+      code << "            }\n"
+    else
+      code << "            var #{@temp_field_name} = #{@field_conf.getter_name}();\n"
+      code << "            if (#{@temp_field_name} != null) {\n"
+      code << "                writer.deferName(#{@field_conf.json_name_const_name});\n"
+      code << "                if (!#{@temp_field_name}.writeUpdated(writer)) {\n"
+      code << "                    writer.discardDeferredName();\n"
+      code << "                }\n"
+      code << "            }\n"
+    end
+  end
+
 end
 
 
@@ -0,0 +1,157 @@
+class ApplyDataGenerator
+
+  attr_reader :config, :model_conf, :updated_field_confs, :deleted_field_confs
+
+  def initialize(config, model_conf)
+    @config = config
+    @model_conf = model_conf
+    @updated_field_confs = model_conf.fields.filter do |field_conf|
+      field_conf.display_field? and field_conf.store_field?
+    end
+    @deleted_field_confs = @updated_field_confs.filter do |field_conf|
+      case field_conf.type
+      when 'object', 'map'
+        true
+      else
+        not field_conf.required?
+      end
+    end
+    # virtual fields derived from a single hidden field are applied back to the source field
+    @virtual_sources = {}
+    model_conf.fields.each do |field_conf|
+      next unless field_conf.virtual? and field_conf.display_field? and field_conf.sources.size == 1
+      source = model_conf.fields.find { |it| it.name == field_conf.sources[0] }
+      next if source.nil? or source.display_field? or not source.store_field?
+      next if %w[object map std-list].include?(source.type)
+      @virtual_sources[field_conf] = source
+    end
+  end
+
+  def generate_apply_updated_code
+    code = ''
+    code << "    @Override\n"
+    code << "    public #{@model_conf.name} applyUpdated(Map<?, ?> data) {\n"
+    code << "        for (var entry : data.entrySet()) {\n"
+    code << "            var value = entry.getValue();\n"
+    code << "            switch (String.valueOf(entry.getKey())) {\n"
+    @model_conf.fields.each do |field_conf|
+      if @updated_field_confs.include?(field_conf)
+        code << generate_apply_updated_field_code(field_conf)
+      elsif @virtual_sources.key?(field_conf)
+        code << generate_apply_updated_field_code(@virtual_sources[field_conf], field_conf)
+      end
+    end
+    code << "                default -> {\n"
+    code << "                    // virtual or unknown fields\n"
+    code << "                }\n"
+    code << "            }\n"
+    code << "        }\n"
+    code << "        return this;\n"
+    code << "    }\n"
+  end
+
+  def generate_apply_deleted_code
+    code = ''
+    code << "    @Override\n"
+    code << "    public #{@model_conf.name} applyDeleted(Map<?, ?> data) {\n"
+    deleted_virtual_sources = @virtual_sources.filter { |_, source| not source.required? }
+    unless @deleted_field_confs.empty? and deleted_virtual_sources.empty?
+      code << "        for (var entry : data.entrySet()) {\n"
+      code << "            switch (String.valueOf(entry.getKey())) {\n"
+      @model_conf.fields.each do |field_conf|
+        if @deleted_field_confs.include?(field_conf)
+          code << generate_apply_deleted_field_code(field_conf)
+        elsif deleted_virtual_sources.key?(field_conf)
+          code << generate_apply_deleted_field_code(deleted_virtual_sources[field_conf], field_conf)
+        end
+      end
+      code << "                default -> {\n"
+      code << "                    // virtual or unknown fields\n"
+      code << "                }\n"
+      code << "            }\n"
+      code << "        }\n"
+    end
+    code << "        return this;\n"
+    code << "    }\n"
+  end
+
+  private
+  def generate_apply_updated_field_code(field_conf, case_field_conf = field_conf)
+    case field_conf.type
+    when 'object', 'map'
+      if field_conf.required?
+        "                case #{field_conf.display_name_const_name} -> #{field_conf.getter_name}().applyUpdated(DisplayDataUtil.mapValue(value));\n"
+      else
+        code = ''
+        code << "                case #{field_conf.display_name_const_name} -> {\n"
+        code << "                    var _#{field_conf.name} = #{field_conf.getter_name}();\n"
+        code << "                    if (_#{field_conf.name} == null) {\n"
+        code << "                        #{field_conf.setter_name}(#{new_child_code(field_conf)}.applyUpdated(DisplayDataUtil.mapValue(value)));\n"
+        code << "                    } else {\n"
+        code << "                        _#{field_conf.name}.applyUpdated(DisplayDataUtil.mapValue(value));\n"
+        code << "                    }\n"
+        code << "                }\n"
+      end
+    when 'std-list'
+      "                case #{field_conf.display_name_const_name} -> #{field_conf.setter_name}(DisplayDataUtil.listValue(value, #{element_mapper_code(field_conf)}));\n"
+    else
+      setter_name = field_conf.unboxed? ? field_conf.primitive_setter_name : field_conf.setter_name
+      "                case #{case_field_conf.display_name_const_name} -> #{setter_name}(DisplayDataUtil.#{value_method_name(field_conf.type)}(value));\n"
+    end
+  end
+
+  def generate_apply_deleted_field_code(field_conf, case_field_conf = field_conf)
+    case field_conf.type
+    when 'object', 'map'
+      if field_conf.required?
+        "                case #{field_conf.display_name_const_name} -> #{field_conf.getter_name}().applyDeleted(DisplayDataUtil.mapValue(entry.getValue()));\n"
+      else
+        code = ''
+        code << "                case #{field_conf.display_name_const_name} -> {\n"
+        code << "                    if (entry.getValue() instanceof Map<?, ?> _#{field_conf.name}Deleted) {\n"
+        code << "                        var _#{field_conf.name} = #{field_conf.getter_name}();\n"
+        code << "                        if (_#{field_conf.name} != null) {\n"
+        code << "                            _#{field_conf.name}.applyDeleted(_#{field_conf.name}Deleted);\n"
+        code << "                        }\n"
+        code << "                    } else {\n"
+        code << "                        #{field_conf.setter_name}(null);\n"
+        code << "                    }\n"
+        code << "                }\n"
+      end
+    else
+      "                case #{case_field_conf.display_name_const_name} -> #{field_conf.setter_name}(null);\n"
+    end
+  end
+
+  def new_child_code(field_conf)
+    if field_conf.type == 'map'
+      MapPropertyGenerator.new(@config, @model_conf, field_conf).generate_init_code
+    else
+      "new #{field_conf.model}()"
+    end
+  end
+
+  def element_mapper_code(field_conf)
+    if field_conf.value == 'object'
+      "it -> new #{field_conf.model}().applyUpdated(DisplayDataUtil.mapValue(it))"
+    else
+      "DisplayDataUtil::#{value_method_name(field_conf.value)}"
+    end
+  end
+
+  def value_method_name(type)
+    case type
+    when 'int', 'long', 'double', 'boolean', 'string', 'date', 'time', 'uuid'
+      "#{type}Value"
+    when 'decimal'
+      'decimalValue'
+    when 'datetime'
+      'dateTimeValue'
+    when 'object-id'
+      'objectIdValue'
+    else
+      raise ArgumentError, "Unsupported type: #{type}"
+    end
+  end
+
+end
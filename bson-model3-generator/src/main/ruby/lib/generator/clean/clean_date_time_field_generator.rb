@@ -5,7 +5,9 @@ require_relative '../default_value/date_time_default_value'
 class CleanDateTimeFieldGenerator < CleanFieldGenerator
 
   def generate_required_clean_code
-    if has_default_value?
+    if @field_conf.packed?
+      "        #{@field_conf.name} = #{DefaultValue.generate_packed_code(@config, @model_conf, @field_conf)};\n"
+    elsif has_default_value?
       "        #{@field_conf.name} = #{default_value_code};\n"
     else
       "        #{@field_conf.name} = BsonModelConstants.EPOCH_DATE_TIME;\n"
@@ -13,7 +13,11 @@ class CleanLongFieldGenerator < CleanFieldGenerator
   end
 
   def generate_optional_clean_code
-    "        #{@field_conf.name} = null;\n"
+    if @field_conf.unboxed?
+      "        #{@field_conf.name} = 0;\n"
+    else
+      "        #{@field_conf.name} = null;\n"
+    end
   end
 
   private
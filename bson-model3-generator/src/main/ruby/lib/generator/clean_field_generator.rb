@@ -68,7 +68,15 @@ class CleanFieldGenerator
   end
 
   def generate_required_clean_code
-    "        #{@field_conf.getter_name}().clean();\n"
+    if @field_conf.lazy?
+      code = ''
+      code << "        var _#{@field_conf.name} = #{@field_conf.name};\n"
+      code << "        if (_#{@field_conf.name} != null) {\n"
+      code << "            _#{@field_conf.name}.clean();\n"
+      code << "        }\n"
+    else
+      "        #{@field_conf.getter_name}().clean();\n"
+    end
   end
 
   def generate_optional_clean_code
@@ -22,6 +22,9 @@ class CleanFieldsGenerator
     @clean_field_generators.each do |clean_field_generator|
       code << clean_field_generator.generate
     end
+    if @model_conf.has_unboxed_fields?
+      code << "        presentFields = 0;\n"
+    end
     code << "        return this;\n"
     code << "    }\n"
   end
@@ -1,4 +1,5 @@
 require_relative 'const_generator'
+require_relative 'snapshot_generator'
 
 class ConstsGenerator
   attr_reader :config, :model_conf
@@ -13,7 +14,10 @@ class ConstsGenerator
     code << generate_configured_consts
     code << generate_store_names
     code << generate_display_names
+    code << generate_json_names
+    code << generate_json_store_names
     code << generate_field_indices
+    code << generate_snapshot_fingerprint
   end
 
   private
@@ -53,6 +57,35 @@ class ConstsGenerator
     code
   end
 
+  def generate_json_names
+    code = ''
+    fields = @model_conf.fields.filter { |field| field.display_field? }
+    unless fields.empty?
+      code << "\n"
+      fields.each do |field|
+        code << "    public static final JsonFieldName #{field.json_name_const_name} = JsonFieldName.of(#{field.display_name_const_name});\n"
+      end
+    end
+    code
+  end
+
+  def generate_json_store_names
+    code = ''
+    fields = @model_conf.fields.filter { |field| field.store_field? }
+    unless fields.empty?
+      code << "\n"
+      fields.each do |field|
+        code << "    public static final JsonFieldName #{field.json_store_name_const_name} = JsonFieldName.of(#{field.store_name_const_name});\n"
+      end
+    end
+    code
+  end
+
+  def generate_snapshot_fingerprint
+    code = "\n"
+    code << SnapshotGenerator.new(@config, @model_conf).generate_fingerprint
+  end
+
   def generate_field_indices
     code = ''
     fields = @model_conf.fields
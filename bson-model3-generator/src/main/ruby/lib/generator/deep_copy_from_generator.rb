@@ -17,6 +17,9 @@ class DeepCopyFromGenerator
     @field_confs.each do |field_conf|
       code << generate_deep_copy_from_field_code(field_conf)
     end
+    if @model_conf.has_unboxed_fields?
+      code << "        presentFields = src.presentFields;\n"
+    end
     code << "        return this;\n"
     code << "    }\n"
   end
@@ -26,7 +29,12 @@ class DeepCopyFromGenerator
     code = ''
     case field_conf.type
     when 'object', 'map'
-      if field_conf.required?
+      if field_conf.lazy?
+        code << "        var _#{field_conf.name} = src.#{field_conf.name};\n"
+        code << "        if (_#{field_conf.name} != null) {\n"
+        code << "            #{field_conf.getter_name}().deepCopyFrom(_#{field_conf.name});\n"
+        code << "        }\n"
+      elsif field_conf.required?
         code << "        #{field_conf.getter_name}().deepCopyFrom(src.#{field_conf.getter_name}());\n"
       else
         code << "        var _#{field_conf.name} = #{field_conf.getter_name}();\n"
@@ -41,18 +49,17 @@ class DeepCopyFromGenerator
         code << "        }\n"
       end
     when 'std-list'
-      if field_conf.required?
-        code << "        #{field_conf.name} = new ArrayList<>(src.#{field_conf.getter_name}());\n"
-      else
-        code << "        var _#{field_conf.name} = src.#{field_conf.getter_name}();\n"
-        code << "        if (_#{field_conf.name} != null) {\n"
-        code << "            #{field_conf.name} = new ArrayList<>(_#{field_conf.name});\n"
-        code << "        } else {\n"
-        code << "            #{field_conf.name} = null;\n"
-        code << "        }\n"
-      end
+      # the elements of the source view are copied by the tracked list
+      code << "        #{field_conf.name}.load(src.#{field_conf.getter_name}());\n"
     else
-      code << "        #{field_conf.name} = src.#{field_conf.getter_name}();\n"
+      getter_name = if field_conf.packed?
+                      field_conf.packed_getter_name
+                    elsif field_conf.unboxed?
+                      field_conf.primitive_getter_name
+                    else
+                      field_conf.getter_name
+                    end
+      code << "        #{field_conf.name} = src.#{getter_name}();\n"
     end
   end
   
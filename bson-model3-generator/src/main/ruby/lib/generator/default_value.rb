@@ -27,6 +27,25 @@ class DefaultValue
       end
     end
 
+    # Generates the code of the default packed value of the packed date,
+    # time or datetime field
+    def generate_packed_code(config, model_conf, field_conf)
+      if field_conf.default.nil?
+        case field_conf.type
+        when 'datetime'
+          'BsonModelConstants.EPOCH_DATE_TIME_MILLIS'
+        when 'date'
+          'BsonModelConstants.EPOCH_DATE_NUMBER'
+        else
+          '0'
+        end
+      elsif field_conf.type == 'datetime'
+        "DateTimeUtil.toEpochMilli(#{generate_code(config, model_conf, field_conf)})"
+      else
+        "DateTimeUtil.toNumber(#{generate_code(config, model_conf, field_conf)})"
+      end
+    end
+
   end
 
 
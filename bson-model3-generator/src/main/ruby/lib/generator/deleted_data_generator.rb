@@ -29,6 +29,17 @@ class DeletedDataGenerator
     end
     code << "    }\n"
   end
+
+  def generate_write_deleted_fields_code
+    code = ''
+    code << "    @Override\n"
+    code << "    protected void writeDeletedFields(JsonDataWriter writer) {\n"
+    code << "        var changedFields = this.changedFields;\n"
+    field_confs.each do |field_conf|
+      code << generate_write_deleted_field_code(field_conf)
+    end
+    code << "    }\n"
+  end
   
   private
   def generate_append_deleted_field_data_code(field_conf)
@@ -56,10 +67,41 @@ class DeletedDataGenerator
         code << "        }\n"
       end
     else
-      code << "        if (changedFields.get(#{field_conf.field_index_const_name}) && #{field_conf.getter_name}() == null) {\n"
+      code << "        if (changedFields.get(#{field_conf.field_index_const_name}) && #{field_conf.null_check_code}) {\n"
       code << "            data.put(#{field_conf.display_name_const_name}, BsonModelConstants.DELETED_VALUE);\n"
       code << "        }\n"
     end
   end
 
+  def generate_write_deleted_field_code(field_conf)
+    code = ''
+    case field_conf.type
+    when 'object', 'map'
+      if field_conf.required?
+        code << "        if (changedFields.get(#{field_conf.field_index_const_name})) {\n"
+        code << "            writer.deferName(#{field_conf.json_name_const_name});\n"
+        code << "            if (!#{field_conf.getter_name}().writeDeleted(writer)) {\n"
+        code << "                writer.discardDeferredName();\n"
+        code << "            }\n"
+        code << "        }\n"
+      else
+        code << "        if (changedFields.get(#{field_conf.field_index_const_name})) {\n"
+        code << "            var _#{field_conf.name} = #{field_conf.getter_name}();\n"
+        code << "            if (_#{field_conf.name} == null) {\n"
+        code << "                writer.writeName(#{field_conf.json_name_const_name}).writeInt(BsonModelConstants.DELETED_VALUE);\n"
+        code << "            } else {\n"
+        code << "                writer.deferName(#{field_conf.json_name_const_name});\n"
+        code << "                if (!_#{field_conf.name}.writeDeleted(writer)) {\n"
+        code << "                    writer.discardDeferredName();\n"
+        code << "                }\n"
+        code << "            }\n"
+        code << "        }\n"
+      end
+    else
+      code << "        if (changedFields.get(#{field_conf.field_index_const_name}) && #{field_conf.null_check_code}) {\n"
+      code << "            writer.writeName(#{field_conf.json_name_const_name}).writeInt(BsonModelConstants.DELETED_VALUE);\n"
+      code << "        }\n"
+    end
+  end
+
 end
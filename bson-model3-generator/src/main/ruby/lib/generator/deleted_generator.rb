@@ -72,7 +72,7 @@ class DeletedGenerator
         code << "        }\n"
       end
     else
-      code << "        if (changedFields.get(#{field_conf.field_index_const_name}) && #{field_conf.getter_name}() == null) {\n"
+      code << "        if (changedFields.get(#{field_conf.field_index_const_name}) && #{field_conf.null_check_code}) {\n"
       code << "            return true;\n"
       code << "        }\n"
     end
@@ -97,7 +97,7 @@ class DeletedGenerator
         code << "        }\n"
       end
     else
-      code << "        if (changedFields.get(#{field_conf.field_index_const_name}) && #{field_conf.getter_name}() == null) {\n"
+      code << "        if (changedFields.get(#{field_conf.field_index_const_name}) && #{field_conf.null_check_code}) {\n"
       code << "            __size++;\n"
       code << "        }\n"
     end
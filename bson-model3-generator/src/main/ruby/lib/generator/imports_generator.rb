@@ -29,6 +29,8 @@ class ImportsGenerator
     imports_java = ['java.util.*']
     imports_other = ['com.alibaba.fastjson2.annotation.JSONType',
                      'com.github.fmjsjx.bson.model3.core.*',
+                     'com.github.fmjsjx.bson.model3.core.json.*',
+                     'com.github.fmjsjx.bson.model3.core.snapshot.*',
                      'com.github.fmjsjx.bson.model3.core.util.*',
                      'org.bson.*',
                      'org.bson.conversions.Bson',
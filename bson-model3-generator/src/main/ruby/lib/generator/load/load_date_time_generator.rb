@@ -5,7 +5,9 @@ require_relative '../default_value/date_time_default_value'
 class LoadDateTimeGenerator < LoadFieldGenerator
 
   def generate_load_required_field_code
-    if has_default_value?
+    if @field_conf.packed?
+      "        #{@field_conf.name} = BsonUtil.epochMilliValue(src, #{@field_conf.store_name_const_name}).orElse(#{DefaultValue.generate_packed_code(@config, @model_conf, @field_conf)});\n"
+    elsif has_default_value?
       "        #{@field_conf.name} = BsonUtil.dateTimeValue(src, #{@field_conf.store_name_const_name}).orElse(#{default_value_code});\n"
     else
       "        #{@field_conf.name} = BsonUtil.dateTimeValue(src, #{@field_conf.store_name_const_name}).orElse(BsonModelConstants.EPOCH_DATE_TIME);\n"
@@ -13,7 +13,11 @@ class LoadDoubleGenerator < LoadFieldGenerator
   end
 
   def generate_load_optional_field_code
-    "        #{@field_conf.name} = BsonUtil.doubleValue(src, #{@field_conf.store_name_const_name}).orElse(null);\n"
+    if @field_conf.unboxed?
+      generate_load_unboxed_field_code('doubleValue', 'getAsDouble')
+    else
+      "        #{@field_conf.name} = BsonUtil.doubleValue(src, #{@field_conf.store_name_const_name}).orElse(null);\n"
+    end
   end
 
   private
@@ -17,16 +17,17 @@ class LoadMapGenerator < LoadFieldGenerator
     code << "                it -> {\n"
     code << "                    var #{temp_field_name} = this.#{field_conf.name};\n"
     code << "                    if (#{temp_field_name} != null) {\n"
-    code << "                        #{temp_field_name}.unbind()\n"
+    code << "                        #{temp_field_name}.load(it);\n"
+    code << "                    } else {\n"
+    code << "                        this.#{field_conf.name} = #{@property_generator.generate_init_code}\n"
+    code << "                                .parent(this).index(#{field_conf.field_index_const_name}).key(#{field_conf.store_name_const_name})\n"
+    code << "                                .load(it);\n"
     code << "                    }\n"
-    code << "                    this.#{field_conf.name} = #{@property_generator.generate_init_code}\n"
-    code << "                            .parent(this).index(#{field_conf.field_index_const_name}).key(#{field_conf.store_name_const_name})\n"
-    code << "                            .load(it);\n"
     code << "                },\n"
     code << "                () -> {\n"
     code << "                    var #{temp_field_name} = this.#{field_conf.name};\n"
     code << "                    if (#{temp_field_name} != null) {\n"
-    code << "                        #{temp_field_name}.unbind()\n"
+    code << "                        #{temp_field_name}.detach();\n"
     code << "                        this.#{field_conf.name} = null;\n"
     code << "                    }\n"
     code << "                }\n"
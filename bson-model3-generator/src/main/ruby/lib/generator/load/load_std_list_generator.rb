@@ -4,10 +4,13 @@ require_relative '../load_field_generator'
 class LoadStdListGenerator < LoadFieldGenerator
 
   def generate_load_required_field_code
-    "        #{@field_conf.name} = BsonUtil.arrayValue(src, #{@field_conf.store_name_const_name}).map(#{map_code}).orElse(List.of());\n"
+    "        #{@field_conf.name}.load(BsonUtil.arrayValue(src, #{@field_conf.store_name_const_name}).map(#{map_code}).orElse(List.of()));\n"
   end
 
   def generate_load_optional_field_code
+    if @field_conf.tracked_list?
+      return "        #{@field_conf.name}.load(BsonUtil.arrayValue(src, #{@field_conf.store_name_const_name}).map(#{map_code}).orElse(null));\n"
+    end
     "        #{@field_conf.name} = BsonUtil.arrayValue(src, #{@field_conf.store_name_const_name}).map(#{map_code}).orElse(null);\n"
   end
 
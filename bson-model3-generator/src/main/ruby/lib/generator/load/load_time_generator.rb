@@ -5,7 +5,9 @@ require_relative '../default_value/time_default_value'
 class LoadTimeGenerator < LoadFieldGenerator
 
   def generate_load_required_field_code
-    if has_default_value?
+    if @field_conf.packed?
+      "        #{@field_conf.name} = BsonUtil.intValue(src, #{@field_conf.store_name_const_name}).orElse(#{DefaultValue.generate_packed_code(@config, @model_conf, @field_conf)});\n"
+    elsif has_default_value?
       "        #{@field_conf.name} = BsonUtil.timeValue(src, #{@field_conf.store_name_const_name}).orElse(#{default_value_code});\n"
     else
       "        #{@field_conf.name} = BsonUtil.timeValue(src, #{@field_conf.store_name_const_name}).orElse(LocalTime.MIDNIGHT);\n"
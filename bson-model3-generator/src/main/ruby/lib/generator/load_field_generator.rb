@@ -55,7 +55,25 @@ class LoadFieldGenerator
   end
 
   def generate_load_required_field_code
-    "        BsonUtil.documentValue(src, #{@field_conf.store_name_const_name}).ifPresentOrElse(#{@field_conf.getter_name}()::load, #{@field_conf.getter_name}()::clean);\n"
+    if @field_conf.lazy?
+      generate_load_lazy_field_code
+    else
+      "        BsonUtil.documentValue(src, #{@field_conf.store_name_const_name}).ifPresentOrElse(#{@field_conf.getter_name}()::load, #{@field_conf.getter_name}()::clean);\n"
+    end
+  end
+
+  def generate_load_lazy_field_code
+    code = ''
+    # empty documents are the absent lazy child, which is not instantiated
+    code << "        BsonUtil.documentValue(src, #{@field_conf.store_name_const_name}).filter(it -> !it.isEmpty()).ifPresentOrElse(\n"
+    code << "                it -> #{@field_conf.getter_name}().load(it),\n"
+    code << "                () -> {\n"
+    code << "                    var #{@temp_field_name} = this.#{@field_conf.name};\n"
+    code << "                    if (#{@temp_field_name} != null) {\n"
+    code << "                        #{@temp_field_name}.clean();\n"
+    code << "                    }\n"
+    code << "                }\n"
+    code << "        );\n"
   end
 
   def generate_load_optional_field_code
@@ -64,11 +82,12 @@ class LoadFieldGenerator
     code << "                it -> {\n"
     code << "                    var #{@temp_field_name} = this.#{@field_conf.name};\n"
     code << "                    if (#{@temp_field_name} != null) {\n"
-    code << "                        #{@temp_field_name}.detach();\n"
+    code << "                        #{@temp_field_name}.load(it);\n"
+    code << "                    } else {\n"
+    code << "                        this.#{@field_conf.name} = new #{@field_conf.model}()\n"
+    code << "                                .parent(this).index(#{@field_conf.field_index_const_name}).key(#{@field_conf.store_name_const_name})\n"
+    code << "                                .load(it);\n"
     code << "                    }\n"
-    code << "                    this.#{@field_conf.name} = new #{@field_conf.model}()\n"
-    code << "                            .parent(this).index(#{@field_conf.field_index_const_name}).key(#{@field_conf.store_name_const_name})\n"
-    code << "                            .load(it);\n"
     code << "                },\n"
     code << "                () -> {\n"
     code << "                    var #{@temp_field_name} = this.#{@field_conf.name};\n"
@@ -80,6 +99,18 @@ class LoadFieldGenerator
     code << "        );\n"
   end
 
+  def generate_load_unboxed_field_code(value_method, get_method)
+    code = ''
+    code << "        var #{@temp_field_name} = BsonUtil.#{value_method}(src, #{@field_conf.store_name_const_name});\n"
+    code << "        if (#{@temp_field_name}.isPresent()) {\n"
+    code << "            #{@field_conf.name} = #{@temp_field_name}.#{get_method}();\n"
+    code << "            presentFields |= #{@field_conf.present_mask};\n"
+    code << "        } else {\n"
+    code << "            #{@field_conf.name} = 0;\n"
+    code << "            presentFields &= ~#{@field_conf.present_mask};\n"
+    code << "        }\n"
+  end
+
 end
 
 
@@ -27,4 +27,61 @@ class LoadGenerator
     code << "    }\n"
   end
 
+  def generate_projection
+    code = ''
+    code << "    public static BsonDocument projection(int... fieldIndexes) {\n"
+    code << "        var projection = new BsonDocument();\n"
+    code << "        for (var fieldIndex : fieldIndexes) {\n"
+    code << "            projection.append(projectionName(fieldIndex), new BsonInt32(1));\n"
+    code << "        }\n"
+    code << "        return projection;\n"
+    code << "    }\n"
+    code << "\n"
+    code << "    private static String projectionName(int fieldIndex) {\n"
+    code << "        return switch (fieldIndex) {\n"
+    @load_field_generators.each do |load_field_generator|
+      field_conf = load_field_generator.field_conf
+      code << "            case #{field_conf.field_index_const_name} -> #{field_conf.store_name_const_name};\n"
+    end
+    code << "            default -> throw new IllegalArgumentException(\"Unknown projection field index: \" + fieldIndex);\n"
+    code << "        };\n"
+    code << "    }\n"
+    code << "\n"
+    code << "    @Override\n"
+    code << "    protected BsonDocument toProjection(int... fieldIndexes) {\n"
+    code << "        return projection(fieldIndexes);\n"
+    code << "    }\n"
+    code << "\n"
+    code << "    @Override\n"
+    code << "    protected int[] projectionFieldIndexes() {\n"
+    code << "        return new int[]{#{@load_field_generators.map { |it| it.field_conf.field_index_const_name }.join(', ')}};\n"
+    code << "    }\n"
+  end
+
+  def generate_load_fields
+    code = ''
+    code << "    @Override\n"
+    code << "    protected void loadFields(BsonDocument src, BitSet fieldIndexes) {\n"
+    @load_field_generators.each do |load_field_generator|
+      code << "        if (fieldIndexes.get(#{load_field_generator.field_conf.field_index_const_name})) {\n"
+      code << load_field_generator.generate.gsub(/^(?=.)/, '    ')
+      code << "        }\n"
+    end
+    code << "    }\n"
+  end
+
+  def generate_field_index
+    code = ''
+    code << "    @Override\n"
+    code << "    protected int fieldIndex(String storeName) {\n"
+    code << "        return switch (storeName) {\n"
+    @load_field_generators.each do |load_field_generator|
+      field_conf = load_field_generator.field_conf
+      code << "            case #{field_conf.store_name_const_name} -> #{field_conf.field_index_const_name};\n"
+    end
+    code << "            default -> -1;\n"
+    code << "        };\n"
+    code << "    }\n"
+  end
+
 end
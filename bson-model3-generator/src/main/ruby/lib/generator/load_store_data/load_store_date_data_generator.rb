@@ -4,11 +4,27 @@ require_relative '../load_store_field_data_generator'
 class LoadStoreDateDataGenerator < LoadStoreFieldDataGenerator
 
   def generate_required_load_store_data_code
-    "            #{field_conf.name} = DateTimeUtil.toDate(_storeData.#{field_conf.name});\n"
+    if field_conf.packed?
+      "            #{field_conf.name} = _storeData.#{field_conf.name};\n"
+    else
+      "            #{field_conf.name} = DateTimeUtil.toDate(_storeData.#{field_conf.name});\n"
+    end
   end
 
   def generate_optional_variable_load_store_data_code
     "                #{field_conf.name} = DateTimeUtil.toDate(#{temp_field_name});\n"
   end
 
+  def generate_required_read_code
+    if field_conf.packed?
+      "                case #{field_conf.store_name_const_name} -> #{field_conf.name} = reader.readInt();\n"
+    else
+      "                case #{field_conf.store_name_const_name} -> #{field_conf.name} = DateTimeUtil.toDate(reader.readInt());\n"
+    end
+  end
+
+  def generate_optional_read_code
+    "                case #{field_conf.store_name_const_name} -> #{field_conf.name} = reader.readNull() ? null : DateTimeUtil.toDate(reader.readInt());\n"
+  end
+
 end
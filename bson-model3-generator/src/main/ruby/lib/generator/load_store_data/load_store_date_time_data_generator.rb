@@ -4,11 +4,27 @@ require_relative '../load_store_field_data_generator'
 class LoadStoreDateTimeDataGenerator < LoadStoreFieldDataGenerator
 
   def generate_required_load_store_data_code
-    "            #{field_conf.name} = DateTimeUtil.ofEpochMilli(_storeData.#{field_conf.name});\n"
+    if field_conf.packed?
+      "            #{field_conf.name} = _storeData.#{field_conf.name};\n"
+    else
+      "            #{field_conf.name} = DateTimeUtil.ofEpochMilli(_storeData.#{field_conf.name});\n"
+    end
   end
 
   def generate_optional_variable_load_store_data_code
     "                #{field_conf.name} = DateTimeUtil.ofEpochMilli(#{temp_field_name});\n"
   end
 
+  def generate_required_read_code
+    if field_conf.packed?
+      "                case #{field_conf.store_name_const_name} -> #{field_conf.name} = reader.readLong();\n"
+    else
+      "                case #{field_conf.store_name_const_name} -> #{field_conf.name} = DateTimeUtil.ofEpochMilli(reader.readLong());\n"
+    end
+  end
+
+  def generate_optional_read_code
+    "                case #{field_conf.store_name_const_name} -> #{field_conf.name} = reader.readNull() ? null : DateTimeUtil.ofEpochMilli(reader.readLong());\n"
+  end
+
 end
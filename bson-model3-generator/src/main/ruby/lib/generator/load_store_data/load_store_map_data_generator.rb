@@ -13,9 +13,37 @@ class LoadStoreMapDataGenerator < LoadStoreFieldDataGenerator
 
   def generate_optional_variable_load_store_data_code
     code = ''
-    code << "                #{field_conf.name} = #{@property_generator.generate_init_code}\n"
-    code << "                        .parent(this).index(#{field_conf.field_index_const_name}).key(#{field_conf.store_name_const_name})\n"
-    code << "                        .loadStoreData(#{temp_field_name});\n"
+    code << "                if (#{field_conf.name} != null) {\n"
+    code << "                    #{field_conf.name}.loadStoreData(#{temp_field_name});\n"
+    code << "                } else {\n"
+    code << "                    #{field_conf.name} = #{@property_generator.generate_init_code}\n"
+    code << "                            .parent(this).index(#{field_conf.field_index_const_name}).key(#{field_conf.store_name_const_name})\n"
+    code << "                            .loadStoreData(#{temp_field_name});\n"
+    code << "                }\n"
+  end
+
+
+  def generate_lazy_read_code
+    # empty maps are the absent lazy child, which is not instantiated
+    code = ''
+    code << "                case #{field_conf.store_name_const_name} -> {\n"
+    code << "                    var #{temp_field_name} = #{field_conf.name};\n"
+    code << "                    if (#{temp_field_name} != null) {\n"
+    code << "                        #{temp_field_name}.readStoreData(reader);\n"
+    code << "                    } else {\n"
+    code << "                        #{temp_field_name} = #{@property_generator.generate_init_code}.readStoreData(reader);\n"
+    code << "                        if (!#{temp_field_name}.isEmpty()) {\n"
+    code << "                            #{field_conf.name} = #{temp_field_name}.parent(this).index(#{field_conf.field_index_const_name}).key(#{field_conf.store_name_const_name});\n"
+    code << "                        }\n"
+    code << "                    }\n"
+    code << "                }\n"
+  end
+
+  def generate_optional_variable_read_code
+    code = ''
+    code << "                        #{field_conf.name} = #{@property_generator.generate_init_code}\n"
+    code << "                                .parent(this).index(#{field_conf.field_index_const_name}).key(#{field_conf.store_name_const_name})\n"
+    code << "                                .readStoreData(reader);\n"
   end
 
 end
@@ -11,4 +11,12 @@ class LoadStoreObjectIdDataGenerator < LoadStoreFieldDataGenerator
     "                #{field_conf.name} = new ObjectId(#{temp_field_name});\n"
   end
 
+  def generate_required_read_code
+    "                case #{field_conf.store_name_const_name} -> #{field_conf.name} = new ObjectId(reader.readString());\n"
+  end
+
+  def generate_optional_read_code
+    "                case #{field_conf.store_name_const_name} -> #{field_conf.name} = reader.readNull() ? null : new ObjectId(reader.readString());\n"
+  end
+
 end
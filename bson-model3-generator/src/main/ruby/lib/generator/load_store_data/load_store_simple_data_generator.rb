@@ -7,8 +7,63 @@ class LoadStoreSimpleDataGenerator < LoadStoreFieldDataGenerator
     "            #{field_conf.name} = _storeData.#{field_conf.name};\n"
   end
 
+  def generate_optional_load_store_data_code
+    return super unless field_conf.unboxed?
+    # the absent value must clear the presence since the fields are not cleaned before
+    code = ''
+    code << "            var #{temp_field_name} = _storeData.#{field_conf.name};\n"
+    code << "            if (#{temp_field_name} != null) {\n"
+    code << generate_optional_variable_load_store_data_code
+    code << "            } else {\n"
+    code << "                #{field_conf.name} = 0;\n"
+    code << "                presentFields &= ~#{field_conf.present_mask};\n"
+    code << "            }\n"
+  end
+
   def generate_optional_variable_load_store_data_code
-    "                #{field_conf.name} = #{temp_field_name};\n"
+    if field_conf.unboxed?
+      code = ''
+      code << "                #{field_conf.name} = #{temp_field_name};\n"
+      code << "                presentFields |= #{field_conf.present_mask};\n"
+    else
+      "                #{field_conf.name} = #{temp_field_name};\n"
+    end
+  end
+
+  def generate_required_read_code
+    "                case #{field_conf.store_name_const_name} -> #{field_conf.name} = reader.#{read_method_name}();\n"
+  end
+
+  def generate_optional_read_code
+    if field_conf.unboxed?
+      super
+    else
+      "                case #{field_conf.store_name_const_name} -> #{field_conf.name} = reader.readNull() ? null : reader.#{read_method_name}();\n"
+    end
+  end
+
+  def generate_optional_variable_read_code
+    code = ''
+    code << "                        #{field_conf.name} = reader.#{read_method_name}();\n"
+    code << "                        presentFields |= #{field_conf.present_mask};\n"
+  end
+
+  private
+  def read_method_name
+    case field_conf.type
+    when 'int'
+      'readInt'
+    when 'long'
+      'readLong'
+    when 'double'
+      'readDouble'
+    when 'decimal'
+      'readNumber'
+    when 'boolean'
+      'readBoolean'
+    else
+      'readString'
+    end
   end
 
 end
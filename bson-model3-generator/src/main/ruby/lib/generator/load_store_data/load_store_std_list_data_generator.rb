@@ -4,11 +4,19 @@ require_relative '../load_store_field_data_generator'
 class LoadStoreStdListDataGenerator < LoadStoreFieldDataGenerator
 
   def generate_required_load_store_data_code
-    "            #{field_conf.name} = _storeData.#{field_conf.name}#{value_map_code};\n"
+    "            #{field_conf.name}.load(_storeData.#{field_conf.name}#{value_map_code});\n"
   end
 
   def generate_optional_variable_load_store_data_code
-    "                #{field_conf.name} = #{temp_field_name}#{value_map_code};\n"
+    "                #{field_conf.name}.load(#{temp_field_name}#{value_map_code});\n"
+  end
+
+  def generate_required_read_code
+    "                case #{field_conf.store_name_const_name} -> #{field_conf.name}.load(reader.readList(#{element_reader_code}));\n"
+  end
+
+  def generate_optional_read_code
+    "                case #{field_conf.store_name_const_name} -> #{field_conf.name}.load(reader.readNull() ? null : reader.readList(#{element_reader_code}));\n"
   end
 
   private
@@ -29,4 +37,31 @@ class LoadStoreStdListDataGenerator < LoadStoreFieldDataGenerator
     end
   end
 
+  def element_reader_code
+    case field_conf.value
+    when 'int'
+      'JsonDataReader::readInt'
+    when 'long'
+      'JsonDataReader::readLong'
+    when 'double'
+      'JsonDataReader::readDouble'
+    when 'decimal'
+      'JsonDataReader::readNumber'
+    when 'boolean'
+      'JsonDataReader::readBoolean'
+    when 'date'
+      '_reader -> DateTimeUtil.toDate(_reader.readInt())'
+    when 'time'
+      '_reader -> DateTimeUtil.toTime(_reader.readInt())'
+    when 'datetime'
+      '_reader -> DateTimeUtil.ofEpochMilli(_reader.readLong())'
+    when 'object-id'
+      '_reader -> new ObjectId(_reader.readString())'
+    when 'uuid'
+      '_reader -> UUID.fromString(_reader.readString())'
+    else
+      'JsonDataReader::readString'
+    end
+  end
+
 end
@@ -11,4 +11,12 @@ class LoadStoreUuidDataGenerator < LoadStoreFieldDataGenerator
     "                #{field_conf.name} = UUID.fromString(#{temp_field_name});\n"
   end
 
+  def generate_required_read_code
+    "                case #{field_conf.store_name_const_name} -> #{field_conf.name} = UUID.fromString(reader.readString());\n"
+  end
+
+  def generate_optional_read_code
+    "                case #{field_conf.store_name_const_name} -> #{field_conf.name} = reader.readNull() ? null : UUID.fromString(reader.readString());\n"
+  end
+
 end
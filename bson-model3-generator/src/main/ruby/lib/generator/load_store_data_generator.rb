@@ -28,4 +28,25 @@ class LoadStoreDataGenerator
     code << "    }\n"
   end
 
+  def generate_read
+    code = ''
+    code << "    @Override\n"
+    code << "    public #{@model_conf.name} readStoreData(JsonDataReader reader) {\n"
+    code << "        clean();\n"
+    code << "        if (reader.readNull()) {\n"
+    code << "            return this;\n"
+    code << "        }\n"
+    code << "        reader.readStartObject();\n"
+    code << "        for (var _name = reader.nextName(); _name != null; _name = reader.nextName()) {\n"
+    code << "            switch (_name) {\n"
+    @load_store_field_data_generators.each do |load_store_field_data_generator|
+      code << load_store_field_data_generator.generate_read
+    end
+    code << "                default -> reader.skipValue();\n"
+    code << "            }\n"
+    code << "        }\n"
+    code << "        return this;\n"
+    code << "    }\n"
+  end
+
 end
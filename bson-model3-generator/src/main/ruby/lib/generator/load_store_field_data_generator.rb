@@ -45,7 +45,24 @@ class LoadStoreFieldDataGenerator
   end
 
   def generate_required_load_store_data_code
-    "            #{@field_conf.getter_name}().loadStoreData(_storeData.#{@field_conf.name});\n"
+    if @field_conf.lazy?
+      code = ''
+      code << "            if (#{present_store_data_condition} || #{@field_conf.name} != null) {\n"
+      code << "                #{@field_conf.getter_name}().loadStoreData(_storeData.#{@field_conf.name});\n"
+      code << "            }\n"
+    else
+      "            #{@field_conf.getter_name}().loadStoreData(_storeData.#{@field_conf.name});\n"
+    end
+  end
+
+  # Returns the condition of the store data of the lazy child model
+  # being present, the empty maps of map models are absent
+  def present_store_data_condition
+    if @field_conf.map_model?
+      "(_storeData.#{@field_conf.name} != null && !_storeData.#{@field_conf.name}.isEmpty())"
+    else
+      "_storeData.#{@field_conf.name} != null"
+    end
   end
 
   def generate_optional_load_store_data_code
@@ -58,8 +75,49 @@ class LoadStoreFieldDataGenerator
 
   def generate_optional_variable_load_store_data_code
     code = ''
-    code << "                #{@field_conf.name} = new #{@field_conf.model}()\n"
-    code << "                        .parent(this).index(#{@field_conf.field_index_const_name}).key(#{@field_conf.store_name_const_name}).loadStoreData(#{temp_field_name});\n"
+    code << "                if (#{@field_conf.name} != null) {\n"
+    code << "                    #{@field_conf.name}.loadStoreData(#{temp_field_name});\n"
+    code << "                } else {\n"
+    code << "                    #{@field_conf.name} = new #{@field_conf.model}()\n"
+    code << "                            .parent(this).index(#{@field_conf.field_index_const_name}).key(#{@field_conf.store_name_const_name}).loadStoreData(#{temp_field_name});\n"
+    code << "                }\n"
+  end
+
+  def generate_read
+    if field_conf.required?
+      generate_required_read_code
+    else
+      generate_optional_read_code
+    end
+  end
+
+  def generate_required_read_code
+    return generate_lazy_read_code if @field_conf.lazy?
+    "                case #{@field_conf.store_name_const_name} -> #{@field_conf.getter_name}().readStoreData(reader);\n"
+  end
+
+  def generate_lazy_read_code
+    code = ''
+    code << "                case #{@field_conf.store_name_const_name} -> {\n"
+    code << "                    if (!reader.readNull()) {\n"
+    code << "                        #{@field_conf.getter_name}().readStoreData(reader);\n"
+    code << "                    }\n"
+    code << "                }\n"
+  end
+
+  def generate_optional_read_code
+    code = ''
+    code << "                case #{@field_conf.store_name_const_name} -> {\n"
+    code << "                    if (!reader.readNull()) {\n"
+    code << generate_optional_variable_read_code
+    code << "                    }\n"
+    code << "                }\n"
+  end
+
+  def generate_optional_variable_read_code
+    code = ''
+    code << "                        #{@field_conf.name} = new #{@field_conf.model}()\n"
+    code << "                                .parent(this).index(#{@field_conf.field_index_const_name}).key(#{@field_conf.store_name_const_name}).readStoreData(reader);\n"
   end
 
 end
@@ -10,9 +10,11 @@ require_relative 'to_bson_value_generator'
 require_relative 'load_generator'
 require_relative 'to_store_data_generator'
 require_relative 'load_store_data_generator'
+require_relative 'snapshot_generator'
 require_relative 'any_updated_generator'
 require_relative 'deleted_data_generator'
 require_relative 'deleted_generator'
+require_relative 'apply_data_generator'
 require_relative 'deep_copy_from_generator'
 require_relative 'to_string_generator'
 
@@ -34,9 +36,11 @@ class ModelGenerator
               :load_generator,
               :to_store_data_generator,
               :load_store_data_generator,
+              :snapshot_generator,
               :any_updated_generator,
               :deleted_data_generator,
               :deleted_generator,
+              :apply_data_generator,
               :deep_copy_from_generator,
               :to_string_generator
 
@@ -57,9 +61,11 @@ class ModelGenerator
     @load_generator = LoadGenerator.new(@config, @model_conf)
     @to_store_data_generator = ToStoreDataGenerator.new(@config, @model_conf)
     @load_store_data_generator = LoadStoreDataGenerator.new(@config, @model_conf)
+    @snapshot_generator = SnapshotGenerator.new(@config, @model_conf)
     @any_updated_generator = AnyUpdatedGenerator.new(@config, @model_conf)
     @deleted_data_generator = DeletedDataGenerator.new(@config, @model_conf)
     @deleted_generator = DeletedGenerator.new(@config, @model_conf) 
+    @apply_data_generator = ApplyDataGenerator.new(@config, @model_conf)
     @deep_copy_from_generator = DeepCopyFromGenerator.new(@config, @model_conf)
     @to_string_generator = ToStringGenerator.new(@config, @model_conf)
   end
@@ -126,6 +132,8 @@ class ModelGenerator
     code = ''
     if @model_conf.type == 'root'
       code << generate_store_data_type_code
+      code << generate_snapshot_fingerprint_code
+      code << generate_version_field_index_code
     end
     if has_children?
       code << generate_reset_children_code
@@ -133,13 +141,31 @@ class ModelGenerator
     code << generate_clean_fields_code
     code << generate_append_field_updates_code
     code << generate_append_updated_data_code
+    code << generate_write_updated_fields_code
     code << generate_to_display_data_code
+    code << generate_write_display_data_code
     code << generate_to_bson_value_code
+    code << generate_to_bson_fields_value_code
     code << generate_load_code
+    if @model_conf.type == 'root'
+      code << generate_projection_code
+    end
+    code << generate_load_fields_code
+    code << generate_field_index_code
+    if has_children?
+      code << generate_field_model_code
+    end
     code << generate_to_store_data_code
+    code << generate_write_store_data_code
     code << generate_load_store_data_code
+    code << generate_read_store_data_code
+    code << generate_write_snapshot_code
+    code << generate_read_snapshot_code
+    code << generate_write_changes_code
+    code << generate_apply_changes_code
     code << generate_any_updated_code
     code << generate_deleted_code
+    code << generate_apply_data_code
     code << generate_deep_copy_code
     code << generate_deep_copy_from_code
     code << generate_to_string_code
@@ -153,16 +179,33 @@ class ModelGenerator
     code << "    }\n"
   end
 
+  def generate_snapshot_fingerprint_code
+    code = "\n"
+    code << "    @Override\n"
+    code << "    protected long snapshotFingerprint() {\n"
+    code << "        return SNAPSHOT_FINGERPRINT;\n"
+    code << "    }\n"
+  end
+
+  def generate_version_field_index_code
+    code = "\n"
+    code << "    @Override\n"
+    code << "    protected int versionFieldIndex() {\n"
+    version_field = @model_conf.version_field
+    code << "        return #{version_field.nil? ? '-1' : version_field.field_index_const_name};\n"
+    code << "    }\n"
+  end
+
   def generate_reset_children_code
     code = "\n"
     code << "    @Override\n"
     code << "    protected #{@model_name} resetChildren() {\n"
     @store_fields.each do |field_conf|
       if field_conf.has_children?
-        if field_conf.required?
+        if field_conf.required? and not field_conf.lazy?
           code << "        #{field_conf.getter_name}().reset();\n"
         else
-          code << "        var _#{field_conf.name} = #{field_conf.getter_name}();\n"
+          code << "        var _#{field_conf.name} = #{field_conf.lazy? ? field_conf.name : "#{field_conf.getter_name}()"};\n"
           code << "        if (_#{field_conf.name} != null) {\n"
           code << "            _#{field_conf.name}.reset();\n"
           code << "        }\n"
@@ -188,31 +231,106 @@ class ModelGenerator
     code << @append_updated_data_generator.generate
   end
 
+  def generate_write_updated_fields_code
+    code = "\n"
+    code << @append_updated_data_generator.generate_write
+  end
+
   def generate_to_display_data_code
     code = "\n"
     code << @to_display_data_generator.generate
   end
 
+  def generate_write_display_data_code
+    code = "\n"
+    code << @to_display_data_generator.generate_write
+  end
+
   def generate_to_bson_value_code
     code = "\n"
     code << @to_bson_value_generator.generate
   end
 
+  def generate_to_bson_fields_value_code
+    code = "\n"
+    code << @to_bson_value_generator.generate_fields
+  end
+
   def generate_load_code
     code = "\n"
     code << @load_generator.generate
   end
 
+  def generate_projection_code
+    code = "\n"
+    code << @load_generator.generate_projection
+  end
+
+  def generate_load_fields_code
+    code = "\n"
+    code << @load_generator.generate_load_fields
+  end
+
+  def generate_field_index_code
+    code = "\n"
+    code << @load_generator.generate_field_index
+  end
+
+  def generate_field_model_code
+    code = "\n"
+    code << "    @Override\n"
+    code << "    protected @Nullable BsonModel<?, ?> fieldModel(int fieldIndex) {\n"
+    code << "        return switch (fieldIndex) {\n"
+    @store_fields.each do |field_conf|
+      if field_conf.has_children?
+        code << "            case #{field_conf.field_index_const_name} -> #{field_conf.getter_name}();\n"
+      end
+    end
+    code << "            default -> null;\n"
+    code << "        };\n"
+    code << "    }\n"
+  end
+
   def generate_to_store_data_code
     code = "\n"
     code << @to_store_data_generator.generate
   end
 
+  def generate_write_store_data_code
+    code = "\n"
+    code << @to_store_data_generator.generate_write
+  end
+
   def generate_load_store_data_code
     code = "\n"
     code << @load_store_data_generator.generate
   end
 
+  def generate_read_store_data_code
+    code = "\n"
+    code << @load_store_data_generator.generate_read
+  end
+
+  def generate_write_snapshot_code
+    code = "\n"
+    code << @snapshot_generator.generate_write
+  end
+
+  def generate_read_snapshot_code
+    code = "\n"
+    code << @snapshot_generator.generate_read
+  end
+
+  def generate_write_changes_code
+    code = "\n"
+    code << @snapshot_generator.generate_write_changes
+  end
+
+  def generate_apply_changes_code
+    code = "\n"
+    code << @snapshot_generator.generate_apply_changes
+  end
+
   def generate_any_updated_code
     code = "\n"
     code << @any_updated_generator.generate
@@ -226,9 +344,16 @@ class ModelGenerator
       code << "    public @Nullable Map<String, ?> toDeleted() {\n"
       code << "        return null;\n"
       code << "    }\n"
+      code << "\n"
+      code << "    @Override\n"
+      code << "    public boolean writeDeleted(JsonDataWriter writer) {\n"
+      code << "        return false;\n"
+      code << "    }\n"
     else
       code << "\n"
       code << @deleted_data_generator.generate_append_deleted_data_code
+      code << "\n"
+      code << @deleted_data_generator.generate_write_deleted_fields_code
     end
     if @deleted_generator.field_confs.empty?
       code << "\n"
@@ -249,6 +374,13 @@ class ModelGenerator
     end
   end
 
+  def generate_apply_data_code
+    code = "\n"
+    code << @apply_data_generator.generate_apply_updated_code
+    code << "\n"
+    code << @apply_data_generator.generate_apply_deleted_code
+  end
+
   def generate_deep_copy_code
     code = "\n"
     code << "    @Override\n"
@@ -5,7 +5,9 @@ require_relative '../default_value/date_default_value'
 class DatePropertyGenerator < PropertyGenerator
 
   def generate_field_declaration_code
-    if required?
+    if packed?
+      generate_packed_field_declaration_code
+    elsif required?
       if has_default_value?
         "    private LocalDate #{name} = #{default_value_code};\n"
       else
@@ -17,6 +19,7 @@ class DatePropertyGenerator < PropertyGenerator
   end
 
   def generate_getter_code
+    return generate_packed_getter_code('LocalDate', 'toDate') if packed?
     code = ''
     if required?
       code << "    public LocalDate #{field_conf.getter_name}() {\n"
@@ -32,6 +35,7 @@ class DatePropertyGenerator < PropertyGenerator
   end
 
   def generate_setter_code
+    return generate_packed_setter_code('LocalDate', 'toNumber') if packed?
     code = ''
     if required?
       code << "    public void #{field_conf.setter_name}(LocalDate #{name}) {\n"
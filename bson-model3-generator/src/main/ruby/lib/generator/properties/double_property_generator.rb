@@ -5,7 +5,9 @@ require_relative '../default_value/double_default_value'
 class DoublePropertyGenerator < PropertyGenerator
 
   def generate_field_declaration_code
-    if required?
+    if unboxed?
+      generate_unboxed_field_declaration_code
+    elsif required?
       if has_default_value?
         if default_value_code == '0.0'
           "    private double #{name};\n"
@@ -21,6 +23,7 @@ class DoublePropertyGenerator < PropertyGenerator
   end
 
   def generate_getter_code
+    return generate_unboxed_getter_code('Double') if unboxed?
     code = ''
     if required?
       code << "    public double #{field_conf.getter_name}() {\n"
@@ -36,6 +39,7 @@ class DoublePropertyGenerator < PropertyGenerator
   end
 
   def generate_setter_code
+    return generate_unboxed_setter_code('Double') if unboxed?
     code = ''
     if required?
       code << "    public void #{field_conf.setter_name}(double #{name}) {\n"
@@ -5,7 +5,9 @@ require_relative '../default_value/int_default_value'
 class IntPropertyGenerator < PropertyGenerator
 
   def generate_field_declaration_code
-    if required?
+    if unboxed?
+      generate_unboxed_field_declaration_code
+    elsif required?
       if has_default_value? and default_value_code != '0'
         "    private int #{name} = #{default_value_code};\n"
       else
@@ -17,6 +19,7 @@ class IntPropertyGenerator < PropertyGenerator
   end
 
   def generate_getter_code
+    return generate_unboxed_getter_code('Integer') if unboxed?
     code = ''
     if required?
       code << "    public int #{field_conf.getter_name}() {\n"
@@ -32,6 +35,7 @@ class IntPropertyGenerator < PropertyGenerator
   end
 
   def generate_setter_code
+    return generate_unboxed_setter_code('Integer') if unboxed?
     code = ''
     if required?
       code << "    public void #{field_conf.setter_name}(int #{name}) {\n"
@@ -59,6 +63,7 @@ class IntPropertyGenerator < PropertyGenerator
   end
 
   def generate_increment_code
+    return generate_unboxed_increment_code('Integer') if unboxed?
     code = ''
     if required?
       code << "    public int increase#{field_conf.camel_case_name}() {\n"
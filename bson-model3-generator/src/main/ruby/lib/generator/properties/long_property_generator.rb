@@ -5,7 +5,9 @@ require_relative '../default_value/long_default_value'
 class LongPropertyGenerator < PropertyGenerator
 
   def generate_field_declaration_code
-    if required?
+    if unboxed?
+      generate_unboxed_field_declaration_code
+    elsif required?
       if has_default_value? and default_value_code != '0' and default_value_code != '0L'
         "    private long #{name} = #{default_value_code};\n"
       else
@@ -17,6 +19,7 @@ class LongPropertyGenerator < PropertyGenerator
   end
 
   def generate_getter_code
+    return generate_unboxed_getter_code('Long') if unboxed?
     code = ''
     if required?
       code << "    public long #{field_conf.getter_name}() {\n"
@@ -32,6 +35,7 @@ class LongPropertyGenerator < PropertyGenerator
   end
 
   def generate_setter_code
+    return generate_unboxed_setter_code('Long') if unboxed?
     code = ''
     if required?
       code << "    public void #{field_conf.setter_name}(long #{name}) {\n"
@@ -59,6 +63,7 @@ class LongPropertyGenerator < PropertyGenerator
   end
 
   def generate_increment_code
+    return generate_unboxed_increment_code('Long') if unboxed?
     code = ''
     if required?
       code << "    public long increase#{field_conf.camel_case_name}() {\n"
@@ -4,6 +4,7 @@ require_relative '../property_generator'
 class MapPropertyGenerator < PropertyGenerator
 
   def generate_field_declaration_code
+    return generate_lazy_field_declaration_code(generic_type) if lazy?
     code = ''
     if store_field? and required?
       code << "    private final #{generic_type} #{name} = #{map_init_code}\n"
@@ -35,6 +36,7 @@ class MapPropertyGenerator < PropertyGenerator
   end
 
   def generate_getter_code
+    return generate_lazy_getter_code(generic_type, map_init_code) if lazy?
     code = ''
     if store_field? and required?
       code << "    public #{generic_type} #{field_conf.getter_name}() {\n"
@@ -121,28 +123,23 @@ class MapPropertyGenerator < PropertyGenerator
   end
 
   def map_init_code
+    key_name = case key_type
+               when 'Integer', 'Long', 'String'
+                 key_type
+               else
+                 raise ArgumentError, "Unsupported key type: #{key_type}"
+               end
+    factory_name = if field_conf.compact?
+                     "compact#{key_name}KeysMap"
+                   elsif field_conf.sorted?
+                     "sorted#{key_name}KeysMap"
+                   else
+                     "#{key_name.downcase}KeysMap"
+                   end
     if field_conf.value == 'object'
-      case key_type
-      when 'Integer'
-        "DefaultMapModel.integerKeysMap(#{value_type}::new)"
-      when 'Long'
-        "DefaultMapModel.longKeysMap(#{value_type}::new)"
-      when 'String'
-        "DefaultMapModel.stringKeysMap(#{value_type}::new)"
-      else
-        raise ArgumentError, "Unsupported key type: #{key_type}"
-      end
+      "DefaultMapModel.#{factory_name}(#{value_type}::new)"
     else
-      case key_type
-      when 'Integer'
-        "SingleValueMapModel.integerKeysMap(#{single_value_type})"
-      when 'Long'
-        "SingleValueMapModel.longKeysMap(#{single_value_type})"
-      when 'String'
-        "SingleValueMapModel.stringKeysMap(#{single_value_type})"
-      else
-        raise ArgumentError, "Unsupported key type: #{key_type}"
-      end
+      "SingleValueMapModel.#{factory_name}(#{single_value_type})"
     end
   end
 
@@ -4,6 +4,7 @@ require_relative '../property_generator'
 class ObjectPropertyGenerator < PropertyGenerator
 
   def generate_field_declaration_code
+    return generate_lazy_field_declaration_code(field_conf.model) if lazy?
     code = ''
     if store_field? and required?
       code << "    private final #{field_conf.model} #{name} = new #{field_conf.model}()\n"
@@ -18,6 +19,7 @@ class ObjectPropertyGenerator < PropertyGenerator
   end
 
   def generate_getter_code
+    return generate_lazy_getter_code(field_conf.model, "new #{field_conf.model}()") if lazy?
     code = ''
     if store_field? and required?
       code << "    public #{field_conf.model} #{field_conf.getter_name}() {\n"
@@ -4,7 +4,11 @@ require_relative '../property_generator'
 class StdListPropertyGenerator < PropertyGenerator
 
   def generate_field_declaration_code
-    if required?
+    if store_field? and field_conf.append_only?
+      "    private final TrackedList<@Nullable #{value_type}> #{name} = TrackedList.appendOnly(this, #{associated_field_index_consts.join(', ')});\n"
+    elsif store_field?
+      "    private final TrackedList<@Nullable #{value_type}> #{name} = new TrackedList<>(this, #{associated_field_index_consts.join(', ')});\n"
+    elsif required?
       "    private List<@Nullable #{value_type}> #{name} = List.of();\n"
     else
       "    private @Nullable List<@Nullable #{value_type}> #{name};\n"
@@ -24,6 +28,8 @@ class StdListPropertyGenerator < PropertyGenerator
     end
     if virtual?
       code << "#{virtual_code}\n"
+    elsif store_field? and not required?
+      code << "        return #{name}.orNull();\n"
     else
       code << "        return #{name};\n"
     end
@@ -36,7 +42,7 @@ class StdListPropertyGenerator < PropertyGenerator
       code << "    public void #{field_conf.setter_name}(List<@Nullable #{value_type}> #{name}) {\n"
       if store_field?
         code << "        if (!#{name}.equals(this.#{name})) {\n"
-        code << "            this.#{name} = #{name};\n"
+        code << "            this.#{name}.replace(#{name});\n"
         code << "            #{field_changed_code}\n"
         code << "        }\n"
       else
@@ -46,8 +52,8 @@ class StdListPropertyGenerator < PropertyGenerator
     else
       code << "    public void #{field_conf.setter_name}(@Nullable List<@Nullable #{value_type}> #{name}) {\n"
       if store_field?
-        code << "        if (!Objects.equals(this.#{name}, #{name})) {\n"
-        code << "            this.#{name} = #{name};\n"
+        code << "        if (!Objects.equals(this.#{name}.orNull(), #{name})) {\n"
+        code << "            this.#{name}.replace(#{name});\n"
         code << "            #{field_changed_code}\n"
         code << "        }\n"
       else
@@ -5,7 +5,9 @@ require_relative '../default_value/time_default_value'
 class TimePropertyGenerator < PropertyGenerator
 
   def generate_field_declaration_code
-    if required?
+    if packed?
+      generate_packed_field_declaration_code
+    elsif required?
       if has_default_value?
         "    private LocalTime #{name} = #{default_value_code};\n"
       else
@@ -17,6 +19,7 @@ class TimePropertyGenerator < PropertyGenerator
   end
 
   def generate_getter_code
+    return generate_packed_getter_code('LocalTime', 'toTime') if packed?
     code = ''
     if required?
       code << "    public LocalTime #{field_conf.getter_name}() {\n"
@@ -32,6 +35,7 @@ class TimePropertyGenerator < PropertyGenerator
   end
 
   def generate_setter_code
+    return generate_packed_setter_code('LocalTime', 'toNumber') if packed?
     code = ''
     if required?
       code << "    public void #{field_conf.setter_name}(LocalTime #{name}) {\n"
@@ -26,6 +26,9 @@ class PropertiesGenerator
         code << property_generator.generate_field_declaration_code
       end
     end
+    if @model_conf.has_unboxed_fields?
+      code << "    private long presentFields;\n"
+    end
     code
   end
 
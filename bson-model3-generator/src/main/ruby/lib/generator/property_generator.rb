@@ -83,11 +83,7 @@ class PropertyGenerator
   end
 
   def field_changed_code
-    associated_fields = @model_conf.fields.filter do |field|
-      field.name == @field_conf.name or (field.virtual? and field.sources.include?(@field_conf.name))
-    end.map do |field|
-      field.field_index_const_name
-    end
+    associated_fields = associated_field_index_consts
     if associated_fields.size == 1
       "triggerChange(#{associated_fields[0]});"
     else
@@ -95,6 +91,14 @@ class PropertyGenerator
     end
   end
 
+  def associated_field_index_consts
+    @model_conf.fields.filter do |field|
+      field.name == @field_conf.name or (field.virtual? and field.sources.include?(@field_conf.name))
+    end.map do |field|
+      field.field_index_const_name
+    end
+  end
+
   def generate_field_declaration_code
     raise UnsupportedOperationException, "generate_field_declaration_code is not supported on #{self.class}"
   end
@@ -111,8 +115,134 @@ class PropertyGenerator
     raise UnsupportedOperationException, "generate_increment_code is not supported on #{self.class}"
   end
 
+  protected
+  def packed?
+    @field_conf.packed?
+  end
+
+  def unboxed?
+    @field_conf.unboxed?
+  end
+
+  def generate_unboxed_field_declaration_code
+    "    private #{@field_conf.type} #{name};\n"
+  end
+
+  # Generates the boxed getter, the presence checking method and the
+  # getter of the primitive value
+  def generate_unboxed_getter_code(boxed_type)
+    code = ''
+    code << "    public @Nullable #{boxed_type} #{@field_conf.getter_name}() {\n"
+    code << "        return #{@field_conf.has_name}() ? #{name} : null;\n"
+    code << "    }\n"
+    code << "\n"
+    code << "    public boolean #{@field_conf.has_name}() {\n"
+    code << "        return (presentFields & #{@field_conf.present_mask}) != 0;\n"
+    code << "    }\n"
+    code << "\n"
+    code << "    public #{@field_conf.type} #{@field_conf.primitive_getter_name}() {\n"
+    code << "        return #{name};\n"
+    code << "    }\n"
+  end
+
+  # Generates the boxed setter and the setter of the primitive value
+  def generate_unboxed_setter_code(boxed_type)
+    code = ''
+    code << "    public void #{@field_conf.setter_name}(@Nullable #{boxed_type} #{name}) {\n"
+    code << "        if (#{name} != null) {\n"
+    code << "            #{@field_conf.primitive_setter_name}(#{name});\n"
+    code << "        } else if (#{@field_conf.has_name}()) {\n"
+    code << "            this.#{name} = 0;\n"
+    code << "            presentFields &= ~#{@field_conf.present_mask};\n"
+    code << "            #{field_changed_code}\n"
+    code << "        }\n"
+    code << "    }\n"
+    code << "\n"
+    code << "    public void #{@field_conf.primitive_setter_name}(#{@field_conf.type} #{name}) {\n"
+    code << "        if (!#{@field_conf.has_name}() || #{name} != this.#{name}) {\n"
+    code << "            this.#{name} = #{name};\n"
+    code << "            presentFields |= #{@field_conf.present_mask};\n"
+    code << "            #{field_changed_code}\n"
+    code << "        }\n"
+    code << "    }\n"
+  end
+
+  def generate_unboxed_increment_code(boxed_type)
+    code = ''
+    code << "    public @Nullable #{boxed_type} increase#{@field_conf.camel_case_name}() {\n"
+    code << "        if (#{@field_conf.has_name}()) {\n"
+    code << "            #{field_changed_code}\n"
+    code << "            return ++#{name};\n"
+    code << "        }\n"
+    code << "        return null;\n"
+    code << "    }\n"
+  end
+
+  def lazy?
+    @field_conf.lazy?
+  end
+
+  # Generates the declaration of the lazy child model field, which is
+  # null until the child model is instantiated
+  def generate_lazy_field_declaration_code(java_type)
+    "    private @Nullable #{java_type} #{name};\n"
+  end
+
+  # Generates the getter instantiating the child model on first access
+  def generate_lazy_getter_code(java_type, init_code)
+    code = ''
+    code << "    public #{java_type} #{@field_conf.getter_name}() {\n"
+    code << "        var #{name} = this.#{name};\n"
+    code << "        if (#{name} == null) {\n"
+    code << "            this.#{name} = #{name} = #{init_code}\n"
+    code << "                    .parent(this).index(#{@field_conf.field_index_const_name}).key(#{@field_conf.store_name_const_name});\n"
+    code << "        }\n"
+    code << "        return #{name};\n"
+    code << "    }\n"
+  end
+
+  def generate_packed_field_declaration_code
+    default_value = DefaultValue.generate_packed_code(@config, @model_conf, @field_conf)
+    if default_value == '0'
+      "    private #{@field_conf.packed_type} #{name};\n"
+    else
+      "    private #{@field_conf.packed_type} #{name} = #{default_value};\n"
+    end
+  end
+
+  # Generates the getter computing the value on demand and the getter
+  # of the packed value
+  def generate_packed_getter_code(java_type, unpack_method)
+    code = ''
+    code << "    public #{java_type} #{@field_conf.getter_name}() {\n"
+    code << "        return DateTimeUtil.#{unpack_method}(#{name});\n"
+    code << "    }\n"
+    code << "\n"
+    code << "    public #{@field_conf.packed_type} #{@field_conf.packed_getter_name}() {\n"
+    code << "        return #{name};\n"
+    code << "    }\n"
+  end
+
+  # Generates the setter converting the value to the packed value and
+  # the setter of the packed value
+  def generate_packed_setter_code(java_type, pack_method)
+    code = ''
+    code << "    public void #{@field_conf.setter_name}(#{java_type} #{name}) {\n"
+    code << "        #{@field_conf.packed_setter_name}(DateTimeUtil.#{pack_method}(#{name}));\n"
+    code << "    }\n"
+    code << "\n"
+    code << "    public void #{@field_conf.packed_setter_name}(#{@field_conf.packed_type} #{name}) {\n"
+    code << "        if (#{name} != this.#{name}) {\n"
+    code << "            this.#{name} = #{name};\n"
+    code << "            #{field_changed_code}\n"
+    code << "        }\n"
+    code << "    }\n"
+  end
+
 end
 
+require_relative 'default_value'
+
 require_relative 'properties/int_property_generator'
 require_relative 'properties/long_property_generator'
 require_relative 'properties/double_property_generator'
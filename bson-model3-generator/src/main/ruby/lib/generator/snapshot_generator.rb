@@ -0,0 +1,287 @@
+require_relative 'properties/map_property_generator'
+
+
+class SnapshotGenerator
+
+  attr_reader :config, :model_conf, :field_confs
+
+  def initialize(config, model_conf)
+    @config = config
+    @model_conf = model_conf
+    @field_confs = model_conf.fields.filter { |field_conf| field_conf.store_field? }
+  end
+
+  def generate_fingerprint
+    schema = @field_confs.map { |field_conf| field_schema(field_conf) }.join(',')
+    nested = @field_confs.filter { |field_conf| nested_model?(field_conf) }.map { |field_conf| ", #{field_conf.model}.SNAPSHOT_FINGERPRINT" }.join
+    "    public static final long SNAPSHOT_FINGERPRINT = Snapshots.fingerprint(\"#{schema}\"#{nested});\n"
+  end
+
+  def generate_write
+    code = ''
+    code << "    @Override\n"
+    code << "    public void writeSnapshot(SnapshotOutput out) {\n"
+    @field_confs.each do |field_conf|
+      code << generate_write_field(field_conf)
+    end
+    code << "        out.writeEndObject();\n"
+    code << "    }\n"
+  end
+
+  def generate_read
+    code = ''
+    code << "    @Override\n"
+    code << "    public #{@model_conf.name} readSnapshot(SnapshotInput in) {\n"
+    code << "        clean();\n"
+    code << "        for (var _index = in.nextFieldIndex(); _index >= 0; _index = in.nextFieldIndex()) {\n"
+    code << "            switch (_index) {\n"
+    @field_confs.each do |field_conf|
+      code << generate_read_field(field_conf)
+    end
+    code << "                default -> throw new IllegalStateException(\"Unknown field index \" + _index + \" in snapshot of #{@model_conf.name}\");\n"
+    code << "            }\n"
+    code << "        }\n"
+    code << "        return this;\n"
+    code << "    }\n"
+  end
+
+  def generate_write_changes
+    code = ''
+    code << "    @Override\n"
+    code << "    protected void writeChangedFields(SnapshotOutput out) {\n"
+    code << "        var changedFields = this.changedFields;\n"
+    @field_confs.each do |field_conf|
+      code << "        if (changedFields.get(#{field_conf.field_index_const_name})) {\n"
+      code << generate_write_changed_field(field_conf)
+      code << "        }\n"
+    end
+    code << "    }\n"
+  end
+
+  def generate_apply_changes
+    code = ''
+    code << "    @Override\n"
+    code << "    protected #{@model_conf.name} applyChangedFields(SnapshotInput in) {\n"
+    code << "        for (var _index = in.nextFieldIndex(); _index >= 0; _index = in.nextFieldIndex()) {\n"
+    code << "            switch (_index) {\n"
+    @field_confs.each do |field_conf|
+      code << generate_apply_changed_field(field_conf)
+    end
+    code << "                default -> throw new IllegalStateException(\"Unknown field index \" + _index + \" in change set of #{@model_conf.name}\");\n"
+    code << "            }\n"
+    code << "        }\n"
+    code << "        return this;\n"
+    code << "    }\n"
+  end
+
+  private
+  def field_schema(field_conf)
+    case field_conf.type
+    when 'map'
+      "#{field_conf.index}:map<#{field_conf.key},#{field_conf.value}>"
+    when 'std-list'
+      "#{field_conf.index}:std-list<#{field_conf.value}>"
+    else
+      "#{field_conf.index}:#{field_conf.type}"
+    end
+  end
+
+  def zero_skippable?(field_conf)
+    (field_conf.type == 'int' or field_conf.type == 'long') and field_conf.default.nil?
+  end
+
+  def nested_model?(field_conf)
+    field_conf.type == 'object' or (field_conf.type == 'map' and field_conf.value == 'object')
+  end
+
+  def value_method_suffix(type)
+    case type
+    when 'int'
+      'Int'
+    when 'long'
+      'Long'
+    when 'double'
+      'Double'
+    when 'decimal'
+      'Number'
+    when 'boolean'
+      'Boolean'
+    when 'date'
+      'Date'
+    when 'time'
+      'Time'
+    when 'datetime'
+      'DateTime'
+    when 'object-id'
+      'ObjectId'
+    when 'uuid'
+      'Uuid'
+    else
+      'String'
+    end
+  end
+
+  def write_value_code(field_conf, value)
+    case field_conf.type
+    when 'object', 'map'
+      nil
+    when 'std-list'
+      "writeList(#{value}, SnapshotOutput::write#{value_method_suffix(field_conf.value)})"
+    else
+      "write#{value_method_suffix(field_conf.type)}(#{value})"
+    end
+  end
+
+  def generate_write_field(field_conf)
+    code = ''
+    index = field_conf.field_index_const_name
+    if field_conf.required? and zero_skippable?(field_conf)
+      # numbers with the zero default value are not written, clean() resets them
+      temp_field_name = "_#{field_conf.name}"
+      code << "        var #{temp_field_name} = #{field_conf.getter_name}();\n"
+      code << "        if (#{temp_field_name} != 0) {\n"
+      code << "            out.writeFieldIndex(#{index}).#{write_value_code(field_conf, temp_field_name)};\n"
+      code << "        }\n"
+    elsif field_conf.packed?
+      # packed values have the same encoding as the unpacked ones
+      code << "        out.writeFieldIndex(#{index}).write#{value_method_suffix(field_conf.packed_type)}(#{field_conf.packed_getter_name}());\n"
+    elsif field_conf.required?
+      write_value = write_value_code(field_conf, "#{field_conf.getter_name}()")
+      if field_conf.lazy?
+        # the absent lazy child is not written, clean() keeps it absent
+        temp_field_name = "_#{field_conf.name}"
+        code << "        var #{temp_field_name} = #{field_conf.name};\n"
+        code << "        if (#{temp_field_name} != null#{field_conf.map_model? ? " && !#{temp_field_name}.isEmpty()" : ''}) {\n"
+        code << "            out.writeFieldIndex(#{index});\n"
+        code << "            #{temp_field_name}.writeSnapshot(out);\n"
+        code << "        }\n"
+      elsif write_value.nil?
+        code << "        out.writeFieldIndex(#{index});\n"
+        code << "        #{field_conf.getter_name}().writeSnapshot(out);\n"
+      else
+        code << "        out.writeFieldIndex(#{index}).#{write_value};\n"
+      end
+    else
+      temp_field_name = "_#{field_conf.name}"
+      write_value = write_value_code(field_conf, temp_field_name)
+      code << field_conf.if_present_code("        ", temp_field_name)
+      if write_value.nil?
+        code << "            out.writeFieldIndex(#{index});\n"
+        code << "            #{temp_field_name}.writeSnapshot(out);\n"
+      else
+        code << "            out.writeFieldIndex(#{index}).#{write_value};\n"
+      end
+      code << "        }\n"
+    end
+    code
+  end
+
+  def generate_write_changed_field(field_conf)
+    code = ''
+    index = field_conf.field_index_const_name
+    if field_conf.packed?
+      code << "            out.writeFieldIndex(#{index}).write#{value_method_suffix(field_conf.packed_type)}(#{field_conf.packed_getter_name}());\n"
+    elsif field_conf.required?
+      write_value = write_value_code(field_conf, "#{field_conf.getter_name}()")
+      if write_value.nil?
+        code << "            out.writeFieldIndex(#{index});\n"
+        code << "            #{field_conf.getter_name}().writeChanges(out);\n"
+      else
+        code << "            out.writeFieldIndex(#{index}).#{write_value};\n"
+      end
+    else
+      # optional fields are prefixed with the presence
+      temp_field_name = "_#{field_conf.name}"
+      write_value = write_value_code(field_conf, temp_field_name)
+      code << field_conf.if_present_code("            ", temp_field_name)
+      if write_value.nil?
+        code << "                out.writeFieldIndex(#{index}).writeBoolean(true);\n"
+        code << "                #{temp_field_name}.writeChanges(out);\n"
+      else
+        code << "                out.writeFieldIndex(#{index}).writeBoolean(true).#{write_value};\n"
+      end
+      code << "            } else {\n"
+      code << "                out.writeFieldIndex(#{index}).writeBoolean(false);\n"
+      code << "            }\n"
+    end
+    code
+  end
+
+  def generate_apply_changed_field(field_conf)
+    code = ''
+    index = field_conf.field_index_const_name
+    case field_conf.type
+    when 'object', 'map'
+      if field_conf.required?
+        code << "                case #{index} -> #{field_conf.getter_name}().applyChanges(in);\n"
+      else
+        init_code = if field_conf.type == 'map'
+                      MapPropertyGenerator.new(@config, @model_conf, field_conf).generate_init_code
+                    else
+                      "new #{field_conf.model}()"
+                    end
+        temp_field_name = "_#{field_conf.name}"
+        code << "                case #{index} -> {\n"
+        code << "                    if (in.readBoolean()) {\n"
+        code << "                        var #{temp_field_name} = #{field_conf.getter_name}();\n"
+        code << "                        if (#{temp_field_name} == null) {\n"
+        code << "                            #{field_conf.setter_name}(#{init_code}.applyChanges(in));\n"
+        code << "                        } else {\n"
+        code << "                            #{temp_field_name}.applyChanges(in);\n"
+        code << "                        }\n"
+        code << "                    } else {\n"
+        code << "                        #{field_conf.setter_name}(null);\n"
+        code << "                    }\n"
+        code << "                }\n"
+      end
+    else
+      read_value = if field_conf.type == 'std-list'
+                     "in.readList(SnapshotInput::read#{value_method_suffix(field_conf.value)})"
+                   elsif field_conf.packed?
+                     "in.read#{value_method_suffix(field_conf.packed_type)}()"
+                   else
+                     "in.read#{value_method_suffix(field_conf.type)}()"
+                   end
+      setter_name = field_conf.packed? ? field_conf.packed_setter_name : field_conf.setter_name
+      if field_conf.required?
+        code << "                case #{index} -> #{setter_name}(#{read_value});\n"
+      else
+        code << "                case #{index} -> #{setter_name}(in.readBoolean() ? #{read_value} : null);\n"
+      end
+    end
+    code
+  end
+
+  def generate_read_field(field_conf)
+    code = ''
+    index = field_conf.field_index_const_name
+    case field_conf.type
+    when 'object', 'map'
+      if field_conf.required?
+        code << "                case #{index} -> #{field_conf.getter_name}().readSnapshot(in);\n"
+      else
+        init_code = if field_conf.type == 'map'
+                      MapPropertyGenerator.new(@config, @model_conf, field_conf).generate_init_code
+                    else
+                      "new #{field_conf.model}()"
+                    end
+        code << "                case #{index} -> #{field_conf.name} = #{init_code}\n"
+        code << "                        .parent(this).index(#{index}).key(#{field_conf.store_name_const_name}).readSnapshot(in);\n"
+      end
+    when 'std-list'
+      code << "                case #{index} -> #{field_conf.name}.load(in.readList(SnapshotInput::read#{value_method_suffix(field_conf.value)}));\n"
+    else
+      type = field_conf.packed? ? field_conf.packed_type : field_conf.type
+      if field_conf.unboxed?
+        code << "                case #{index} -> {\n"
+        code << "                    #{field_conf.name} = in.read#{value_method_suffix(type)}();\n"
+        code << "                    presentFields |= #{field_conf.present_mask};\n"
+        code << "                }\n"
+      else
+        code << "                case #{index} -> #{field_conf.name} = in.read#{value_method_suffix(type)}();\n"
+      end
+    end
+    code
+  end
+
+end
@@ -33,7 +33,9 @@ module StoreData
 
     private
     def parse_type(field_conf)
-      if field_conf.required?
+      if field_conf.dynamic?
+        field_conf.required? ? 'Map<String, Object>' : '@Nullable Map<String, Object>'
+      elsif field_conf.required?
         "#{field_conf.model}.#{field_conf.model}StoreData"
       else
         "#{field_conf.model}.@Nullable #{field_conf.model}StoreData"
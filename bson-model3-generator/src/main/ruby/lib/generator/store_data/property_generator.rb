@@ -52,7 +52,7 @@ module StoreData
         code << "        @com.fasterxml.jackson.annotation.JsonProperty(#{field_conf.store_name_const_name})\n"
       end
       if json_libs.include?('Jsoniter')
-        if @field_conf.type == 'map'
+        if @field_conf.type == 'map' or @field_conf.dynamic?
           code << "        @com.jsoniter.annotation.JsonProperty(value = #{field_conf.store_name_const_name}, implementation = LinkedHashMap.class)\n"
         else
           code << "        @com.jsoniter.annotation.JsonProperty(#{field_conf.store_name_const_name})\n"
@@ -53,13 +53,17 @@ class ToBsonFieldValueGenerator
   end
 
   def generate_required_bson_value_code
-    "        _bsonValue.put(#{@field_conf.store_name_const_name}, #{@field_conf.getter_name}().toBsonValue());\n"
+    if @field_conf.lazy?
+      # the never instantiated lazy child is encoded as an empty document
+      "        _bsonValue.put(#{@field_conf.store_name_const_name}, #{@field_conf.name} == null ? new BsonDocument() : #{@field_conf.name}.toBsonValue());\n"
+    else
+      "        _bsonValue.put(#{@field_conf.store_name_const_name}, #{@field_conf.getter_name}().toBsonValue());\n"
+    end
   end
 
   def generate_optional_bson_value_code
     code = ''
-    code << "        var #{@temp_field_name} = #{@field_conf.getter_name}();\n"
-    code << "        if (#{@temp_field_name} != null) {\n"
+    code << @field_conf.if_present_code("        ", @temp_field_name)
     code << generate_optional_variable_bson_value_code
     code << "        }\n"
   end
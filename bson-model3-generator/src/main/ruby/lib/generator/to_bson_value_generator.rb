@@ -19,6 +19,9 @@ class ToBsonValueGenerator
     code = ''
     code << "    @Override\n"
     code << "    public BsonDocument toBsonValue() {\n"
+    if @model_conf.type == 'root'
+      code << "        checkComplete();\n"
+    end
     code << "        var _bsonValue = new BsonDocument();\n"
     @to_bson_field_value_generators.each do |to_bson_field_value_generator|
       code << to_bson_field_value_generator.generate
@@ -27,4 +30,18 @@ class ToBsonValueGenerator
     code << "    }\n"
   end
 
+  def generate_fields
+    code = ''
+    code << "    @Override\n"
+    code << "    protected BsonDocument toBsonValue(BitSet fieldIndexes) {\n"
+    code << "        var _bsonValue = new BsonDocument();\n"
+    @to_bson_field_value_generators.each do |to_bson_field_value_generator|
+      code << "        if (fieldIndexes.get(#{to_bson_field_value_generator.field_conf.field_index_const_name})) {\n"
+      code << to_bson_field_value_generator.generate.gsub(/^(?=.)/, '    ')
+      code << "        }\n"
+    end
+    code << "        return _bsonValue;\n"
+    code << "    }\n"
+  end
+
 end
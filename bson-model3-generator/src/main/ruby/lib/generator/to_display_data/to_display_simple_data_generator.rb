@@ -11,4 +11,30 @@ class ToDisplaySimpleDataGenerator < ToDisplayFieldDataGenerator
     "            _displayData.put(#{field_conf.display_name_const_name}, #{temp_field_name});\n"
   end
 
-end
\ No newline at end of file
+  def generate_required_write_display_data_code
+    "        writer.writeName(#{field_conf.json_name_const_name}).#{write_method_name}(#{field_conf.getter_name}());\n"
+  end
+
+  def generate_optional_variable_write_display_data_code
+    "            writer.writeName(#{field_conf.json_name_const_name}).#{write_method_name}(#{temp_field_name});\n"
+  end
+
+  private
+  def write_method_name
+    case field_conf.type
+    when 'int'
+      'writeInt'
+    when 'long'
+      'writeLong'
+    when 'double'
+      'writeDouble'
+    when 'decimal'
+      'writeNumber'
+    when 'boolean'
+      'writeBoolean'
+    else
+      'writeString'
+    end
+  end
+
+end
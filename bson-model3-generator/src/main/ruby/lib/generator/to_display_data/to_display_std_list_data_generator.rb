@@ -11,6 +11,14 @@ class ToDisplayStdListDataGenerator < ToDisplayFieldDataGenerator
     "            _displayData.put(#{field_conf.display_name_const_name}, #{list_map_code(temp_field_name)});\n"
   end
 
+  def generate_required_write_display_data_code
+    "        writer.writeName(#{field_conf.json_name_const_name}).writeArray(#{list_write_args("#{field_conf.getter_name}()")});\n"
+  end
+
+  def generate_optional_variable_write_display_data_code
+    "            writer.writeName(#{field_conf.json_name_const_name}).writeArray(#{list_write_args(temp_field_name)});\n"
+  end
+
   private
   def list_map_code(variable_name)
     case field_conf.value
@@ -31,4 +39,21 @@ class ToDisplayStdListDataGenerator < ToDisplayFieldDataGenerator
     end
   end
 
+  def list_write_args(variable_name)
+    case field_conf.value
+    when 'date'
+      "#{variable_name}, LocalDate::toString"
+    when 'time'
+      "#{variable_name}, BsonModelConstants.TIME_FORMATTER::format"
+    when 'datetime'
+      "#{variable_name}, BsonModelConstants.DATETIME_FORMATTER::format"
+    when 'object-id'
+      "#{variable_name}, ObjectId::toHexString"
+    when 'uuid'
+      "#{variable_name}, UUID::toString"
+    else
+      variable_name
+    end
+  end
+
 end
@@ -11,4 +11,12 @@ class ToDisplayTimeDataGenerator < ToDisplayFieldDataGenerator
     "            _displayData.put(#{field_conf.display_name_const_name}, #{temp_field_name}.format(BsonModelConstants.TIME_FORMATTER));\n"
   end
 
+  def generate_required_write_display_data_code
+    "        writer.writeName(#{field_conf.json_name_const_name}).writeString(#{field_conf.getter_name}().format(BsonModelConstants.TIME_FORMATTER));\n"
+  end
+
+  def generate_optional_variable_write_display_data_code
+    "            writer.writeName(#{field_conf.json_name_const_name}).writeString(#{temp_field_name}.format(BsonModelConstants.TIME_FORMATTER));\n"
+  end
+
 end
@@ -27,4 +27,16 @@ class ToDisplayDataGenerator
     code << "    }\n"
   end
 
+  def generate_write
+    code =''
+    code << "    @Override\n"
+    code << "    public void writeDisplayData(JsonDataWriter writer) {\n"
+    code << "        writer.writeStartObject();\n"
+    @to_display_field_data_generators.each do |to_display_field_data_generator|
+      code << to_display_field_data_generator.generate_write
+    end
+    code << "        writer.writeEndObject();\n"
+    code << "    }\n"
+  end
+
 end
\ No newline at end of file
@@ -43,13 +43,16 @@ class ToDisplayFieldDataGenerator
   end
 
   def generate_required_display_data_code
-    "        _displayData.put(#{@field_conf.display_name_const_name}, #{@field_conf.getter_name}().toDisplayData());\n"
+    if @field_conf.lazy?
+      "        _displayData.put(#{@field_conf.display_name_const_name}, #{@field_conf.name} == null ? Map.of() : #{@field_conf.name}.toDisplayData());\n"
+    else
+      "        _displayData.put(#{@field_conf.display_name_const_name}, #{@field_conf.getter_name}().toDisplayData());\n"
+    end
   end
 
   def generate_optional_display_data_code
     code = ''
-    code << "        var #{@temp_field_name} = #{@field_conf.getter_name}();\n"
-    code << "        if (#{@temp_field_name} != null) {\n"
+    code << @field_conf.if_present_code("        ", @temp_field_name)
     code << generate_optional_variable_display_data_code
     code << "        }\n"
   end
@@ -58,6 +61,43 @@ class ToDisplayFieldDataGenerator
     "            _displayData.put(#{@field_conf.display_name_const_name}, #{@temp_field_name}.toDisplayData());\n"
   end
 
+  def generate_write
+    if @field_conf.transient? or @field_conf.readonly? or not @field_conf.required?
+      generate_optional_write_display_data_code
+    else
+      generate_required_write_display_data_code
+    end
+  end
+
+  def generate_required_write_display_data_code
+    code = ''
+    code << "        writer.writeName(#{@field_conf.json_name_const_name});\n"
+    if @field_conf.lazy?
+      code << "        var #{@temp_field_name} = #{@field_conf.name};\n"
+      code << "        if (#{@temp_field_name} == null) {\n"
+      code << "            writer.writeStartObject().writeEndObject();\n"
+      code << "        } else {\n"
+      code << "            #{@temp_field_name}.writeDisplayData(writer);\n"
+      code << "        }\n"
+    else
+      code << "        #{@field_conf.getter_name}().writeDisplayData(writer);\n"
+    end
+    code
+  end
+
+  def generate_optional_write_display_data_code
+    code = ''
+    code << @field_conf.if_present_code("        ", @temp_field_name)
+    code << generate_optional_variable_write_display_data_code
+    code << "        }\n"
+  end
+
+  def generate_optional_variable_write_display_data_code
+    code = ''
+    code << "            writer.writeName(#{@field_conf.json_name_const_name});\n"
+    code << "            #{@temp_field_name}.writeDisplayData(writer);\n"
+  end
+
 end
 
 
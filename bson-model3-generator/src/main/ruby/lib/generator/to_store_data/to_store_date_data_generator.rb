@@ -4,11 +4,27 @@ require_relative '../to_store_field_data_generator'
 class ToStoreDateDataGenerator < ToStoreFieldDataGenerator
 
   def generate_required_to_store_data_code
-    "        _storeData.#{field_conf.name} = DateTimeUtil.toNumber(#{field_conf.getter_name}());\n"
+    if field_conf.packed?
+      "        _storeData.#{field_conf.name} = #{field_conf.packed_getter_name}();\n"
+    else
+      "        _storeData.#{field_conf.name} = DateTimeUtil.toNumber(#{field_conf.getter_name}());\n"
+    end
   end
 
   def generate_optional_variable_to_store_data_code
     "            _storeData.#{field_conf.name} = DateTimeUtil.toNumber(#{temp_field_name});\n"
   end
 
+  def generate_required_write_code
+    if field_conf.packed?
+      "        writer.writeName(#{field_conf.json_store_name_const_name}).writeInt(#{field_conf.packed_getter_name}());\n"
+    else
+      "        writer.writeName(#{field_conf.json_store_name_const_name}).writeInt(DateTimeUtil.toNumber(#{field_conf.getter_name}()));\n"
+    end
+  end
+
+  def generate_optional_variable_write_code
+    "            writer.writeName(#{field_conf.json_store_name_const_name}).writeInt(DateTimeUtil.toNumber(#{temp_field_name}));\n"
+  end
+
 end
@@ -4,7 +4,11 @@ require_relative '../to_store_field_data_generator'
 class ToStoreMapDataGenerator < ToStoreFieldDataGenerator
 
   def generate_required_to_store_data_code
-    "        _storeData.#{field_conf.name} = (Map<String, #{store_data_value_type}>) #{field_conf.getter_name}().toStoreData();\n"
+    if field_conf.lazy?
+      "        _storeData.#{field_conf.name} = #{field_conf.name} == null ? Map.of() : (Map<String, #{store_data_value_type}>) #{field_conf.name}.toStoreData();\n"
+    else
+      "        _storeData.#{field_conf.name} = (Map<String, #{store_data_value_type}>) #{field_conf.getter_name}().toStoreData();\n"
+    end
   end
 
   def generate_optional_variable_to_store_data_code
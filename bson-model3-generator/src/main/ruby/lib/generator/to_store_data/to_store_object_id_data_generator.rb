@@ -11,4 +11,12 @@ class ToStoreObjectIdDataGenerator < ToStoreFieldDataGenerator
     "            _storeData.#{field_conf.name} = #{temp_field_name}.toHexString();\n"
   end
 
+  def generate_required_write_code
+    "        writer.writeName(#{field_conf.json_store_name_const_name}).writeString(#{field_conf.getter_name}().toHexString());\n"
+  end
+
+  def generate_optional_variable_write_code
+    "            writer.writeName(#{field_conf.json_store_name_const_name}).writeString(#{temp_field_name}.toHexString());\n"
+  end
+
 end
@@ -11,4 +11,30 @@ class ToStoreSimpleDataGenerator < ToStoreFieldDataGenerator
     "            _storeData.#{field_conf.name} = #{temp_field_name};\n"
   end
 
+  def generate_required_write_code
+    "        writer.writeName(#{field_conf.json_store_name_const_name}).#{write_method_name}(#{field_conf.getter_name}());\n"
+  end
+
+  def generate_optional_variable_write_code
+    "            writer.writeName(#{field_conf.json_store_name_const_name}).#{write_method_name}(#{temp_field_name});\n"
+  end
+
+  private
+  def write_method_name
+    case field_conf.type
+    when 'int'
+      'writeInt'
+    when 'long'
+      'writeLong'
+    when 'double'
+      'writeDouble'
+    when 'decimal'
+      'writeNumber'
+    when 'boolean'
+      'writeBoolean'
+    else
+      'writeString'
+    end
+  end
+
 end
@@ -4,14 +4,28 @@ require_relative '../to_store_field_data_generator'
 class ToStoreStdListDataGenerator < ToStoreFieldDataGenerator
 
   def generate_required_to_store_data_code
-    "        _storeData.#{field_conf.name} = #{field_conf.getter_name}()#{value_map_code};\n"
+    "        _storeData.#{field_conf.name} = #{copy_code("#{field_conf.getter_name}()")};\n"
   end
 
   def generate_optional_variable_to_store_data_code
-    "            _storeData.#{field_conf.name} = #{temp_field_name}#{value_map_code};\n"
+    "            _storeData.#{field_conf.name} = #{copy_code(temp_field_name)};\n"
+  end
+
+  def generate_required_write_code
+    "        writer.writeName(#{field_conf.json_store_name_const_name}).writeArray(#{field_conf.getter_name}()#{list_write_mapper});\n"
+  end
+
+  def generate_optional_variable_write_code
+    "            writer.writeName(#{field_conf.json_store_name_const_name}).writeArray(#{temp_field_name}#{list_write_mapper});\n"
   end
 
   private
+  # the store data must not share the live tracked list
+  def copy_code(list)
+    map_code = value_map_code
+    map_code.empty? ? "new ArrayList<>(#{list})" : "#{list}#{map_code}"
+  end
+
   def value_map_code
     case field_conf.value
     when 'date'
@@ -29,4 +43,19 @@ class ToStoreStdListDataGenerator < ToStoreFieldDataGenerator
     end
   end
 
+  def list_write_mapper
+    case field_conf.value
+    when 'date', 'time'
+      ', DateTimeUtil::toNumber'
+    when 'datetime'
+      ', DateTimeUtil::toEpochMilli'
+    when 'object-id'
+      ', ObjectId::toHexString'
+    when 'uuid'
+      ', UUID::toString'
+    else
+      ''
+    end
+  end
+
 end
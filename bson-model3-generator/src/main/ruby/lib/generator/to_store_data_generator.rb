@@ -21,6 +21,9 @@ class ToStoreDataGenerator
     end
     code << "    @Override\n"
     code << "    public #{@model_conf.name}StoreData toStoreData() {\n"
+    if @model_conf.type == 'root'
+      code << "        checkComplete();\n"
+    end
     code << "        var _storeData = new #{@model_conf.name}StoreData();\n"
     @to_store_field_data_generators.each do |to_store_field_data_generator|
       code << to_store_field_data_generator.generate
@@ -29,4 +32,19 @@ class ToStoreDataGenerator
     code << "    }\n"
   end
 
+  def generate_write
+    code = ''
+    code << "    @Override\n"
+    code << "    public void writeStoreData(JsonDataWriter writer) {\n"
+    if @model_conf.type == 'root'
+      code << "        checkComplete();\n"
+    end
+    code << "        writer.writeStartObject();\n"
+    @to_store_field_data_generators.each do |to_store_field_data_generator|
+      code << to_store_field_data_generator.generate_write
+    end
+    code << "        writer.writeEndObject();\n"
+    code << "    }\n"
+  end
+
 end
\ No newline at end of file
@@ -45,13 +45,22 @@ class ToStoreFieldDataGenerator
   end
 
   def generate_required_to_store_data_code
-    "        _storeData.#{@field_conf.name} = #{@field_conf.getter_name}().toStoreData();\n"
+    if @field_conf.lazy?
+      "        _storeData.#{@field_conf.name} = #{@field_conf.name} == null ? #{absent_store_data_code} : #{@field_conf.name}.toStoreData();\n"
+    else
+      "        _storeData.#{@field_conf.name} = #{@field_conf.getter_name}().toStoreData();\n"
+    end
+  end
+
+  # Returns the store data of the never instantiated lazy child model,
+  # which is an empty map for map models and null for others
+  def absent_store_data_code
+    @field_conf.map_model? ? 'Map.of()' : 'null'
   end
 
   def generate_optional_to_store_data_code
     code = ''
-    code << "        var #{@temp_field_name} = #{@field_conf.getter_name}();\n"
-    code << "        if (#{@temp_field_name} != null) {\n"
+    code << @field_conf.if_present_code("        ", @temp_field_name)
     code << generate_optional_variable_to_store_data_code
     code << "        }\n"
   end
@@ -60,6 +69,43 @@ class ToStoreFieldDataGenerator
     "            _storeData.#{@field_conf.name} = #{@temp_field_name}.toStoreData();\n"
   end
 
+  def generate_write
+    if @field_conf.required?
+      generate_required_write_code
+    else
+      generate_optional_write_code
+    end
+  end
+
+  def generate_required_write_code
+    code = ''
+    code << "        writer.writeName(#{@field_conf.json_store_name_const_name});\n"
+    if @field_conf.lazy?
+      code << "        var #{@temp_field_name} = #{@field_conf.name};\n"
+      code << "        if (#{@temp_field_name} == null) {\n"
+      code << "            writer.#{@field_conf.map_model? ? 'writeStartObject().writeEndObject()' : 'writeNull()'};\n"
+      code << "        } else {\n"
+      code << "            #{@temp_field_name}.writeStoreData(writer);\n"
+      code << "        }\n"
+    else
+      code << "        #{@field_conf.getter_name}().writeStoreData(writer);\n"
+    end
+    code
+  end
+
+  def generate_optional_write_code
+    code = ''
+    code << @field_conf.if_present_code("        ", @temp_field_name)
+    code << generate_optional_variable_write_code
+    code << "        }\n"
+  end
+
+  def generate_optional_variable_write_code
+    code = ''
+    code << "            writer.writeName(#{@field_conf.json_store_name_const_name});\n"
+    code << "            #{@temp_field_name}.writeStoreData(writer);\n"
+  end
+
 end
 
 
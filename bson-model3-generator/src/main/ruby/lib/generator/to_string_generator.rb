@@ -15,13 +15,19 @@ class ToStringGenerator
     if field_confs.empty?
       code << "        return \"#{@model_conf.name}()\";\n"
     else
-      code << "        return \"#{@model_conf.name}(#{@field_confs[0].name}=\" + #{@field_confs[0].getter_name}() +\n"
+      code << "        return \"#{@model_conf.name}(#{@field_confs[0].name}=\" + #{string_value_code(@field_confs[0])} +\n"
       field_confs[1..].each do |field_conf|
-        code << "                \", #{field_conf.name}=\" + #{field_conf.getter_name}() +\n"
+        code << "                \", #{field_conf.name}=\" + #{string_value_code(field_conf)} +\n"
       end
       code << "                \")\";\n"
     end
     code << "    }\n"
   end
 
+  private
+  def string_value_code(field_conf)
+    # the lazy child is printed as null before it is instantiated
+    field_conf.lazy? ? field_conf.name : "#{field_conf.getter_name}()"
+  end
+
 end
@@ -2,6 +2,8 @@ package com.github.fmjsjx.bson.model3.core.model;
 
 import com.alibaba.fastjson2.annotation.JSONType;
 import com.github.fmjsjx.bson.model3.core.*;
+import com.github.fmjsjx.bson.model3.core.json.*;
+import com.github.fmjsjx.bson.model3.core.snapshot.*;
 import com.github.fmjsjx.bson.model3.core.util.*;
 import com.github.fmjsjx.libcommon.util.DateTimeUtil;
 import com.mongodb.client.model.Updates;
@@ -11,6 +13,7 @@ import org.jspecify.annotations.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.*;
 
 @NullMarked
@@ -20,17 +23,44 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
     public static final String STORE_NAME_AVATAR = "a";
     public static final String STORE_NAME_BIRTHDAY = "b";
     public static final String STORE_NAME_CREATED_TIME = "ct";
+    public static final String STORE_NAME_LEVEL = "lv";
+    public static final String STORE_NAME_REGISTERED_DATE = "rd";
+    public static final String STORE_NAME_DAILY_RESET_TIME = "drt";
 
     public static final String DISPLAY_NAME_NAME = "name";
     public static final String DISPLAY_NAME_AVATAR = "avatar";
     public static final String DISPLAY_NAME_BIRTHDAY = "birthday";
     public static final String DISPLAY_NAME_CREATED_AT = "createdAt";
+    public static final String DISPLAY_NAME_LEVEL = "level";
+    public static final String DISPLAY_NAME_REGISTERED_DATE = "registeredDate";
+    public static final String DISPLAY_NAME_DAILY_RESET_TIME = "dailyResetTime";
+
+    public static final JsonFieldName JSON_NAME_NAME = JsonFieldName.of(DISPLAY_NAME_NAME);
+    public static final JsonFieldName JSON_NAME_AVATAR = JsonFieldName.of(DISPLAY_NAME_AVATAR);
+    public static final JsonFieldName JSON_NAME_BIRTHDAY = JsonFieldName.of(DISPLAY_NAME_BIRTHDAY);
+    public static final JsonFieldName JSON_NAME_CREATED_AT = JsonFieldName.of(DISPLAY_NAME_CREATED_AT);
+    public static final JsonFieldName JSON_NAME_LEVEL = JsonFieldName.of(DISPLAY_NAME_LEVEL);
+    public static final JsonFieldName JSON_NAME_REGISTERED_DATE = JsonFieldName.of(DISPLAY_NAME_REGISTERED_DATE);
+    public static final JsonFieldName JSON_NAME_DAILY_RESET_TIME = JsonFieldName.of(DISPLAY_NAME_DAILY_RESET_TIME);
+
+    public static final JsonFieldName JSON_STORE_NAME_NAME = JsonFieldName.of(STORE_NAME_NAME);
+    public static final JsonFieldName JSON_STORE_NAME_AVATAR = JsonFieldName.of(STORE_NAME_AVATAR);
+    public static final JsonFieldName JSON_STORE_NAME_BIRTHDAY = JsonFieldName.of(STORE_NAME_BIRTHDAY);
+    public static final JsonFieldName JSON_STORE_NAME_CREATED_TIME = JsonFieldName.of(STORE_NAME_CREATED_TIME);
+    public static final JsonFieldName JSON_STORE_NAME_LEVEL = JsonFieldName.of(STORE_NAME_LEVEL);
+    public static final JsonFieldName JSON_STORE_NAME_REGISTERED_DATE = JsonFieldName.of(STORE_NAME_REGISTERED_DATE);
+    public static final JsonFieldName JSON_STORE_NAME_DAILY_RESET_TIME = JsonFieldName.of(STORE_NAME_DAILY_RESET_TIME);
 
     public static final int FIELD_INDEX_NAME = 0;
     public static final int FIELD_INDEX_AVATAR = 1;
     public static final int FIELD_INDEX_BIRTHDAY = 2;
     public static final int FIELD_INDEX_CREATED_TIME = 3;
     public static final int FIELD_INDEX_CREATED_AT = 4;
+    public static final int FIELD_INDEX_LEVEL = 5;
+    public static final int FIELD_INDEX_REGISTERED_DATE = 6;
+    public static final int FIELD_INDEX_DAILY_RESET_TIME = 7;
+
+    public static final long SNAPSHOT_FINGERPRINT = Snapshots.fingerprint("0:string,1:string,2:date,3:datetime,5:int,6:date,7:time");
 
     @JSONType(alphabetic = false)
     public static final class BasicInfoStoreData {
@@ -50,6 +80,18 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
         @com.fasterxml.jackson.annotation.JsonProperty(STORE_NAME_CREATED_TIME)
         @com.jsoniter.annotation.JsonProperty(STORE_NAME_CREATED_TIME)
         private long createdTime;
+        @com.alibaba.fastjson2.annotation.JSONField(name = STORE_NAME_LEVEL)
+        @com.fasterxml.jackson.annotation.JsonProperty(STORE_NAME_LEVEL)
+        @com.jsoniter.annotation.JsonProperty(STORE_NAME_LEVEL)
+        private @Nullable Integer level;
+        @com.alibaba.fastjson2.annotation.JSONField(name = STORE_NAME_REGISTERED_DATE)
+        @com.fasterxml.jackson.annotation.JsonProperty(STORE_NAME_REGISTERED_DATE)
+        @com.jsoniter.annotation.JsonProperty(STORE_NAME_REGISTERED_DATE)
+        private int registeredDate;
+        @com.alibaba.fastjson2.annotation.JSONField(name = STORE_NAME_DAILY_RESET_TIME)
+        @com.fasterxml.jackson.annotation.JsonProperty(STORE_NAME_DAILY_RESET_TIME)
+        @com.jsoniter.annotation.JsonProperty(STORE_NAME_DAILY_RESET_TIME)
+        private int dailyResetTime;
 
         public String getName() {
             return name;
@@ -82,12 +124,40 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
         public void setCreatedTime(long createdTime) {
             this.createdTime = createdTime;
         }
+
+        public @Nullable Integer getLevel() {
+            return level;
+        }
+
+        public void setLevel(@Nullable Integer level) {
+            this.level = level;
+        }
+
+        public int getRegisteredDate() {
+            return registeredDate;
+        }
+
+        public void setRegisteredDate(int registeredDate) {
+            this.registeredDate = registeredDate;
+        }
+
+        public int getDailyResetTime() {
+            return dailyResetTime;
+        }
+
+        public void setDailyResetTime(int dailyResetTime) {
+            this.dailyResetTime = dailyResetTime;
+        }
     }
 
     private String name = "";
     private @Nullable String avatar;
     private @Nullable LocalDate birthday;
-    private LocalDateTime createdTime = BsonModelConstants.EPOCH_DATE_TIME;
+    private long createdTime = BsonModelConstants.EPOCH_DATE_TIME_MILLIS;
+    private int level;
+    private int registeredDate = BsonModelConstants.EPOCH_DATE_NUMBER;
+    private int dailyResetTime;
+    private long presentFields;
 
     public String getName() {
         return name;
@@ -123,18 +193,94 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
     }
 
     public LocalDateTime getCreatedTime() {
+        return DateTimeUtil.ofEpochMilli(createdTime);
+    }
+
+    public long getCreatedTimeMillis() {
         return createdTime;
     }
 
     public void setCreatedTime(LocalDateTime createdTime) {
-        if (!createdTime.equals(this.createdTime)) {
+        setCreatedTimeMillis(DateTimeUtil.toEpochMilli(createdTime));
+    }
+
+    public void setCreatedTimeMillis(long createdTime) {
+        if (createdTime != this.createdTime) {
             this.createdTime = createdTime;
             fieldsChanged(FIELD_INDEX_CREATED_TIME, FIELD_INDEX_CREATED_AT);
         }
     }
 
     public long getCreatedAt() {
-        return DateTimeUtil.toEpochMilli(getCreatedTime());
+        return getCreatedTimeMillis();
+    }
+
+    public @Nullable Integer getLevel() {
+        return hasLevel() ? level : null;
+    }
+
+    public boolean hasLevel() {
+        return (presentFields & 0x1L) != 0;
+    }
+
+    public int getLevelAsInt() {
+        return level;
+    }
+
+    public void setLevel(@Nullable Integer level) {
+        if (level != null) {
+            setLevelAsInt(level);
+        } else if (hasLevel()) {
+            this.level = 0;
+            presentFields &= ~0x1L;
+            triggerChange(FIELD_INDEX_LEVEL);
+        }
+    }
+
+    public void setLevelAsInt(int level) {
+        if (!hasLevel() || level != this.level) {
+            this.level = level;
+            presentFields |= 0x1L;
+            triggerChange(FIELD_INDEX_LEVEL);
+        }
+    }
+
+    public LocalDate getRegisteredDate() {
+        return DateTimeUtil.toDate(registeredDate);
+    }
+
+    public int getRegisteredDateNumber() {
+        return registeredDate;
+    }
+
+    public void setRegisteredDate(LocalDate registeredDate) {
+        setRegisteredDateNumber(DateTimeUtil.toNumber(registeredDate));
+    }
+
+    public void setRegisteredDateNumber(int registeredDate) {
+        if (registeredDate != this.registeredDate) {
+            this.registeredDate = registeredDate;
+            triggerChange(FIELD_INDEX_REGISTERED_DATE);
+        }
+    }
+
+    public LocalTime getDailyResetTime() {
+        return DateTimeUtil.toTime(dailyResetTime);
+    }
+
+    public int getDailyResetTimeNumber() {
+        return dailyResetTime;
+    }
+
+    public void setDailyResetTime(LocalTime dailyResetTime) {
+        setDailyResetTimeNumber(DateTimeUtil.toNumber(dailyResetTime));
+    }
+
+    public void setDailyResetTimeNumber(int dailyResetTime) {
+        if (dailyResetTime != this.dailyResetTime) {
+            this.dailyResetTime = dailyResetTime;
+            triggerChange(FIELD_INDEX_DAILY_RESET_TIME);
+        }
     }
 
     @Override
@@ -142,7 +288,11 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
         name = "";
         avatar = null;
         birthday = null;
-        createdTime = BsonModelConstants.EPOCH_DATE_TIME;
+        createdTime = BsonModelConstants.EPOCH_DATE_TIME_MILLIS;
+        level = 0;
+        registeredDate = BsonModelConstants.EPOCH_DATE_NUMBER;
+        dailyResetTime = 0;
+        presentFields = 0;
         return this;
     }
 
@@ -172,7 +322,21 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
             }
         }
         if (changedFields.get(FIELD_INDEX_CREATED_TIME)) {
-            updates.add(Updates.set(path().path(STORE_NAME_CREATED_TIME), BsonValueUtil.toBsonDateTime(getCreatedTime())));
+            updates.add(Updates.set(path().path(STORE_NAME_CREATED_TIME), new BsonDateTime(getCreatedTimeMillis())));
+        }
+        if (changedFields.get(FIELD_INDEX_LEVEL)) {
+            if (hasLevel()) {
+                var _level = getLevelAsInt();
+                updates.add(Updates.set(path().path(STORE_NAME_LEVEL), new BsonInt32(_level)));
+            } else {
+                updates.add(Updates.unset(path().path(STORE_NAME_LEVEL)));
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_REGISTERED_DATE)) {
+            updates.add(Updates.set(path().path(STORE_NAME_REGISTERED_DATE), new BsonInt32(getRegisteredDateNumber())));
+        }
+        if (changedFields.get(FIELD_INDEX_DAILY_RESET_TIME)) {
+            updates.add(Updates.set(path().path(STORE_NAME_DAILY_RESET_TIME), new BsonInt32(getDailyResetTimeNumber())));
         }
     }
 
@@ -200,6 +364,56 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
         if (changedFields.get(FIELD_INDEX_CREATED_AT)) {
             data.put(DISPLAY_NAME_CREATED_AT, getCreatedAt());
         }
+        if (changedFields.get(FIELD_INDEX_LEVEL)) {
+            if (hasLevel()) {
+                var _level = getLevelAsInt();
+                data.put(DISPLAY_NAME_LEVEL, _level);
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_REGISTERED_DATE)) {
+            data.put(DISPLAY_NAME_REGISTERED_DATE, getRegisteredDate().toString());
+        }
+        if (changedFields.get(FIELD_INDEX_DAILY_RESET_TIME)) {
+            data.put(DISPLAY_NAME_DAILY_RESET_TIME, getDailyResetTime().format(BsonModelConstants.TIME_FORMATTER));
+        }
+    }
+
+    @Override
+    protected void writeUpdatedFields(JsonDataWriter writer) {
+        var changedFields = this.changedFields;
+        if (changedFields.isEmpty()) {
+            return;
+        }
+        if (changedFields.get(FIELD_INDEX_NAME)) {
+            writer.writeName(JSON_NAME_NAME).writeString(getName());
+        }
+        if (changedFields.get(FIELD_INDEX_AVATAR)) {
+            var _avatar = getAvatar();
+            if (_avatar != null) {
+                writer.writeName(JSON_NAME_AVATAR).writeString(_avatar);
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_BIRTHDAY)) {
+            var _birthday = getBirthday();
+            if (_birthday != null) {
+                writer.writeName(JSON_NAME_BIRTHDAY).writeString(_birthday.toString());
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_CREATED_AT)) {
+            writer.writeName(JSON_NAME_CREATED_AT).writeLong(getCreatedAt());
+        }
+        if (changedFields.get(FIELD_INDEX_LEVEL)) {
+            if (hasLevel()) {
+                var _level = getLevelAsInt();
+                writer.writeName(JSON_NAME_LEVEL).writeInt(_level);
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_REGISTERED_DATE)) {
+            writer.writeName(JSON_NAME_REGISTERED_DATE).writeString(getRegisteredDate().toString());
+        }
+        if (changedFields.get(FIELD_INDEX_DAILY_RESET_TIME)) {
+            writer.writeName(JSON_NAME_DAILY_RESET_TIME).writeString(getDailyResetTime().format(BsonModelConstants.TIME_FORMATTER));
+        }
     }
 
     @Override
@@ -215,9 +429,37 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
             _displayData.put(DISPLAY_NAME_BIRTHDAY, _birthday.toString());
         }
         _displayData.put(DISPLAY_NAME_CREATED_AT, getCreatedAt());
+        if (hasLevel()) {
+            var _level = getLevelAsInt();
+            _displayData.put(DISPLAY_NAME_LEVEL, _level);
+        }
+        _displayData.put(DISPLAY_NAME_REGISTERED_DATE, getRegisteredDate().toString());
+        _displayData.put(DISPLAY_NAME_DAILY_RESET_TIME, getDailyResetTime().format(BsonModelConstants.TIME_FORMATTER));
         return _displayData;
     }
 
+    @Override
+    public void writeDisplayData(JsonDataWriter writer) {
+        writer.writeStartObject();
+        writer.writeName(JSON_NAME_NAME).writeString(getName());
+        var _avatar = getAvatar();
+        if (_avatar != null) {
+            writer.writeName(JSON_NAME_AVATAR).writeString(_avatar);
+        }
+        var _birthday = getBirthday();
+        if (_birthday != null) {
+            writer.writeName(JSON_NAME_BIRTHDAY).writeString(_birthday.toString());
+        }
+        writer.writeName(JSON_NAME_CREATED_AT).writeLong(getCreatedAt());
+        if (hasLevel()) {
+            var _level = getLevelAsInt();
+            writer.writeName(JSON_NAME_LEVEL).writeInt(_level);
+        }
+        writer.writeName(JSON_NAME_REGISTERED_DATE).writeString(getRegisteredDate().toString());
+        writer.writeName(JSON_NAME_DAILY_RESET_TIME).writeString(getDailyResetTime().format(BsonModelConstants.TIME_FORMATTER));
+        writer.writeEndObject();
+    }
+
     @Override
     public BsonDocument toBsonValue() {
         var _bsonValue = new BsonDocument();
@@ -230,7 +472,49 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
         if (_birthday != null) {
             _bsonValue.put(STORE_NAME_BIRTHDAY, BsonValueUtil.toBsonInt32(_birthday));
         }
-        _bsonValue.put(STORE_NAME_CREATED_TIME, BsonValueUtil.toBsonDateTime(getCreatedTime()));
+        _bsonValue.put(STORE_NAME_CREATED_TIME, new BsonDateTime(getCreatedTimeMillis()));
+        if (hasLevel()) {
+            var _level = getLevelAsInt();
+            _bsonValue.put(STORE_NAME_LEVEL, new BsonInt32(_level));
+        }
+        _bsonValue.put(STORE_NAME_REGISTERED_DATE, new BsonInt32(getRegisteredDateNumber()));
+        _bsonValue.put(STORE_NAME_DAILY_RESET_TIME, new BsonInt32(getDailyResetTimeNumber()));
+        return _bsonValue;
+    }
+
+    @Override
+    protected BsonDocument toBsonValue(BitSet fieldIndexes) {
+        var _bsonValue = new BsonDocument();
+        if (fieldIndexes.get(FIELD_INDEX_NAME)) {
+            _bsonValue.put(STORE_NAME_NAME, new BsonString(getName()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_AVATAR)) {
+            var _avatar = getAvatar();
+            if (_avatar != null) {
+                _bsonValue.put(STORE_NAME_AVATAR, new BsonString(_avatar));
+            }
+        }
+        if (fieldIndexes.get(FIELD_INDEX_BIRTHDAY)) {
+            var _birthday = getBirthday();
+            if (_birthday != null) {
+                _bsonValue.put(STORE_NAME_BIRTHDAY, BsonValueUtil.toBsonInt32(_birthday));
+            }
+        }
+        if (fieldIndexes.get(FIELD_INDEX_CREATED_TIME)) {
+            _bsonValue.put(STORE_NAME_CREATED_TIME, new BsonDateTime(getCreatedTimeMillis()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_LEVEL)) {
+            if (hasLevel()) {
+                var _level = getLevelAsInt();
+                _bsonValue.put(STORE_NAME_LEVEL, new BsonInt32(_level));
+            }
+        }
+        if (fieldIndexes.get(FIELD_INDEX_REGISTERED_DATE)) {
+            _bsonValue.put(STORE_NAME_REGISTERED_DATE, new BsonInt32(getRegisteredDateNumber()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_DAILY_RESET_TIME)) {
+            _bsonValue.put(STORE_NAME_DAILY_RESET_TIME, new BsonInt32(getDailyResetTimeNumber()));
+        }
         return _bsonValue;
     }
 
@@ -240,10 +524,66 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
         name = BsonUtil.stringValue(src, STORE_NAME_NAME).orElse("");
         avatar = BsonUtil.stringValue(src, STORE_NAME_AVATAR).orElse(null);
         birthday = BsonUtil.dateValue(src, STORE_NAME_BIRTHDAY).orElse(null);
-        createdTime = BsonUtil.dateTimeValue(src, STORE_NAME_CREATED_TIME).orElse(BsonModelConstants.EPOCH_DATE_TIME);
+        createdTime = BsonUtil.epochMilliValue(src, STORE_NAME_CREATED_TIME).orElse(BsonModelConstants.EPOCH_DATE_TIME_MILLIS);
+        var _level = BsonUtil.intValue(src, STORE_NAME_LEVEL);
+        if (_level.isPresent()) {
+            level = _level.getAsInt();
+            presentFields |= 0x1L;
+        } else {
+            level = 0;
+            presentFields &= ~0x1L;
+        }
+        registeredDate = BsonUtil.intValue(src, STORE_NAME_REGISTERED_DATE).orElse(BsonModelConstants.EPOCH_DATE_NUMBER);
+        dailyResetTime = BsonUtil.intValue(src, STORE_NAME_DAILY_RESET_TIME).orElse(0);
         return this;
     }
 
+    @Override
+    protected void loadFields(BsonDocument src, BitSet fieldIndexes) {
+        if (fieldIndexes.get(FIELD_INDEX_NAME)) {
+            name = BsonUtil.stringValue(src, STORE_NAME_NAME).orElse("");
+        }
+        if (fieldIndexes.get(FIELD_INDEX_AVATAR)) {
+            avatar = BsonUtil.stringValue(src, STORE_NAME_AVATAR).orElse(null);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_BIRTHDAY)) {
+            birthday = BsonUtil.dateValue(src, STORE_NAME_BIRTHDAY).orElse(null);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_CREATED_TIME)) {
+            createdTime = BsonUtil.epochMilliValue(src, STORE_NAME_CREATED_TIME).orElse(BsonModelConstants.EPOCH_DATE_TIME_MILLIS);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_LEVEL)) {
+            var _level = BsonUtil.intValue(src, STORE_NAME_LEVEL);
+            if (_level.isPresent()) {
+                level = _level.getAsInt();
+                presentFields |= 0x1L;
+            } else {
+                level = 0;
+                presentFields &= ~0x1L;
+            }
+        }
+        if (fieldIndexes.get(FIELD_INDEX_REGISTERED_DATE)) {
+            registeredDate = BsonUtil.intValue(src, STORE_NAME_REGISTERED_DATE).orElse(BsonModelConstants.EPOCH_DATE_NUMBER);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_DAILY_RESET_TIME)) {
+            dailyResetTime = BsonUtil.intValue(src, STORE_NAME_DAILY_RESET_TIME).orElse(0);
+        }
+    }
+
+    @Override
+    protected int fieldIndex(String storeName) {
+        return switch (storeName) {
+            case STORE_NAME_NAME -> FIELD_INDEX_NAME;
+            case STORE_NAME_AVATAR -> FIELD_INDEX_AVATAR;
+            case STORE_NAME_BIRTHDAY -> FIELD_INDEX_BIRTHDAY;
+            case STORE_NAME_CREATED_TIME -> FIELD_INDEX_CREATED_TIME;
+            case STORE_NAME_LEVEL -> FIELD_INDEX_LEVEL;
+            case STORE_NAME_REGISTERED_DATE -> FIELD_INDEX_REGISTERED_DATE;
+            case STORE_NAME_DAILY_RESET_TIME -> FIELD_INDEX_DAILY_RESET_TIME;
+            default -> -1;
+        };
+    }
+
     @Override
     public BasicInfoStoreData toStoreData() {
         var _storeData = new BasicInfoStoreData();
@@ -256,10 +596,38 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
         if (_birthday != null) {
             _storeData.birthday = DateTimeUtil.toNumber(_birthday);
         }
-        _storeData.createdTime = DateTimeUtil.toEpochMilli(getCreatedTime());
+        _storeData.createdTime = getCreatedTimeMillis();
+        if (hasLevel()) {
+            var _level = getLevelAsInt();
+            _storeData.level = _level;
+        }
+        _storeData.registeredDate = getRegisteredDateNumber();
+        _storeData.dailyResetTime = getDailyResetTimeNumber();
         return _storeData;
     }
 
+    @Override
+    public void writeStoreData(JsonDataWriter writer) {
+        writer.writeStartObject();
+        writer.writeName(JSON_STORE_NAME_NAME).writeString(getName());
+        var _avatar = getAvatar();
+        if (_avatar != null) {
+            writer.writeName(JSON_STORE_NAME_AVATAR).writeString(_avatar);
+        }
+        var _birthday = getBirthday();
+        if (_birthday != null) {
+            writer.writeName(JSON_STORE_NAME_BIRTHDAY).writeInt(DateTimeUtil.toNumber(_birthday));
+        }
+        writer.writeName(JSON_STORE_NAME_CREATED_TIME).writeLong(getCreatedTimeMillis());
+        if (hasLevel()) {
+            var _level = getLevelAsInt();
+            writer.writeName(JSON_STORE_NAME_LEVEL).writeInt(_level);
+        }
+        writer.writeName(JSON_STORE_NAME_REGISTERED_DATE).writeInt(getRegisteredDateNumber());
+        writer.writeName(JSON_STORE_NAME_DAILY_RESET_TIME).writeInt(getDailyResetTimeNumber());
+        writer.writeEndObject();
+    }
+
     @Override
     public BasicInfo loadStoreData(Object data) {
         resetStates();
@@ -273,7 +641,144 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
             if (_birthday != null) {
                 birthday = DateTimeUtil.toDate(_birthday);
             }
-            createdTime = DateTimeUtil.ofEpochMilli(_storeData.createdTime);
+            createdTime = _storeData.createdTime;
+            var _level = _storeData.level;
+            if (_level != null) {
+                level = _level;
+                presentFields |= 0x1L;
+            } else {
+                level = 0;
+                presentFields &= ~0x1L;
+            }
+            registeredDate = _storeData.registeredDate;
+            dailyResetTime = _storeData.dailyResetTime;
+        }
+        return this;
+    }
+
+    @Override
+    public BasicInfo readStoreData(JsonDataReader reader) {
+        clean();
+        if (reader.readNull()) {
+            return this;
+        }
+        reader.readStartObject();
+        for (var _name = reader.nextName(); _name != null; _name = reader.nextName()) {
+            switch (_name) {
+                case STORE_NAME_NAME -> name = reader.readString();
+                case STORE_NAME_AVATAR -> avatar = reader.readNull() ? null : reader.readString();
+                case STORE_NAME_BIRTHDAY -> birthday = reader.readNull() ? null : DateTimeUtil.toDate(reader.readInt());
+                case STORE_NAME_CREATED_TIME -> createdTime = reader.readLong();
+                case STORE_NAME_LEVEL -> {
+                    if (!reader.readNull()) {
+                        level = reader.readInt();
+                        presentFields |= 0x1L;
+                    }
+                }
+                case STORE_NAME_REGISTERED_DATE -> registeredDate = reader.readInt();
+                case STORE_NAME_DAILY_RESET_TIME -> dailyResetTime = reader.readInt();
+                default -> reader.skipValue();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput out) {
+        out.writeFieldIndex(FIELD_INDEX_NAME).writeString(getName());
+        var _avatar = getAvatar();
+        if (_avatar != null) {
+            out.writeFieldIndex(FIELD_INDEX_AVATAR).writeString(_avatar);
+        }
+        var _birthday = getBirthday();
+        if (_birthday != null) {
+            out.writeFieldIndex(FIELD_INDEX_BIRTHDAY).writeDate(_birthday);
+        }
+        out.writeFieldIndex(FIELD_INDEX_CREATED_TIME).writeLong(getCreatedTimeMillis());
+        if (hasLevel()) {
+            var _level = getLevelAsInt();
+            out.writeFieldIndex(FIELD_INDEX_LEVEL).writeInt(_level);
+        }
+        out.writeFieldIndex(FIELD_INDEX_REGISTERED_DATE).writeInt(getRegisteredDateNumber());
+        out.writeFieldIndex(FIELD_INDEX_DAILY_RESET_TIME).writeInt(getDailyResetTimeNumber());
+        out.writeEndObject();
+    }
+
+    @Override
+    public BasicInfo readSnapshot(SnapshotInput in) {
+        clean();
+        for (var _index = in.nextFieldIndex(); _index >= 0; _index = in.nextFieldIndex()) {
+            switch (_index) {
+                case FIELD_INDEX_NAME -> name = in.readString();
+                case FIELD_INDEX_AVATAR -> avatar = in.readString();
+                case FIELD_INDEX_BIRTHDAY -> birthday = in.readDate();
+                case FIELD_INDEX_CREATED_TIME -> createdTime = in.readLong();
+                case FIELD_INDEX_LEVEL -> {
+                    level = in.readInt();
+                    presentFields |= 0x1L;
+                }
+                case FIELD_INDEX_REGISTERED_DATE -> registeredDate = in.readInt();
+                case FIELD_INDEX_DAILY_RESET_TIME -> dailyResetTime = in.readInt();
+                default -> throw new IllegalStateException("Unknown field index " + _index + " in snapshot of BasicInfo");
+            }
+        }
+        return this;
+    }
+
+    @Override
+    protected void writeChangedFields(SnapshotOutput out) {
+        var changedFields = this.changedFields;
+        if (changedFields.get(FIELD_INDEX_NAME)) {
+            out.writeFieldIndex(FIELD_INDEX_NAME).writeString(getName());
+        }
+        if (changedFields.get(FIELD_INDEX_AVATAR)) {
+            var _avatar = getAvatar();
+            if (_avatar != null) {
+                out.writeFieldIndex(FIELD_INDEX_AVATAR).writeBoolean(true).writeString(_avatar);
+            } else {
+                out.writeFieldIndex(FIELD_INDEX_AVATAR).writeBoolean(false);
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_BIRTHDAY)) {
+            var _birthday = getBirthday();
+            if (_birthday != null) {
+                out.writeFieldIndex(FIELD_INDEX_BIRTHDAY).writeBoolean(true).writeDate(_birthday);
+            } else {
+                out.writeFieldIndex(FIELD_INDEX_BIRTHDAY).writeBoolean(false);
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_CREATED_TIME)) {
+            out.writeFieldIndex(FIELD_INDEX_CREATED_TIME).writeLong(getCreatedTimeMillis());
+        }
+        if (changedFields.get(FIELD_INDEX_LEVEL)) {
+            if (hasLevel()) {
+                var _level = getLevelAsInt();
+                out.writeFieldIndex(FIELD_INDEX_LEVEL).writeBoolean(true).writeInt(_level);
+            } else {
+                out.writeFieldIndex(FIELD_INDEX_LEVEL).writeBoolean(false);
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_REGISTERED_DATE)) {
+            out.writeFieldIndex(FIELD_INDEX_REGISTERED_DATE).writeInt(getRegisteredDateNumber());
+        }
+        if (changedFields.get(FIELD_INDEX_DAILY_RESET_TIME)) {
+            out.writeFieldIndex(FIELD_INDEX_DAILY_RESET_TIME).writeInt(getDailyResetTimeNumber());
+        }
+    }
+
+    @Override
+    protected BasicInfo applyChangedFields(SnapshotInput in) {
+        for (var _index = in.nextFieldIndex(); _index >= 0; _index = in.nextFieldIndex()) {
+            switch (_index) {
+                case FIELD_INDEX_NAME -> setName(in.readString());
+                case FIELD_INDEX_AVATAR -> setAvatar(in.readBoolean() ? in.readString() : null);
+                case FIELD_INDEX_BIRTHDAY -> setBirthday(in.readBoolean() ? in.readDate() : null);
+                case FIELD_INDEX_CREATED_TIME -> setCreatedTimeMillis(in.readLong());
+                case FIELD_INDEX_LEVEL -> setLevel(in.readBoolean() ? in.readInt() : null);
+                case FIELD_INDEX_REGISTERED_DATE -> setRegisteredDateNumber(in.readInt());
+                case FIELD_INDEX_DAILY_RESET_TIME -> setDailyResetTimeNumber(in.readInt());
+                default -> throw new IllegalStateException("Unknown field index " + _index + " in change set of BasicInfo");
+            }
         }
         return this;
     }
@@ -299,6 +804,15 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
         if (changedFields.get(FIELD_INDEX_CREATED_TIME)) {
             return true;
         }
+        if (changedFields.get(FIELD_INDEX_LEVEL) && hasLevel()) {
+            return true;
+        }
+        if (changedFields.get(FIELD_INDEX_REGISTERED_DATE)) {
+            return true;
+        }
+        if (changedFields.get(FIELD_INDEX_DAILY_RESET_TIME)) {
+            return true;
+        }
         return false;
     }
 
@@ -311,6 +825,23 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
         if (changedFields.get(FIELD_INDEX_BIRTHDAY) && getBirthday() == null) {
             data.put(DISPLAY_NAME_BIRTHDAY, BsonModelConstants.DELETED_VALUE);
         }
+        if (changedFields.get(FIELD_INDEX_LEVEL) && !hasLevel()) {
+            data.put(DISPLAY_NAME_LEVEL, BsonModelConstants.DELETED_VALUE);
+        }
+    }
+
+    @Override
+    protected void writeDeletedFields(JsonDataWriter writer) {
+        var changedFields = this.changedFields;
+        if (changedFields.get(FIELD_INDEX_AVATAR) && getAvatar() == null) {
+            writer.writeName(JSON_NAME_AVATAR).writeInt(BsonModelConstants.DELETED_VALUE);
+        }
+        if (changedFields.get(FIELD_INDEX_BIRTHDAY) && getBirthday() == null) {
+            writer.writeName(JSON_NAME_BIRTHDAY).writeInt(BsonModelConstants.DELETED_VALUE);
+        }
+        if (changedFields.get(FIELD_INDEX_LEVEL) && !hasLevel()) {
+            writer.writeName(JSON_NAME_LEVEL).writeInt(BsonModelConstants.DELETED_VALUE);
+        }
     }
 
     @Override
@@ -328,6 +859,9 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
         if (changedFields.get(FIELD_INDEX_BIRTHDAY) && getBirthday() == null) {
             return true;
         }
+        if (changedFields.get(FIELD_INDEX_LEVEL) && !hasLevel()) {
+            return true;
+        }
         return false;
     }
 
@@ -347,9 +881,47 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
         if (changedFields.get(FIELD_INDEX_BIRTHDAY) && getBirthday() == null) {
             __size++;
         }
+        if (changedFields.get(FIELD_INDEX_LEVEL) && !hasLevel()) {
+            __size++;
+        }
         return __size;
     }
 
+    @Override
+    public BasicInfo applyUpdated(Map<?, ?> data) {
+        for (var entry : data.entrySet()) {
+            var value = entry.getValue();
+            switch (String.valueOf(entry.getKey())) {
+                case DISPLAY_NAME_NAME -> setName(DisplayDataUtil.stringValue(value));
+                case DISPLAY_NAME_AVATAR -> setAvatar(DisplayDataUtil.stringValue(value));
+                case DISPLAY_NAME_BIRTHDAY -> setBirthday(DisplayDataUtil.dateValue(value));
+                case DISPLAY_NAME_CREATED_AT -> setCreatedTime(DisplayDataUtil.dateTimeValue(value));
+                case DISPLAY_NAME_LEVEL -> setLevelAsInt(DisplayDataUtil.intValue(value));
+                case DISPLAY_NAME_REGISTERED_DATE -> setRegisteredDate(DisplayDataUtil.dateValue(value));
+                case DISPLAY_NAME_DAILY_RESET_TIME -> setDailyResetTime(DisplayDataUtil.timeValue(value));
+                default -> {
+                    // virtual or unknown fields
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public BasicInfo applyDeleted(Map<?, ?> data) {
+        for (var entry : data.entrySet()) {
+            switch (String.valueOf(entry.getKey())) {
+                case DISPLAY_NAME_AVATAR -> setAvatar(null);
+                case DISPLAY_NAME_BIRTHDAY -> setBirthday(null);
+                case DISPLAY_NAME_LEVEL -> setLevel(null);
+                default -> {
+                    // virtual or unknown fields
+                }
+            }
+        }
+        return this;
+    }
+
     @Override
     public BasicInfo deepCopy() {
         return new BasicInfo().deepCopyFrom(this);
@@ -360,7 +932,11 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
         name = src.getName();
         avatar = src.getAvatar();
         birthday = src.getBirthday();
-        createdTime = src.getCreatedTime();
+        createdTime = src.getCreatedTimeMillis();
+        level = src.getLevelAsInt();
+        registeredDate = src.getRegisteredDateNumber();
+        dailyResetTime = src.getDailyResetTimeNumber();
+        presentFields = src.presentFields;
         return this;
     }
 
@@ -371,6 +947,9 @@ public final class BasicInfo extends AbstractObjectModel<BasicInfo> {
                 ", birthday=" + getBirthday() +
                 ", createdTime=" + getCreatedTime() +
                 ", createdAt=" + getCreatedAt() +
+                ", level=" + getLevel() +
+                ", registeredDate=" + getRegisteredDate() +
+                ", dailyResetTime=" + getDailyResetTime() +
                 ")";
     }
 
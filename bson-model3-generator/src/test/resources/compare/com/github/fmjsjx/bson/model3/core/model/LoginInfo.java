@@ -2,6 +2,8 @@ package com.github.fmjsjx.bson.model3.core.model;
 
 import com.alibaba.fastjson2.annotation.JSONType;
 import com.github.fmjsjx.bson.model3.core.*;
+import com.github.fmjsjx.bson.model3.core.json.*;
+import com.github.fmjsjx.bson.model3.core.snapshot.*;
 import com.github.fmjsjx.bson.model3.core.util.*;
 import com.github.fmjsjx.libcommon.util.DateTimeUtil;
 import com.mongodb.client.model.Updates;
@@ -31,6 +33,22 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
     public static final String DISPLAY_NAME_LAST_LOGIN_IP = "lastLoginIp";
     public static final String DISPLAY_NAME_LAST_LOGIN_LOCATION = "lastLoginLocation";
 
+    public static final JsonFieldName JSON_NAME_COUNT = JsonFieldName.of(DISPLAY_NAME_COUNT);
+    public static final JsonFieldName JSON_NAME_DAYS = JsonFieldName.of(DISPLAY_NAME_DAYS);
+    public static final JsonFieldName JSON_NAME_CONTINUOUS_DAYS = JsonFieldName.of(DISPLAY_NAME_CONTINUOUS_DAYS);
+    public static final JsonFieldName JSON_NAME_MAX_CONTINUOUS_DAYS = JsonFieldName.of(DISPLAY_NAME_MAX_CONTINUOUS_DAYS);
+    public static final JsonFieldName JSON_NAME_LAST_LOGGED_IN_AT = JsonFieldName.of(DISPLAY_NAME_LAST_LOGGED_IN_AT);
+    public static final JsonFieldName JSON_NAME_LAST_LOGIN_IP = JsonFieldName.of(DISPLAY_NAME_LAST_LOGIN_IP);
+    public static final JsonFieldName JSON_NAME_LAST_LOGIN_LOCATION = JsonFieldName.of(DISPLAY_NAME_LAST_LOGIN_LOCATION);
+
+    public static final JsonFieldName JSON_STORE_NAME_COUNT = JsonFieldName.of(STORE_NAME_COUNT);
+    public static final JsonFieldName JSON_STORE_NAME_DAYS = JsonFieldName.of(STORE_NAME_DAYS);
+    public static final JsonFieldName JSON_STORE_NAME_CONTINUOUS_DAYS = JsonFieldName.of(STORE_NAME_CONTINUOUS_DAYS);
+    public static final JsonFieldName JSON_STORE_NAME_MAX_CONTINUOUS_DAYS = JsonFieldName.of(STORE_NAME_MAX_CONTINUOUS_DAYS);
+    public static final JsonFieldName JSON_STORE_NAME_LAST_LOGIN_TIME = JsonFieldName.of(STORE_NAME_LAST_LOGIN_TIME);
+    public static final JsonFieldName JSON_STORE_NAME_LAST_LOGIN_IP = JsonFieldName.of(STORE_NAME_LAST_LOGIN_IP);
+    public static final JsonFieldName JSON_STORE_NAME_LAST_LOGIN_LOCATION = JsonFieldName.of(STORE_NAME_LAST_LOGIN_LOCATION);
+
     public static final int FIELD_INDEX_COUNT = 0;
     public static final int FIELD_INDEX_DAYS = 1;
     public static final int FIELD_INDEX_CONTINUOUS_DAYS = 2;
@@ -40,6 +58,8 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
     public static final int FIELD_INDEX_LAST_LOGIN_IP = 6;
     public static final int FIELD_INDEX_LAST_LOGIN_LOCATION = 7;
 
+    public static final long SNAPSHOT_FINGERPRINT = Snapshots.fingerprint("0:int,1:int,2:int,3:int,4:datetime,6:string,7:object", GeoJsonPoint.SNAPSHOT_FINGERPRINT);
+
     @JSONType(alphabetic = false)
     public static final class LoginInfoStoreData {
         @com.alibaba.fastjson2.annotation.JSONField(name = STORE_NAME_COUNT)
@@ -132,7 +152,7 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
     private int days;
     private int continuousDays;
     private int maxContinuousDays;
-    private LocalDateTime lastLoginTime = BsonModelConstants.EPOCH_DATE_TIME;
+    private long lastLoginTime = BsonModelConstants.EPOCH_DATE_TIME_MILLIS;
     private String lastLoginIp = "";
     private @Nullable GeoJsonPoint lastLoginLocation;
 
@@ -196,18 +216,26 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
     }
 
     public LocalDateTime getLastLoginTime() {
+        return DateTimeUtil.ofEpochMilli(lastLoginTime);
+    }
+
+    public long getLastLoginTimeMillis() {
         return lastLoginTime;
     }
 
     public void setLastLoginTime(LocalDateTime lastLoginTime) {
-        if (!lastLoginTime.equals(this.lastLoginTime)) {
+        setLastLoginTimeMillis(DateTimeUtil.toEpochMilli(lastLoginTime));
+    }
+
+    public void setLastLoginTimeMillis(long lastLoginTime) {
+        if (lastLoginTime != this.lastLoginTime) {
             this.lastLoginTime = lastLoginTime;
             fieldsChanged(FIELD_INDEX_LAST_LOGIN_TIME, FIELD_INDEX_LAST_LOGGED_IN_AT);
         }
     }
 
     public long getLastLoggedInAt() {
-        return DateTimeUtil.toEpochMilli(getLastLoginTime());
+        return getLastLoginTimeMillis();
     }
 
     public String getLastLoginIp() {
@@ -256,7 +284,7 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
         days = 0;
         continuousDays = 0;
         maxContinuousDays = 0;
-        lastLoginTime = BsonModelConstants.EPOCH_DATE_TIME;
+        lastLoginTime = BsonModelConstants.EPOCH_DATE_TIME_MILLIS;
         lastLoginIp = "";
         var _lastLoginLocation = getLastLoginLocation();
         if (_lastLoginLocation != null) {
@@ -285,7 +313,7 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
             updates.add(Updates.set(path().path(STORE_NAME_MAX_CONTINUOUS_DAYS), new BsonInt32(getMaxContinuousDays())));
         }
         if (changedFields.get(FIELD_INDEX_LAST_LOGIN_TIME)) {
-            updates.add(Updates.set(path().path(STORE_NAME_LAST_LOGIN_TIME), BsonValueUtil.toBsonDateTime(getLastLoginTime())));
+            updates.add(Updates.set(path().path(STORE_NAME_LAST_LOGIN_TIME), new BsonDateTime(getLastLoginTimeMillis())));
         }
         if (changedFields.get(FIELD_INDEX_LAST_LOGIN_IP)) {
             updates.add(Updates.set(path().path(STORE_NAME_LAST_LOGIN_IP), new BsonString(getLastLoginIp())));
@@ -335,6 +363,41 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
         }
     }
 
+    @Override
+    protected void writeUpdatedFields(JsonDataWriter writer) {
+        var changedFields = this.changedFields;
+        if (changedFields.isEmpty()) {
+            return;
+        }
+        if (changedFields.get(FIELD_INDEX_COUNT)) {
+            writer.writeName(JSON_NAME_COUNT).writeInt(getCount());
+        }
+        if (changedFields.get(FIELD_INDEX_DAYS)) {
+            writer.writeName(JSON_NAME_DAYS).writeInt(getDays());
+        }
+        if (changedFields.get(FIELD_INDEX_CONTINUOUS_DAYS)) {
+            writer.writeName(JSON_NAME_CONTINUOUS_DAYS).writeInt(getContinuousDays());
+        }
+        if (changedFields.get(FIELD_INDEX_MAX_CONTINUOUS_DAYS)) {
+            writer.writeName(JSON_NAME_MAX_CONTINUOUS_DAYS).writeInt(getMaxContinuousDays());
+        }
+        if (changedFields.get(FIELD_INDEX_LAST_LOGGED_IN_AT)) {
+            writer.writeName(JSON_NAME_LAST_LOGGED_IN_AT).writeLong(getLastLoggedInAt());
+        }
+        if (changedFields.get(FIELD_INDEX_LAST_LOGIN_IP)) {
+            writer.writeName(JSON_NAME_LAST_LOGIN_IP).writeString(getLastLoginIp());
+        }
+        if (changedFields.get(FIELD_INDEX_LAST_LOGIN_LOCATION)) {
+            var _lastLoginLocation = getLastLoginLocation();
+            if (_lastLoginLocation != null) {
+                writer.deferName(JSON_NAME_LAST_LOGIN_LOCATION);
+                if (!_lastLoginLocation.writeUpdated(writer)) {
+                    writer.discardDeferredName();
+                }
+            }
+        }
+    }
+
     @Override
     public Map<String, ?> toDisplayData() {
         var _displayData = new LinkedHashMap<String, Object>();
@@ -351,6 +414,23 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
         return _displayData;
     }
 
+    @Override
+    public void writeDisplayData(JsonDataWriter writer) {
+        writer.writeStartObject();
+        writer.writeName(JSON_NAME_COUNT).writeInt(getCount());
+        writer.writeName(JSON_NAME_DAYS).writeInt(getDays());
+        writer.writeName(JSON_NAME_CONTINUOUS_DAYS).writeInt(getContinuousDays());
+        writer.writeName(JSON_NAME_MAX_CONTINUOUS_DAYS).writeInt(getMaxContinuousDays());
+        writer.writeName(JSON_NAME_LAST_LOGGED_IN_AT).writeLong(getLastLoggedInAt());
+        writer.writeName(JSON_NAME_LAST_LOGIN_IP).writeString(getLastLoginIp());
+        var _lastLoginLocation = getLastLoginLocation();
+        if (_lastLoginLocation != null) {
+            writer.writeName(JSON_NAME_LAST_LOGIN_LOCATION);
+            _lastLoginLocation.writeDisplayData(writer);
+        }
+        writer.writeEndObject();
+    }
+
     @Override
     public BsonDocument toBsonValue() {
         var _bsonValue = new BsonDocument();
@@ -358,7 +438,7 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
         _bsonValue.put(STORE_NAME_DAYS, new BsonInt32(getDays()));
         _bsonValue.put(STORE_NAME_CONTINUOUS_DAYS, new BsonInt32(getContinuousDays()));
         _bsonValue.put(STORE_NAME_MAX_CONTINUOUS_DAYS, new BsonInt32(getMaxContinuousDays()));
-        _bsonValue.put(STORE_NAME_LAST_LOGIN_TIME, BsonValueUtil.toBsonDateTime(getLastLoginTime()));
+        _bsonValue.put(STORE_NAME_LAST_LOGIN_TIME, new BsonDateTime(getLastLoginTimeMillis()));
         _bsonValue.put(STORE_NAME_LAST_LOGIN_IP, new BsonString(getLastLoginIp()));
         var _lastLoginLocation = getLastLoginLocation();
         if (_lastLoginLocation != null) {
@@ -367,6 +447,36 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
         return _bsonValue;
     }
 
+    @Override
+    protected BsonDocument toBsonValue(BitSet fieldIndexes) {
+        var _bsonValue = new BsonDocument();
+        if (fieldIndexes.get(FIELD_INDEX_COUNT)) {
+            _bsonValue.put(STORE_NAME_COUNT, new BsonInt32(getCount()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_DAYS)) {
+            _bsonValue.put(STORE_NAME_DAYS, new BsonInt32(getDays()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_CONTINUOUS_DAYS)) {
+            _bsonValue.put(STORE_NAME_CONTINUOUS_DAYS, new BsonInt32(getContinuousDays()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_MAX_CONTINUOUS_DAYS)) {
+            _bsonValue.put(STORE_NAME_MAX_CONTINUOUS_DAYS, new BsonInt32(getMaxContinuousDays()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_LAST_LOGIN_TIME)) {
+            _bsonValue.put(STORE_NAME_LAST_LOGIN_TIME, new BsonDateTime(getLastLoginTimeMillis()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_LAST_LOGIN_IP)) {
+            _bsonValue.put(STORE_NAME_LAST_LOGIN_IP, new BsonString(getLastLoginIp()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_LAST_LOGIN_LOCATION)) {
+            var _lastLoginLocation = getLastLoginLocation();
+            if (_lastLoginLocation != null) {
+                _bsonValue.put(STORE_NAME_LAST_LOGIN_LOCATION, _lastLoginLocation.toBsonValue());
+            }
+        }
+        return _bsonValue;
+    }
+
     @Override
     public LoginInfo load(BsonDocument src) {
         resetStates();
@@ -374,17 +484,18 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
         days = BsonUtil.intValue(src, STORE_NAME_DAYS).orElse(0);
         continuousDays = BsonUtil.intValue(src, STORE_NAME_CONTINUOUS_DAYS).orElse(0);
         maxContinuousDays = BsonUtil.intValue(src, STORE_NAME_MAX_CONTINUOUS_DAYS).orElse(0);
-        lastLoginTime = BsonUtil.dateTimeValue(src, STORE_NAME_LAST_LOGIN_TIME).orElse(BsonModelConstants.EPOCH_DATE_TIME);
+        lastLoginTime = BsonUtil.epochMilliValue(src, STORE_NAME_LAST_LOGIN_TIME).orElse(BsonModelConstants.EPOCH_DATE_TIME_MILLIS);
         lastLoginIp = BsonUtil.stringValue(src, STORE_NAME_LAST_LOGIN_IP).orElse("");
         BsonUtil.documentValue(src, STORE_NAME_LAST_LOGIN_LOCATION).ifPresentOrElse(
                 it -> {
                     var _lastLoginLocation = this.lastLoginLocation;
                     if (_lastLoginLocation != null) {
-                        _lastLoginLocation.detach();
+                        _lastLoginLocation.load(it);
+                    } else {
+                        this.lastLoginLocation = new GeoJsonPoint()
+                                .parent(this).index(FIELD_INDEX_LAST_LOGIN_LOCATION).key(STORE_NAME_LAST_LOGIN_LOCATION)
+                                .load(it);
                     }
-                    this.lastLoginLocation = new GeoJsonPoint()
-                            .parent(this).index(FIELD_INDEX_LAST_LOGIN_LOCATION).key(STORE_NAME_LAST_LOGIN_LOCATION)
-                            .load(it);
                 },
                 () -> {
                     var _lastLoginLocation = this.lastLoginLocation;
@@ -397,6 +508,71 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
         return this;
     }
 
+    @Override
+    protected void loadFields(BsonDocument src, BitSet fieldIndexes) {
+        if (fieldIndexes.get(FIELD_INDEX_COUNT)) {
+            count = BsonUtil.intValue(src, STORE_NAME_COUNT).orElse(0);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_DAYS)) {
+            days = BsonUtil.intValue(src, STORE_NAME_DAYS).orElse(0);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_CONTINUOUS_DAYS)) {
+            continuousDays = BsonUtil.intValue(src, STORE_NAME_CONTINUOUS_DAYS).orElse(0);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_MAX_CONTINUOUS_DAYS)) {
+            maxContinuousDays = BsonUtil.intValue(src, STORE_NAME_MAX_CONTINUOUS_DAYS).orElse(0);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_LAST_LOGIN_TIME)) {
+            lastLoginTime = BsonUtil.epochMilliValue(src, STORE_NAME_LAST_LOGIN_TIME).orElse(BsonModelConstants.EPOCH_DATE_TIME_MILLIS);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_LAST_LOGIN_IP)) {
+            lastLoginIp = BsonUtil.stringValue(src, STORE_NAME_LAST_LOGIN_IP).orElse("");
+        }
+        if (fieldIndexes.get(FIELD_INDEX_LAST_LOGIN_LOCATION)) {
+            BsonUtil.documentValue(src, STORE_NAME_LAST_LOGIN_LOCATION).ifPresentOrElse(
+                    it -> {
+                        var _lastLoginLocation = this.lastLoginLocation;
+                        if (_lastLoginLocation != null) {
+                            _lastLoginLocation.load(it);
+                        } else {
+                            this.lastLoginLocation = new GeoJsonPoint()
+                                    .parent(this).index(FIELD_INDEX_LAST_LOGIN_LOCATION).key(STORE_NAME_LAST_LOGIN_LOCATION)
+                                    .load(it);
+                        }
+                    },
+                    () -> {
+                        var _lastLoginLocation = this.lastLoginLocation;
+                        if (_lastLoginLocation != null) {
+                            _lastLoginLocation.detach();
+                            this.lastLoginLocation = null;
+                        }
+                    }
+            );
+        }
+    }
+
+    @Override
+    protected int fieldIndex(String storeName) {
+        return switch (storeName) {
+            case STORE_NAME_COUNT -> FIELD_INDEX_COUNT;
+            case STORE_NAME_DAYS -> FIELD_INDEX_DAYS;
+            case STORE_NAME_CONTINUOUS_DAYS -> FIELD_INDEX_CONTINUOUS_DAYS;
+            case STORE_NAME_MAX_CONTINUOUS_DAYS -> FIELD_INDEX_MAX_CONTINUOUS_DAYS;
+            case STORE_NAME_LAST_LOGIN_TIME -> FIELD_INDEX_LAST_LOGIN_TIME;
+            case STORE_NAME_LAST_LOGIN_IP -> FIELD_INDEX_LAST_LOGIN_IP;
+            case STORE_NAME_LAST_LOGIN_LOCATION -> FIELD_INDEX_LAST_LOGIN_LOCATION;
+            default -> -1;
+        };
+    }
+
+    @Override
+    protected @Nullable BsonModel<?, ?> fieldModel(int fieldIndex) {
+        return switch (fieldIndex) {
+            case FIELD_INDEX_LAST_LOGIN_LOCATION -> getLastLoginLocation();
+            default -> null;
+        };
+    }
+
     @Override
     public LoginInfoStoreData toStoreData() {
         var _storeData = new LoginInfoStoreData();
@@ -404,7 +580,7 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
         _storeData.days = getDays();
         _storeData.continuousDays = getContinuousDays();
         _storeData.maxContinuousDays = getMaxContinuousDays();
-        _storeData.lastLoginTime = DateTimeUtil.toEpochMilli(getLastLoginTime());
+        _storeData.lastLoginTime = getLastLoginTimeMillis();
         _storeData.lastLoginIp = getLastLoginIp();
         var _lastLoginLocation = getLastLoginLocation();
         if (_lastLoginLocation != null) {
@@ -413,6 +589,23 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
         return _storeData;
     }
 
+    @Override
+    public void writeStoreData(JsonDataWriter writer) {
+        writer.writeStartObject();
+        writer.writeName(JSON_STORE_NAME_COUNT).writeInt(getCount());
+        writer.writeName(JSON_STORE_NAME_DAYS).writeInt(getDays());
+        writer.writeName(JSON_STORE_NAME_CONTINUOUS_DAYS).writeInt(getContinuousDays());
+        writer.writeName(JSON_STORE_NAME_MAX_CONTINUOUS_DAYS).writeInt(getMaxContinuousDays());
+        writer.writeName(JSON_STORE_NAME_LAST_LOGIN_TIME).writeLong(getLastLoginTimeMillis());
+        writer.writeName(JSON_STORE_NAME_LAST_LOGIN_IP).writeString(getLastLoginIp());
+        var _lastLoginLocation = getLastLoginLocation();
+        if (_lastLoginLocation != null) {
+            writer.writeName(JSON_STORE_NAME_LAST_LOGIN_LOCATION);
+            _lastLoginLocation.writeStoreData(writer);
+        }
+        writer.writeEndObject();
+    }
+
     @Override
     public LoginInfo loadStoreData(Object data) {
         resetStates();
@@ -421,12 +614,150 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
             days = _storeData.days;
             continuousDays = _storeData.continuousDays;
             maxContinuousDays = _storeData.maxContinuousDays;
-            lastLoginTime = DateTimeUtil.ofEpochMilli(_storeData.lastLoginTime);
+            lastLoginTime = _storeData.lastLoginTime;
             lastLoginIp = _storeData.lastLoginIp;
             var _lastLoginLocation = _storeData.lastLoginLocation;
             if (_lastLoginLocation != null) {
-                lastLoginLocation = new GeoJsonPoint()
-                        .parent(this).index(FIELD_INDEX_LAST_LOGIN_LOCATION).key(STORE_NAME_LAST_LOGIN_LOCATION).loadStoreData(_lastLoginLocation);
+                if (lastLoginLocation != null) {
+                    lastLoginLocation.loadStoreData(_lastLoginLocation);
+                } else {
+                    lastLoginLocation = new GeoJsonPoint()
+                            .parent(this).index(FIELD_INDEX_LAST_LOGIN_LOCATION).key(STORE_NAME_LAST_LOGIN_LOCATION).loadStoreData(_lastLoginLocation);
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public LoginInfo readStoreData(JsonDataReader reader) {
+        clean();
+        if (reader.readNull()) {
+            return this;
+        }
+        reader.readStartObject();
+        for (var _name = reader.nextName(); _name != null; _name = reader.nextName()) {
+            switch (_name) {
+                case STORE_NAME_COUNT -> count = reader.readInt();
+                case STORE_NAME_DAYS -> days = reader.readInt();
+                case STORE_NAME_CONTINUOUS_DAYS -> continuousDays = reader.readInt();
+                case STORE_NAME_MAX_CONTINUOUS_DAYS -> maxContinuousDays = reader.readInt();
+                case STORE_NAME_LAST_LOGIN_TIME -> lastLoginTime = reader.readLong();
+                case STORE_NAME_LAST_LOGIN_IP -> lastLoginIp = reader.readString();
+                case STORE_NAME_LAST_LOGIN_LOCATION -> {
+                    if (!reader.readNull()) {
+                        lastLoginLocation = new GeoJsonPoint()
+                                .parent(this).index(FIELD_INDEX_LAST_LOGIN_LOCATION).key(STORE_NAME_LAST_LOGIN_LOCATION).readStoreData(reader);
+                    }
+                }
+                default -> reader.skipValue();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput out) {
+        var _count = getCount();
+        if (_count != 0) {
+            out.writeFieldIndex(FIELD_INDEX_COUNT).writeInt(_count);
+        }
+        var _days = getDays();
+        if (_days != 0) {
+            out.writeFieldIndex(FIELD_INDEX_DAYS).writeInt(_days);
+        }
+        var _continuousDays = getContinuousDays();
+        if (_continuousDays != 0) {
+            out.writeFieldIndex(FIELD_INDEX_CONTINUOUS_DAYS).writeInt(_continuousDays);
+        }
+        var _maxContinuousDays = getMaxContinuousDays();
+        if (_maxContinuousDays != 0) {
+            out.writeFieldIndex(FIELD_INDEX_MAX_CONTINUOUS_DAYS).writeInt(_maxContinuousDays);
+        }
+        out.writeFieldIndex(FIELD_INDEX_LAST_LOGIN_TIME).writeLong(getLastLoginTimeMillis());
+        out.writeFieldIndex(FIELD_INDEX_LAST_LOGIN_IP).writeString(getLastLoginIp());
+        var _lastLoginLocation = getLastLoginLocation();
+        if (_lastLoginLocation != null) {
+            out.writeFieldIndex(FIELD_INDEX_LAST_LOGIN_LOCATION);
+            _lastLoginLocation.writeSnapshot(out);
+        }
+        out.writeEndObject();
+    }
+
+    @Override
+    public LoginInfo readSnapshot(SnapshotInput in) {
+        clean();
+        for (var _index = in.nextFieldIndex(); _index >= 0; _index = in.nextFieldIndex()) {
+            switch (_index) {
+                case FIELD_INDEX_COUNT -> count = in.readInt();
+                case FIELD_INDEX_DAYS -> days = in.readInt();
+                case FIELD_INDEX_CONTINUOUS_DAYS -> continuousDays = in.readInt();
+                case FIELD_INDEX_MAX_CONTINUOUS_DAYS -> maxContinuousDays = in.readInt();
+                case FIELD_INDEX_LAST_LOGIN_TIME -> lastLoginTime = in.readLong();
+                case FIELD_INDEX_LAST_LOGIN_IP -> lastLoginIp = in.readString();
+                case FIELD_INDEX_LAST_LOGIN_LOCATION -> lastLoginLocation = new GeoJsonPoint()
+                        .parent(this).index(FIELD_INDEX_LAST_LOGIN_LOCATION).key(STORE_NAME_LAST_LOGIN_LOCATION).readSnapshot(in);
+                default -> throw new IllegalStateException("Unknown field index " + _index + " in snapshot of LoginInfo");
+            }
+        }
+        return this;
+    }
+
+    @Override
+    protected void writeChangedFields(SnapshotOutput out) {
+        var changedFields = this.changedFields;
+        if (changedFields.get(FIELD_INDEX_COUNT)) {
+            out.writeFieldIndex(FIELD_INDEX_COUNT).writeInt(getCount());
+        }
+        if (changedFields.get(FIELD_INDEX_DAYS)) {
+            out.writeFieldIndex(FIELD_INDEX_DAYS).writeInt(getDays());
+        }
+        if (changedFields.get(FIELD_INDEX_CONTINUOUS_DAYS)) {
+            out.writeFieldIndex(FIELD_INDEX_CONTINUOUS_DAYS).writeInt(getContinuousDays());
+        }
+        if (changedFields.get(FIELD_INDEX_MAX_CONTINUOUS_DAYS)) {
+            out.writeFieldIndex(FIELD_INDEX_MAX_CONTINUOUS_DAYS).writeInt(getMaxContinuousDays());
+        }
+        if (changedFields.get(FIELD_INDEX_LAST_LOGIN_TIME)) {
+            out.writeFieldIndex(FIELD_INDEX_LAST_LOGIN_TIME).writeLong(getLastLoginTimeMillis());
+        }
+        if (changedFields.get(FIELD_INDEX_LAST_LOGIN_IP)) {
+            out.writeFieldIndex(FIELD_INDEX_LAST_LOGIN_IP).writeString(getLastLoginIp());
+        }
+        if (changedFields.get(FIELD_INDEX_LAST_LOGIN_LOCATION)) {
+            var _lastLoginLocation = getLastLoginLocation();
+            if (_lastLoginLocation != null) {
+                out.writeFieldIndex(FIELD_INDEX_LAST_LOGIN_LOCATION).writeBoolean(true);
+                _lastLoginLocation.writeChanges(out);
+            } else {
+                out.writeFieldIndex(FIELD_INDEX_LAST_LOGIN_LOCATION).writeBoolean(false);
+            }
+        }
+    }
+
+    @Override
+    protected LoginInfo applyChangedFields(SnapshotInput in) {
+        for (var _index = in.nextFieldIndex(); _index >= 0; _index = in.nextFieldIndex()) {
+            switch (_index) {
+                case FIELD_INDEX_COUNT -> setCount(in.readInt());
+                case FIELD_INDEX_DAYS -> setDays(in.readInt());
+                case FIELD_INDEX_CONTINUOUS_DAYS -> setContinuousDays(in.readInt());
+                case FIELD_INDEX_MAX_CONTINUOUS_DAYS -> setMaxContinuousDays(in.readInt());
+                case FIELD_INDEX_LAST_LOGIN_TIME -> setLastLoginTimeMillis(in.readLong());
+                case FIELD_INDEX_LAST_LOGIN_IP -> setLastLoginIp(in.readString());
+                case FIELD_INDEX_LAST_LOGIN_LOCATION -> {
+                    if (in.readBoolean()) {
+                        var _lastLoginLocation = getLastLoginLocation();
+                        if (_lastLoginLocation == null) {
+                            setLastLoginLocation(new GeoJsonPoint().applyChanges(in));
+                        } else {
+                            _lastLoginLocation.applyChanges(in);
+                        }
+                    } else {
+                        setLastLoginLocation(null);
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown field index " + _index + " in change set of LoginInfo");
             }
         }
         return this;
@@ -482,6 +813,22 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
         }
     }
 
+    @Override
+    protected void writeDeletedFields(JsonDataWriter writer) {
+        var changedFields = this.changedFields;
+        if (changedFields.get(FIELD_INDEX_LAST_LOGIN_LOCATION)) {
+            var _lastLoginLocation = getLastLoginLocation();
+            if (_lastLoginLocation == null) {
+                writer.writeName(JSON_NAME_LAST_LOGIN_LOCATION).writeInt(BsonModelConstants.DELETED_VALUE);
+            } else {
+                writer.deferName(JSON_NAME_LAST_LOGIN_LOCATION);
+                if (!_lastLoginLocation.writeDeleted(writer)) {
+                    writer.discardDeferredName();
+                }
+            }
+        }
+    }
+
     @Override
     public boolean anyDeleted() {
         if (isFullUpdate()) {
@@ -521,6 +868,55 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
         return __size;
     }
 
+    @Override
+    public LoginInfo applyUpdated(Map<?, ?> data) {
+        for (var entry : data.entrySet()) {
+            var value = entry.getValue();
+            switch (String.valueOf(entry.getKey())) {
+                case DISPLAY_NAME_COUNT -> setCount(DisplayDataUtil.intValue(value));
+                case DISPLAY_NAME_DAYS -> setDays(DisplayDataUtil.intValue(value));
+                case DISPLAY_NAME_CONTINUOUS_DAYS -> setContinuousDays(DisplayDataUtil.intValue(value));
+                case DISPLAY_NAME_MAX_CONTINUOUS_DAYS -> setMaxContinuousDays(DisplayDataUtil.intValue(value));
+                case DISPLAY_NAME_LAST_LOGGED_IN_AT -> setLastLoginTime(DisplayDataUtil.dateTimeValue(value));
+                case DISPLAY_NAME_LAST_LOGIN_IP -> setLastLoginIp(DisplayDataUtil.stringValue(value));
+                case DISPLAY_NAME_LAST_LOGIN_LOCATION -> {
+                    var _lastLoginLocation = getLastLoginLocation();
+                    if (_lastLoginLocation == null) {
+                        setLastLoginLocation(new GeoJsonPoint().applyUpdated(DisplayDataUtil.mapValue(value)));
+                    } else {
+                        _lastLoginLocation.applyUpdated(DisplayDataUtil.mapValue(value));
+                    }
+                }
+                default -> {
+                    // virtual or unknown fields
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public LoginInfo applyDeleted(Map<?, ?> data) {
+        for (var entry : data.entrySet()) {
+            switch (String.valueOf(entry.getKey())) {
+                case DISPLAY_NAME_LAST_LOGIN_LOCATION -> {
+                    if (entry.getValue() instanceof Map<?, ?> _lastLoginLocationDeleted) {
+                        var _lastLoginLocation = getLastLoginLocation();
+                        if (_lastLoginLocation != null) {
+                            _lastLoginLocation.applyDeleted(_lastLoginLocationDeleted);
+                        }
+                    } else {
+                        setLastLoginLocation(null);
+                    }
+                }
+                default -> {
+                    // virtual or unknown fields
+                }
+            }
+        }
+        return this;
+    }
+
     @Override
     public LoginInfo deepCopy() {
         return new LoginInfo().deepCopyFrom(this);
@@ -532,7 +928,7 @@ public final class LoginInfo extends AbstractObjectModel<LoginInfo> {
         days = src.getDays();
         continuousDays = src.getContinuousDays();
         maxContinuousDays = src.getMaxContinuousDays();
-        lastLoginTime = src.getLastLoginTime();
+        lastLoginTime = src.getLastLoginTimeMillis();
         lastLoginIp = src.getLastLoginIp();
         var _lastLoginLocation = getLastLoginLocation();
         if (_lastLoginLocation != null) {
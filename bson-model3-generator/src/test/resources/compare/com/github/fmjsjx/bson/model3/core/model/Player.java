@@ -2,6 +2,8 @@ package com.github.fmjsjx.bson.model3.core.model;
 
 import com.alibaba.fastjson2.annotation.JSONType;
 import com.github.fmjsjx.bson.model3.core.*;
+import com.github.fmjsjx.bson.model3.core.json.*;
+import com.github.fmjsjx.bson.model3.core.snapshot.*;
 import com.github.fmjsjx.bson.model3.core.util.*;
 import com.github.fmjsjx.libcommon.util.DateTimeUtil;
 import com.mongodb.client.model.Updates;
@@ -41,6 +43,26 @@ public final class Player extends AbstractRootModel<Player> {
     public static final String DISPLAY_NAME_UPDATED_AT = "updatedAt";
     public static final String DISPLAY_NAME_FRIENDS = "friends";
 
+    public static final JsonFieldName JSON_NAME_ID = JsonFieldName.of(DISPLAY_NAME_ID);
+    public static final JsonFieldName JSON_NAME_BASIC_INFO = JsonFieldName.of(DISPLAY_NAME_BASIC_INFO);
+    public static final JsonFieldName JSON_NAME_PREFERENCES = JsonFieldName.of(DISPLAY_NAME_PREFERENCES);
+    public static final JsonFieldName JSON_NAME_LOGIN = JsonFieldName.of(DISPLAY_NAME_LOGIN);
+    public static final JsonFieldName JSON_NAME_WALLET = JsonFieldName.of(DISPLAY_NAME_WALLET);
+    public static final JsonFieldName JSON_NAME_EQUIPMENTS = JsonFieldName.of(DISPLAY_NAME_EQUIPMENTS);
+    public static final JsonFieldName JSON_NAME_ITEMS = JsonFieldName.of(DISPLAY_NAME_ITEMS);
+    public static final JsonFieldName JSON_NAME_UPDATED_AT = JsonFieldName.of(DISPLAY_NAME_UPDATED_AT);
+    public static final JsonFieldName JSON_NAME_FRIENDS = JsonFieldName.of(DISPLAY_NAME_FRIENDS);
+
+    public static final JsonFieldName JSON_STORE_NAME_ID = JsonFieldName.of(STORE_NAME_ID);
+    public static final JsonFieldName JSON_STORE_NAME_BASIC_INFO = JsonFieldName.of(STORE_NAME_BASIC_INFO);
+    public static final JsonFieldName JSON_STORE_NAME_PREFERENCES = JsonFieldName.of(STORE_NAME_PREFERENCES);
+    public static final JsonFieldName JSON_STORE_NAME_LOGIN = JsonFieldName.of(STORE_NAME_LOGIN);
+    public static final JsonFieldName JSON_STORE_NAME_WALLET = JsonFieldName.of(STORE_NAME_WALLET);
+    public static final JsonFieldName JSON_STORE_NAME_EQUIPMENTS = JsonFieldName.of(STORE_NAME_EQUIPMENTS);
+    public static final JsonFieldName JSON_STORE_NAME_ITEMS = JsonFieldName.of(STORE_NAME_ITEMS);
+    public static final JsonFieldName JSON_STORE_NAME_UPDATED_VERSION = JsonFieldName.of(STORE_NAME_UPDATED_VERSION);
+    public static final JsonFieldName JSON_STORE_NAME_UPDATED_TIME = JsonFieldName.of(STORE_NAME_UPDATED_TIME);
+
     public static final int FIELD_INDEX_ID = 0;
     public static final int FIELD_INDEX_BASIC_INFO = 1;
     public static final int FIELD_INDEX_PREFERENCES = 2;
@@ -53,6 +75,8 @@ public final class Player extends AbstractRootModel<Player> {
     public static final int FIELD_INDEX_UPDATED_AT = 9;
     public static final int FIELD_INDEX_FRIENDS = 10;
 
+    public static final long SNAPSHOT_FINGERPRINT = Snapshots.fingerprint("0:long,1:object,2:object,3:object,4:object,5:map<string,object>,6:map<int,int>,7:int,8:datetime", BasicInfo.SNAPSHOT_FINGERPRINT, Preferences.SNAPSHOT_FINGERPRINT, LoginInfo.SNAPSHOT_FINGERPRINT, Wallet.SNAPSHOT_FINGERPRINT, Equipment.SNAPSHOT_FINGERPRINT);
+
     @JSONType(alphabetic = false)
     public static final class PlayerStoreData {
         @com.alibaba.fastjson2.annotation.JSONField(name = STORE_NAME_ID)
@@ -174,9 +198,8 @@ public final class Player extends AbstractRootModel<Player> {
             .parent(this).index(FIELD_INDEX_LOGIN).key(STORE_NAME_LOGIN);
     private final Wallet wallet = new Wallet()
             .parent(this).index(FIELD_INDEX_WALLET).key(STORE_NAME_WALLET);
-    private final DefaultMapModel<String, Equipment> equipments = DefaultMapModel.stringKeysMap(Equipment::new)
-            .parent(this).index(FIELD_INDEX_EQUIPMENTS).key(STORE_NAME_EQUIPMENTS);
-    private final SingleValueMapModel<Integer, Integer> items = SingleValueMapModel.integerKeysMap(SingleValues.integer())
+    private @Nullable DefaultMapModel<String, Equipment> equipments;
+    private final SingleValueMapModel<Integer, Integer> items = SingleValueMapModel.sortedIntegerKeysMap(SingleValues.integer())
             .parent(this).index(FIELD_INDEX_ITEMS).key(STORE_NAME_ITEMS);
     private int updatedVersion;
     private @Nullable LocalDateTime updatedTime;
@@ -210,6 +233,11 @@ public final class Player extends AbstractRootModel<Player> {
     }
 
     public DefaultMapModel<String, Equipment> getEquipments() {
+        var equipments = this.equipments;
+        if (equipments == null) {
+            this.equipments = equipments = DefaultMapModel.stringKeysMap(Equipment::new)
+                    .parent(this).index(FIELD_INDEX_EQUIPMENTS).key(STORE_NAME_EQUIPMENTS);
+        }
         return equipments;
     }
 
@@ -228,11 +256,6 @@ public final class Player extends AbstractRootModel<Player> {
         }
     }
 
-    public int increaseUpdatedVersion() {
-        triggerChange(FIELD_INDEX_UPDATED_VERSION);
-        return ++updatedVersion;
-    }
-
     public @Nullable LocalDateTime getUpdatedTime() {
         return updatedTime;
     }
@@ -262,13 +285,26 @@ public final class Player extends AbstractRootModel<Player> {
         return PlayerStoreData.class;
     }
 
+    @Override
+    protected long snapshotFingerprint() {
+        return SNAPSHOT_FINGERPRINT;
+    }
+
+    @Override
+    protected int versionFieldIndex() {
+        return FIELD_INDEX_UPDATED_VERSION;
+    }
+
     @Override
     protected Player resetChildren() {
         getBasicInfo().reset();
         getPreferences().reset();
         getLogin().reset();
         getWallet().reset();
-        getEquipments().reset();
+        var _equipments = equipments;
+        if (_equipments != null) {
+            _equipments.reset();
+        }
         getItems().reset();
         return this;
     }
@@ -280,7 +316,10 @@ public final class Player extends AbstractRootModel<Player> {
         getPreferences().clean();
         getLogin().clean();
         getWallet().clean();
-        getEquipments().clean();
+        var _equipments = equipments;
+        if (_equipments != null) {
+            _equipments.clean();
+        }
         getItems().clean();
         updatedVersion = 0;
         updatedTime = null;
@@ -381,6 +420,59 @@ public final class Player extends AbstractRootModel<Player> {
         }
     }
 
+    @Override
+    protected void writeUpdatedFields(JsonDataWriter writer) {
+        var changedFields = this.changedFields;
+        if (changedFields.isEmpty()) {
+            return;
+        }
+        if (changedFields.get(FIELD_INDEX_ID)) {
+            writer.writeName(JSON_NAME_ID).writeLong(getId());
+        }
+        if (changedFields.get(FIELD_INDEX_BASIC_INFO)) {
+            writer.deferName(JSON_NAME_BASIC_INFO);
+            if (!getBasicInfo().writeUpdated(writer)) {
+                writer.discardDeferredName();
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_PREFERENCES)) {
+            writer.deferName(JSON_NAME_PREFERENCES);
+            if (!getPreferences().writeUpdated(writer)) {
+                writer.discardDeferredName();
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_LOGIN)) {
+            writer.deferName(JSON_NAME_LOGIN);
+            if (!getLogin().writeUpdated(writer)) {
+                writer.discardDeferredName();
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_WALLET)) {
+            writer.deferName(JSON_NAME_WALLET);
+            if (!getWallet().writeUpdated(writer)) {
+                writer.discardDeferredName();
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_EQUIPMENTS)) {
+            writer.deferName(JSON_NAME_EQUIPMENTS);
+            if (!getEquipments().writeUpdated(writer)) {
+                writer.discardDeferredName();
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_ITEMS)) {
+            writer.deferName(JSON_NAME_ITEMS);
+            if (!getItems().writeUpdated(writer)) {
+                writer.discardDeferredName();
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_UPDATED_AT)) {
+            var _updatedAt = getUpdatedAt();
+            if (_updatedAt != null) {
+                writer.writeName(JSON_NAME_UPDATED_AT).writeLong(_updatedAt);
+            }
+        }
+    }
+
     @Override
     public Map<String, ?> toDisplayData() {
         var _displayData = new LinkedHashMap<String, Object>();
@@ -389,7 +481,7 @@ public final class Player extends AbstractRootModel<Player> {
         _displayData.put(DISPLAY_NAME_PREFERENCES, getPreferences().toDisplayData());
         _displayData.put(DISPLAY_NAME_LOGIN, getLogin().toDisplayData());
         _displayData.put(DISPLAY_NAME_WALLET, getWallet().toDisplayData());
-        _displayData.put(DISPLAY_NAME_EQUIPMENTS, getEquipments().toDisplayData());
+        _displayData.put(DISPLAY_NAME_EQUIPMENTS, equipments == null ? Map.of() : equipments.toDisplayData());
         _displayData.put(DISPLAY_NAME_ITEMS, getItems().toDisplayData());
         var _updatedAt = getUpdatedAt();
         if (_updatedAt != null) {
@@ -402,15 +494,48 @@ public final class Player extends AbstractRootModel<Player> {
         return _displayData;
     }
 
+    @Override
+    public void writeDisplayData(JsonDataWriter writer) {
+        writer.writeStartObject();
+        writer.writeName(JSON_NAME_ID).writeLong(getId());
+        writer.writeName(JSON_NAME_BASIC_INFO);
+        getBasicInfo().writeDisplayData(writer);
+        writer.writeName(JSON_NAME_PREFERENCES);
+        getPreferences().writeDisplayData(writer);
+        writer.writeName(JSON_NAME_LOGIN);
+        getLogin().writeDisplayData(writer);
+        writer.writeName(JSON_NAME_WALLET);
+        getWallet().writeDisplayData(writer);
+        writer.writeName(JSON_NAME_EQUIPMENTS);
+        var _equipments = equipments;
+        if (_equipments == null) {
+            writer.writeStartObject().writeEndObject();
+        } else {
+            _equipments.writeDisplayData(writer);
+        }
+        writer.writeName(JSON_NAME_ITEMS);
+        getItems().writeDisplayData(writer);
+        var _updatedAt = getUpdatedAt();
+        if (_updatedAt != null) {
+            writer.writeName(JSON_NAME_UPDATED_AT).writeLong(_updatedAt);
+        }
+        var _friends = getFriends();
+        if (_friends != null) {
+            writer.writeName(JSON_NAME_FRIENDS).writeArray(_friends);
+        }
+        writer.writeEndObject();
+    }
+
     @Override
     public BsonDocument toBsonValue() {
+        checkComplete();
         var _bsonValue = new BsonDocument();
         _bsonValue.put(STORE_NAME_ID, new BsonInt64(getId()));
         _bsonValue.put(STORE_NAME_BASIC_INFO, getBasicInfo().toBsonValue());
         _bsonValue.put(STORE_NAME_PREFERENCES, getPreferences().toBsonValue());
         _bsonValue.put(STORE_NAME_LOGIN, getLogin().toBsonValue());
         _bsonValue.put(STORE_NAME_WALLET, getWallet().toBsonValue());
-        _bsonValue.put(STORE_NAME_EQUIPMENTS, getEquipments().toBsonValue());
+        _bsonValue.put(STORE_NAME_EQUIPMENTS, equipments == null ? new BsonDocument() : equipments.toBsonValue());
         _bsonValue.put(STORE_NAME_ITEMS, getItems().toBsonValue());
         _bsonValue.put(STORE_NAME_UPDATED_VERSION, new BsonInt32(getUpdatedVersion()));
         var _updatedTime = getUpdatedTime();
@@ -420,6 +545,42 @@ public final class Player extends AbstractRootModel<Player> {
         return _bsonValue;
     }
 
+    @Override
+    protected BsonDocument toBsonValue(BitSet fieldIndexes) {
+        var _bsonValue = new BsonDocument();
+        if (fieldIndexes.get(FIELD_INDEX_ID)) {
+            _bsonValue.put(STORE_NAME_ID, new BsonInt64(getId()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_BASIC_INFO)) {
+            _bsonValue.put(STORE_NAME_BASIC_INFO, getBasicInfo().toBsonValue());
+        }
+        if (fieldIndexes.get(FIELD_INDEX_PREFERENCES)) {
+            _bsonValue.put(STORE_NAME_PREFERENCES, getPreferences().toBsonValue());
+        }
+        if (fieldIndexes.get(FIELD_INDEX_LOGIN)) {
+            _bsonValue.put(STORE_NAME_LOGIN, getLogin().toBsonValue());
+        }
+        if (fieldIndexes.get(FIELD_INDEX_WALLET)) {
+            _bsonValue.put(STORE_NAME_WALLET, getWallet().toBsonValue());
+        }
+        if (fieldIndexes.get(FIELD_INDEX_EQUIPMENTS)) {
+            _bsonValue.put(STORE_NAME_EQUIPMENTS, equipments == null ? new BsonDocument() : equipments.toBsonValue());
+        }
+        if (fieldIndexes.get(FIELD_INDEX_ITEMS)) {
+            _bsonValue.put(STORE_NAME_ITEMS, getItems().toBsonValue());
+        }
+        if (fieldIndexes.get(FIELD_INDEX_UPDATED_VERSION)) {
+            _bsonValue.put(STORE_NAME_UPDATED_VERSION, new BsonInt32(getUpdatedVersion()));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_UPDATED_TIME)) {
+            var _updatedTime = getUpdatedTime();
+            if (_updatedTime != null) {
+                _bsonValue.put(STORE_NAME_UPDATED_TIME, BsonValueUtil.toBsonDateTime(_updatedTime));
+            }
+        }
+        return _bsonValue;
+    }
+
     @Override
     public Player load(BsonDocument src) {
         resetStates();
@@ -428,7 +589,15 @@ public final class Player extends AbstractRootModel<Player> {
         BsonUtil.documentValue(src, STORE_NAME_PREFERENCES).ifPresentOrElse(getPreferences()::load, getPreferences()::clean);
         BsonUtil.documentValue(src, STORE_NAME_LOGIN).ifPresentOrElse(getLogin()::load, getLogin()::clean);
         BsonUtil.documentValue(src, STORE_NAME_WALLET).ifPresentOrElse(getWallet()::load, getWallet()::clean);
-        BsonUtil.documentValue(src, STORE_NAME_EQUIPMENTS).ifPresentOrElse(getEquipments()::load, getEquipments()::clean);
+        BsonUtil.documentValue(src, STORE_NAME_EQUIPMENTS).filter(it -> !it.isEmpty()).ifPresentOrElse(
+                it -> getEquipments().load(it),
+                () -> {
+                    var _equipments = this.equipments;
+                    if (_equipments != null) {
+                        _equipments.clean();
+                    }
+                }
+        );
         BsonUtil.documentValue(src, STORE_NAME_ITEMS).ifPresentOrElse(getItems()::load, getItems()::clean);
         updatedVersion = BsonUtil.intValue(src, STORE_NAME_UPDATED_VERSION).orElse(0);
         updatedTime = BsonUtil.dateTimeValue(src, STORE_NAME_UPDATED_TIME).orElse(null);
@@ -436,16 +605,123 @@ public final class Player extends AbstractRootModel<Player> {
         return this;
     }
 
+    public static BsonDocument projection(int... fieldIndexes) {
+        var projection = new BsonDocument();
+        for (var fieldIndex : fieldIndexes) {
+            projection.append(projectionName(fieldIndex), new BsonInt32(1));
+        }
+        return projection;
+    }
+
+    private static String projectionName(int fieldIndex) {
+        return switch (fieldIndex) {
+            case FIELD_INDEX_ID -> STORE_NAME_ID;
+            case FIELD_INDEX_BASIC_INFO -> STORE_NAME_BASIC_INFO;
+            case FIELD_INDEX_PREFERENCES -> STORE_NAME_PREFERENCES;
+            case FIELD_INDEX_LOGIN -> STORE_NAME_LOGIN;
+            case FIELD_INDEX_WALLET -> STORE_NAME_WALLET;
+            case FIELD_INDEX_EQUIPMENTS -> STORE_NAME_EQUIPMENTS;
+            case FIELD_INDEX_ITEMS -> STORE_NAME_ITEMS;
+            case FIELD_INDEX_UPDATED_VERSION -> STORE_NAME_UPDATED_VERSION;
+            case FIELD_INDEX_UPDATED_TIME -> STORE_NAME_UPDATED_TIME;
+            case FIELD_INDEX_FRIENDS -> STORE_NAME_FRIENDS;
+            default -> throw new IllegalArgumentException("Unknown projection field index: " + fieldIndex);
+        };
+    }
+
+    @Override
+    protected BsonDocument toProjection(int... fieldIndexes) {
+        return projection(fieldIndexes);
+    }
+
+    @Override
+    protected int[] projectionFieldIndexes() {
+        return new int[]{FIELD_INDEX_ID, FIELD_INDEX_BASIC_INFO, FIELD_INDEX_PREFERENCES, FIELD_INDEX_LOGIN, FIELD_INDEX_WALLET, FIELD_INDEX_EQUIPMENTS, FIELD_INDEX_ITEMS, FIELD_INDEX_UPDATED_VERSION, FIELD_INDEX_UPDATED_TIME, FIELD_INDEX_FRIENDS};
+    }
+
+    @Override
+    protected void loadFields(BsonDocument src, BitSet fieldIndexes) {
+        if (fieldIndexes.get(FIELD_INDEX_ID)) {
+            id = BsonUtil.longValue(src, STORE_NAME_ID).orElse(0L);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_BASIC_INFO)) {
+            BsonUtil.documentValue(src, STORE_NAME_BASIC_INFO).ifPresentOrElse(getBasicInfo()::load, getBasicInfo()::clean);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_PREFERENCES)) {
+            BsonUtil.documentValue(src, STORE_NAME_PREFERENCES).ifPresentOrElse(getPreferences()::load, getPreferences()::clean);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_LOGIN)) {
+            BsonUtil.documentValue(src, STORE_NAME_LOGIN).ifPresentOrElse(getLogin()::load, getLogin()::clean);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_WALLET)) {
+            BsonUtil.documentValue(src, STORE_NAME_WALLET).ifPresentOrElse(getWallet()::load, getWallet()::clean);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_EQUIPMENTS)) {
+            BsonUtil.documentValue(src, STORE_NAME_EQUIPMENTS).filter(it -> !it.isEmpty()).ifPresentOrElse(
+                    it -> getEquipments().load(it),
+                    () -> {
+                        var _equipments = this.equipments;
+                        if (_equipments != null) {
+                            _equipments.clean();
+                        }
+                    }
+            );
+        }
+        if (fieldIndexes.get(FIELD_INDEX_ITEMS)) {
+            BsonUtil.documentValue(src, STORE_NAME_ITEMS).ifPresentOrElse(getItems()::load, getItems()::clean);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_UPDATED_VERSION)) {
+            updatedVersion = BsonUtil.intValue(src, STORE_NAME_UPDATED_VERSION).orElse(0);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_UPDATED_TIME)) {
+            updatedTime = BsonUtil.dateTimeValue(src, STORE_NAME_UPDATED_TIME).orElse(null);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_FRIENDS)) {
+            friends = BsonUtil.arrayValue(src, STORE_NAME_FRIENDS).map(it -> BsonValueUtil.mapToObjectList(it, (bson) -> new Player().load(bson))).orElse(null);
+        }
+    }
+
+    @Override
+    protected int fieldIndex(String storeName) {
+        return switch (storeName) {
+            case STORE_NAME_ID -> FIELD_INDEX_ID;
+            case STORE_NAME_BASIC_INFO -> FIELD_INDEX_BASIC_INFO;
+            case STORE_NAME_PREFERENCES -> FIELD_INDEX_PREFERENCES;
+            case STORE_NAME_LOGIN -> FIELD_INDEX_LOGIN;
+            case STORE_NAME_WALLET -> FIELD_INDEX_WALLET;
+            case STORE_NAME_EQUIPMENTS -> FIELD_INDEX_EQUIPMENTS;
+            case STORE_NAME_ITEMS -> FIELD_INDEX_ITEMS;
+            case STORE_NAME_UPDATED_VERSION -> FIELD_INDEX_UPDATED_VERSION;
+            case STORE_NAME_UPDATED_TIME -> FIELD_INDEX_UPDATED_TIME;
+            case STORE_NAME_FRIENDS -> FIELD_INDEX_FRIENDS;
+            default -> -1;
+        };
+    }
+
+    @Override
+    protected @Nullable BsonModel<?, ?> fieldModel(int fieldIndex) {
+        return switch (fieldIndex) {
+            case FIELD_INDEX_BASIC_INFO -> getBasicInfo();
+            case FIELD_INDEX_PREFERENCES -> getPreferences();
+            case FIELD_INDEX_LOGIN -> getLogin();
+            case FIELD_INDEX_WALLET -> getWallet();
+            case FIELD_INDEX_EQUIPMENTS -> getEquipments();
+            case FIELD_INDEX_ITEMS -> getItems();
+            default -> null;
+        };
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public PlayerStoreData toStoreData() {
+        checkComplete();
         var _storeData = new PlayerStoreData();
         _storeData.id = getId();
         _storeData.basicInfo = getBasicInfo().toStoreData();
         _storeData.preferences = getPreferences().toStoreData();
         _storeData.login = getLogin().toStoreData();
         _storeData.wallet = getWallet().toStoreData();
-        _storeData.equipments = (Map<String, Equipment.EquipmentStoreData>) getEquipments().toStoreData();
+        _storeData.equipments = equipments == null ? Map.of() : (Map<String, Equipment.EquipmentStoreData>) equipments.toStoreData();
         _storeData.items = (Map<String, Integer>) getItems().toStoreData();
         _storeData.updatedVersion = getUpdatedVersion();
         var _updatedTime = getUpdatedTime();
@@ -455,6 +731,36 @@ public final class Player extends AbstractRootModel<Player> {
         return _storeData;
     }
 
+    @Override
+    public void writeStoreData(JsonDataWriter writer) {
+        checkComplete();
+        writer.writeStartObject();
+        writer.writeName(JSON_STORE_NAME_ID).writeLong(getId());
+        writer.writeName(JSON_STORE_NAME_BASIC_INFO);
+        getBasicInfo().writeStoreData(writer);
+        writer.writeName(JSON_STORE_NAME_PREFERENCES);
+        getPreferences().writeStoreData(writer);
+        writer.writeName(JSON_STORE_NAME_LOGIN);
+        getLogin().writeStoreData(writer);
+        writer.writeName(JSON_STORE_NAME_WALLET);
+        getWallet().writeStoreData(writer);
+        writer.writeName(JSON_STORE_NAME_EQUIPMENTS);
+        var _equipments = equipments;
+        if (_equipments == null) {
+            writer.writeStartObject().writeEndObject();
+        } else {
+            _equipments.writeStoreData(writer);
+        }
+        writer.writeName(JSON_STORE_NAME_ITEMS);
+        getItems().writeStoreData(writer);
+        writer.writeName(JSON_STORE_NAME_UPDATED_VERSION).writeInt(getUpdatedVersion());
+        var _updatedTime = getUpdatedTime();
+        if (_updatedTime != null) {
+            writer.writeName(JSON_STORE_NAME_UPDATED_TIME).writeLong(DateTimeUtil.toEpochMilli(_updatedTime));
+        }
+        writer.writeEndObject();
+    }
+
     @Override
     public Player loadStoreData(Object data) {
         resetStates();
@@ -464,7 +770,9 @@ public final class Player extends AbstractRootModel<Player> {
             getPreferences().loadStoreData(_storeData.preferences);
             getLogin().loadStoreData(_storeData.login);
             getWallet().loadStoreData(_storeData.wallet);
-            getEquipments().loadStoreData(_storeData.equipments);
+            if ((_storeData.equipments != null && !_storeData.equipments.isEmpty()) || equipments != null) {
+                getEquipments().loadStoreData(_storeData.equipments);
+            }
             getItems().loadStoreData(_storeData.items);
             updatedVersion = _storeData.updatedVersion;
             var _updatedTime = _storeData.updatedTime;
@@ -475,6 +783,154 @@ public final class Player extends AbstractRootModel<Player> {
         return this;
     }
 
+    @Override
+    public Player readStoreData(JsonDataReader reader) {
+        clean();
+        if (reader.readNull()) {
+            return this;
+        }
+        reader.readStartObject();
+        for (var _name = reader.nextName(); _name != null; _name = reader.nextName()) {
+            switch (_name) {
+                case STORE_NAME_ID -> id = reader.readLong();
+                case STORE_NAME_BASIC_INFO -> getBasicInfo().readStoreData(reader);
+                case STORE_NAME_PREFERENCES -> getPreferences().readStoreData(reader);
+                case STORE_NAME_LOGIN -> getLogin().readStoreData(reader);
+                case STORE_NAME_WALLET -> getWallet().readStoreData(reader);
+                case STORE_NAME_EQUIPMENTS -> {
+                    var _equipments = equipments;
+                    if (_equipments != null) {
+                        _equipments.readStoreData(reader);
+                    } else {
+                        _equipments = DefaultMapModel.stringKeysMap(Equipment::new).readStoreData(reader);
+                        if (!_equipments.isEmpty()) {
+                            equipments = _equipments.parent(this).index(FIELD_INDEX_EQUIPMENTS).key(STORE_NAME_EQUIPMENTS);
+                        }
+                    }
+                }
+                case STORE_NAME_ITEMS -> getItems().readStoreData(reader);
+                case STORE_NAME_UPDATED_VERSION -> updatedVersion = reader.readInt();
+                case STORE_NAME_UPDATED_TIME -> updatedTime = reader.readNull() ? null : DateTimeUtil.ofEpochMilli(reader.readLong());
+                default -> reader.skipValue();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput out) {
+        var _id = getId();
+        if (_id != 0) {
+            out.writeFieldIndex(FIELD_INDEX_ID).writeLong(_id);
+        }
+        out.writeFieldIndex(FIELD_INDEX_BASIC_INFO);
+        getBasicInfo().writeSnapshot(out);
+        out.writeFieldIndex(FIELD_INDEX_PREFERENCES);
+        getPreferences().writeSnapshot(out);
+        out.writeFieldIndex(FIELD_INDEX_LOGIN);
+        getLogin().writeSnapshot(out);
+        out.writeFieldIndex(FIELD_INDEX_WALLET);
+        getWallet().writeSnapshot(out);
+        var _equipments = equipments;
+        if (_equipments != null && !_equipments.isEmpty()) {
+            out.writeFieldIndex(FIELD_INDEX_EQUIPMENTS);
+            _equipments.writeSnapshot(out);
+        }
+        out.writeFieldIndex(FIELD_INDEX_ITEMS);
+        getItems().writeSnapshot(out);
+        var _updatedVersion = getUpdatedVersion();
+        if (_updatedVersion != 0) {
+            out.writeFieldIndex(FIELD_INDEX_UPDATED_VERSION).writeInt(_updatedVersion);
+        }
+        var _updatedTime = getUpdatedTime();
+        if (_updatedTime != null) {
+            out.writeFieldIndex(FIELD_INDEX_UPDATED_TIME).writeDateTime(_updatedTime);
+        }
+        out.writeEndObject();
+    }
+
+    @Override
+    public Player readSnapshot(SnapshotInput in) {
+        clean();
+        for (var _index = in.nextFieldIndex(); _index >= 0; _index = in.nextFieldIndex()) {
+            switch (_index) {
+                case FIELD_INDEX_ID -> id = in.readLong();
+                case FIELD_INDEX_BASIC_INFO -> getBasicInfo().readSnapshot(in);
+                case FIELD_INDEX_PREFERENCES -> getPreferences().readSnapshot(in);
+                case FIELD_INDEX_LOGIN -> getLogin().readSnapshot(in);
+                case FIELD_INDEX_WALLET -> getWallet().readSnapshot(in);
+                case FIELD_INDEX_EQUIPMENTS -> getEquipments().readSnapshot(in);
+                case FIELD_INDEX_ITEMS -> getItems().readSnapshot(in);
+                case FIELD_INDEX_UPDATED_VERSION -> updatedVersion = in.readInt();
+                case FIELD_INDEX_UPDATED_TIME -> updatedTime = in.readDateTime();
+                default -> throw new IllegalStateException("Unknown field index " + _index + " in snapshot of Player");
+            }
+        }
+        return this;
+    }
+
+    @Override
+    protected void writeChangedFields(SnapshotOutput out) {
+        var changedFields = this.changedFields;
+        if (changedFields.get(FIELD_INDEX_ID)) {
+            out.writeFieldIndex(FIELD_INDEX_ID).writeLong(getId());
+        }
+        if (changedFields.get(FIELD_INDEX_BASIC_INFO)) {
+            out.writeFieldIndex(FIELD_INDEX_BASIC_INFO);
+            getBasicInfo().writeChanges(out);
+        }
+        if (changedFields.get(FIELD_INDEX_PREFERENCES)) {
+            out.writeFieldIndex(FIELD_INDEX_PREFERENCES);
+            getPreferences().writeChanges(out);
+        }
+        if (changedFields.get(FIELD_INDEX_LOGIN)) {
+            out.writeFieldIndex(FIELD_INDEX_LOGIN);
+            getLogin().writeChanges(out);
+        }
+        if (changedFields.get(FIELD_INDEX_WALLET)) {
+            out.writeFieldIndex(FIELD_INDEX_WALLET);
+            getWallet().writeChanges(out);
+        }
+        if (changedFields.get(FIELD_INDEX_EQUIPMENTS)) {
+            out.writeFieldIndex(FIELD_INDEX_EQUIPMENTS);
+            getEquipments().writeChanges(out);
+        }
+        if (changedFields.get(FIELD_INDEX_ITEMS)) {
+            out.writeFieldIndex(FIELD_INDEX_ITEMS);
+            getItems().writeChanges(out);
+        }
+        if (changedFields.get(FIELD_INDEX_UPDATED_VERSION)) {
+            out.writeFieldIndex(FIELD_INDEX_UPDATED_VERSION).writeInt(getUpdatedVersion());
+        }
+        if (changedFields.get(FIELD_INDEX_UPDATED_TIME)) {
+            var _updatedTime = getUpdatedTime();
+            if (_updatedTime != null) {
+                out.writeFieldIndex(FIELD_INDEX_UPDATED_TIME).writeBoolean(true).writeDateTime(_updatedTime);
+            } else {
+                out.writeFieldIndex(FIELD_INDEX_UPDATED_TIME).writeBoolean(false);
+            }
+        }
+    }
+
+    @Override
+    protected Player applyChangedFields(SnapshotInput in) {
+        for (var _index = in.nextFieldIndex(); _index >= 0; _index = in.nextFieldIndex()) {
+            switch (_index) {
+                case FIELD_INDEX_ID -> setId(in.readLong());
+                case FIELD_INDEX_BASIC_INFO -> getBasicInfo().applyChanges(in);
+                case FIELD_INDEX_PREFERENCES -> getPreferences().applyChanges(in);
+                case FIELD_INDEX_LOGIN -> getLogin().applyChanges(in);
+                case FIELD_INDEX_WALLET -> getWallet().applyChanges(in);
+                case FIELD_INDEX_EQUIPMENTS -> getEquipments().applyChanges(in);
+                case FIELD_INDEX_ITEMS -> getItems().applyChanges(in);
+                case FIELD_INDEX_UPDATED_VERSION -> setUpdatedVersion(in.readInt());
+                case FIELD_INDEX_UPDATED_TIME -> setUpdatedTime(in.readBoolean() ? in.readDateTime() : null);
+                default -> throw new IllegalStateException("Unknown field index " + _index + " in change set of Player");
+            }
+        }
+        return this;
+    }
+
     @Override
     public boolean anyUpdated() {
         if (isFullUpdate()) {
@@ -558,6 +1014,50 @@ public final class Player extends AbstractRootModel<Player> {
         }
     }
 
+    @Override
+    protected void writeDeletedFields(JsonDataWriter writer) {
+        var changedFields = this.changedFields;
+        if (changedFields.get(FIELD_INDEX_BASIC_INFO)) {
+            writer.deferName(JSON_NAME_BASIC_INFO);
+            if (!getBasicInfo().writeDeleted(writer)) {
+                writer.discardDeferredName();
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_PREFERENCES)) {
+            writer.deferName(JSON_NAME_PREFERENCES);
+            if (!getPreferences().writeDeleted(writer)) {
+                writer.discardDeferredName();
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_LOGIN)) {
+            writer.deferName(JSON_NAME_LOGIN);
+            if (!getLogin().writeDeleted(writer)) {
+                writer.discardDeferredName();
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_WALLET)) {
+            writer.deferName(JSON_NAME_WALLET);
+            if (!getWallet().writeDeleted(writer)) {
+                writer.discardDeferredName();
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_EQUIPMENTS)) {
+            writer.deferName(JSON_NAME_EQUIPMENTS);
+            if (!getEquipments().writeDeleted(writer)) {
+                writer.discardDeferredName();
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_ITEMS)) {
+            writer.deferName(JSON_NAME_ITEMS);
+            if (!getItems().writeDeleted(writer)) {
+                writer.discardDeferredName();
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_UPDATED_AT) && getUpdatedAt() == null) {
+            writer.writeName(JSON_NAME_UPDATED_AT).writeInt(BsonModelConstants.DELETED_VALUE);
+        }
+    }
+
     @Override
     public boolean anyDeleted() {
         if (isFullUpdate()) {
@@ -625,6 +1125,46 @@ public final class Player extends AbstractRootModel<Player> {
         return __size;
     }
 
+    @Override
+    public Player applyUpdated(Map<?, ?> data) {
+        for (var entry : data.entrySet()) {
+            var value = entry.getValue();
+            switch (String.valueOf(entry.getKey())) {
+                case DISPLAY_NAME_ID -> setId(DisplayDataUtil.longValue(value));
+                case DISPLAY_NAME_BASIC_INFO -> getBasicInfo().applyUpdated(DisplayDataUtil.mapValue(value));
+                case DISPLAY_NAME_PREFERENCES -> getPreferences().applyUpdated(DisplayDataUtil.mapValue(value));
+                case DISPLAY_NAME_LOGIN -> getLogin().applyUpdated(DisplayDataUtil.mapValue(value));
+                case DISPLAY_NAME_WALLET -> getWallet().applyUpdated(DisplayDataUtil.mapValue(value));
+                case DISPLAY_NAME_EQUIPMENTS -> getEquipments().applyUpdated(DisplayDataUtil.mapValue(value));
+                case DISPLAY_NAME_ITEMS -> getItems().applyUpdated(DisplayDataUtil.mapValue(value));
+                case DISPLAY_NAME_UPDATED_AT -> setUpdatedTime(DisplayDataUtil.dateTimeValue(value));
+                default -> {
+                    // virtual or unknown fields
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Player applyDeleted(Map<?, ?> data) {
+        for (var entry : data.entrySet()) {
+            switch (String.valueOf(entry.getKey())) {
+                case DISPLAY_NAME_BASIC_INFO -> getBasicInfo().applyDeleted(DisplayDataUtil.mapValue(entry.getValue()));
+                case DISPLAY_NAME_PREFERENCES -> getPreferences().applyDeleted(DisplayDataUtil.mapValue(entry.getValue()));
+                case DISPLAY_NAME_LOGIN -> getLogin().applyDeleted(DisplayDataUtil.mapValue(entry.getValue()));
+                case DISPLAY_NAME_WALLET -> getWallet().applyDeleted(DisplayDataUtil.mapValue(entry.getValue()));
+                case DISPLAY_NAME_EQUIPMENTS -> getEquipments().applyDeleted(DisplayDataUtil.mapValue(entry.getValue()));
+                case DISPLAY_NAME_ITEMS -> getItems().applyDeleted(DisplayDataUtil.mapValue(entry.getValue()));
+                case DISPLAY_NAME_UPDATED_AT -> setUpdatedTime(null);
+                default -> {
+                    // virtual or unknown fields
+                }
+            }
+        }
+        return this;
+    }
+
     @Override
     public Player deepCopy() {
         return new Player().deepCopyFrom(this);
@@ -637,7 +1177,10 @@ public final class Player extends AbstractRootModel<Player> {
         getPreferences().deepCopyFrom(src.getPreferences());
         getLogin().deepCopyFrom(src.getLogin());
         getWallet().deepCopyFrom(src.getWallet());
-        getEquipments().deepCopyFrom(src.getEquipments());
+        var _equipments = src.equipments;
+        if (_equipments != null) {
+            getEquipments().deepCopyFrom(_equipments);
+        }
         getItems().deepCopyFrom(src.getItems());
         updatedVersion = src.getUpdatedVersion();
         updatedTime = src.getUpdatedTime();
@@ -651,7 +1194,7 @@ public final class Player extends AbstractRootModel<Player> {
                 ", preferences=" + getPreferences() +
                 ", login=" + getLogin() +
                 ", wallet=" + getWallet() +
-                ", equipments=" + getEquipments() +
+                ", equipments=" + equipments +
                 ", items=" + getItems() +
                 ", updatedVersion=" + getUpdatedVersion() +
                 ", updatedTime=" + getUpdatedTime() +
@@ -2,6 +2,8 @@ package com.github.fmjsjx.bson.model3.core.model;
 
 import com.alibaba.fastjson2.annotation.JSONType;
 import com.github.fmjsjx.bson.model3.core.*;
+import com.github.fmjsjx.bson.model3.core.json.*;
+import com.github.fmjsjx.bson.model3.core.snapshot.*;
 import com.github.fmjsjx.bson.model3.core.util.*;
 import com.mongodb.client.model.Updates;
 import org.bson.*;
@@ -16,14 +18,29 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
     public static final String STORE_NAME_CUSTOM = "c";
     public static final String STORE_NAME_FEATURES = "f";
     public static final String STORE_NAME_ATTRIBUTES = "a";
+    public static final String STORE_NAME_EXTRAS = "x";
 
     public static final String DISPLAY_NAME_CUSTOM = "custom";
     public static final String DISPLAY_NAME_FEATURES = "features";
     public static final String DISPLAY_NAME_ATTRIBUTES = "attributes";
+    public static final String DISPLAY_NAME_EXTRAS = "extras";
+
+    public static final JsonFieldName JSON_NAME_CUSTOM = JsonFieldName.of(DISPLAY_NAME_CUSTOM);
+    public static final JsonFieldName JSON_NAME_FEATURES = JsonFieldName.of(DISPLAY_NAME_FEATURES);
+    public static final JsonFieldName JSON_NAME_ATTRIBUTES = JsonFieldName.of(DISPLAY_NAME_ATTRIBUTES);
+    public static final JsonFieldName JSON_NAME_EXTRAS = JsonFieldName.of(DISPLAY_NAME_EXTRAS);
+
+    public static final JsonFieldName JSON_STORE_NAME_CUSTOM = JsonFieldName.of(STORE_NAME_CUSTOM);
+    public static final JsonFieldName JSON_STORE_NAME_FEATURES = JsonFieldName.of(STORE_NAME_FEATURES);
+    public static final JsonFieldName JSON_STORE_NAME_ATTRIBUTES = JsonFieldName.of(STORE_NAME_ATTRIBUTES);
+    public static final JsonFieldName JSON_STORE_NAME_EXTRAS = JsonFieldName.of(STORE_NAME_EXTRAS);
 
     public static final int FIELD_INDEX_CUSTOM = 0;
     public static final int FIELD_INDEX_FEATURES = 1;
     public static final int FIELD_INDEX_ATTRIBUTES = 2;
+    public static final int FIELD_INDEX_EXTRAS = 3;
+
+    public static final long SNAPSHOT_FINGERPRINT = Snapshots.fingerprint("0:string,1:std-list<string>,2:map<string,string>,3:object", DynamicObjectModel.SNAPSHOT_FINGERPRINT);
 
     @JSONType(alphabetic = false)
     public static final class PreferencesStoreData {
@@ -39,6 +56,10 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
         @com.fasterxml.jackson.annotation.JsonProperty(STORE_NAME_ATTRIBUTES)
         @com.jsoniter.annotation.JsonProperty(value = STORE_NAME_ATTRIBUTES, implementation = LinkedHashMap.class)
         private Map<String, String> attributes;
+        @com.alibaba.fastjson2.annotation.JSONField(name = STORE_NAME_EXTRAS)
+        @com.fasterxml.jackson.annotation.JsonProperty(STORE_NAME_EXTRAS)
+        @com.jsoniter.annotation.JsonProperty(value = STORE_NAME_EXTRAS, implementation = LinkedHashMap.class)
+        private @Nullable Map<String, Object> extras;
 
         public @Nullable String getCustom() {
             return custom;
@@ -63,12 +84,21 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
         public void setAttributes(Map<String, String> attributes) {
             this.attributes = attributes;
         }
+
+        public @Nullable Map<String, Object> getExtras() {
+            return extras;
+        }
+
+        public void setExtras(@Nullable Map<String, Object> extras) {
+            this.extras = extras;
+        }
     }
 
     private @Nullable String custom;
-    private @Nullable List<@Nullable String> features;
-    private final SingleValueMapModel<String, String> attributes = SingleValueMapModel.stringKeysMap(SingleValues.string())
+    private final TrackedList<@Nullable String> features = new TrackedList<>(this, FIELD_INDEX_FEATURES);
+    private final SingleValueMapModel<String, String> attributes = SingleValueMapModel.compactStringKeysMap(SingleValues.string())
             .parent(this).index(FIELD_INDEX_ATTRIBUTES).key(STORE_NAME_ATTRIBUTES);
+    private @Nullable DynamicObjectModel extras;
 
     public @Nullable String getCustom() {
         return custom;
@@ -82,12 +112,12 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
     }
 
     public @Nullable List<@Nullable String> getFeatures() {
-        return features;
+        return features.orNull();
     }
 
     public void setFeatures(@Nullable List<@Nullable String> features) {
-        if (!Objects.equals(this.features, features)) {
-            this.features = features;
+        if (!Objects.equals(this.features.orNull(), features)) {
+            this.features.replace(features);
             triggerChange(FIELD_INDEX_FEATURES);
         }
     }
@@ -96,17 +126,46 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
         return attributes;
     }
 
+    public @Nullable DynamicObjectModel getExtras() {
+        return extras;
+    }
+
+    public void setExtras(@Nullable DynamicObjectModel extras) {
+        if (!Objects.equals(this.extras, extras)) {
+            if (extras != null) {
+                extras.ensureDetached();
+                if (this.extras != null) {
+                    this.extras.detach();
+                }
+                this.extras = extras.parent(this).index(FIELD_INDEX_EXTRAS).key(STORE_NAME_EXTRAS).fullUpdate();
+            } else {
+                this.extras.detach();
+                this.extras = null;
+            }
+            triggerChange(FIELD_INDEX_EXTRAS);
+        }
+    }
+
     @Override
     protected Preferences resetChildren() {
         getAttributes().reset();
+        var _extras = getExtras();
+        if (_extras != null) {
+            _extras.reset();
+        }
         return this;
     }
 
     @Override
     protected Preferences cleanFields() {
         custom = null;
-        features = null;
+        features.load(null);
         getAttributes().clean();
+        var _extras = getExtras();
+        if (_extras != null) {
+            _extras.clean().detach();
+            extras = null;
+        }
         return this;
     }
 
@@ -129,12 +188,20 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
             if (_features == null) {
                 updates.add(Updates.unset(path().path(STORE_NAME_FEATURES)));
             } else {
-                updates.add(Updates.set(path().path(STORE_NAME_FEATURES), BsonValueUtil.toBsonArray(_features, BsonString::new)));
+                updates.add(features.toUpdate(path().path(STORE_NAME_FEATURES), BsonString::new));
             }
         }
         if (changedFields.get(FIELD_INDEX_ATTRIBUTES)) {
             getAttributes().appendUpdates(updates);
         }
+        if (changedFields.get(FIELD_INDEX_EXTRAS)) {
+            var _extras = getExtras();
+            if (_extras == null) {
+                updates.add(Updates.unset(path().path(STORE_NAME_EXTRAS)));
+            } else {
+                _extras.appendUpdates(updates);
+            }
+        }
     }
 
     @Override
@@ -161,6 +228,50 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
                 data.put(DISPLAY_NAME_ATTRIBUTES, _attributes);
             }
         }
+        if (changedFields.get(FIELD_INDEX_EXTRAS)) {
+            var _extras = getExtras();
+            if (_extras != null) {
+                var _extrasUpdated = _extras.toUpdated();
+                if (_extrasUpdated != null) {
+                    data.put(DISPLAY_NAME_EXTRAS, _extrasUpdated);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void writeUpdatedFields(JsonDataWriter writer) {
+        var changedFields = this.changedFields;
+        if (changedFields.isEmpty()) {
+            return;
+        }
+        if (changedFields.get(FIELD_INDEX_CUSTOM)) {
+            var _custom = getCustom();
+            if (_custom != null) {
+                writer.writeName(JSON_NAME_CUSTOM).writeString(_custom);
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_FEATURES)) {
+            var _features = getFeatures();
+            if (_features != null) {
+                writer.writeName(JSON_NAME_FEATURES).writeArray(_features);
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_ATTRIBUTES)) {
+            writer.deferName(JSON_NAME_ATTRIBUTES);
+            if (!getAttributes().writeUpdated(writer)) {
+                writer.discardDeferredName();
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_EXTRAS)) {
+            var _extras = getExtras();
+            if (_extras != null) {
+                writer.deferName(JSON_NAME_EXTRAS);
+                if (!_extras.writeUpdated(writer)) {
+                    writer.discardDeferredName();
+                }
+            }
+        }
     }
 
     @Override
@@ -175,9 +286,34 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
             _displayData.put(DISPLAY_NAME_FEATURES, new ArrayList<>(_features));
         }
         _displayData.put(DISPLAY_NAME_ATTRIBUTES, getAttributes().toDisplayData());
+        var _extras = getExtras();
+        if (_extras != null) {
+            _displayData.put(DISPLAY_NAME_EXTRAS, _extras.toDisplayData());
+        }
         return _displayData;
     }
 
+    @Override
+    public void writeDisplayData(JsonDataWriter writer) {
+        writer.writeStartObject();
+        var _custom = getCustom();
+        if (_custom != null) {
+            writer.writeName(JSON_NAME_CUSTOM).writeString(_custom);
+        }
+        var _features = getFeatures();
+        if (_features != null) {
+            writer.writeName(JSON_NAME_FEATURES).writeArray(_features);
+        }
+        writer.writeName(JSON_NAME_ATTRIBUTES);
+        getAttributes().writeDisplayData(writer);
+        var _extras = getExtras();
+        if (_extras != null) {
+            writer.writeName(JSON_NAME_EXTRAS);
+            _extras.writeDisplayData(writer);
+        }
+        writer.writeEndObject();
+    }
+
     @Override
     public BsonDocument toBsonValue() {
         var _bsonValue = new BsonDocument();
@@ -190,6 +326,37 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
             _bsonValue.put(STORE_NAME_FEATURES, BsonValueUtil.toBsonArray(_features, BsonString::new));
         }
         _bsonValue.put(STORE_NAME_ATTRIBUTES, getAttributes().toBsonValue());
+        var _extras = getExtras();
+        if (_extras != null) {
+            _bsonValue.put(STORE_NAME_EXTRAS, _extras.toBsonValue());
+        }
+        return _bsonValue;
+    }
+
+    @Override
+    protected BsonDocument toBsonValue(BitSet fieldIndexes) {
+        var _bsonValue = new BsonDocument();
+        if (fieldIndexes.get(FIELD_INDEX_CUSTOM)) {
+            var _custom = getCustom();
+            if (_custom != null) {
+                _bsonValue.put(STORE_NAME_CUSTOM, new BsonString(_custom));
+            }
+        }
+        if (fieldIndexes.get(FIELD_INDEX_FEATURES)) {
+            var _features = getFeatures();
+            if (_features != null) {
+                _bsonValue.put(STORE_NAME_FEATURES, BsonValueUtil.toBsonArray(_features, BsonString::new));
+            }
+        }
+        if (fieldIndexes.get(FIELD_INDEX_ATTRIBUTES)) {
+            _bsonValue.put(STORE_NAME_ATTRIBUTES, getAttributes().toBsonValue());
+        }
+        if (fieldIndexes.get(FIELD_INDEX_EXTRAS)) {
+            var _extras = getExtras();
+            if (_extras != null) {
+                _bsonValue.put(STORE_NAME_EXTRAS, _extras.toBsonValue());
+            }
+        }
         return _bsonValue;
     }
 
@@ -197,11 +364,84 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
     public Preferences load(BsonDocument src) {
         resetStates();
         custom = BsonUtil.stringValue(src, STORE_NAME_CUSTOM).orElse(null);
-        features = BsonUtil.arrayValue(src, STORE_NAME_FEATURES).map(BsonValueUtil::mapToStringList).orElse(null);
+        features.load(BsonUtil.arrayValue(src, STORE_NAME_FEATURES).map(BsonValueUtil::mapToStringList).orElse(null));
         BsonUtil.documentValue(src, STORE_NAME_ATTRIBUTES).ifPresentOrElse(getAttributes()::load, getAttributes()::clean);
+        BsonUtil.documentValue(src, STORE_NAME_EXTRAS).ifPresentOrElse(
+                it -> {
+                    var _extras = this.extras;
+                    if (_extras != null) {
+                        _extras.load(it);
+                    } else {
+                        this.extras = new DynamicObjectModel()
+                                .parent(this).index(FIELD_INDEX_EXTRAS).key(STORE_NAME_EXTRAS)
+                                .load(it);
+                    }
+                },
+                () -> {
+                    var _extras = this.extras;
+                    if (_extras != null) {
+                        _extras.detach();
+                        this.extras = null;
+                    }
+                }
+        );
         return this;
     }
 
+    @Override
+    protected void loadFields(BsonDocument src, BitSet fieldIndexes) {
+        if (fieldIndexes.get(FIELD_INDEX_CUSTOM)) {
+            custom = BsonUtil.stringValue(src, STORE_NAME_CUSTOM).orElse(null);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_FEATURES)) {
+            features.load(BsonUtil.arrayValue(src, STORE_NAME_FEATURES).map(BsonValueUtil::mapToStringList).orElse(null));
+        }
+        if (fieldIndexes.get(FIELD_INDEX_ATTRIBUTES)) {
+            BsonUtil.documentValue(src, STORE_NAME_ATTRIBUTES).ifPresentOrElse(getAttributes()::load, getAttributes()::clean);
+        }
+        if (fieldIndexes.get(FIELD_INDEX_EXTRAS)) {
+            BsonUtil.documentValue(src, STORE_NAME_EXTRAS).ifPresentOrElse(
+                    it -> {
+                        var _extras = this.extras;
+                        if (_extras != null) {
+                            _extras.load(it);
+                        } else {
+                            this.extras = new DynamicObjectModel()
+                                    .parent(this).index(FIELD_INDEX_EXTRAS).key(STORE_NAME_EXTRAS)
+                                    .load(it);
+                        }
+                    },
+                    () -> {
+                        var _extras = this.extras;
+                        if (_extras != null) {
+                            _extras.detach();
+                            this.extras = null;
+                        }
+                    }
+            );
+        }
+    }
+
+    @Override
+    protected int fieldIndex(String storeName) {
+        return switch (storeName) {
+            case STORE_NAME_CUSTOM -> FIELD_INDEX_CUSTOM;
+            case STORE_NAME_FEATURES -> FIELD_INDEX_FEATURES;
+            case STORE_NAME_ATTRIBUTES -> FIELD_INDEX_ATTRIBUTES;
+            case STORE_NAME_EXTRAS -> FIELD_INDEX_EXTRAS;
+            default -> -1;
+        };
+    }
+
+    @Override
+    protected @Nullable BsonModel<?, ?> fieldModel(int fieldIndex) {
+        return switch (fieldIndex) {
+            case FIELD_INDEX_ATTRIBUTES -> getAttributes();
+            case FIELD_INDEX_EXTRAS -> getExtras();
+            default -> null;
+        };
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public PreferencesStoreData toStoreData() {
@@ -212,12 +452,37 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
         }
         var _features = getFeatures();
         if (_features != null) {
-            _storeData.features = _features;
+            _storeData.features = new ArrayList<>(_features);
         }
         _storeData.attributes = (Map<String, String>) getAttributes().toStoreData();
+        var _extras = getExtras();
+        if (_extras != null) {
+            _storeData.extras = _extras.toStoreData();
+        }
         return _storeData;
     }
 
+    @Override
+    public void writeStoreData(JsonDataWriter writer) {
+        writer.writeStartObject();
+        var _custom = getCustom();
+        if (_custom != null) {
+            writer.writeName(JSON_STORE_NAME_CUSTOM).writeString(_custom);
+        }
+        var _features = getFeatures();
+        if (_features != null) {
+            writer.writeName(JSON_STORE_NAME_FEATURES).writeArray(_features);
+        }
+        writer.writeName(JSON_STORE_NAME_ATTRIBUTES);
+        getAttributes().writeStoreData(writer);
+        var _extras = getExtras();
+        if (_extras != null) {
+            writer.writeName(JSON_STORE_NAME_EXTRAS);
+            _extras.writeStoreData(writer);
+        }
+        writer.writeEndObject();
+    }
+
     @Override
     public Preferences loadStoreData(Object data) {
         resetStates();
@@ -228,9 +493,137 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
             }
             var _features = _storeData.features;
             if (_features != null) {
-                features = _features;
+                features.load(_features);
             }
             getAttributes().loadStoreData(_storeData.attributes);
+            var _extras = _storeData.extras;
+            if (_extras != null) {
+                if (extras != null) {
+                    extras.loadStoreData(_extras);
+                } else {
+                    extras = new DynamicObjectModel()
+                            .parent(this).index(FIELD_INDEX_EXTRAS).key(STORE_NAME_EXTRAS).loadStoreData(_extras);
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Preferences readStoreData(JsonDataReader reader) {
+        clean();
+        if (reader.readNull()) {
+            return this;
+        }
+        reader.readStartObject();
+        for (var _name = reader.nextName(); _name != null; _name = reader.nextName()) {
+            switch (_name) {
+                case STORE_NAME_CUSTOM -> custom = reader.readNull() ? null : reader.readString();
+                case STORE_NAME_FEATURES -> features.load(reader.readNull() ? null : reader.readList(JsonDataReader::readString));
+                case STORE_NAME_ATTRIBUTES -> getAttributes().readStoreData(reader);
+                case STORE_NAME_EXTRAS -> {
+                    if (!reader.readNull()) {
+                        extras = new DynamicObjectModel()
+                                .parent(this).index(FIELD_INDEX_EXTRAS).key(STORE_NAME_EXTRAS).readStoreData(reader);
+                    }
+                }
+                default -> reader.skipValue();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput out) {
+        var _custom = getCustom();
+        if (_custom != null) {
+            out.writeFieldIndex(FIELD_INDEX_CUSTOM).writeString(_custom);
+        }
+        var _features = getFeatures();
+        if (_features != null) {
+            out.writeFieldIndex(FIELD_INDEX_FEATURES).writeList(_features, SnapshotOutput::writeString);
+        }
+        out.writeFieldIndex(FIELD_INDEX_ATTRIBUTES);
+        getAttributes().writeSnapshot(out);
+        var _extras = getExtras();
+        if (_extras != null) {
+            out.writeFieldIndex(FIELD_INDEX_EXTRAS);
+            _extras.writeSnapshot(out);
+        }
+        out.writeEndObject();
+    }
+
+    @Override
+    public Preferences readSnapshot(SnapshotInput in) {
+        clean();
+        for (var _index = in.nextFieldIndex(); _index >= 0; _index = in.nextFieldIndex()) {
+            switch (_index) {
+                case FIELD_INDEX_CUSTOM -> custom = in.readString();
+                case FIELD_INDEX_FEATURES -> features.load(in.readList(SnapshotInput::readString));
+                case FIELD_INDEX_ATTRIBUTES -> getAttributes().readSnapshot(in);
+                case FIELD_INDEX_EXTRAS -> extras = new DynamicObjectModel()
+                        .parent(this).index(FIELD_INDEX_EXTRAS).key(STORE_NAME_EXTRAS).readSnapshot(in);
+                default -> throw new IllegalStateException("Unknown field index " + _index + " in snapshot of Preferences");
+            }
+        }
+        return this;
+    }
+
+    @Override
+    protected void writeChangedFields(SnapshotOutput out) {
+        var changedFields = this.changedFields;
+        if (changedFields.get(FIELD_INDEX_CUSTOM)) {
+            var _custom = getCustom();
+            if (_custom != null) {
+                out.writeFieldIndex(FIELD_INDEX_CUSTOM).writeBoolean(true).writeString(_custom);
+            } else {
+                out.writeFieldIndex(FIELD_INDEX_CUSTOM).writeBoolean(false);
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_FEATURES)) {
+            var _features = getFeatures();
+            if (_features != null) {
+                out.writeFieldIndex(FIELD_INDEX_FEATURES).writeBoolean(true).writeList(_features, SnapshotOutput::writeString);
+            } else {
+                out.writeFieldIndex(FIELD_INDEX_FEATURES).writeBoolean(false);
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_ATTRIBUTES)) {
+            out.writeFieldIndex(FIELD_INDEX_ATTRIBUTES);
+            getAttributes().writeChanges(out);
+        }
+        if (changedFields.get(FIELD_INDEX_EXTRAS)) {
+            var _extras = getExtras();
+            if (_extras != null) {
+                out.writeFieldIndex(FIELD_INDEX_EXTRAS).writeBoolean(true);
+                _extras.writeChanges(out);
+            } else {
+                out.writeFieldIndex(FIELD_INDEX_EXTRAS).writeBoolean(false);
+            }
+        }
+    }
+
+    @Override
+    protected Preferences applyChangedFields(SnapshotInput in) {
+        for (var _index = in.nextFieldIndex(); _index >= 0; _index = in.nextFieldIndex()) {
+            switch (_index) {
+                case FIELD_INDEX_CUSTOM -> setCustom(in.readBoolean() ? in.readString() : null);
+                case FIELD_INDEX_FEATURES -> setFeatures(in.readBoolean() ? in.readList(SnapshotInput::readString) : null);
+                case FIELD_INDEX_ATTRIBUTES -> getAttributes().applyChanges(in);
+                case FIELD_INDEX_EXTRAS -> {
+                    if (in.readBoolean()) {
+                        var _extras = getExtras();
+                        if (_extras == null) {
+                            setExtras(new DynamicObjectModel().applyChanges(in));
+                        } else {
+                            _extras.applyChanges(in);
+                        }
+                    } else {
+                        setExtras(null);
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown field index " + _index + " in change set of Preferences");
+            }
         }
         return this;
     }
@@ -253,6 +646,10 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
         if (changedFields.get(FIELD_INDEX_ATTRIBUTES) && getAttributes().anyUpdated()) {
             return true;
         }
+        if (changedFields.get(FIELD_INDEX_EXTRAS)) {
+            var _extras = getExtras();
+            return _extras != null && _extras.anyUpdated();
+        }
         return false;
     }
 
@@ -271,6 +668,45 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
                 data.put(DISPLAY_NAME_ATTRIBUTES, _attributes);
             }
         }
+        if (changedFields.get(FIELD_INDEX_EXTRAS)) {
+            var _extras = getExtras();
+            if (_extras == null) {
+                data.put(DISPLAY_NAME_EXTRAS, BsonModelConstants.DELETED_VALUE);
+            } else {
+                var _extrasDeleted = _extras.toDeleted();
+                if (_extrasDeleted != null) {
+                    data.put(DISPLAY_NAME_EXTRAS, _extrasDeleted);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void writeDeletedFields(JsonDataWriter writer) {
+        var changedFields = this.changedFields;
+        if (changedFields.get(FIELD_INDEX_CUSTOM) && getCustom() == null) {
+            writer.writeName(JSON_NAME_CUSTOM).writeInt(BsonModelConstants.DELETED_VALUE);
+        }
+        if (changedFields.get(FIELD_INDEX_FEATURES) && getFeatures() == null) {
+            writer.writeName(JSON_NAME_FEATURES).writeInt(BsonModelConstants.DELETED_VALUE);
+        }
+        if (changedFields.get(FIELD_INDEX_ATTRIBUTES)) {
+            writer.deferName(JSON_NAME_ATTRIBUTES);
+            if (!getAttributes().writeDeleted(writer)) {
+                writer.discardDeferredName();
+            }
+        }
+        if (changedFields.get(FIELD_INDEX_EXTRAS)) {
+            var _extras = getExtras();
+            if (_extras == null) {
+                writer.writeName(JSON_NAME_EXTRAS).writeInt(BsonModelConstants.DELETED_VALUE);
+            } else {
+                writer.deferName(JSON_NAME_EXTRAS);
+                if (!_extras.writeDeleted(writer)) {
+                    writer.discardDeferredName();
+                }
+            }
+        }
     }
 
     @Override
@@ -291,6 +727,12 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
         if (changedFields.get(FIELD_INDEX_ATTRIBUTES) && getAttributes().anyDeleted()) {
             return true;
         }
+        if (changedFields.get(FIELD_INDEX_EXTRAS)) {
+            var _extras = getExtras();
+            if (_extras == null || _extras.anyDeleted()) {
+                return true;
+            }
+        }
         return false;
     }
 
@@ -313,9 +755,66 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
         if (changedFields.get(FIELD_INDEX_ATTRIBUTES)) {
             __size += getAttributes().deletedSize();
         }
+        if (changedFields.get(FIELD_INDEX_EXTRAS)) {
+            var _extras = getExtras();
+            if (_extras == null) {
+                __size++;
+            } else {
+                __size += _extras.deletedSize();
+            }
+        }
         return __size;
     }
 
+    @Override
+    public Preferences applyUpdated(Map<?, ?> data) {
+        for (var entry : data.entrySet()) {
+            var value = entry.getValue();
+            switch (String.valueOf(entry.getKey())) {
+                case DISPLAY_NAME_CUSTOM -> setCustom(DisplayDataUtil.stringValue(value));
+                case DISPLAY_NAME_FEATURES -> setFeatures(DisplayDataUtil.listValue(value, DisplayDataUtil::stringValue));
+                case DISPLAY_NAME_ATTRIBUTES -> getAttributes().applyUpdated(DisplayDataUtil.mapValue(value));
+                case DISPLAY_NAME_EXTRAS -> {
+                    var _extras = getExtras();
+                    if (_extras == null) {
+                        setExtras(new DynamicObjectModel().applyUpdated(DisplayDataUtil.mapValue(value)));
+                    } else {
+                        _extras.applyUpdated(DisplayDataUtil.mapValue(value));
+                    }
+                }
+                default -> {
+                    // virtual or unknown fields
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Preferences applyDeleted(Map<?, ?> data) {
+        for (var entry : data.entrySet()) {
+            switch (String.valueOf(entry.getKey())) {
+                case DISPLAY_NAME_CUSTOM -> setCustom(null);
+                case DISPLAY_NAME_FEATURES -> setFeatures(null);
+                case DISPLAY_NAME_ATTRIBUTES -> getAttributes().applyDeleted(DisplayDataUtil.mapValue(entry.getValue()));
+                case DISPLAY_NAME_EXTRAS -> {
+                    if (entry.getValue() instanceof Map<?, ?> _extrasDeleted) {
+                        var _extras = getExtras();
+                        if (_extras != null) {
+                            _extras.applyDeleted(_extrasDeleted);
+                        }
+                    } else {
+                        setExtras(null);
+                    }
+                }
+                default -> {
+                    // virtual or unknown fields
+                }
+            }
+        }
+        return this;
+    }
+
     @Override
     public Preferences deepCopy() {
         return new Preferences().deepCopyFrom(this);
@@ -324,13 +823,18 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
     @Override
     public Preferences deepCopyFrom(Preferences src) {
         custom = src.getCustom();
-        var _features = src.getFeatures();
-        if (_features != null) {
-            features = new ArrayList<>(_features);
-        } else {
-            features = null;
-        }
+        features.load(src.getFeatures());
         getAttributes().deepCopyFrom(src.getAttributes());
+        var _extras = getExtras();
+        if (_extras != null) {
+            _extras.detach();
+            this.extras = null;
+        }
+        _extras = src.getExtras();
+        if (_extras != null) {
+            this.extras = _extras.deepCopy()
+                    .parent(this).index(FIELD_INDEX_EXTRAS).key(STORE_NAME_EXTRAS);
+        }
         return this;
     }
 
@@ -339,6 +843,7 @@ public final class Preferences extends AbstractObjectModel<Preferences> {
         return "Preferences(custom=" + getCustom() +
                 ", features=" + getFeatures() +
                 ", attributes=" + getAttributes() +
+                ", extras=" + getExtras() +
                 ")";
     }
 